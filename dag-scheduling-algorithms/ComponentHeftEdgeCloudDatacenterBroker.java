@@ -0,0 +1,392 @@
+package dag_scheduling_algorithms;
+
+import java.text.DecimalFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.lists.VmList;
+
+import scheduling_evaluation.ConcurrentUtils;
+import scheduling_evaluation.Constants;
+import scheduling_evaluation.DagSchedulingMetrics;
+import scheduling_evaluation.DagUtils;
+import scheduling_evaluation.Pair;
+import scheduling_evaluation.ResourceAvailabilityTimeline;
+import scheduling_evaluation.Task;
+import scheduling_evaluation.TaskGraph;
+import scheduling_evaluation.TaskGraphAdjacency;
+import scheduling_evaluation.Types.TaskExecutionResourceStatus;
+
+/**
+ * Component-parallel HEFT, for task graphs made of independent lanes (e.g. the sequence pipelines of the Epigenomics workflows),
+ * see {@link TaskGraph#computeTaskComponents()}. The tasks of each component are scheduled with HEFT concurrently, on their own
+ * thread, against a private copy of the resource time slots. A component sharing the resources with the other ones, the computation
+ * times are scaled in its private schedule by the inverse of its share of the total computation cost (processor sharing).
+ * The merge step then schedules all the tasks in HEFT priority order on the actual resource time slots: each component task is kept
+ * on the resource of its private schedule (its start time being delayed if needed by the tasks of the other components), unless this
+ * resource can no longer execute it (limited battery capacity). These tasks and the tasks joining the components are scheduled with HEFT.
+ */
+public class ComponentHeftEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenterBroker {
+
+	/*
+	 * Arrival time of each task, looked up once instead of searching the cloudlet list for every EST
+	 * (read-only, shared by the component threads).
+	 */
+	private Map<Integer, Double> taskArrivalTimes;
+
+	public ComponentHeftEdgeCloudDatacenterBroker(String name, TaskGraph taskGraph) throws Exception {
+		super(name, taskGraph);
+
+		int taskCount = taskGraph.getTaskCount();
+		int resourceCount = taskGraph.getResourceCount();
+
+		this.taskToResourceMappings = new HashMap<Integer, Integer>(taskCount);
+
+		this.taskAFT = new HashMap<Integer, Double>(taskCount);
+
+		this.resourceAllocatedTimeSlots = new HashMap<Integer, List<Pair<Double, Double>>>(resourceCount);
+		for (Integer resource : this.taskGraph.getResources().keySet()) {
+			this.resourceAllocatedTimeSlots.put(resource, new LinkedList<Pair<Double, Double>>());
+		}
+	}
+
+	/**
+	 * Submit cloudlets to the created VMs.
+	 *
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	protected void submitCloudlets() {
+		Instant startTime = Instant.now();
+
+		this.taskArrivalTimes = new HashMap<Integer, Double>(this.taskGraph.getTaskCount());
+		for (Cloudlet cloudlet : getCloudletList()) {
+			this.taskArrivalTimes.put(cloudlet.getCloudletId(), ((Task) cloudlet).getArrivalTime());
+		}
+
+		this.taskGraph.clearAndPrecomputeCosts();
+		computeHeftRanks();
+		sortTasksByHeftRanks();
+
+		// DAG task scheduling.
+		Log.printLine("> " + this.sortedTasksByPriorityDesc.size() + " tasks to be scheduled");
+		computeSchedule();
+
+		DagUtils.setTaskCount(this.taskGraph.getTaskCount());
+
+		for (Cloudlet cloudlet : getCloudletList()) {
+			int taskId = cloudlet.getCloudletId();
+
+			// Based on the computed schedule, obtain the assigned resource for the current task.
+			Vm vm = VmList.getById(getVmsCreatedList(), this.taskToResourceMappings.get(taskId));
+			int vmId = vm.getId();
+
+			Task task = (Task) cloudlet;
+			TaskExecutionResourceStatus resourceStatus = canExecuteTaskOnResource(cloudlet, this.taskGraph.getTaskInputData(taskId), vm);
+			task.setResourceStatus(resourceStatus);
+
+			if (resourceStatus != TaskExecutionResourceStatus.SUCCESS) {
+				System.out.println(CloudSim.clock() + ": " + getName() + ": Cannot send cloudlet " + taskId + " to VM #" + vmId
+							+ " - Error: " + resourceStatus);
+				continue;
+			}
+
+			// Update the current capacity of the edge device's battery.
+			updateEdgeDeviceBattery(cloudlet, vm);
+
+			// Update the task's length according to the task's actual processing time on the selected resource.
+			Double computationTime = getCloudletComputationTime(taskId, vmId);
+			task.setTotalExecutionTime(computationTime);
+			cloudlet.setCloudletLength((long) (computationTime * vm.getMips()));
+
+			Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet " + taskId + " to VM #" + vmId);
+			cloudlet.setVmId(vmId);
+			send(getVmsToDatacentersMap().get(vmId), this.taskAFT.get(taskId) - computationTime, CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			cloudletsSubmitted++;
+			getCloudletSubmittedList().add(cloudlet);
+		}
+
+		// Remove submitted cloudlets from the waiting list.
+		for (Cloudlet cloudlet : getCloudletSubmittedList()) {
+			getCloudletList().remove(cloudlet);
+		}
+
+		Instant endTime = Instant.now();
+
+		Duration schedulingTimeDuration = Duration.between(startTime, endTime);
+		DagSchedulingMetrics.setSchedulingTimeDuration(schedulingTimeDuration);
+	}
+
+	private void computeSchedule() {
+		DecimalFormat dft = new DecimalFormat("##.###");
+
+		// Tasks of each component, in priority order.
+		int[] taskComponents = this.taskGraph.computeTaskComponents();
+		int componentCount = 0;
+		for (int taskComponent : taskComponents) {
+			componentCount = Math.max(componentCount, taskComponent + 1);
+		}
+		List<LinkedList<Integer>> componentTasks = new ArrayList<LinkedList<Integer>>(componentCount);
+		double[] componentComputationCosts = new double[componentCount];
+		for (int component = 0; component < componentCount; ++component) {
+			componentTasks.add(new LinkedList<Integer>());
+		}
+		double computationCost = 0.0;
+		for (Integer task : this.sortedTasksByPriorityDesc) {
+			int component = taskComponents[this.taskGraph.getTaskIndex(task)];
+			if (component != Constants.INVALID_RESULT_INT) {
+				componentTasks.get(component).add(task);
+				componentComputationCosts[component] += this.taskGraph.getAverageComputationCost(task);
+				computationCost += this.taskGraph.getAverageComputationCost(task);
+			}
+		}
+		Log.printLine("> " + componentCount + " independent components");
+
+		// Entry tasks, before the tasks of the components.
+		if (this.taskGraph.getEntryTasks() != null) {
+			for (Integer entryTask : this.taskGraph.getEntryTasks()) {
+				this.sortedTasksByPriorityDesc.remove(entryTask);
+				allocateTask(entryTask, this.taskGraph.getSchedulableResourcesByIndex(this.taskGraph.getTaskIndex(entryTask)), dft);
+			}
+		}
+
+		// Private schedules of the components, computed concurrently.
+		Map<Integer, Integer> componentTaskToResourceMappings = new HashMap<Integer, Integer>(this.taskGraph.getTaskCount());
+		if (componentCount > 1) {
+			List<ComponentSchedule> componentSchedules = new ArrayList<ComponentSchedule>(componentCount);
+			for (int component = 0; component < componentCount; ++component) {
+				double computationTimeScale = Math.min(componentCount, computationCost / Math.max(componentComputationCosts[component], Double.MIN_VALUE));
+				componentSchedules.add(new ComponentSchedule(componentTasks.get(component), computationTimeScale));
+			}
+
+			ExecutorService executor = Executors.newFixedThreadPool(Math.min(componentCount, Runtime.getRuntime().availableProcessors()));
+			CountDownLatch latch = new CountDownLatch(componentCount);
+			for (ComponentSchedule componentSchedule : componentSchedules) {
+				executor.submit(() -> {
+					try {
+						componentSchedule.computeSchedule();
+					} finally {
+						latch.countDown();
+					}
+				});
+			}
+			try {
+				latch.await();
+			} catch (InterruptedException e) {
+				Log.printLine("< Count down latch interrupted; waiting for 60 seconds then killing non-finished tasks");
+				e.printStackTrace();
+			}
+			ConcurrentUtils.stop(executor);
+
+			for (ComponentSchedule componentSchedule : componentSchedules) {
+				componentTaskToResourceMappings.putAll(componentSchedule.getTaskToResourceMappings());
+			}
+		}
+
+		// Merge step.
+		while (!this.sortedTasksByPriorityDesc.isEmpty()) {
+			Integer task = Constants.INVALID_RESULT_INT;
+			try {
+				task = this.sortedTasksByPriorityDesc.getFirst();
+				int taskIdx = this.taskGraph.getTaskIndex(task);
+				Log.printLine("> Attempt to schedule task " + task);
+
+				this.sortedTasksByPriorityDesc.remove(task);
+
+				int newResourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
+				Integer componentResource = componentTaskToResourceMappings.get(task);
+				if (componentResource != null) {
+					BitSet candidateResources = new BitSet();
+					candidateResources.set(componentResource);
+					newResourceAllocatedTimeSlotIdx = allocateTask(task, candidateResources, dft);
+				}
+				if (newResourceAllocatedTimeSlotIdx == Constants.INVALID_RESULT_INT) {
+					newResourceAllocatedTimeSlotIdx = allocateTask(task, this.taskGraph.getSchedulableResourcesByIndex(taskIdx), dft);
+				}
+				if (newResourceAllocatedTimeSlotIdx == Constants.INVALID_RESULT_INT) {
+					Log.printLine("Task " + task + " cannot be executed on any resource");
+				}
+			} finally {
+				Log.printLine("< Finalized attempt to schedule task " + task);
+			}
+		}
+	}
+
+	/**
+	 * Allocates the task to the candidate resource minimizing its EFT.
+	 * @return Index of the allocated time slot, INVALID_RESULT_INT if none of the candidate resources can execute the task.
+	 */
+	private int allocateTask(Integer task, BitSet candidateResources, DecimalFormat dft) {
+		int taskIdx = this.taskGraph.getTaskIndex(task);
+		Double taskEFT = Double.MAX_VALUE;
+		Double taskEST = Constants.INVALID_RESULT_DOUBLE;
+		Integer allocatedResource = Constants.INVALID_RESULT_INT;
+		int newResourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
+
+		for (int resource = candidateResources.nextSetBit(0); resource >= 0; resource = candidateResources.nextSetBit(resource + 1)) {
+			if (!canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
+				continue;
+			}
+
+			Double computationCost = this.taskGraph.getComputationCostByIndex(taskIdx, resource);
+			Double EST = computeEST(task, resource);
+			Double EFT = computationCost + EST;
+			if (EFT < taskEFT) {
+				taskEFT = EFT;
+				taskEST = EST;
+				allocatedResource = resource;
+				newResourceAllocatedTimeSlotIdx = this.resourceAllocatedTimeSlotIdx;
+			}
+		}
+		if (newResourceAllocatedTimeSlotIdx == Constants.INVALID_RESULT_INT) {
+			return Constants.INVALID_RESULT_INT;
+		}
+
+		Double taskPriority = this.taskHeftRankMappings.get(task);
+		Log.printLine("Task " + task + " (Priority: " + dft.format(taskPriority) + ")"
+					+ " -> " + "Resource #" + allocatedResource + " -> " + "AFT: " + taskEFT);
+		this.taskToResourceMappings.put(task, allocatedResource);
+		this.taskAFT.put(task, taskEFT);
+		Pair<Double, Double> newResourceAllocatedTimeSlot = new Pair<Double, Double>(taskEST, taskEFT);
+		this.resourceAllocatedTimeSlots.get(allocatedResource).add(newResourceAllocatedTimeSlotIdx, newResourceAllocatedTimeSlot);
+		return newResourceAllocatedTimeSlotIdx;
+	}
+
+	/**
+	 * HEFT schedule of the tasks of a component against a private copy of the resource time slots (including the entry tasks),
+	 * with scaled computation times. The battery capacities are only checked by the merge step.
+	 */
+	private class ComponentSchedule {
+
+		private final LinkedList<Integer> tasks;
+		private final double computationTimeScale;
+
+		private final Map<Integer, Integer> taskToResourceMappings;
+		private final Map<Integer, Double> taskAFT;
+		private final Map<Integer, List<Pair<Double, Double>>> resourceAllocatedTimeSlots;
+		private int resourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
+
+		public ComponentSchedule(LinkedList<Integer> tasks, double computationTimeScale) {
+			TaskGraph taskGraph = ComponentHeftEdgeCloudDatacenterBroker.this.taskGraph;
+			this.tasks = tasks;
+			this.computationTimeScale = computationTimeScale;
+
+			this.taskToResourceMappings = new HashMap<Integer, Integer>(ComponentHeftEdgeCloudDatacenterBroker.this.taskToResourceMappings);
+			this.taskAFT = new HashMap<Integer, Double>(ComponentHeftEdgeCloudDatacenterBroker.this.taskAFT);
+			this.resourceAllocatedTimeSlots = new HashMap<Integer, List<Pair<Double, Double>>>(taskGraph.getResourceCount());
+			for (Map.Entry<Integer, List<Pair<Double, Double>>> resourceEntry : ComponentHeftEdgeCloudDatacenterBroker.this.resourceAllocatedTimeSlots.entrySet()) {
+				this.resourceAllocatedTimeSlots.put(resourceEntry.getKey(), new ArrayList<Pair<Double, Double>>(resourceEntry.getValue()));
+			}
+		}
+
+		public Map<Integer, Integer> getTaskToResourceMappings() {
+			return this.taskToResourceMappings;
+		}
+
+		public void computeSchedule() {
+			TaskGraph taskGraph = ComponentHeftEdgeCloudDatacenterBroker.this.taskGraph;
+			for (Integer task : this.tasks) {
+				int taskIdx = taskGraph.getTaskIndex(task);
+
+				Double taskEFT = Double.MAX_VALUE;
+				Double taskEST = Constants.INVALID_RESULT_DOUBLE;
+				Integer allocatedResource = Constants.INVALID_RESULT_INT;
+				int newResourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
+
+				BitSet schedulableResources = taskGraph.getSchedulableResourcesByIndex(taskIdx);
+				for (int resource = schedulableResources.nextSetBit(0); resource >= 0; resource = schedulableResources.nextSetBit(resource + 1)) {
+					Double computationTime = this.computationTimeScale * taskGraph.getComputationCostByIndex(taskIdx, resource);
+					Double EST = computeEST(task, taskIdx, resource, computationTime);
+					Double EFT = computationTime + EST;
+					if (EFT < taskEFT) {
+						taskEFT = EFT;
+						taskEST = EST;
+						allocatedResource = resource;
+						newResourceAllocatedTimeSlotIdx = this.resourceAllocatedTimeSlotIdx;
+					}
+				}
+				if (newResourceAllocatedTimeSlotIdx == Constants.INVALID_RESULT_INT) {
+					// Scheduled by the merge step.
+					continue;
+				}
+
+				this.taskToResourceMappings.put(task, allocatedResource);
+				this.taskAFT.put(task, taskEFT);
+				this.resourceAllocatedTimeSlots.get(allocatedResource).add(newResourceAllocatedTimeSlotIdx, new Pair<Double, Double>(taskEST, taskEFT));
+			}
+		}
+
+		// See DefaultDagEdgeCloudDatacenterBroker.computeEST(), on the private time slots.
+		private Double computeEST(Integer task, int taskIdx, int resource, Double computationTime) {
+			TaskGraph taskGraph = ComponentHeftEdgeCloudDatacenterBroker.this.taskGraph;
+
+			// Task's arrival time.
+			Double taskArrivalTime = ComponentHeftEdgeCloudDatacenterBroker.this.taskArrivalTimes.get(task);
+			ResourceAvailabilityTimeline resourceAvailabilityTimeline = taskGraph.getResourceAvailabilityTimeline();
+			Double taskResourceAvailabilityTime = resourceAvailabilityTimeline.getAvailabilityStartTime(resource, taskArrivalTime, computationTime);
+			if (taskResourceAvailabilityTime == Double.POSITIVE_INFINITY) {
+				return taskResourceAvailabilityTime;
+			}
+			Double resourceAvailabilityTime = taskResourceAvailabilityTime;
+
+			// Ready time of the task on the resource (the predecessor tasks are the entry tasks and tasks of the component).
+			Double taskReadyTime = taskArrivalTime;
+			TaskGraphAdjacency adjacency = taskGraph.getAdjacency();
+			int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+			for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+				Integer predTask = taskGraph.getTask(adjacency.getPredecessorTask(predecessorIdx));
+				Integer predResource = this.taskToResourceMappings.get(predTask);
+				if (predResource == null) {
+					continue;
+				}
+
+				Double communicationTime = taskGraph.getCommunicationCostByIndex(adjacency.getPredecessorDependency(predecessorIdx), predResource, resource);
+				Double predTaskReadyTime = Math.max(this.taskAFT.get(predTask), taskResourceAvailabilityTime) + communicationTime;
+				if (predTaskReadyTime > taskReadyTime) {
+					taskReadyTime = predTaskReadyTime;
+				}
+			}
+
+			// Earliest available time of the resource, including the idle time slots (start times checked against the availability).
+			this.resourceAllocatedTimeSlotIdx = 0;
+
+			List<Pair<Double, Double>> allocatedTimeSlots = this.resourceAllocatedTimeSlots.get(resource);
+			if (allocatedTimeSlots.isEmpty()) {
+				return resourceAvailabilityTimeline.getAvailabilityStartTime(resource, Math.max(resourceAvailabilityTime, taskReadyTime), computationTime);
+			}
+
+			int allocatedTimeSlotCount = allocatedTimeSlots.size();
+			while (this.resourceAllocatedTimeSlotIdx < allocatedTimeSlotCount) {
+				Double idleSlotStartTime = this.resourceAllocatedTimeSlotIdx == 0 ? resourceAvailabilityTime : allocatedTimeSlots.get(this.resourceAllocatedTimeSlotIdx-1).getValue();
+				Double idleSlotFinishTime = allocatedTimeSlots.get(this.resourceAllocatedTimeSlotIdx).getKey();
+
+				double slotStartTime = resourceAvailabilityTimeline.getAvailabilityStartTime(resource, Math.max(idleSlotStartTime, taskReadyTime), computationTime);
+				if (slotStartTime + computationTime <= idleSlotFinishTime) {
+					return slotStartTime;
+				}
+
+				++this.resourceAllocatedTimeSlotIdx;
+			}
+
+			Double lastAllocatedSlotFinishTime = allocatedTimeSlots.get(allocatedTimeSlotCount-1).getValue();
+			return resourceAvailabilityTimeline.getAvailabilityStartTime(resource, Math.max(lastAllocatedSlotFinishTime, taskReadyTime), computationTime);
+		}
+
+	}
+
+}
@@ -3,10 +3,10 @@ package dag_scheduling_algorithms;
 import java.text.DecimalFormat;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.PriorityQueue;
 
 import org.cloudbus.cloudsim.Cloudlet;
@@ -22,8 +22,7 @@ import scheduling_evaluation.DagUtils;
 import scheduling_evaluation.Pair;
 import scheduling_evaluation.Task;
 import scheduling_evaluation.TaskGraph;
-import scheduling_evaluation.TaskUtils;
-import scheduling_evaluation.Types.ResourceType;
+import scheduling_evaluation.TaskGraphAdjacency;
 import scheduling_evaluation.Types.TaskExecutionResourceStatus;
 
 public class CpopEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenterBroker {
@@ -119,7 +118,7 @@ public class CpopEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenter
 
 		while (!this.cpopTasks.isEmpty()) {
 			Integer task = this.cpopTasks.poll();
-			double taskDataSize = this.taskGraph.getTaskInputData(task);
+			int taskIdx = this.taskGraph.getTaskIndex(task);
 			Log.printLine("> Attempt to schedule task " + task);
 
 			Double taskEFT = Double.MAX_VALUE;
@@ -128,7 +127,7 @@ public class CpopEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenter
 			int newResourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
 
 			if (criticalPathTasks.contains(task)) {
-				Double computationCost = this.taskGraph.getComputationCost(task, criticalPathResource);
+				Double computationCost = this.taskGraph.getComputationCostByIndex(taskIdx, criticalPathResource);
 				Double EST = computeEST(task, criticalPathResource);
 				Double EFT = computationCost + EST;
 
@@ -137,16 +136,13 @@ public class CpopEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenter
 				allocatedResource = criticalPathResource;
 				newResourceAllocatedTimeSlotIdx = this.resourceAllocatedTimeSlotIdx;
 			} else {
-				for (Map.Entry<Integer, ResourceType> resourceEntry : this.taskGraph.getResources().entrySet()) {
-					Integer resource = resourceEntry.getKey();
-					ResourceType resourceType = resourceEntry.getValue();
-
-					if (!TaskUtils.canExecuteTaskOnResourceWithLimitedMemoryCapacity(taskDataSize, resourceType)
-						|| !canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
+				BitSet schedulableResources = this.taskGraph.getSchedulableResourcesByIndex(taskIdx);
+				for (int resource = schedulableResources.nextSetBit(0); resource >= 0; resource = schedulableResources.nextSetBit(resource + 1)) {
+					if (!canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
 						continue;
 					}
 
-					Double computationCost = this.taskGraph.getComputationCost(task, resource);
+					Double computationCost = this.taskGraph.getComputationCostByIndex(taskIdx, resource);
 					Double EST = computeEST(task, resource);
 					Double EFT = computationCost + EST;
 					if (EFT < taskEFT) {
@@ -166,7 +162,10 @@ public class CpopEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenter
 			Pair<Double, Double> newResourceAllocatedTimeSlot = new Pair<Double, Double>(taskEST, taskEFT);
 			this.resourceAllocatedTimeSlots.get(allocatedResource).add(newResourceAllocatedTimeSlotIdx, newResourceAllocatedTimeSlot);
 
-			for (Integer succTask : this.taskGraph.getSuccessorTasksInfo(task).keySet()) {
+			TaskGraphAdjacency adjacency = this.taskGraph.getAdjacency();
+			int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+			for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+				Integer succTask = this.taskGraph.getTask(adjacency.getSuccessorTask(dependencyIdx));
 				if (isReadyTask(succTask)) {
 					this.cpopTasks.add(succTask);
 				}
@@ -1,8 +1,7 @@
 package dag_scheduling_algorithms;
 
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -11,12 +10,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.Random;
-import java.util.Scanner;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Log;
@@ -29,10 +25,13 @@ import scheduling_evaluation.DagUtils;
 import scheduling_algorithms.DefaultEdgeCloudDatacenterBroker;
 import scheduling_evaluation.Constants;
 import scheduling_evaluation.Pair;
+import scheduling_evaluation.ResourceAvailabilityTimeline;
 import scheduling_evaluation.SimulationUtils;
 import scheduling_evaluation.Task;
 import scheduling_evaluation.TaskGraph;
-import scheduling_evaluation.TaskUtils;
+import scheduling_evaluation.TaskGraphAdjacency;
+import scheduling_evaluation.TaskGraphAnalytics;
+import scheduling_evaluation.TaskSubgraphBundle;
 import scheduling_evaluation.Types.ResourceType;
 
 public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacenterBroker {
@@ -67,14 +66,35 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 	/* Used only for dynamic task scheduling. */
 	protected int taskSubgraphCount = Constants.INVALID_RESULT_INT;
 	protected List<Double> taskSubgraphArrivalTimes = null;
-	protected List<String> taskSubgraphFilenames = null;
+	protected TaskSubgraphBundle taskSubgraphBundle = null;
 
-	private static final Integer seed = new Random().nextInt();
+	// Seed of the random decisions of the broker: tie breakers of the task ranks, random task selection (see setSeed()).
+	protected int seed;
+	protected Random random;
 
 	public DefaultDagEdgeCloudDatacenterBroker(String name, TaskGraph taskGraph) throws Exception {
 		super(name);
 
 		this.taskGraph = taskGraph;
+		this.seed = new Random().nextInt();
+		this.random = new Random(this.seed);
+	}
+
+	/**
+	 * Sets the seed of the random decisions of the broker, before the simulation starts (one seed per execution, see DagSimulation),
+	 * so that an execution can be reproduced from its seed.
+	 * @param seed The seed.
+	 */
+	public void setSeed(int seed) {
+		this.seed = seed;
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * @return Seed of the random decisions of the broker.
+	 */
+	public int getSeed() {
+		return this.seed;
 	}
 
 	public TaskGraph getTaskGraph() {
@@ -86,36 +106,30 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 	}
 
 	protected void initializeDynamicTaskSubgraphsInfo() {
-		this.taskSubgraphCount = DagUtils.getTaskSubgraphCount();
-
-		this.taskSubgraphArrivalTimes = SimulationUtils.loadTaskSubgraphArrivalTimes(this.taskSubgraphCount);
-
-		try {
-			Scanner scanner = new Scanner(new File(DagUtils.getTaskSubgraphsFilename()));
-
-			this.taskSubgraphFilenames = new ArrayList<String>(this.taskSubgraphCount);
-			for (int subgraphIdx = 1; subgraphIdx <= this.taskSubgraphCount; ++subgraphIdx) {
-				String taskSubgraphFilename = scanner.nextLine();
-				this.taskSubgraphFilenames.add(taskSubgraphFilename);
-			}
-
-			scanner.close();
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
+		// Task subgraphs and arrival times preloaded once per workflow (see DagUtils.getTaskSubgraphBundle()).
+		this.taskSubgraphBundle = DagUtils.getTaskSubgraphBundle();
+		if (this.taskSubgraphBundle == null) {
+			Log.printLine("Exception in initializeDynamicTaskSubgraphsInfo() - Cannot load task subgraphs: " + DagUtils.getTaskSubgraphsFilename());
+			this.taskSubgraphCount = 0;
+			this.taskSubgraphArrivalTimes = new ArrayList<Double>();
+			return;
 		}
+
+		this.taskSubgraphCount = Math.min(DagUtils.getTaskSubgraphCount(), this.taskSubgraphBundle.getTaskSubgraphCount());
+		this.taskSubgraphArrivalTimes = this.taskSubgraphBundle.getArrivalTimes();
 	}
 
 	/* Upward ranks. */
 	protected void computeUpwardRanks() {
 		if (this.taskUpwardRankMappings == null) {
 			this.taskUpwardRankMappings = new HashMap<Integer, Double>(this.taskGraph.getTaskCount());
+			loadPrecomputedRanks(this.taskUpwardRankMappings, this.taskGraph.getPrecomputedUpwardRanks());
 		}
 
-		Queue<Integer> tasks = new LinkedList<Integer>();
-		tasks.addAll(this.taskGraph.getExitTasks());
-
-		while (!tasks.isEmpty()) {
-			Integer task = tasks.remove();
+		// Reverse topological order: the successor tasks first.
+		TaskGraphAnalytics analytics = this.taskGraph.getAnalytics();
+		for (int position = analytics.getOrderedTaskCount() - 1; position >= 0; --position) {
+			Integer task = this.taskGraph.getTask(analytics.getTopologicalTask(position));
 			// Check if the task's upward rank has been already computed.
 			if (this.taskUpwardRankMappings.containsKey(task)) {
 				continue;
@@ -125,54 +139,72 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 				continue;
 			}
 			// Compute the task's upward rank, if possible.
-			if (!computeUpwardRank(task)) {
-				continue;
-			}
-
-			Map<Integer, Double> predTasksInfo = this.taskGraph.getPredecessorTasksInfo(task);
-			for (Integer predTask : predTasksInfo.keySet()) {
-				tasks.add(predTask);
-			}
+			computeUpwardRank(task);
 		}
 	}
 
 	private boolean computeUpwardRank(Integer task) {
-		Double maxSuccTaskUpwardRank = 0.0;
-		Map<Integer, Double> succTasksInfo = this.taskGraph.getSuccessorTasksInfo(task);
-		for (Integer succTask : succTasksInfo.keySet()) {
-			if (!this.taskUpwardRankMappings.containsKey(succTask)) {
-				Log.printLine("Task " + task + " > Upward rank of the successor task " + succTask + " not yet computed!");
-				return false;
-			}
-
-			Double succTaskUpwardRank = this.taskGraph.getAverageCommunicationCost(task, succTask) + this.taskUpwardRankMappings.get(succTask);
-			if (succTaskUpwardRank > maxSuccTaskUpwardRank) {
-				maxSuccTaskUpwardRank = succTaskUpwardRank;
-			}
+		double upwardRank = this.taskGraph.computeUpwardRank(this.taskGraph.getTaskIndex(task), this::getUpwardRank);
+		if (Double.isNaN(upwardRank)) {
+			Log.printLine("Task " + task + " > Upward rank of a successor task not yet computed!");
+			return false;
 		}
 
-		Double eps = 1.0 / Math.pow(10, 6);
-		Double upwardRank = this.taskGraph.getAverageComputationCost(task) + maxSuccTaskUpwardRank + eps;
 		this.taskUpwardRankMappings.put(task, upwardRank);
 		return true;
 	}
 
+	// Upward rank of a task (by task index), NaN if not yet computed.
+	private double getUpwardRank(int taskIdx) {
+		Double upwardRank = this.taskUpwardRankMappings.get(this.taskGraph.getTask(taskIdx));
+		return upwardRank == null ? Double.NaN : upwardRank;
+	}
+
 	protected void clearUpwardRanks() {
 		this.taskUpwardRankMappings.clear();
 		this.taskUpwardRankMappings = null;
 	}
 
+	/**
+	 * Clears only the upward ranks affected by the last update of the precomputed costs (see {@link TaskGraph#updatePrecomputedCosts()}):
+	 * the ranks of the tasks whose costs were updated, and of their ancestor tasks.
+	 */
+	protected void clearUpdatedUpwardRanks() {
+		if (this.taskUpwardRankMappings == null) {
+			return;
+		}
+		Set<Integer> updatedComputationCostTasks = this.taskGraph.getUpdatedComputationCostTasks();
+		List<Pair<Integer, Integer>> updatedCommunicationCostDependencies = this.taskGraph.getUpdatedCommunicationCostDependencies();
+		if (updatedComputationCostTasks == null || updatedCommunicationCostDependencies == null) {
+			clearUpwardRanks();
+			return;
+		}
+
+		BitSet updatedTaskIdxs = new BitSet(this.taskGraph.getTaskCount());
+		for (Integer task : updatedComputationCostTasks) {
+			updatedTaskIdxs.set(this.taskGraph.getTaskIndex(task));
+		}
+		for (Pair<Integer, Integer> dependency : updatedCommunicationCostDependencies) {
+			updatedTaskIdxs.set(this.taskGraph.getTaskIndex(dependency.getKey()));
+		}
+		BitSet clearedTaskIdxs = this.taskGraph.getReachability().getAncestors(updatedTaskIdxs);
+		clearedTaskIdxs.or(updatedTaskIdxs);
+		for (int taskIdx = clearedTaskIdxs.nextSetBit(0); taskIdx >= 0; taskIdx = clearedTaskIdxs.nextSetBit(taskIdx + 1)) {
+			this.taskUpwardRankMappings.remove(this.taskGraph.getTask(taskIdx));
+		}
+	}
+
 	/* Downward ranks. */
 	protected void computeDownwardRanks() {
 		if (this.taskDownwardRankMappings == null) {
 			this.taskDownwardRankMappings = new HashMap<Integer, Double>(this.taskGraph.getTaskCount());
+			loadPrecomputedRanks(this.taskDownwardRankMappings, this.taskGraph.getPrecomputedDownwardRanks());
 		}
 
-		Queue<Integer> tasks = new LinkedList<Integer>();
-		tasks.addAll(this.taskGraph.getEntryTasks());
-
-		while (!tasks.isEmpty()) {
-			Integer task = tasks.remove();
+		// Topological order: the predecessor tasks first.
+		TaskGraphAnalytics analytics = this.taskGraph.getAnalytics();
+		for (int position = 0; position < analytics.getOrderedTaskCount(); ++position) {
+			Integer task = this.taskGraph.getTask(analytics.getTopologicalTask(position));
 			// Check if the task's downward rank has been already computed.
 			if (this.taskDownwardRankMappings.containsKey(task)) {
 				continue;
@@ -182,45 +214,76 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 				continue;
 			}
 			// Compute the task's downward rank, if possible.
-			if (!computeDownwardRank(task)) {
-				continue;
-			}
-
-			Map<Integer, Double> succTasksInfo = this.taskGraph.getSuccessorTasksInfo(task);
-			for (Integer succTask : succTasksInfo.keySet()) {
-				tasks.add(succTask);
-			}
+			computeDownwardRank(task);
 		}
 	}
 
 	private boolean computeDownwardRank(Integer task) {
-		Double maxPredTaskDownwardRank = 0.0;
-		Map<Integer, Double> predTasksInfo = this.taskGraph.getPredecessorTasksInfo(task);
-		for (Integer predTask : predTasksInfo.keySet()) {
-			if (!this.taskDownwardRankMappings.containsKey(predTask)) {
-				Log.printLine("Task " + task + " > Downward rank of the predecessor task " + predTask + " not yet computed!");
-				return false;
-			}
-
-			Double predTaskDownwardRank = this.taskDownwardRankMappings.get(predTask)
-					+ this.taskGraph.getAverageComputationCost(predTask)
-					+ this.taskGraph.getAverageCommunicationCost(predTask, task);
-			if (predTaskDownwardRank > maxPredTaskDownwardRank) {
-				maxPredTaskDownwardRank = predTaskDownwardRank;
-			}
+		double downwardRank = this.taskGraph.computeDownwardRank(this.taskGraph.getTaskIndex(task), this::getDownwardRank);
+		if (Double.isNaN(downwardRank)) {
+			Log.printLine("Task " + task + " > Downward rank of a predecessor task not yet computed!");
+			return false;
 		}
 
-		Double eps = 1.0 / Math.pow(10, 6);
-		Double downwardRank = maxPredTaskDownwardRank + eps;
 		this.taskDownwardRankMappings.put(task, downwardRank);
 		return true;
 	}
 
+	// Downward rank of a task (by task index), NaN if not yet computed.
+	private double getDownwardRank(int taskIdx) {
+		Double downwardRank = this.taskDownwardRankMappings.get(this.taskGraph.getTask(taskIdx));
+		return downwardRank == null ? Double.NaN : downwardRank;
+	}
+
 	protected void clearDownwardRanks() {
 		this.taskDownwardRankMappings.clear();
 		this.taskDownwardRankMappings = null;
 	}
 
+	/**
+	 * Clears only the downward ranks affected by the last update of the precomputed costs (see {@link TaskGraph#updatePrecomputedCosts()}):
+	 * the ranks of the tasks whose costs were updated, and of their descendant tasks.
+	 */
+	protected void clearUpdatedDownwardRanks() {
+		if (this.taskDownwardRankMappings == null) {
+			return;
+		}
+		Set<Integer> updatedComputationCostTasks = this.taskGraph.getUpdatedComputationCostTasks();
+		List<Pair<Integer, Integer>> updatedCommunicationCostDependencies = this.taskGraph.getUpdatedCommunicationCostDependencies();
+		if (updatedComputationCostTasks == null || updatedCommunicationCostDependencies == null) {
+			clearDownwardRanks();
+			return;
+		}
+
+		BitSet updatedTaskIdxs = new BitSet(this.taskGraph.getTaskCount());
+		for (Integer task : updatedComputationCostTasks) {
+			updatedTaskIdxs.set(this.taskGraph.getTaskIndex(task));
+		}
+		for (Pair<Integer, Integer> dependency : updatedCommunicationCostDependencies) {
+			updatedTaskIdxs.set(this.taskGraph.getTaskIndex(dependency.getValue()));
+		}
+		BitSet clearedTaskIdxs = this.taskGraph.getReachability().getDescendants(updatedTaskIdxs);
+		clearedTaskIdxs.or(updatedTaskIdxs);
+		for (int taskIdx = clearedTaskIdxs.nextSetBit(0); taskIdx >= 0; taskIdx = clearedTaskIdxs.nextSetBit(taskIdx + 1)) {
+			this.taskDownwardRankMappings.remove(this.taskGraph.getTask(taskIdx));
+		}
+	}
+
+	/**
+	 * Loads the ranks precomputed with the costs of the task graph (see {@link TaskGraph#getPrecomputedUpwardRanks()}),
+	 * valid as long as no task is scheduled.
+	 * @param taskRankMappings The ranks of the tasks.
+	 * @param precomputedRanks The precomputed ranks (by task index), null if not precomputed.
+	 */
+	private void loadPrecomputedRanks(Map<Integer, Double> taskRankMappings, double[] precomputedRanks) {
+		if (precomputedRanks == null || (this.taskToResourceMappings != null && !this.taskToResourceMappings.isEmpty())) {
+			return;
+		}
+		for (int taskIdx = 0; taskIdx < this.taskGraph.getTaskCount(); ++taskIdx) {
+			taskRankMappings.put(this.taskGraph.getTask(taskIdx), precomputedRanks[taskIdx]);
+		}
+	}
+
 	/* HEFT ranks. */
 	protected void computeHeftRanks() {
 		computeUpwardRanks();
@@ -242,7 +305,7 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 	protected void sortTasksByHeftRanks() {
 		Map<Integer, Integer> randomTieBreakers = new HashMap<Integer, Integer>();
 		this.taskHeftRankMappings.keySet().forEach(taskId -> {
-			Random random = new Random(seed + taskId);
+			Random random = new Random(this.seed + taskId);
 			randomTieBreakers.put(taskId, random.nextInt());
 		});
 
@@ -291,10 +354,13 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 		List<Integer> criticalPathTasks = new LinkedList<Integer>();
 		Integer task = this.taskGraph.getEntryTasks().get(0);
 		criticalPathTasks.add(task);
+		TaskGraphAdjacency adjacency = this.taskGraph.getAdjacency();
 		while (!this.taskGraph.isExitTask(task)) {
 			Double maxSuccTaskCpopRank = Constants.INVALID_RESULT_DOUBLE;
-			Set<Integer> succTasks = this.taskGraph.getSuccessorTasksInfo(task).keySet();
-			for (Integer succTask : succTasks) {
+			int taskIdx = this.taskGraph.getTaskIndex(task);
+			int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+			for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+				Integer succTask = this.taskGraph.getTask(adjacency.getSuccessorTask(dependencyIdx));
 				Double succTaskCpopRank = this.taskCpopRankMappings.get(succTask);
 				if (succTaskCpopRank > maxSuccTaskCpopRank) {
 					maxSuccTaskCpopRank = succTaskCpopRank;
@@ -310,20 +376,19 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 		}
 		Set<Integer> ineligibleResources = new HashSet<Integer>();
 		for (Integer criticalPathTask : criticalPathTasks) {
-			double criticalPathTaskDataSize = this.taskGraph.getTaskInputData(criticalPathTask);
-			for (Map.Entry<Integer, ResourceType> resourceEntry : this.taskGraph.getResources().entrySet()) {
-				Integer resource = resourceEntry.getKey();
-				ResourceType resourceType = resourceEntry.getValue();
+			int criticalPathTaskIdx = this.taskGraph.getTaskIndex(criticalPathTask);
+			BitSet schedulableResources = this.taskGraph.getSchedulableResourcesByIndex(criticalPathTaskIdx);
+			for (Integer resource : this.taskGraph.getResources().keySet()) {
 				if (ineligibleResources.contains(resource)) {
 					continue;
 				}
-				if (!TaskUtils.canExecuteTaskOnResourceWithLimitedMemoryCapacity(criticalPathTaskDataSize, resourceType)
+				if (!schedulableResources.get(resource)
 					|| !canExecuteTaskOnResourceWithLimitedBatteryCapacity(criticalPathTask, resource)) {
 					ineligibleResources.add(resource);
 					criticalPathComputationTimes.put(resource, Double.MAX_VALUE);
 					continue;
 				}
-				Double criticalPathComputationTime = criticalPathComputationTimes.get(resource) + this.taskGraph.getComputationCost(criticalPathTask, resource);
+				Double criticalPathComputationTime = criticalPathComputationTimes.get(resource) + this.taskGraph.getComputationCostByIndex(criticalPathTaskIdx, resource);
 				criticalPathComputationTimes.put(resource, criticalPathComputationTime);
 			}
 		}
@@ -344,38 +409,17 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 	/* PETS ranks. */
 	protected void computePetsRanks() {
 		/* Phase 1: level sorting. */
-		Map<Integer, Integer> taskIndegree = new HashMap<Integer, Integer>();
-		Map<Integer, Integer> taskLevelMappings = new HashMap<Integer, Integer>();
-		Queue<Integer> taskQueue = new LinkedList<Integer>();
-
-		for (Integer task : this.taskGraph.getTasks()) {
-			int predTaskCount = this.taskGraph.getPredecessorTasksInfo(task).size();
-			taskIndegree.put(task, predTaskCount);
-			if (predTaskCount == 0) {
-				taskLevelMappings.put(task, 0);
-				taskQueue.add(task);
-			}
-		}
-
-		while (!taskQueue.isEmpty()) {
-			Integer task = taskQueue.poll();
-			int level = taskLevelMappings.get(task);
-			Map<Integer, Double> succTasksInfo = this.taskGraph.getSuccessorTasksInfo(task);
-			for (Integer succTask : succTasksInfo.keySet()) {
-				taskIndegree.put(succTask, taskIndegree.get(succTask) - 1);
-				if (taskIndegree.get(succTask) == 0) {
-					taskLevelMappings.put(succTask, level + 1);
-					taskQueue.add(succTask);
-				}
+		TaskGraphAnalytics analytics = this.taskGraph.getAnalytics();
+		TreeMap<Integer, LinkedList<Integer>> levels = new TreeMap<Integer, LinkedList<Integer>>();
+		for (int level = 0; level < analytics.getLevelCount(); ++level) {
+			LinkedList<Integer> levelTasks = new LinkedList<Integer>();
+			int levelEnd = analytics.getLevelEnd(level);
+			for (int position = analytics.getLevelStart(level); position < levelEnd; ++position) {
+				levelTasks.add(this.taskGraph.getTask(analytics.getTopologicalTask(position)));
 			}
+			levels.put(level, levelTasks);
 		}
-
-		this.petsLevels = taskLevelMappings.entrySet()
-				.stream()
-				.collect(Collectors.groupingBy(
-						Map.Entry::getValue,
-						TreeMap::new,
-						Collectors.mapping(Map.Entry::getKey, Collectors.toCollection(LinkedList::new))));
+		this.petsLevels = levels;
 
 		/* Phase 2: task prioritization. */
 		if (this.taskPetsRankMappings == null) {
@@ -408,15 +452,20 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 	}
 
 	private boolean computePetsRank(Integer task) {
+		TaskGraphAdjacency adjacency = this.taskGraph.getAdjacency();
+		int taskIdx = this.taskGraph.getTaskIndex(task);
+
 		Double dataTransferCost = 0.0;
-		Map<Integer, Double> succTasksInfo = this.taskGraph.getSuccessorTasksInfo(task);
-		for (Integer succTask : succTasksInfo.keySet()) {
+		int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+		for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+			Integer succTask = this.taskGraph.getTask(adjacency.getSuccessorTask(dependencyIdx));
 			dataTransferCost += this.taskGraph.getAverageCommunicationCost(task, succTask);
 		}
 
 		Double dataReceivingCost = 0.0;
-		Map<Integer, Double> predTasksInfo = this.taskGraph.getPredecessorTasksInfo(task);
-		for (Integer predTask : predTasksInfo.keySet()) {
+		int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+		for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+			Integer predTask = this.taskGraph.getTask(adjacency.getPredecessorTask(predecessorIdx));
 			if (!this.taskPetsRankMappings.containsKey(predTask)) {
 				Log.printLine("Task " + task + " > PETS rank of the predecessor task " + predTask + " not yet computed!");
 				return false;
@@ -459,11 +508,10 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 			this.taskUtilityRankMappings = new HashMap<Integer, Double>(this.taskGraph.getTaskCount());
 		}
 
-		Queue<Integer> tasks = new LinkedList<Integer>();
-		tasks.addAll(this.taskGraph.getExitTasks());
-
-		while (!tasks.isEmpty()) {
-			Integer task = tasks.remove();
+		// Reverse topological order: the successor tasks first.
+		TaskGraphAnalytics analytics = this.taskGraph.getAnalytics();
+		for (int position = analytics.getOrderedTaskCount() - 1; position >= 0; --position) {
+			Integer task = this.taskGraph.getTask(analytics.getTopologicalTask(position));
 			// Check if the task's utility rank has been already computed.
 			if (this.taskUtilityRankMappings.containsKey(task)) {
 				continue;
@@ -473,14 +521,7 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 				continue;
 			}
 			// Compute the task's utility rank, if possible.
-			if (!computeUtilityRank(task, hybrid)) {
-				continue;
-			}
-
-			Map<Integer, Double> predTasksInfo = this.taskGraph.getPredecessorTasksInfo(task);
-			for (Integer predTask : predTasksInfo.keySet()) {
-				tasks.add(predTask);
-			}
+			computeUtilityRank(task, hybrid);
 		}
 	}
 
@@ -490,8 +531,11 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 
 	private boolean computeUtilityRank(Integer task) {
 		Double succTaskUtilityRankSum = 1.0 / Math.pow(10, 6);
-		Map<Integer, Double> succTasksInfo = this.taskGraph.getSuccessorTasksInfo(task);
-		for (Integer succTask : succTasksInfo.keySet()) {
+		TaskGraphAdjacency adjacency = this.taskGraph.getAdjacency();
+		int taskIdx = this.taskGraph.getTaskIndex(task);
+		int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+		for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+			Integer succTask = this.taskGraph.getTask(adjacency.getSuccessorTask(dependencyIdx));
 			if (!this.taskUtilityRankMappings.containsKey(succTask)) {
 				Log.printLine("Task " + task + " > Utility rank of the successor task " + succTask + " not yet computed!");
 				return false;
@@ -509,7 +553,7 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 	protected void sortTasksByUtilityRanks() {
 		Map<Integer, Integer> randomTieBreakers = new HashMap<Integer, Integer>();
 		this.taskUtilityRankMappings.keySet().forEach(taskId -> {
-			Random random = new Random(seed + taskId);
+			Random random = new Random(this.seed + taskId);
 			randomTieBreakers.put(taskId, random.nextInt());
 		});
 
@@ -528,7 +572,11 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 	}
 
 	protected boolean isReadyTask(Integer task) {
-		for (Integer predTask : this.taskGraph.getPredecessorTasksInfo(task).keySet()) {
+		TaskGraphAdjacency adjacency = this.taskGraph.getAdjacency();
+		int taskIdx = this.taskGraph.getTaskIndex(task);
+		int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+		for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+			Integer predTask = this.taskGraph.getTask(adjacency.getPredecessorTask(predecessorIdx));
 			if (!this.taskToResourceMappings.containsKey(predTask)) {
 				return false;
 			}
@@ -551,21 +599,31 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 		// Task's arrival time.
 		Cloudlet cloudlet = CloudletList.getById(getCloudletList(), task);
 		Double taskArrivalTime = ((Task) cloudlet).getArrivalTime();
-		// Resource's availability time.
-		Double resourceAvailabilityTime = this.taskGraph.getResourcesAvailability().get(resource);
-		// Consider both task's arrival time and resource's availability time.
-		Double taskResourceAvailabilityTime = Math.max(taskArrivalTime, resourceAvailabilityTime);
+		/*
+		 * Consider both task's arrival time and resource's availability time: earliest time, not before the task's arrival,
+		 * from which the resource stays available long enough to execute the task (infinite if never).
+		 */
+		ResourceAvailabilityTimeline resourceAvailabilityTimeline = this.taskGraph.getResourceAvailabilityTimeline();
+		Double taskResourceAvailabilityTime = resourceAvailabilityTimeline.getAvailabilityStartTime(resource, taskArrivalTime, computationTime);
+		if (taskResourceAvailabilityTime == Double.POSITIVE_INFINITY) {
+			return taskResourceAvailabilityTime;
+		}
+		// Resource's availability time (the task cannot start before it).
+		Double resourceAvailabilityTime = taskResourceAvailabilityTime;
 
 		/*
 		 * Compute ready time of the task on the resource: time when all predecessor tasks were executed
 		 * and all communication data from predecessor tasks were transferred to the resource.
 		 */
 		Double taskReadyTime = taskArrivalTime;
-		Map<Integer, Double> predTasksInfo = this.taskGraph.getPredecessorTasksInfo(task);
-		for (Integer predTask : predTasksInfo.keySet()) {
+		TaskGraphAdjacency adjacency = this.taskGraph.getAdjacency();
+		int taskIdx = this.taskGraph.getTaskIndex(task);
+		int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+		for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+			Integer predTask = this.taskGraph.getTask(adjacency.getPredecessorTask(predecessorIdx));
 			Integer predResource = this.taskToResourceMappings.get(predTask);
 
-			Double communicationTime = this.taskGraph.getCommunicationCost(predTask, task, predResource, resource);
+			Double communicationTime = this.taskGraph.getCommunicationCostByIndex(adjacency.getPredecessorDependency(predecessorIdx), predResource, resource);
 			Double predTaskReadyTime = Math.max(this.taskAFT.get(predTask), taskResourceAvailabilityTime) + communicationTime;
 			if (predTaskReadyTime > taskReadyTime) {
 				taskReadyTime = predTaskReadyTime;
@@ -576,9 +634,11 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 		this.resourceAllocatedTimeSlotIdx = 0;
 
 		List<Pair<Double, Double>> allocatedTimeSlots = this.resourceAllocatedTimeSlots.get(resource);
+		// The start time of every candidate slot is checked against the availability of the resource (the resource may leave
+		// before the task finishes, or after the ready time): infinite if the resource never stays available long enough.
 		// No tasks were previously allocated on the given resource.
 		if (allocatedTimeSlots.isEmpty()) {
-			return Math.max(resourceAvailabilityTime, taskReadyTime);
+			return resourceAvailabilityTimeline.getAvailabilityStartTime(resource, Math.max(resourceAvailabilityTime, taskReadyTime), computationTime);
 		}
 
 		// Try to find an idle slot.
@@ -587,8 +647,9 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 			Double idleSlotStartTime = this.resourceAllocatedTimeSlotIdx == 0 ? resourceAvailabilityTime : allocatedTimeSlots.get(this.resourceAllocatedTimeSlotIdx-1).getValue();
 			Double idleSlotFinishTime = allocatedTimeSlots.get(this.resourceAllocatedTimeSlotIdx).getKey();
 
-			if (Math.max(idleSlotStartTime, taskReadyTime) + computationTime <= idleSlotFinishTime) {
-				return Math.max(idleSlotStartTime, taskReadyTime);
+			double slotStartTime = resourceAvailabilityTimeline.getAvailabilityStartTime(resource, Math.max(idleSlotStartTime, taskReadyTime), computationTime);
+			if (slotStartTime + computationTime <= idleSlotFinishTime) {
+				return slotStartTime;
 			}
 
 			++this.resourceAllocatedTimeSlotIdx;
@@ -596,7 +657,7 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 
 		// Could not find any feasible idle slot, thus select the time when the resource completed the last task's execution.
 		Double lastAllocatedSlotFinishTime = allocatedTimeSlots.get(allocatedTimeSlotCount-1).getValue();
-		return Math.max(lastAllocatedSlotFinishTime, taskReadyTime);
+		return resourceAvailabilityTimeline.getAvailabilityStartTime(resource, Math.max(lastAllocatedSlotFinishTime, taskReadyTime), computationTime);
 	}
 
 	protected double getEdgeDeviceBatteryConsumption(Cloudlet cloudlet, Vm vm) {
@@ -619,28 +680,33 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 
 		double processingTime = this.taskGraph.getComputationCost(task, resource);
 
+		TaskGraphAdjacency adjacency = this.taskGraph.getAdjacency();
+		int taskIdx = this.taskGraph.getTaskIndex(task);
+
 		double transferTime = 0.0;
 		// Input data transfer time.
-		Map<Integer, Double> predTasksInfo = this.taskGraph.getPredecessorTasksInfo(task);
-		for (Integer predTask : predTasksInfo.keySet()) {
+		int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+		for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+			Integer predTask = this.taskGraph.getTask(adjacency.getPredecessorTask(predecessorIdx));
 			if (!this.taskToResourceMappings.containsKey(predTask)) {
 				Log.printLine("Task " + predTask + " > No allocated resource");
 				return Constants.INVALID_RESULT_DOUBLE;
 			}
 			Integer predResource = this.taskToResourceMappings.get(predTask);
 
-			transferTime += this.taskGraph.getCommunicationCost(predTask, task, predResource, resource);
+			transferTime += this.taskGraph.getCommunicationCostByIndex(adjacency.getPredecessorDependency(predecessorIdx), predResource, resource);
 		}
 		// Output data transfer time.
-		Map<Integer, Double> succTasksInfo = this.taskGraph.getSuccessorTasksInfo(task);
-		for (Integer succTask : succTasksInfo.keySet()) {
+		int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+		for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+			Integer succTask = this.taskGraph.getTask(adjacency.getSuccessorTask(dependencyIdx));
 			if (!this.taskToResourceMappings.containsKey(succTask)) {
 				Log.printLine("Task " + succTask + " > No allocated resource");
 				return Constants.INVALID_RESULT_DOUBLE;
 			}
 			Integer succResource = this.taskToResourceMappings.get(succTask);
 
-			transferTime += this.taskGraph.getCommunicationCost(task, succTask, resource, succResource);
+			transferTime += this.taskGraph.getCommunicationCostByIndex(dependencyIdx, resource, succResource);
 		}
 
 		double consumption = processingTime * 1.0;
@@ -662,33 +728,39 @@ public class DefaultDagEdgeCloudDatacenterBroker extends DefaultEdgeCloudDatacen
 
 		double processingTime = this.taskGraph.getComputationCost(task, resource);
 
+		TaskGraphAdjacency adjacency = this.taskGraph.getAdjacency();
+		int taskIdx = this.taskGraph.getTaskIndex(task);
+
 		double transferTime = 0.0;
 		// Input data transfer time.
-		Map<Integer, Double> predTasksInfo = this.taskGraph.getPredecessorTasksInfo(task);
-		for (Integer predTask : predTasksInfo.keySet()) {
+		int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+		for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+			Integer predTask = this.taskGraph.getTask(adjacency.getPredecessorTask(predecessorIdx));
+			int predDependencyIdx = adjacency.getPredecessorDependency(predecessorIdx);
 			double estimatedCommunicationCost = Constants.INVALID_RESULT_DOUBLE;
 			if (this.taskToResourceMappings.containsKey(predTask)) {
 				Integer predResource = this.taskToResourceMappings.get(predTask);
-				estimatedCommunicationCost = this.taskGraph.getCommunicationCost(predTask, task, predResource, resource);
+				estimatedCommunicationCost = this.taskGraph.getCommunicationCostByIndex(predDependencyIdx, predResource, resource);
 			} else {
 				// No allocated resource, consider the worst case scenario (the slowest resource having the maximum communication cost).
 				for (Integer predResource : this.taskGraph.getResources().keySet()) {
-					estimatedCommunicationCost = Math.max(estimatedCommunicationCost, this.taskGraph.getCommunicationCost(predTask, task, predResource, resource));
+					estimatedCommunicationCost = Math.max(estimatedCommunicationCost, this.taskGraph.getCommunicationCostByIndex(predDependencyIdx, predResource, resource));
 				}
 			}
 			transferTime += estimatedCommunicationCost;
 		}
 		// Output data transfer time.
-		Map<Integer, Double> succTasksInfo = this.taskGraph.getSuccessorTasksInfo(task);
-		for (Integer succTask : succTasksInfo.keySet()) {
+		int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+		for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+			Integer succTask = this.taskGraph.getTask(adjacency.getSuccessorTask(dependencyIdx));
 			double estimatedCommunicationCost = Constants.INVALID_RESULT_DOUBLE;
 			if (this.taskToResourceMappings.containsKey(succTask)) {
 				Integer succResource = this.taskToResourceMappings.get(succTask);
-				estimatedCommunicationCost = this.taskGraph.getCommunicationCost(task, succTask, resource, succResource);
+				estimatedCommunicationCost = this.taskGraph.getCommunicationCostByIndex(dependencyIdx, resource, succResource);
 			} else {
 				// No allocated resource, consider the worst case scenario (the slowest resource having the maximum communication cost).
 				for (Integer succResource : this.taskGraph.getResources().keySet()) {
-					estimatedCommunicationCost = Math.max(estimatedCommunicationCost, this.taskGraph.getCommunicationCost(task, succTask, resource, succResource));
+					estimatedCommunicationCost = Math.max(estimatedCommunicationCost, this.taskGraph.getCommunicationCostByIndex(dependencyIdx, resource, succResource));
 				}
 			}
 			transferTime += estimatedCommunicationCost;
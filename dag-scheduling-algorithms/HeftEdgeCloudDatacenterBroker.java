@@ -3,10 +3,10 @@ package dag_scheduling_algorithms;
 import java.text.DecimalFormat;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Log;
@@ -21,8 +21,6 @@ import scheduling_evaluation.DagUtils;
 import scheduling_evaluation.Pair;
 import scheduling_evaluation.Task;
 import scheduling_evaluation.TaskGraph;
-import scheduling_evaluation.TaskUtils;
-import scheduling_evaluation.Types.ResourceType;
 import scheduling_evaluation.Types.TaskExecutionResourceStatus;
 
 public class HeftEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenterBroker {
@@ -113,7 +111,7 @@ public class HeftEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenter
 			Integer task = Constants.INVALID_RESULT_INT;
 			try {
 				task = this.sortedTasksByPriorityDesc.getFirst();
-				double taskDataSize = this.taskGraph.getTaskInputData(task);
+				int taskIdx = this.taskGraph.getTaskIndex(task);
 				Log.printLine("> Attempt to schedule task " + task);
 
 				this.sortedTasksByPriorityDesc.remove(task);
@@ -123,16 +121,13 @@ public class HeftEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenter
 				Integer allocatedResource = Constants.INVALID_RESULT_INT;
 				int newResourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
 
-				for (Map.Entry<Integer, ResourceType> resourceEntry : this.taskGraph.getResources().entrySet()) {
-					Integer resource = resourceEntry.getKey();
-					ResourceType resourceType = resourceEntry.getValue();
-
-					if (!TaskUtils.canExecuteTaskOnResourceWithLimitedMemoryCapacity(taskDataSize, resourceType)
-						|| !canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
+				BitSet schedulableResources = this.taskGraph.getSchedulableResourcesByIndex(taskIdx);
+				for (int resource = schedulableResources.nextSetBit(0); resource >= 0; resource = schedulableResources.nextSetBit(resource + 1)) {
+					if (!canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
 						continue;
 					}
 
-					Double computationCost = this.taskGraph.getComputationCost(task, resource);
+					Double computationCost = this.taskGraph.getComputationCostByIndex(taskIdx, resource);
 					Double EST = computeEST(task, resource);
 					Double EFT = computationCost + EST;
 					if (EFT < taskEFT) {
@@ -0,0 +1,328 @@
+package dag_scheduling_algorithms;
+
+import java.text.DecimalFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.lists.VmList;
+
+import scheduling_evaluation.Constants;
+import scheduling_evaluation.DagSchedulingMetrics;
+import scheduling_evaluation.DagUtils;
+import scheduling_evaluation.Pair;
+import scheduling_evaluation.ResourceAvailabilityTimeline;
+import scheduling_evaluation.Task;
+import scheduling_evaluation.TaskGraph;
+import scheduling_evaluation.TaskGraphAdjacency;
+import scheduling_evaluation.TaskGraphCoarsener;
+import scheduling_evaluation.Types.TaskExecutionResourceStatus;
+
+/**
+ * Multilevel HEFT, for very large task graphs: the task graph is coarsened (see {@link TaskGraphCoarsener}), the coarsest
+ * task graph is scheduled with HEFT, and the schedule is then refined on the original task graph: each task is scheduled
+ * with HEFT, but only considering the resource of its super-task and the resources of its predecessor tasks (all the resources
+ * if none of them can execute the task). The refinement bounds the insertion-based EST scan of each resource, see
+ * {@link #computeRefinedEST(Integer, int, Integer)}.
+ */
+public class MultilevelHeftEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenterBroker {
+
+	/* Arrival time of each task, looked up once instead of searching the cloudlet list for every EST. */
+	private Map<Integer, Double> taskArrivalTimes;
+
+	public MultilevelHeftEdgeCloudDatacenterBroker(String name, TaskGraph taskGraph) throws Exception {
+		super(name, taskGraph);
+
+		int taskCount = taskGraph.getTaskCount();
+		int resourceCount = taskGraph.getResourceCount();
+
+		this.taskToResourceMappings = new HashMap<Integer, Integer>(taskCount);
+
+		this.taskAFT = new HashMap<Integer, Double>(taskCount);
+
+		this.resourceAllocatedTimeSlots = new HashMap<Integer, List<Pair<Double, Double>>>(resourceCount);
+		for (Integer resource : this.taskGraph.getResources().keySet()) {
+			this.resourceAllocatedTimeSlots.put(resource, new ArrayList<Pair<Double, Double>>());
+		}
+	}
+
+	/**
+	 * Submit cloudlets to the created VMs.
+	 *
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	protected void submitCloudlets() {
+		Instant startTime = Instant.now();
+
+		DecimalFormat dft = new DecimalFormat("##.###");
+		TaskGraph taskGraph = this.taskGraph;
+
+		this.taskArrivalTimes = new HashMap<Integer, Double>(taskGraph.getTaskCount());
+		for (Cloudlet cloudlet : getCloudletList()) {
+			this.taskArrivalTimes.put(cloudlet.getCloudletId(), ((Task) cloudlet).getArrivalTime());
+		}
+
+		// Coarsening.
+		TaskGraphCoarsener coarsener = new TaskGraphCoarsener(taskGraph, Constants.MULTILEVEL_COARSE_TASK_COUNT, Constants.MULTILEVEL_MAX_COARSENING_LEVELS);
+		TaskGraph coarseTaskGraph = coarsener.getCoarsestTaskGraph();
+		Log.printLine("> " + coarsener.getLevelCount() + " coarsening levels: " + taskGraph.getTaskCount() + " -> " + coarseTaskGraph.getTaskCount() + " tasks");
+
+		// DAG task scheduling of the coarsest task graph (the super-tasks are identified by one of their tasks).
+		Map<Integer, Integer> coarseTaskToResourceMappings = null;
+		if (coarsener.getLevelCount() > 0) {
+			this.taskGraph = coarseTaskGraph;
+			this.taskGraph.clearAndPrecomputeCosts();
+			computeHeftRanks();
+			sortTasksByHeftRanks();
+
+			Log.printLine("> " + this.sortedTasksByPriorityDesc.size() + " super-tasks to be scheduled");
+			computeSchedule(null, null);
+			Log.printLine("> Coarse schedule makespan: " + dft.format(getScheduleMakespan()));
+
+			coarseTaskToResourceMappings = this.taskToResourceMappings;
+			this.taskToResourceMappings = new HashMap<Integer, Integer>(taskGraph.getTaskCount());
+			this.taskAFT = new HashMap<Integer, Double>(taskGraph.getTaskCount());
+			for (List<Pair<Double, Double>> allocatedTimeSlots : this.resourceAllocatedTimeSlots.values()) {
+				allocatedTimeSlots.clear();
+			}
+			clearHeftRanks();
+			this.taskHeftRankMappings = null;
+			this.taskGraph = taskGraph;
+		}
+
+		// DAG task scheduling of the original task graph, refining the coarse schedule.
+		this.taskGraph.clearAndPrecomputeCosts();
+		computeHeftRanks();
+		sortTasksByHeftRanks();
+
+		Log.printLine("> " + this.sortedTasksByPriorityDesc.size() + " tasks to be scheduled");
+		computeSchedule(coarsener, coarseTaskToResourceMappings);
+		Log.printLine("> Refined schedule makespan: " + dft.format(getScheduleMakespan()));
+
+		DagUtils.setTaskCount(this.taskGraph.getTaskCount());
+
+		for (Cloudlet cloudlet : getCloudletList()) {
+			int taskId = cloudlet.getCloudletId();
+
+			// Based on the computed schedule, obtain the assigned resource for the current task.
+			Vm vm = VmList.getById(getVmsCreatedList(), this.taskToResourceMappings.get(taskId));
+			int vmId = vm.getId();
+
+			Task task = (Task) cloudlet;
+			TaskExecutionResourceStatus resourceStatus = canExecuteTaskOnResource(cloudlet, this.taskGraph.getTaskInputData(taskId), vm);
+			task.setResourceStatus(resourceStatus);
+
+			if (resourceStatus != TaskExecutionResourceStatus.SUCCESS) {
+				System.out.println(CloudSim.clock() + ": " + getName() + ": Cannot send cloudlet " + taskId + " to VM #" + vmId
+							+ " - Error: " + resourceStatus);
+				continue;
+			}
+
+			// Update the current capacity of the edge device's battery.
+			updateEdgeDeviceBattery(cloudlet, vm);
+
+			// Update the task's length according to the task's actual processing time on the selected resource.
+			Double computationTime = getCloudletComputationTime(taskId, vmId);
+			task.setTotalExecutionTime(computationTime);
+			cloudlet.setCloudletLength((long) (computationTime * vm.getMips()));
+
+			Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet " + taskId + " to VM #" + vmId);
+			cloudlet.setVmId(vmId);
+			send(getVmsToDatacentersMap().get(vmId), this.taskAFT.get(taskId) - computationTime, CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			cloudletsSubmitted++;
+			getCloudletSubmittedList().add(cloudlet);
+		}
+
+		// Remove submitted cloudlets from the waiting list.
+		for (Cloudlet cloudlet : getCloudletSubmittedList()) {
+			getCloudletList().remove(cloudlet);
+		}
+
+		Instant endTime = Instant.now();
+
+		Duration schedulingTimeDuration = Duration.between(startTime, endTime);
+		DagSchedulingMetrics.setSchedulingTimeDuration(schedulingTimeDuration);
+	}
+
+	/**
+	 * HEFT scheduling of the current task graph.
+	 * @param coarsener The task graph coarsener, null to consider all the resources for each task.
+	 * @param coarseTaskToResourceMappings Schedule of the coarsest task graph, null to consider all the resources for each task.
+	 */
+	private void computeSchedule(TaskGraphCoarsener coarsener, Map<Integer, Integer> coarseTaskToResourceMappings) {
+		DecimalFormat dft = new DecimalFormat("##.###");
+		TaskGraphAdjacency adjacency = this.taskGraph.getAdjacency();
+
+		while (!this.sortedTasksByPriorityDesc.isEmpty()) {
+			Integer task = Constants.INVALID_RESULT_INT;
+			try {
+				task = this.sortedTasksByPriorityDesc.getFirst();
+				int taskIdx = this.taskGraph.getTaskIndex(task);
+				Log.printLine("> Attempt to schedule task " + task);
+
+				this.sortedTasksByPriorityDesc.remove(task);
+
+				BitSet schedulableResources = this.taskGraph.getSchedulableResourcesByIndex(taskIdx);
+				int newResourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
+				if (coarseTaskToResourceMappings != null) {
+					/*
+					 * Candidate resources: the resource of the super-task and the resources of the predecessor tasks
+					 * (the super-task or a predecessor task may not have been scheduled on any resource).
+					 */
+					BitSet candidateResources = new BitSet();
+					Integer coarseResource = coarseTaskToResourceMappings.get(coarsener.getCoarsestTask(task));
+					if (coarseResource != null) {
+						candidateResources.set(coarseResource);
+					}
+					int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+					for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+						Integer predTask = this.taskGraph.getTask(adjacency.getPredecessorTask(predecessorIdx));
+						Integer predResource = this.taskToResourceMappings.get(predTask);
+						if (predResource != null) {
+							candidateResources.set(predResource);
+						}
+					}
+					candidateResources.and(schedulableResources);
+					newResourceAllocatedTimeSlotIdx = allocateTask(task, taskIdx, candidateResources, true, dft);
+				}
+				if (newResourceAllocatedTimeSlotIdx == Constants.INVALID_RESULT_INT) {
+					newResourceAllocatedTimeSlotIdx = allocateTask(task, taskIdx, schedulableResources, coarseTaskToResourceMappings != null, dft);
+				}
+				if (newResourceAllocatedTimeSlotIdx == Constants.INVALID_RESULT_INT) {
+					Log.printLine("Task " + task + " cannot be executed on any resource");
+				}
+			} finally {
+				Log.printLine("< Finalized attempt to schedule task " + task);
+			}
+		}
+	}
+
+	/**
+	 * Allocates the task to the candidate resource minimizing its EFT.
+	 * @param refine Whether the schedule is being refined (bounded EST scan) or not (exact EST scan).
+	 * @return Index of the allocated time slot, INVALID_RESULT_INT if none of the candidate resources can execute the task.
+	 */
+	private int allocateTask(Integer task, int taskIdx, BitSet candidateResources, boolean refine, DecimalFormat dft) {
+		Double taskEFT = Double.MAX_VALUE;
+		Double taskEST = Constants.INVALID_RESULT_DOUBLE;
+		Integer allocatedResource = Constants.INVALID_RESULT_INT;
+		int newResourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
+
+		for (int resource = candidateResources.nextSetBit(0); resource >= 0; resource = candidateResources.nextSetBit(resource + 1)) {
+			if (!canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
+				continue;
+			}
+
+			Double computationCost = this.taskGraph.getComputationCostByIndex(taskIdx, resource);
+			Double EST = refine ? computeRefinedEST(task, taskIdx, resource) : computeEST(task, resource);
+			Double EFT = computationCost + EST;
+			if (EFT < taskEFT) {
+				taskEFT = EFT;
+				taskEST = EST;
+				allocatedResource = resource;
+				newResourceAllocatedTimeSlotIdx = this.resourceAllocatedTimeSlotIdx;
+			}
+		}
+		if (newResourceAllocatedTimeSlotIdx == Constants.INVALID_RESULT_INT) {
+			return Constants.INVALID_RESULT_INT;
+		}
+
+		Double taskPriority = this.taskHeftRankMappings.get(task);
+		Log.printLine("Task " + task + " (Priority: " + dft.format(taskPriority) + ")"
+					+ " -> " + "Resource #" + allocatedResource + " -> " + "AFT: " + taskEFT);
+		this.taskToResourceMappings.put(task, allocatedResource);
+		this.taskAFT.put(task, taskEFT);
+		Pair<Double, Double> newResourceAllocatedTimeSlot = new Pair<Double, Double>(taskEST, taskEFT);
+		this.resourceAllocatedTimeSlots.get(allocatedResource).add(newResourceAllocatedTimeSlotIdx, newResourceAllocatedTimeSlot);
+		return newResourceAllocatedTimeSlotIdx;
+	}
+
+	/**
+	 * Insertion-based EST of the task on the resource, as computed by {@link #computeEST(Integer, Integer)}, with a bounded scan
+	 * of the idle time slots: the idle time slots ending before the task could finish are skipped with a binary search (the
+	 * allocated time slots are sorted), and at most MULTILEVEL_MAX_IDLE_SLOT_SCAN idle time slots are then tried before
+	 * the task is placed after the last allocated time slot. Predecessor tasks not scheduled on any resource are ignored.
+	 * @return EST of the task, infinite if the resource never stays available long enough to execute the task.
+	 */
+	private Double computeRefinedEST(Integer task, int taskIdx, Integer resource) {
+		Double computationTime = this.taskGraph.getComputationCostByIndex(taskIdx, resource);
+
+		// Consider both task's arrival time and resource's availability time.
+		Double taskArrivalTime = this.taskArrivalTimes.get(task);
+		ResourceAvailabilityTimeline resourceAvailabilityTimeline = this.taskGraph.getResourceAvailabilityTimeline();
+		Double resourceAvailabilityTime = resourceAvailabilityTimeline.getAvailabilityStartTime(resource, taskArrivalTime, computationTime);
+		if (resourceAvailabilityTime == Double.POSITIVE_INFINITY) {
+			return resourceAvailabilityTime;
+		}
+
+		// Ready time of the task on the resource.
+		Double taskReadyTime = taskArrivalTime;
+		TaskGraphAdjacency adjacency = this.taskGraph.getAdjacency();
+		int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+		for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+			Integer predTask = this.taskGraph.getTask(adjacency.getPredecessorTask(predecessorIdx));
+			Integer predResource = this.taskToResourceMappings.get(predTask);
+			if (predResource == null) {
+				continue;
+			}
+
+			Double communicationTime = this.taskGraph.getCommunicationCostByIndex(adjacency.getPredecessorDependency(predecessorIdx), predResource, resource);
+			Double predTaskReadyTime = Math.max(this.taskAFT.get(predTask), resourceAvailabilityTime) + communicationTime;
+			if (predTaskReadyTime > taskReadyTime) {
+				taskReadyTime = predTaskReadyTime;
+			}
+		}
+
+		// First idle slot that may fit the task: the ones ending before the task's ready time plus its computation time cannot.
+		List<Pair<Double, Double>> allocatedTimeSlots = this.resourceAllocatedTimeSlots.get(resource);
+		int allocatedTimeSlotCount = allocatedTimeSlots.size();
+		double minIdleSlotFinishTime = taskReadyTime + computationTime;
+		int firstAllocatedTimeSlotIdx = 0;
+		int lastAllocatedTimeSlotIdx = allocatedTimeSlotCount;
+		while (firstAllocatedTimeSlotIdx < lastAllocatedTimeSlotIdx) {
+			int middleAllocatedTimeSlotIdx = (firstAllocatedTimeSlotIdx + lastAllocatedTimeSlotIdx) >>> 1;
+			if (allocatedTimeSlots.get(middleAllocatedTimeSlotIdx).getKey() < minIdleSlotFinishTime) {
+				firstAllocatedTimeSlotIdx = middleAllocatedTimeSlotIdx + 1;
+			} else {
+				lastAllocatedTimeSlotIdx = middleAllocatedTimeSlotIdx;
+			}
+		}
+
+		// Try to find an idle slot, among a bounded number of them.
+		int idleSlotScanEnd = Math.min(allocatedTimeSlotCount, firstAllocatedTimeSlotIdx + Constants.MULTILEVEL_MAX_IDLE_SLOT_SCAN);
+		for (this.resourceAllocatedTimeSlotIdx = firstAllocatedTimeSlotIdx; this.resourceAllocatedTimeSlotIdx < idleSlotScanEnd; ++this.resourceAllocatedTimeSlotIdx) {
+			Double idleSlotStartTime = this.resourceAllocatedTimeSlotIdx == 0 ? resourceAvailabilityTime : allocatedTimeSlots.get(this.resourceAllocatedTimeSlotIdx-1).getValue();
+			Double idleSlotFinishTime = allocatedTimeSlots.get(this.resourceAllocatedTimeSlotIdx).getKey();
+
+			double slotStartTime = resourceAvailabilityTimeline.getAvailabilityStartTime(resource, Math.max(idleSlotStartTime, taskReadyTime), computationTime);
+			if (slotStartTime + computationTime <= idleSlotFinishTime) {
+				return slotStartTime;
+			}
+		}
+
+		// Could not find any feasible idle slot, thus select the time when the resource completed the last task's execution.
+		this.resourceAllocatedTimeSlotIdx = allocatedTimeSlotCount;
+		Double lastAllocatedSlotFinishTime = allocatedTimeSlotCount == 0 ? resourceAvailabilityTime : allocatedTimeSlots.get(allocatedTimeSlotCount-1).getValue();
+		return resourceAvailabilityTimeline.getAvailabilityStartTime(resource, Math.max(lastAllocatedSlotFinishTime, taskReadyTime), computationTime);
+	}
+
+	private double getScheduleMakespan() {
+		double makespan = 0.0;
+		for (Double aft : this.taskAFT.values()) {
+			makespan = Math.max(makespan, aft);
+		}
+		return makespan;
+	}
+
+}
@@ -2,10 +2,10 @@ package dag_scheduling_algorithms;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Log;
@@ -20,8 +20,6 @@ import scheduling_evaluation.DagUtils;
 import scheduling_evaluation.Pair;
 import scheduling_evaluation.Task;
 import scheduling_evaluation.TaskGraph;
-import scheduling_evaluation.TaskUtils;
-import scheduling_evaluation.Types.ResourceType;
 import scheduling_evaluation.Types.TaskExecutionResourceStatus;
 
 public class PredeterminedScheduleEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenterBroker {
@@ -110,7 +108,7 @@ public class PredeterminedScheduleEdgeCloudDatacenterBroker extends DefaultDagEd
 			Integer task = Constants.INVALID_RESULT_INT;
 			try {
 				task = this.sortedTasksByPriorityDesc.getFirst();
-				double taskDataSize = this.taskGraph.getTaskInputData(task);
+				int taskIdx = this.taskGraph.getTaskIndex(task);
 				Log.printLine("> Attempt to schedule task " + task);
 
 				this.sortedTasksByPriorityDesc.remove(task);
@@ -120,16 +118,13 @@ public class PredeterminedScheduleEdgeCloudDatacenterBroker extends DefaultDagEd
 				Integer allocatedResource = Constants.INVALID_RESULT_INT;
 				int newResourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
 
-				for (Map.Entry<Integer, ResourceType> resourceEntry : this.taskGraph.getResources().entrySet()) {
-					Integer resource = resourceEntry.getKey();
-					ResourceType resourceType = resourceEntry.getValue();
-
-					if (!TaskUtils.canExecuteTaskOnResourceWithLimitedMemoryCapacity(taskDataSize, resourceType)
-						|| !canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
+				BitSet schedulableResources = this.taskGraph.getSchedulableResourcesByIndex(taskIdx);
+				for (int resource = schedulableResources.nextSetBit(0); resource >= 0; resource = schedulableResources.nextSetBit(resource + 1)) {
+					if (!canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
 						continue;
 					}
 
-					Double computationCost = this.taskGraph.getComputationCost(task, resource);
+					Double computationCost = this.taskGraph.getComputationCostByIndex(taskIdx, resource);
 					Double EST = computeEST(task, resource);
 					Double EFT = computationCost + EST;
 					if (EFT < taskEFT) {
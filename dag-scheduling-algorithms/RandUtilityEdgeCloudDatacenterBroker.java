@@ -3,11 +3,11 @@ package dag_scheduling_algorithms;
 import java.text.DecimalFormat;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Log;
@@ -22,8 +22,6 @@ import scheduling_evaluation.DagUtils;
 import scheduling_evaluation.Pair;
 import scheduling_evaluation.Task;
 import scheduling_evaluation.TaskGraph;
-import scheduling_evaluation.TaskUtils;
-import scheduling_evaluation.Types.ResourceType;
 import scheduling_evaluation.Types.TaskExecutionResourceStatus;
 
 public class RandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenterBroker {
@@ -118,7 +116,7 @@ public class RandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDat
 			Integer task = Constants.INVALID_RESULT_INT;
 			try {
 				task = getNextUnscheduledTask();
-				double taskDataSize = this.taskGraph.getTaskInputData(task);
+				int taskIdx = this.taskGraph.getTaskIndex(task);
 				Log.printLine("> Attempt to schedule task " + task);
 
 				this.sortedTasksByPriorityDesc.remove(task);
@@ -128,16 +126,13 @@ public class RandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDat
 				Integer allocatedResource = Constants.INVALID_RESULT_INT;
 				int newResourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
 
-				for (Map.Entry<Integer, ResourceType> resourceEntry : this.taskGraph.getResources().entrySet()) {
-					Integer resource = resourceEntry.getKey();
-					ResourceType resourceType = resourceEntry.getValue();
-
-					if (!TaskUtils.canExecuteTaskOnResourceWithLimitedMemoryCapacity(taskDataSize, resourceType)
-						|| !canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
+				BitSet schedulableResources = this.taskGraph.getSchedulableResourcesByIndex(taskIdx);
+				for (int resource = schedulableResources.nextSetBit(0); resource >= 0; resource = schedulableResources.nextSetBit(resource + 1)) {
+					if (!canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
 						continue;
 					}
 
-					Double computationCost = this.taskGraph.getComputationCost(task, resource);
+					Double computationCost = this.taskGraph.getComputationCostByIndex(taskIdx, resource);
 					Double EST = computeEST(task, resource);
 					Double EFT = computationCost + EST;
 					if (EFT < taskEFT) {
@@ -164,7 +159,7 @@ public class RandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDat
 	private Integer getNextUnscheduledTask() {
 		Integer task = Constants.INVALID_RESULT_INT;
 
-		if (Math.random() >= 0.2) {
+		if (this.random.nextDouble() >= 0.2) {
 			// Probability 80%: Get the task with the highest priority.
 			task = this.sortedTasksByPriorityDesc.getFirst();
 		} else {
@@ -172,7 +167,7 @@ public class RandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDat
 			Iterator<Integer> sortedTasksAscIterator = this.sortedTasksByPriorityDesc.descendingIterator();
 			while (sortedTasksAscIterator.hasNext()) {
 				Integer currentTask = sortedTasksAscIterator.next();
-				if (arePredecessorTasksScheduled(currentTask)) {
+				if (isReadyTask(currentTask)) {
 					task = currentTask;
 					break;
 				}
@@ -182,14 +177,4 @@ public class RandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDat
 		return task;
 	}
 
-	private boolean arePredecessorTasksScheduled(Integer task) {
-		Map<Integer, Double> predTasksInfo = this.taskGraph.getPredecessorTasksInfo(task);
-		for (Integer predTask : predTasksInfo.keySet()) {
-			if (!this.taskToResourceMappings.containsKey(predTask)) {
-				return false;
-			}
-		}
-		return true;
-	}
-
 }
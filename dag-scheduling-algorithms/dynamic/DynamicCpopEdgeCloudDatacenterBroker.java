@@ -3,10 +3,10 @@ package dag_scheduling_algorithms.dynamic;
 import java.text.DecimalFormat;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -30,8 +30,7 @@ import scheduling_evaluation.DagUtils;
 import scheduling_evaluation.Pair;
 import scheduling_evaluation.Task;
 import scheduling_evaluation.TaskGraph;
-import scheduling_evaluation.TaskUtils;
-import scheduling_evaluation.Types.ResourceType;
+import scheduling_evaluation.TaskGraphAdjacency;
 import scheduling_evaluation.Types.TaskExecutionResourceStatus;
 
 public class DynamicCpopEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenterBroker {
@@ -158,7 +157,7 @@ public class DynamicCpopEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDat
 
 		while (!this.cpopTasks.isEmpty()) {
 			Integer task = this.cpopTasks.poll();
-			double taskDataSize = this.taskGraph.getTaskInputData(task);
+			int taskIdx = this.taskGraph.getTaskIndex(task);
 			Log.printLine("> Attempt to schedule task " + task);
 
 			Double taskEFT = Double.MAX_VALUE;
@@ -167,7 +166,7 @@ public class DynamicCpopEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDat
 			int newResourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
 
 			if (criticalPathTasks.contains(task)) {
-				Double computationCost = this.taskGraph.getComputationCost(task, criticalPathResource);
+				Double computationCost = this.taskGraph.getComputationCostByIndex(taskIdx, criticalPathResource);
 				Double EST = computeEST(task, criticalPathResource);
 				Double EFT = computationCost + EST;
 
@@ -176,16 +175,13 @@ public class DynamicCpopEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDat
 				allocatedResource = criticalPathResource;
 				newResourceAllocatedTimeSlotIdx = this.resourceAllocatedTimeSlotIdx;
 			} else {
-				for (Map.Entry<Integer, ResourceType> resourceEntry : this.taskGraph.getResources().entrySet()) {
-					Integer resource = resourceEntry.getKey();
-					ResourceType resourceType = resourceEntry.getValue();
-
-					if (!TaskUtils.canExecuteTaskOnResourceWithLimitedMemoryCapacity(taskDataSize, resourceType)
-						|| !canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
+				BitSet schedulableResources = this.taskGraph.getSchedulableResourcesByIndex(taskIdx);
+				for (int resource = schedulableResources.nextSetBit(0); resource >= 0; resource = schedulableResources.nextSetBit(resource + 1)) {
+					if (!canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
 						continue;
 					}
 
-					Double computationCost = this.taskGraph.getComputationCost(task, resource);
+					Double computationCost = this.taskGraph.getComputationCostByIndex(taskIdx, resource);
 					Double EST = computeEST(task, resource);
 					Double EFT = computationCost + EST;
 					if (EFT < taskEFT) {
@@ -205,7 +201,10 @@ public class DynamicCpopEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDat
 			Pair<Double, Double> newResourceAllocatedTimeSlot = new Pair<Double, Double>(taskEST, taskEFT);
 			this.resourceAllocatedTimeSlots.get(allocatedResource).add(newResourceAllocatedTimeSlotIdx, newResourceAllocatedTimeSlot);
 
-			for (Integer succTask : this.taskGraph.getSuccessorTasksInfo(task).keySet()) {
+			TaskGraphAdjacency adjacency = this.taskGraph.getAdjacency();
+			int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+			for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+				Integer succTask = this.taskGraph.getTask(adjacency.getSuccessorTask(dependencyIdx));
 				if (isReadyTask(succTask)) {
 					this.cpopTasks.add(succTask);
 				}
@@ -217,12 +216,11 @@ public class DynamicCpopEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDat
 
 	private void addDynamicTaskSubgraph(int taskSubgraphIdx) {
 		Double taskSubgraphArrivalTime = this.taskSubgraphArrivalTimes.get(taskSubgraphIdx);
-		String taskSubgraphFilename = this.taskSubgraphFilenames.get(taskSubgraphIdx);
-
-		List<Integer> taskIds = DagUtils.loadTaskSubgraph(taskSubgraphFilename, this.taskGraph);
+		List<Integer> taskIds = this.taskSubgraphBundle.appendTaskSubgraph(taskSubgraphIdx, this.taskGraph);
 
-		this.taskGraph.clearAndPrecomputeCosts();
-		clearCpopRanks();
+		this.taskGraph.updatePrecomputedCosts();
+		clearUpdatedUpwardRanks();
+		clearUpdatedDownwardRanks();
 		computeCpopRanks();
 		findCriticalPath();
 
@@ -3,11 +3,11 @@ package dag_scheduling_algorithms.dynamic;
 import java.text.DecimalFormat;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -30,8 +30,6 @@ import scheduling_evaluation.DagUtils;
 import scheduling_evaluation.Pair;
 import scheduling_evaluation.Task;
 import scheduling_evaluation.TaskGraph;
-import scheduling_evaluation.TaskUtils;
-import scheduling_evaluation.Types.ResourceType;
 import scheduling_evaluation.Types.TaskExecutionResourceStatus;
 
 public class DynamicRandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeCloudDatacenterBroker {
@@ -165,7 +163,7 @@ public class DynamicRandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeC
 			Integer task = Constants.INVALID_RESULT_INT;
 			try {
 				task = getNextUnscheduledTask();
-				double taskDataSize = this.taskGraph.getTaskInputData(task);
+				int taskIdx = this.taskGraph.getTaskIndex(task);
 				Log.printLine("> Attempt to schedule task " + task);
 
 				this.sortedTasksByPriorityDesc.remove(task);
@@ -175,16 +173,13 @@ public class DynamicRandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeC
 				Integer allocatedResource = Constants.INVALID_RESULT_INT;
 				int newResourceAllocatedTimeSlotIdx = Constants.INVALID_RESULT_INT;
 
-				for (Map.Entry<Integer, ResourceType> resourceEntry : this.taskGraph.getResources().entrySet()) {
-					Integer resource = resourceEntry.getKey();
-					ResourceType resourceType = resourceEntry.getValue();
-
-					if (!TaskUtils.canExecuteTaskOnResourceWithLimitedMemoryCapacity(taskDataSize, resourceType)
-						|| !canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
+				BitSet schedulableResources = this.taskGraph.getSchedulableResourcesByIndex(taskIdx);
+				for (int resource = schedulableResources.nextSetBit(0); resource >= 0; resource = schedulableResources.nextSetBit(resource + 1)) {
+					if (!canExecuteTaskOnResourceWithLimitedBatteryCapacity(task, resource)) {
 						continue;
 					}
 
-					Double computationCost = this.taskGraph.getComputationCost(task, resource);
+					Double computationCost = this.taskGraph.getComputationCostByIndex(taskIdx, resource);
 					Double EST = computeEST(task, resource);
 					Double EFT = computationCost + EST;
 					if (EFT < taskEFT) {
@@ -212,7 +207,7 @@ public class DynamicRandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeC
 	private Integer getNextUnscheduledTask() {
 		Integer task = Constants.INVALID_RESULT_INT;
 
-		if (Math.random() >= 0.2) {
+		if (this.random.nextDouble() >= 0.2) {
 			// Probability 80%: Get the task with the highest priority.
 			task = this.sortedTasksByPriorityDesc.getFirst();
 		} else {
@@ -220,7 +215,7 @@ public class DynamicRandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeC
 			Iterator<Integer> sortedTasksAscIterator = this.sortedTasksByPriorityDesc.descendingIterator();
 			while (sortedTasksAscIterator.hasNext()) {
 				Integer currentTask = sortedTasksAscIterator.next();
-				if (arePredecessorTasksScheduled(currentTask)) {
+				if (isReadyTask(currentTask)) {
 					task = currentTask;
 					break;
 				}
@@ -230,23 +225,11 @@ public class DynamicRandUtilityEdgeCloudDatacenterBroker extends DefaultDagEdgeC
 		return task;
 	}
 
-	private boolean arePredecessorTasksScheduled(Integer task) {
-		Map<Integer, Double> predTasksInfo = this.taskGraph.getPredecessorTasksInfo(task);
-		for (Integer predTask : predTasksInfo.keySet()) {
-			if (!this.taskToResourceMappings.containsKey(predTask)) {
-				return false;
-			}
-		}
-		return true;
-	}
-
 	private void addDynamicTaskSubgraph(int taskSubgraphIdx) {
 		Double taskSubgraphArrivalTime = this.taskSubgraphArrivalTimes.get(taskSubgraphIdx);
-		String taskSubgraphFilename = this.taskSubgraphFilenames.get(taskSubgraphIdx);
-
-		List<Integer> taskIds = DagUtils.loadTaskSubgraph(taskSubgraphFilename, this.taskGraph);
+		List<Integer> taskIds = this.taskSubgraphBundle.appendTaskSubgraph(taskSubgraphIdx, this.taskGraph);
 
-		this.taskGraph.clearAndPrecomputeCosts();
+		this.taskGraph.updatePrecomputedCosts();
 		clearUtilityRanks();
 		computeUtilityRanks(this.hybrid);
 		sortTasksByUtilityRanks();
@@ -0,0 +1,167 @@
+package scheduling_evaluation;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import scheduling_evaluation.Types.ResourceType;
+
+/**
+ * Microbenchmark of the communication cost lookups: the precomputed per-dependency table of the task graph
+ * against the former lookup (data dependency map, entry / exit task list scans and transfer rate branches).
+ * Every iteration evaluates the communication cost of every dependency between every pair of resources,
+ * as done when computing the average communication costs. The construction of the table is measured as well,
+ * rebuilding it from scratch at every iteration.
+ */
+public class CommunicationCostBenchmark {
+
+	private static final List<String> DEFAULT_TASK_GRAPH_FILENAMES = Arrays.asList(
+			"data/dag/pegasus/epigenomics/epigenomics-chameleon-hep-7seq-50k-001-dag.txt",
+			"data/dag/pegasus/epigenomics/epigenomics-chameleon-ilmn-6seq-50k-001-dag.txt",
+			"data/dag/pegasus/montage/montage-chameleon-2mass-10d-001-dag.txt",
+			"data/dag/pegasus/montage/montage-chameleon-dss-20d-001-dag.txt"
+	);
+
+	private static final int WARMUP_ITERATION_COUNT = 5;
+	private static final int MEASUREMENT_ITERATION_COUNT = 10;
+
+	private static Double getLegacyCommunicationCost(TaskGraph taskGraph, Integer fromTask, Integer toTask, Integer fromResource, Integer toResource) {
+		ResourceType fromResourceType = taskGraph.getResources().get(fromResource);
+		ResourceType toResourceType = taskGraph.getResources().get(toResource);
+		boolean fromEdgeResource = ResourceUtils.isEdgeResource(fromResourceType);
+		boolean fromCloudResource = ResourceUtils.isCloudResource(fromResourceType);
+		boolean toEdgeResource = ResourceUtils.isEdgeResource(toResourceType);
+		boolean toCloudResource = ResourceUtils.isCloudResource(toResourceType);
+
+		Double dataDependency = taskGraph.getDataDependency(fromTask, toTask);
+
+		if (taskGraph.getEntryTasks().contains(fromTask)) {
+			Double transferRate = toEdgeResource ? Constants.CLOUD_TO_EDGE_TRANSFER_RATE : Constants.CLOUD_TO_CLOUD_TRANSFER_RATE;
+			return dataDependency / transferRate;
+		}
+		if (taskGraph.getExitTasks().contains(toTask)) {
+			Double transferRate = fromEdgeResource ? Constants.EDGE_TO_CLOUD_TRANSFER_RATE : Constants.CLOUD_TO_CLOUD_TRANSFER_RATE;
+			return dataDependency / transferRate;
+		}
+
+		if (Objects.equals(fromResource, toResource)) {
+			return 0.0;
+		}
+
+		Double resourcesTransferRate = Constants.INVALID_RESULT_DOUBLE;
+		if (fromEdgeResource && toEdgeResource) {
+			resourcesTransferRate = Constants.EDGE_TO_EDGE_TRANSFER_RATE;
+		} else if (fromEdgeResource && toCloudResource) {
+			resourcesTransferRate = Constants.EDGE_TO_CLOUD_TRANSFER_RATE;
+		} else if (fromCloudResource && toEdgeResource) {
+			resourcesTransferRate = Constants.CLOUD_TO_EDGE_TRANSFER_RATE;
+		} else if (fromCloudResource && toCloudResource) {
+			resourcesTransferRate = Constants.CLOUD_TO_CLOUD_TRANSFER_RATE;
+		}
+		return dataDependency / resourcesTransferRate;
+	}
+
+	private static double sweepLegacyCommunicationCosts(TaskGraph taskGraph, List<Integer> resources) {
+		double communicationCostsSum = 0.0;
+		for (Integer fromTask : taskGraph.getTasks()) {
+			for (Integer toTask : taskGraph.getSuccessorTasksInfo(fromTask).keySet()) {
+				for (Integer fromResource : resources) {
+					for (Integer toResource : resources) {
+						communicationCostsSum += getLegacyCommunicationCost(taskGraph, fromTask, toTask, fromResource, toResource);
+					}
+				}
+			}
+		}
+		return communicationCostsSum;
+	}
+
+	private static double sweepCommunicationCosts(TaskGraph taskGraph, int[] resources) {
+		double communicationCostsSum = 0.0;
+		int dependencyCount = taskGraph.getAdjacency().getDependencyCount();
+		for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+			for (int fromResource : resources) {
+				for (int toResource : resources) {
+					communicationCostsSum += taskGraph.getCommunicationCostByIndex(dependencyIdx, fromResource, toResource);
+				}
+			}
+		}
+		return communicationCostsSum;
+	}
+
+	private static double sumCommunicationCosts(double[] communicationCosts) {
+		double communicationCostsSum = 0.0;
+		for (double communicationCost : communicationCosts) {
+			communicationCostsSum += communicationCost;
+		}
+		return communicationCostsSum;
+	}
+
+	private static void benchmark(String taskGraphFilename) {
+		DecimalFormat dft = new DecimalFormat("###.###");
+
+		TaskGraph taskGraph = DagUtils.loadTaskGraph(taskGraphFilename);
+		if (taskGraph == null) {
+			return;
+		}
+
+		List<Integer> resources = new ArrayList<Integer>(taskGraph.getResources().keySet());
+		int[] resourceIds = new int[resources.size()];
+		for (int resourceIdx = 0; resourceIdx < resourceIds.length; ++resourceIdx) {
+			resourceIds[resourceIdx] = resources.get(resourceIdx);
+		}
+
+		// Table construction time (the built table is summed, so that its construction cannot be elided).
+		double buildResult = 0.0;
+		for (int iteration = 0; iteration < WARMUP_ITERATION_COUNT; ++iteration) {
+			buildResult = sumCommunicationCosts(taskGraph.rebuildCommunicationCosts());
+		}
+		long buildTime = 0;
+		for (int iteration = 0; iteration < MEASUREMENT_ITERATION_COUNT; ++iteration) {
+			long startTime = System.nanoTime();
+			double[] communicationCosts = taskGraph.rebuildCommunicationCosts();
+			buildTime += System.nanoTime() - startTime;
+			buildResult = sumCommunicationCosts(communicationCosts);
+		}
+
+		double legacyResult = 0.0;
+		double result = 0.0;
+		for (int iteration = 0; iteration < WARMUP_ITERATION_COUNT; ++iteration) {
+			legacyResult = sweepLegacyCommunicationCosts(taskGraph, resources);
+			result = sweepCommunicationCosts(taskGraph, resourceIds);
+		}
+
+		long legacyTime = 0;
+		long time = 0;
+		for (int iteration = 0; iteration < MEASUREMENT_ITERATION_COUNT; ++iteration) {
+			long startTime = System.nanoTime();
+			legacyResult = sweepLegacyCommunicationCosts(taskGraph, resources);
+			legacyTime += System.nanoTime() - startTime;
+
+			startTime = System.nanoTime();
+			result = sweepCommunicationCosts(taskGraph, resourceIds);
+			time += System.nanoTime() - startTime;
+		}
+
+		long lookupCount = (long) MEASUREMENT_ITERATION_COUNT * taskGraph.getAdjacency().getDependencyCount() * resourceIds.length * resourceIds.length;
+		System.out.println(taskGraphFilename
+				+ " | tasks: " + taskGraph.getTaskCount()
+				+ " | dependencies: " + taskGraph.getAdjacency().getDependencyCount()
+				+ " | resources: " + resourceIds.length);
+		System.out.println("  table build: " + dft.format(buildTime / 1e6 / MEASUREMENT_ITERATION_COUNT) + " ms"
+				+ " (cost sum: " + dft.format(buildResult) + ")");
+		System.out.println("  legacy lookup: " + dft.format((double) legacyTime / lookupCount) + " ns/op");
+		System.out.println("  table lookup: " + dft.format((double) time / lookupCount) + " ns/op");
+		System.out.println("  speedup: " + dft.format((double) legacyTime / time) + "x"
+				+ (Math.abs(legacyResult - result) <= 1e-9 * Math.abs(legacyResult) ? "" : " (MISMATCH: " + legacyResult + " != " + result + ")"));
+	}
+
+	public static void main(String[] args) {
+		List<String> taskGraphFilenames = args.length > 0 ? Arrays.asList(args) : DEFAULT_TASK_GRAPH_FILENAMES;
+		for (String taskGraphFilename : taskGraphFilenames) {
+			benchmark(taskGraphFilename);
+		}
+	}
+
+}
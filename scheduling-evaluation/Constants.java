@@ -7,6 +7,7 @@ public class Constants {
 	public static final String FILE_EXTENSION_CSV		= ".csv";
 	public static final String FILE_EXTENSION_JSON		= ".json";
 	public static final String FILE_EXTENSION_TXT		= ".txt";
+	public static final String FILE_EXTENSION_BIN		= ".bin";
 
 	/* Result codes */
 	public static final double INVALID_RESULT_DOUBLE	= -1.0;
@@ -16,6 +17,36 @@ public class Constants {
 	public static final double DEFAULT_RESOURCE_AVAILABILITY_TIME	= 0.0;
 	public static final double RESOURCE_AVAILABILITY_RATE			= 0.03;		// 3 resources in 100 seconds
 	public static final String RESOURCE_AVAILABILITY_TIMES_FILENAME	= "data/times/resource_availability_times.txt";
+	// Compute the average computation / communication costs from the per resource type counts of the available resources,
+	// instead of iterating over every resource (pair).
+	public static final boolean AGGREGATED_AVERAGE_COSTS			= true;
+	// Precompute the task graph costs in parallel (common fork-join pool) for task graphs with at least the given number of tasks.
+	public static final boolean PARALLEL_COSTS_PRECOMPUTATION			= true;
+	public static final int PARALLEL_COSTS_PRECOMPUTATION_MIN_TASK_COUNT	= 1000;
+	// Store the task graph CSR adjacency and computation costs off-heap (direct buffers), for very large synthetic task graphs.
+	// The dependency maps, task indices and average communication costs stay on the heap (1M tasks: 870 MB -> 770 MB of heap).
+	public static final boolean OFF_HEAP_TASK_GRAPH					= false;
+	// Remove the precedence-only dependencies implied by other paths when creating the Pegasus task graphs.
+	public static final boolean PEGASUS_TRANSITIVE_REDUCTION			= false;
+	// Read the Pegasus workflow instances in a single streaming pass (integer-interned IDs), instead of building the JSON tree.
+	public static final boolean PEGASUS_STREAMING_INGESTION			= true;
+	// Generate the task graphs / task subgraphs of the workflows in parallel (see WorkflowConversionPipeline): the workflows being
+	// converted at the same time have at most WORKFLOW_CONVERSION_MEMORY_BUDGET_MB of input files, larger ones are converted one at a time.
+	public static final boolean PARALLEL_WORKFLOW_CONVERSION			= true;
+	public static final int WORKFLOW_CONVERSION_MEMORY_BUDGET_MB		= 64;
+	// Cache the preprocessed task graphs (costs, topological order, ranks) in TASK_GRAPH_CACHE_DIRECTORY, keyed by the hash of the
+	// task graph file, the resource configuration and the resource availability times file (see TaskGraphCache).
+	public static final boolean TASK_GRAPH_CACHE						= true;
+	public static final String TASK_GRAPH_CACHE_DIRECTORY				= "data/cache/";
+	// Also write the DAG metrics of every execution (not only the averages) in a columnar binary file next to the DAG metrics file
+	// (see DagRawMetricsWriter, DagRawMetricsReader).
+	public static final boolean RAW_DAG_METRICS							= false;
+	// Multilevel HEFT: the task graph is coarsened until it has at most MULTILEVEL_COARSE_TASK_COUNT tasks.
+	public static final int MULTILEVEL_COARSE_TASK_COUNT				= 1000;
+	public static final int MULTILEVEL_MAX_COARSENING_LEVELS			= 10;
+	// Multilevel HEFT refinement: at most MULTILEVEL_MAX_IDLE_SLOT_SCAN idle time slots of a resource are tried for a task
+	// before it is appended after the last allocated time slot.
+	public static final int MULTILEVEL_MAX_IDLE_SLOT_SCAN				= 16;
 
 	/* Resource count */
 	// Assumption: number of resources = number of physical machines (in 1 datacenter)
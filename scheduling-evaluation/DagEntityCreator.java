@@ -1,12 +1,9 @@
 package scheduling_evaluation;
 
-import java.io.BufferedWriter;
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -22,8 +19,10 @@ import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
+import dag_scheduling_algorithms.ComponentHeftEdgeCloudDatacenterBroker;
 import dag_scheduling_algorithms.CpopEdgeCloudDatacenterBroker;
 import dag_scheduling_algorithms.HeftEdgeCloudDatacenterBroker;
+import dag_scheduling_algorithms.MultilevelHeftEdgeCloudDatacenterBroker;
 import dag_scheduling_algorithms.PetsEdgeCloudDatacenterBroker;
 import dag_scheduling_algorithms.PredeterminedScheduleEdgeCloudDatacenterBroker;
 import dag_scheduling_algorithms.RandHeftEdgeCloudDatacenterBroker;
@@ -42,6 +41,9 @@ import scheduling_evaluation.Types.SchedulingMode;
 
 public class DagEntityCreator {
 
+	// Resources with their availability info, with the resource availability times they were created from.
+	private static volatile Pair<DoubleBuffer, Pair<Map<Integer, ResourceType>, Map<Integer, Double>>> resourcesWithAvailabilityInfo = null;
+
 	/**
 	 * Creates a DatacenterBroker of the indicated type.
 	 * @param nameSuffix Broker name suffix, added to the broker type string constant.
@@ -111,6 +113,14 @@ public class DagEntityCreator {
 				broker = new PredeterminedScheduleEdgeCloudDatacenterBroker(brokerName, taskGraph, taskGraph.getQl2hdSchedule());
 				break;
 			}
+			case EDGE_CLOUD_MULTILEVEL_HEFT_BROKER: {
+				broker = new MultilevelHeftEdgeCloudDatacenterBroker(brokerName, taskGraph);
+				break;
+			}
+			case EDGE_CLOUD_COMPONENT_HEFT_BROKER: {
+				broker = new ComponentHeftEdgeCloudDatacenterBroker(brokerName, taskGraph);
+				break;
+			}
 			}
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -157,6 +167,16 @@ public class DagEntityCreator {
 				broker = new DynamicPredeterminedScheduleEdgeCloudDatacenterBroker(brokerName, taskGraph, taskGraph.getQl2hdSchedule());
 				break;
 			}
+			case EDGE_CLOUD_MULTILEVEL_HEFT_BROKER: {
+				// Static schedules only: the task graph is coarsened once, before scheduling.
+				Log.printLine("Dynamic scheduling not supported by the multilevel HEFT broker");
+				break;
+			}
+			case EDGE_CLOUD_COMPONENT_HEFT_BROKER: {
+				// Static schedules only: the components are scheduled once, before the task subgraphs arrive.
+				Log.printLine("Dynamic scheduling not supported by the component HEFT broker");
+				break;
+			}
 			}
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -174,8 +194,59 @@ public class DagEntityCreator {
 	 * @return The created task graph.
 	 */
 	public static TaskGraph createPegasusTaskGraph(String workflowInstanceFilename, String taskGraphFilename, boolean verboseMode) {
-		TaskGraph taskGraph = new TaskGraph();
+		return createPegasusTaskGraph(workflowInstanceFilename, taskGraphFilename, verboseMode, Constants.PEGASUS_TRANSITIVE_REDUCTION);
+	}
+
+	/**
+	 * Creates the task graph of a Pegasus workflow instance and saves it locally.
+	 * @param workflowInstanceFilename Workflow instance file (WfFormat).
+	 * @param taskGraphFilename Task graph output file.
+	 * @param verboseMode Whether the file dependencies (and the removed dependencies) are logged.
+	 * @param transitiveReduction Whether the precedence-only dependencies implied by other paths are removed,
+	 * 			see {@link TaskGraph#removeRedundantDependencies()}.
+	 * @return The task graph, null if the workflow data is invalid.
+	 */
+	public static TaskGraph createPegasusTaskGraph(String workflowInstanceFilename, String taskGraphFilename, boolean verboseMode,
+													boolean transitiveReduction) {
+		if (Constants.PEGASUS_STREAMING_INGESTION) {
+			return createStreamedPegasusTaskGraph(workflowInstanceFilename, taskGraphFilename, verboseMode, transitiveReduction);
+		}
+
+		TaskGraph taskGraph = createParsedPegasusTaskGraph(workflowInstanceFilename, verboseMode, transitiveReduction);
+
+		// Save the task graph locally.
+		if (taskGraph == null || !DagUtils.writeTaskGraph(taskGraph, taskGraphFilename)) {
+			return null;
+		}
+
+		return taskGraph;
+	}
+
+	/**
+	 * Creates the task graph of a Pegasus workflow instance, without saving it (see {@link DagUtils#writeTaskGraph(TaskGraph, String)}):
+	 * the workflow instance is read in a single streaming pass if Constants.PEGASUS_STREAMING_INGESTION, parsed into a JSON tree otherwise.
+	 * @param workflowInstanceFilename Workflow instance file (WfFormat).
+	 * @param verboseMode Whether the file dependencies (and the removed dependencies) are logged.
+	 * @param transitiveReduction Whether the precedence-only dependencies implied by other paths are removed.
+	 * @return The task graph, null if the workflow data is invalid.
+	 */
+	public static TaskGraph createPegasusTaskGraph(String workflowInstanceFilename, boolean verboseMode, boolean transitiveReduction) {
+		if (Constants.PEGASUS_STREAMING_INGESTION) {
+			PegasusWorkflowReader workflow = readPegasusWorkflow(workflowInstanceFilename, verboseMode);
+			if (workflow == null) {
+				return null;
+			}
+			return createPegasusTaskGraph(workflow, workflowInstanceFilename, verboseMode, transitiveReduction);
+		}
 
+		return createParsedPegasusTaskGraph(workflowInstanceFilename, verboseMode, transitiveReduction);
+	}
+
+	/**
+	 * Creates the task graph of a Pegasus workflow instance parsed into a JSON tree, without saving it.
+	 * See {@link #createPegasusTaskGraph(String, boolean, boolean)}.
+	 */
+	private static TaskGraph createParsedPegasusTaskGraph(String workflowInstanceFilename, boolean verboseMode, boolean transitiveReduction) {
 		// Temporary data used for creating the task graph based on the workflow data.
 		HashMap<String, Long> fileMappings = new HashMap<String, Long>();								// File size <B>
 		HashMap<String, HashSet<String>> inputFileTasksMappings = new HashMap<String, HashSet<String>>();
@@ -183,7 +254,8 @@ public class DagEntityCreator {
 
 		Map<String, Integer> taskInfoMappings = new HashMap<String, Integer>();
 		Map<String, Double> taskComputationTimeMappings = new HashMap<String, Double>();
-		Map<Pair<String, String>, Long> dependencies = new HashMap<Pair<String, String>, Long>();		// Data <B>
+		// Data dependencies <B>, the data of the files shared by the same two tasks being summed (see TaskDependency).
+		Map<TaskDependency, Long> dependencies = new HashMap<TaskDependency, Long>();
 
 		/* Parse the workflow instance file represented in the WfCommons JSON format: WfFormat (https://github.com/wfcommons/wfformat). */
 
@@ -259,7 +331,7 @@ public class DagEntityCreator {
 				int parentTaskCount = parentTasksIds.size();
 				if (parentTaskCount == 0) {
 					// Entry task.
-					Pair<String, String> dependentTasksIds = new Pair<String, String>(pseudoEntryTaskId, taskId);
+					TaskDependency dependentTasksIds = new TaskDependency(pseudoEntryTaskId, taskId);
 					dependencies.put(dependentTasksIds, (long) 0);
 				}
 
@@ -267,12 +339,12 @@ public class DagEntityCreator {
 				int childTaskCount = childTasksIds.size();
 				if (childTaskCount == 0) {
 					// Exit task.
-					Pair<String, String> dependentTasksIds = new Pair<String, String>(taskId, pseudoExitTaskId);
+					TaskDependency dependentTasksIds = new TaskDependency(taskId, pseudoExitTaskId);
 					dependencies.put(dependentTasksIds, (long) 0);
 				}
 				for (int childTaskIdx = 0; childTaskIdx < childTaskCount; ++childTaskIdx) {
 					String childTaskId = (String) childTasksIds.get(childTaskIdx);
-					Pair<String, String> dependentTasksIds = new Pair<String, String>(taskId, childTaskId);
+					TaskDependency dependentTasksIds = new TaskDependency(taskId, childTaskId);
 					dependencies.put(dependentTasksIds, (long) 0);
 				}
 
@@ -333,7 +405,7 @@ public class DagEntityCreator {
 			if (inputFileTasksIds == null) {
 				String toTaskId = pseudoExitTaskId;
 				for (String fromTaskId : outputFileTasksIds) {
-					Pair<String, String> dependentTasksIds = new Pair<String, String>(fromTaskId, toTaskId);
+					TaskDependency dependentTasksIds = new TaskDependency(fromTaskId, toTaskId);
 					Long dataDependency = fileSize;
 					if (dependencies.containsKey(dependentTasksIds)) {
 						dataDependency += dependencies.get(dependentTasksIds);
@@ -349,7 +421,7 @@ public class DagEntityCreator {
 			if (outputFileTasksIds == null) {
 				String fromTaskId = pseudoEntryTaskId;
 				for (String toTaskId : inputFileTasksIds) {
-					Pair<String, String> dependentTasksIds = new Pair<String, String>(fromTaskId, toTaskId);
+					TaskDependency dependentTasksIds = new TaskDependency(fromTaskId, toTaskId);
 					Long dataDependency = fileSize;
 					if (dependencies.containsKey(dependentTasksIds)) {
 						dataDependency += dependencies.get(dependentTasksIds);
@@ -364,7 +436,7 @@ public class DagEntityCreator {
 
 			for (String fromTaskId : outputFileTasksIds) {
 				for (String toTaskId : inputFileTasksIds) {
-					Pair<String, String> dependentTasksIds = new Pair<String, String>(fromTaskId, toTaskId);
+					TaskDependency dependentTasksIds = new TaskDependency(fromTaskId, toTaskId);
 					Long dataDependency = fileSize;
 					if (dependencies.containsKey(dependentTasksIds)) {
 						dataDependency += dependencies.get(dependentTasksIds);
@@ -377,86 +449,177 @@ public class DagEntityCreator {
 			}
 		}
 
-		// Construct task graph and save it locally.
-		try {
-			File fout = new File(taskGraphFilename);
-			FileOutputStream fos = new FileOutputStream(fout);
-			BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos));
-
-			// Resources information.
-			Pair<Map<Integer, ResourceType>, Map<Integer, Double>> resourcesWithAvailabilityInfo = createResourcesWithAvailabilityInfo();
-			Map<Integer, ResourceType> resources = resourcesWithAvailabilityInfo.getKey();
-			Map<Integer, Double> resourcesAvailability = resourcesWithAvailabilityInfo.getValue();
-			taskGraph.initializeResources(resources, resourcesAvailability);
-
-			// Tasks information.
-			int taskCount = taskInfoMappings.size();
-			bw.write("" + taskCount);
-			bw.newLine();
-
-			for (String taskId : taskInfoMappings.keySet()) {
-				Integer task = taskInfoMappings.get(taskId);
-				Double taskComputationCost = taskComputationTimeMappings.get(taskId);
-
-				bw.write("" + task);
-				Map<ResourceType, Double> resourceComputationCosts = new HashMap<ResourceType, Double>(Constants.RESOURCE_TYPE_COUNT);
-				for (ResourceType resourceType : ResourceType.values()) {
-					Double resourceComputationCost = 0.0;
-					if (taskComputationCost > 0.0) {
-						switch (resourceType) {
-						case EDGE_RESOURCE_MOBILE_PHONE: {
-							resourceComputationCost = SimulationUtils.getRandomNumber(3.0 * taskComputationCost, 5.0 * taskComputationCost);
-							break;
-						}
-						case EDGE_RESOURCE_RASPBERRY_PI: {
-							resourceComputationCost = SimulationUtils.getRandomNumber(5.0 * taskComputationCost, 10.0 * taskComputationCost);
-							break;
-						}
-						case CLOUD_RESOURCE: {
-							resourceComputationCost = taskComputationCost;
-							break;
-						}
-						}
-					}
-					resourceComputationCosts.put(resourceType, resourceComputationCost);
-					bw.write(" " + resourceComputationCost);
-				}
-				bw.newLine();
+		int taskCount = taskInfoMappings.size();
+		int[] tasks = new int[taskCount];
+		double[] taskComputationTimes = new double[taskCount];
+		int taskIdx = 0;
+		for (String taskId : taskInfoMappings.keySet()) {
+			tasks[taskIdx] = taskInfoMappings.get(taskId);
+			taskComputationTimes[taskIdx] = taskComputationTimeMappings.get(taskId);
+			++taskIdx;
+		}
 
-				taskGraph.addTask(task);
-				taskGraph.addTaskComputationCosts(task, resourceComputationCosts);
-			}
+		int dependencyCount = dependencies.size();
+		int[] fromTasks = new int[dependencyCount];
+		int[] toTasks = new int[dependencyCount];
+		long[] dataDependencies = new long[dependencyCount];
+		int dependencyIdx = 0;
+		for (Map.Entry<TaskDependency, Long> dependencyEntry : dependencies.entrySet()) {
+			TaskDependency dependentTasksIds = dependencyEntry.getKey();
+			fromTasks[dependencyIdx] = taskInfoMappings.get(dependentTasksIds.fromTaskId);
+			toTasks[dependencyIdx] = taskInfoMappings.get(dependentTasksIds.toTaskId);
+			dataDependencies[dependencyIdx] = dependencyEntry.getValue();
+			++dependencyIdx;
+		}
 
-			// Entry and exit tasks information.
-			taskGraph.addEntryTask(pseudoEntryTask);
-			taskGraph.addExitTask(pseudoExitTask);
+		return createPegasusTaskGraph(tasks, taskComputationTimes, pseudoEntryTask, pseudoExitTask, fromTasks, toTasks, dataDependencies,
+				workflowInstanceFilename, verboseMode, transitiveReduction);
+	}
 
-			bw.write("" + pseudoEntryTask);
-			bw.newLine();
-			bw.write("" + pseudoExitTask);
-			bw.newLine();
+	/**
+	 * Creates the task graph of a Pegasus workflow instance with {@link PegasusWorkflowReader} (streaming ingestion) and saves it locally.
+	 * See {@link #createPegasusTaskGraph(String, String, boolean, boolean)}.
+	 */
+	private static TaskGraph createStreamedPegasusTaskGraph(String workflowInstanceFilename, String taskGraphFilename, boolean verboseMode,
+															boolean transitiveReduction) {
+		PegasusWorkflowReader workflow = readPegasusWorkflow(workflowInstanceFilename, verboseMode);
+		if (workflow == null) {
+			return null;
+		}
 
-			// Dependencies information.
-			bw.write("" + dependencies.size());
-			bw.newLine();
+		return savePegasusTaskGraph(workflow.getTasks(), workflow.getTaskComputationTimes(), workflow.getPseudoEntryTask(),
+				workflow.getPseudoExitTask(), workflow.getFromTasks(), workflow.getToTasks(), workflow.getDataDependencies(),
+				workflowInstanceFilename, taskGraphFilename, verboseMode, transitiveReduction);
+	}
 
-			for (Map.Entry<Pair<String, String>, Long> dependencyEntry : dependencies.entrySet()) {
-				Pair<String, String> dependentTasksIds = dependencyEntry.getKey();
-				Double dataDependency = dependencyEntry.getValue() / Math.pow(10, 6);		// Data <MB>
+	/**
+	 * Reads a Pegasus workflow instance with {@link PegasusWorkflowReader} (streaming ingestion).
+	 * @param workflowInstanceFilename Workflow instance file (WfFormat).
+	 * @param verboseMode Whether the file dependencies are logged.
+	 * @return The read workflow instance, null if the file cannot be read or the workflow data is invalid.
+	 */
+	public static PegasusWorkflowReader readPegasusWorkflow(String workflowInstanceFilename, boolean verboseMode) {
+		try {
+			return PegasusWorkflowReader.read(workflowInstanceFilename, verboseMode);
+		} catch (FileNotFoundException e) {
+			Log.printLine("Exception in createPegasusTaskGraph() - File not found | " + workflowInstanceFilename);
+			return null;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		} catch (ParseException e) {
+			e.printStackTrace();
+			return null;
+		} catch (PatternSyntaxException e) {
+			Log.printLine("Exception in createPegasusTaskGraph() - Failed to parse task ID | " + workflowInstanceFilename);
+			return null;
+		}
+	}
+
+	/**
+	 * Creates the task graph of a read Pegasus workflow instance, without saving it (see {@link DagUtils#writeTaskGraph(TaskGraph, String)}).
+	 * @param workflow The workflow instance, see {@link #readPegasusWorkflow(String, boolean)}.
+	 * @param workflowInstanceFilename Workflow instance file (for the logs).
+	 * @param verboseMode Whether the removed dependencies are logged.
+	 * @param transitiveReduction Whether the precedence-only dependencies implied by other paths are removed.
+	 * @return The task graph.
+	 */
+	public static TaskGraph createPegasusTaskGraph(PegasusWorkflowReader workflow, String workflowInstanceFilename, boolean verboseMode,
+													boolean transitiveReduction) {
+		return createPegasusTaskGraph(workflow.getTasks(), workflow.getTaskComputationTimes(), workflow.getPseudoEntryTask(),
+				workflow.getPseudoExitTask(), workflow.getFromTasks(), workflow.getToTasks(), workflow.getDataDependencies(),
+				workflowInstanceFilename, verboseMode, transitiveReduction);
+	}
 
-				Integer fromTask = taskInfoMappings.get(dependentTasksIds.getKey());
-				Integer toTask = taskInfoMappings.get(dependentTasksIds.getValue());
+	private static TaskGraph savePegasusTaskGraph(int[] tasks, double[] taskComputationTimes, int pseudoEntryTask, int pseudoExitTask,
+													int[] fromTasks, int[] toTasks, long[] dataDependencies, String workflowInstanceFilename,
+													String taskGraphFilename, boolean verboseMode, boolean transitiveReduction) {
+		TaskGraph taskGraph = createPegasusTaskGraph(tasks, taskComputationTimes, pseudoEntryTask, pseudoExitTask, fromTasks, toTasks,
+				dataDependencies, workflowInstanceFilename, verboseMode, transitiveReduction);
 
-				taskGraph.addDependency(fromTask, toTask, dataDependency);
+		// Save the task graph locally.
+		if (!DagUtils.writeTaskGraph(taskGraph, taskGraphFilename)) {
+			return null;
+		}
 
-				bw.write(fromTask + " " + toTask + " " + dataDependency);
-				bw.newLine();
+		return taskGraph;
+	}
+
+	/**
+	 * Creates the task graph of a Pegasus workflow instance from its tasks and dependencies.
+	 * The computation costs of the tasks on the edge resources are drawn at random from their computation time.
+	 * @param tasks Tasks (pseudo entry and exit tasks included).
+	 * @param taskComputationTimes Computation time <s> of each task.
+	 * @param pseudoEntryTask Pseudo entry task.
+	 * @param pseudoExitTask Pseudo exit task.
+	 * @param fromTasks Source task of each dependency.
+	 * @param toTasks Target task of each dependency.
+	 * @param dataDependencies Communication data <B> of each dependency.
+	 * @return The task graph.
+	 */
+	private static TaskGraph createPegasusTaskGraph(int[] tasks, double[] taskComputationTimes, int pseudoEntryTask, int pseudoExitTask,
+													int[] fromTasks, int[] toTasks, long[] dataDependencies, String workflowInstanceFilename,
+													boolean verboseMode, boolean transitiveReduction) {
+		TaskGraph taskGraph = new TaskGraph();
+
+		// Resources information.
+		Pair<Map<Integer, ResourceType>, Map<Integer, Double>> resourcesWithAvailabilityInfo = createResourcesWithAvailabilityInfo();
+		Map<Integer, ResourceType> resources = resourcesWithAvailabilityInfo.getKey();
+		Map<Integer, Double> resourcesAvailability = resourcesWithAvailabilityInfo.getValue();
+		taskGraph.initializeResources(resources, resourcesAvailability);
+
+		// Tasks information.
+		for (int taskIdx = 0; taskIdx < tasks.length; ++taskIdx) {
+			Integer task = tasks[taskIdx];
+			Double taskComputationCost = taskComputationTimes[taskIdx];
+
+			Map<ResourceType, Double> resourceComputationCosts = new HashMap<ResourceType, Double>(Constants.RESOURCE_TYPE_COUNT);
+			for (ResourceType resourceType : ResourceType.values()) {
+				Double resourceComputationCost = 0.0;
+				if (taskComputationCost > 0.0) {
+					switch (resourceType) {
+					case EDGE_RESOURCE_MOBILE_PHONE: {
+						resourceComputationCost = SimulationUtils.getRandomNumber(3.0 * taskComputationCost, 5.0 * taskComputationCost);
+						break;
+					}
+					case EDGE_RESOURCE_RASPBERRY_PI: {
+						resourceComputationCost = SimulationUtils.getRandomNumber(5.0 * taskComputationCost, 10.0 * taskComputationCost);
+						break;
+					}
+					case CLOUD_RESOURCE: {
+						resourceComputationCost = taskComputationCost;
+						break;
+					}
+					}
+				}
+				resourceComputationCosts.put(resourceType, resourceComputationCost);
 			}
 
-			bw.close();
-		} catch (IOException e) {
-			e.printStackTrace();
-			return null;
+			taskGraph.addTask(task);
+			taskGraph.addTaskComputationCosts(task, resourceComputationCosts);
+		}
+
+		// Entry and exit tasks information.
+		taskGraph.addEntryTask(pseudoEntryTask);
+		taskGraph.addExitTask(pseudoExitTask);
+
+		// Dependencies information.
+		for (int dependencyIdx = 0; dependencyIdx < fromTasks.length; ++dependencyIdx) {
+			Double dataDependency = dataDependencies[dependencyIdx] / Math.pow(10, 6);		// Data <MB>
+			taskGraph.addDependency(fromTasks[dependencyIdx], toTasks[dependencyIdx], dataDependency);
+		}
+
+		if (transitiveReduction) {
+			int dependencyCount = taskGraph.getAdjacency().getDependencyCount();
+			List<Pair<Integer, Integer>> redundantDependencies = taskGraph.removeRedundantDependencies();
+
+			Log.printLine("Transitive reduction: " + redundantDependencies.size() + " redundant dependencies removed, "
+					+ dependencyCount + " -> " + (dependencyCount - redundantDependencies.size()) + " dependencies | " + workflowInstanceFilename);
+			if (verboseMode) {
+				for (Pair<Integer, Integer> redundantDependency : redundantDependencies) {
+					Log.printLine("Redundant dependency: " + redundantDependency.getKey() + " -> " + redundantDependency.getValue());
+				}
+			}
 		}
 
 		return taskGraph;
@@ -510,7 +673,22 @@ public class DagEntityCreator {
 		return tasks;
 	}
 
+	/**
+	 * @return The resources (by id) with their type and availability time, shared (unmodifiable maps) and created again only
+	 * when the resource availability times change (see TimeSeriesRegistry).
+	 */
 	public static Pair<Map<Integer, ResourceType>, Map<Integer, Double>> createResourcesWithAvailabilityInfo() {
+		DoubleBuffer resourceAvailabilityTimes = TimeSeriesRegistry.getResourceAvailabilityTimes();
+		Pair<DoubleBuffer, Pair<Map<Integer, ResourceType>, Map<Integer, Double>>> resourcesInfo = resourcesWithAvailabilityInfo;
+		if (resourcesInfo == null || !resourcesInfo.getKey().equals(resourceAvailabilityTimes)) {
+			resourcesInfo = new Pair<DoubleBuffer, Pair<Map<Integer, ResourceType>, Map<Integer, Double>>>(
+					resourceAvailabilityTimes, createResourcesWithAvailabilityInfo(resourceAvailabilityTimes));
+			resourcesWithAvailabilityInfo = resourcesInfo;
+		}
+		return resourcesInfo.getValue();
+	}
+
+	private static Pair<Map<Integer, ResourceType>, Map<Integer, Double>> createResourcesWithAvailabilityInfo(DoubleBuffer availabilityTimes) {
 		// RESOURCE_COUNT = SMARTPHONE_RESOURCE_COUNT + RASPBERRY_PI_RESOURCE_COUNT + CLOUD_RESOURCE_COUNT;
 		Map<Integer, ResourceType> resources = new HashMap<Integer, ResourceType>(Constants.RESOURCE_COUNT);
 		Map<Integer, Double> resourcesAvailability = new HashMap<Integer, Double>(Constants.RESOURCE_COUNT);
@@ -525,7 +703,7 @@ public class DagEntityCreator {
 		Integer raspberryPiResourceId = resourceId + Constants.SMARTPHONE_RESOURCE_COUNT;
 		Integer cloudResourceId = resourceId + Constants.SMARTPHONE_RESOURCE_COUNT + Constants.RASPBERRY_PI_RESOURCE_COUNT;
 
-		double[] resourceAvailabilityTimes = SimulationUtils.loadResourceAvailabilityTimes(Constants.RESOURCE_COUNT);
+		double[] resourceAvailabilityTimes = TimeSeriesRegistry.copyOf(availabilityTimes, Constants.RESOURCE_COUNT);
 		int resourceIdx = 0;
 
 		do {
@@ -555,4 +733,37 @@ public class DagEntityCreator {
 				Collections.unmodifiableMap(resourcesAvailability));
 	}
 
+	/**
+	 * Dependency between two tasks (task IDs) of a Pegasus workflow instance, compared by value: a task graph has at most one
+	 * dependency between two tasks, with the total data of the files they share (as created by {@link PegasusWorkflowReader}).
+	 */
+	private static final class TaskDependency {
+
+		private final String fromTaskId;
+		private final String toTaskId;
+
+		TaskDependency(String fromTaskId, String toTaskId) {
+			this.fromTaskId = fromTaskId;
+			this.toTaskId = toTaskId;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof TaskDependency)) {
+				return false;
+			}
+			TaskDependency other = (TaskDependency) obj;
+			return this.fromTaskId.equals(other.fromTaskId) && this.toTaskId.equals(other.toTaskId);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * this.fromTaskId.hashCode() + this.toTaskId.hashCode();
+		}
+
+	}
+
 }
@@ -1,14 +1,12 @@
 package scheduling_evaluation;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -99,6 +97,14 @@ public class DagExperimentsExecutor {
 		return "data/dag/pegasus/" + workflowType.toString().toLowerCase() + "/";
 	}
 
+	/**
+	 * @return The binary task graph file of the workflow if it is up to date (see {@link #convertTaskGraphs(List, WorkflowType)}),
+	 * its text task graph file otherwise.
+	 */
+	private static String getTaskGraphFilename(String taskGraphsDirectory, String workflow) {
+		return DagUtils.getTaskGraphFilename(taskGraphsDirectory + workflow + "-dag" + Constants.FILE_EXTENSION_TXT);
+	}
+
 	private static String getDagMetricsFilename(WorkflowType workflowType) {
 		String workflowTypeString = workflowType.toString().toLowerCase();
 		return "data/dag-experiments/pegasus/" + workflowTypeString + "/"
@@ -121,6 +127,32 @@ public class DagExperimentsExecutor {
 		}
 	}
 
+	private static void convertTaskGraphs(List<String> workflows, WorkflowType workflowType) {
+		String taskGraphsDirectory = getTaskGraphsDirectory(workflowType);
+
+		for (String workflow : workflows) {
+			String taskGraphFilename = taskGraphsDirectory + workflow + "-dag" + Constants.FILE_EXTENSION_TXT;
+			String binaryTaskGraphFilename = DagUtils.getBinaryTaskGraphFilename(taskGraphFilename);
+
+			if (DagUtils.convertTaskGraph(taskGraphFilename, binaryTaskGraphFilename)) {
+				Log.printLine(workflow + " -> " + binaryTaskGraphFilename);
+			} else {
+				Log.printLine(workflow + " -> Cannot convert task graph " + taskGraphFilename);
+			}
+
+			for (String taskSubgraphGenerator : new String[] { "-taskgen", "-tasksubgraphgen" }) {
+				String taskSubgraphsFilename = taskGraphsDirectory + workflow + "-dag" + taskSubgraphGenerator + "-tasksubgraphs" + Constants.FILE_EXTENSION_TXT;
+				if (new File(taskSubgraphsFilename).isFile()) {
+					if (TaskSubgraphBundle.convertTaskSubgraphs(taskSubgraphsFilename)) {
+						Log.printLine(workflow + " -> " + TaskSubgraphBundle.getBundleFilename(taskSubgraphsFilename));
+					} else {
+						Log.printLine(workflow + " -> Cannot convert task subgraphs " + taskSubgraphsFilename);
+					}
+				}
+			}
+		}
+	}
+
 	private static void generateTaskSubgraphs(List<String> workflows, WorkflowType workflowType, int taskSubgraphCount) {
 		String taskGraphsDirectory = getTaskGraphsDirectory(workflowType);
 
@@ -141,7 +173,7 @@ public class DagExperimentsExecutor {
 		for (String workflow : workflows) {
 			Log.printLine("====== " + workflow + " ======");
 
-			String taskGraphFilename = taskGraphsDirectory + workflow + "-dag" + Constants.FILE_EXTENSION_TXT;
+			String taskGraphFilename = getTaskGraphFilename(taskGraphsDirectory, workflow);
 
 			TaskGraph taskGraph = DagUtils.loadTaskGraph(taskGraphFilename);
 			if (taskGraph == null) {
@@ -154,83 +186,109 @@ public class DagExperimentsExecutor {
 	}
 
 	private static void scheduleWorkflows(List<String> workflows, WorkflowType workflowType, String dagMetricsFilename,
-											int taskSubgraphCountMin, int taskSubgraphCountMax, int executionCount) {
+											int taskSubgraphCountMin, int taskSubgraphCountMax, int executionCount, boolean resume) {
 		String dagMetricsCsvHeader = "workflow,scheduling_mode,scheduling_algorithm,task_count,task_subgraph_count,resource_count,"
 										+ "makespan,utility,utility_time_10,utility_time_20,utility_time_30,utility_time_40,utility_time_50,utility_time_60,"
 										+ "utility_time_70,utility_time_75,utility_time_80,utility_time_85,utility_time_90,utility_time_95,scheduling_time";
 
-		List<String> dagMetricsCsvRows = new LinkedList<String>();
-
-		// Static DAG task scheduling.
-		DagUtils.setTaskSubgraphCount(0);
-		dagMetricsCsvRows.addAll(scheduleWorkflows(workflows, workflowType, SchedulingMode.STATIC, executionCount));
-
-		// Dynamic DAG task scheduling.
-		for (int taskSubgraphCount = taskSubgraphCountMin; taskSubgraphCount <= taskSubgraphCountMax; taskSubgraphCount += 5) {
-			DagUtils.setTaskSubgraphCount(taskSubgraphCount);
-			dagMetricsCsvRows.addAll(scheduleWorkflows(workflows, workflowType, SchedulingMode.DYNAMIC, executionCount));
-		}
-
-		try {
-			File fout = new File(dagMetricsFilename);
-			FileOutputStream fos = new FileOutputStream(fout);
-			BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos));
-
-			bw.write(dagMetricsCsvHeader);
-			bw.newLine();
-
-			for (String dagMetricsCsvRow : dagMetricsCsvRows) {
-				bw.write(dagMetricsCsvRow);
-				bw.newLine();
+		// Each row is written as soon as it is produced (see DagMetricsSink), the DAG metrics of every execution optionally as well
+		// (see DagRawMetricsWriter).
+		String rawDagMetricsFilename = getRawDagMetricsFilename(dagMetricsFilename);
+		try (DagMetricsSink dagMetricsSink = new DagMetricsSink(dagMetricsFilename, dagMetricsCsvHeader, resume);
+				DagRawMetricsWriter rawDagMetricsWriter = Constants.RAW_DAG_METRICS ? new DagRawMetricsWriter(rawDagMetricsFilename, resume) : null) {
+			// Static DAG task scheduling.
+			DagUtils.setTaskSubgraphCount(0);
+			scheduleWorkflows(workflows, workflowType, SchedulingMode.STATIC, executionCount, dagMetricsSink, rawDagMetricsWriter);
+
+			// Dynamic DAG task scheduling.
+			for (int taskSubgraphCount = taskSubgraphCountMin; taskSubgraphCount <= taskSubgraphCountMax; taskSubgraphCount += 5) {
+				DagUtils.setTaskSubgraphCount(taskSubgraphCount);
+				scheduleWorkflows(workflows, workflowType, SchedulingMode.DYNAMIC, executionCount, dagMetricsSink, rawDagMetricsWriter);
 			}
-
-			bw.close();
 		} catch (IOException e) {
-			e.printStackTrace();
+			Log.printLine("Exception in scheduleWorkflows() - Cannot write file: " + dagMetricsFilename + " (" + e.getMessage() + ")");
 		}
 	}
 
-	private static List<String> scheduleWorkflows(List<String> workflows, WorkflowType workflowType, SchedulingMode schedulingMode, int executionCount) {
-		List<String> dagMetricsCsvRows = new LinkedList<String>();
+	/**
+	 * @param dagMetricsFilename The DAG metrics file.
+	 * @return The raw DAG metrics file written next to the DAG metrics file.
+	 */
+	private static String getRawDagMetricsFilename(String dagMetricsFilename) {
+		String filenamePrefix = dagMetricsFilename.endsWith(Constants.FILE_EXTENSION_CSV)
+								? dagMetricsFilename.substring(0, dagMetricsFilename.length() - Constants.FILE_EXTENSION_CSV.length())
+								: dagMetricsFilename;
+		return filenamePrefix + "_raw" + Constants.FILE_EXTENSION_BIN;
+	}
 
+	private static void scheduleWorkflows(List<String> workflows, WorkflowType workflowType, SchedulingMode schedulingMode, int executionCount,
+											DagMetricsSink dagMetricsSink, DagRawMetricsWriter rawDagMetricsWriter) {
 		String taskGraphsDirectory = getTaskGraphsDirectory(workflowType);
 
 		for (String workflow : workflows) {
 			Log.printLine("====== " + workflow + " -> " + schedulingMode.toString().toLowerCase() + " ======");
 
 			if (schedulingMode == SchedulingMode.STATIC) {
-				dagMetricsCsvRows.addAll(scheduleWorkflow(workflow, workflowType, schedulingMode, "static", executionCount));
+				scheduleWorkflow(workflow, workflowType, schedulingMode, "static", executionCount, dagMetricsSink, rawDagMetricsWriter);
 			}
 
 			if (schedulingMode == SchedulingMode.DYNAMIC) {
 				DagUtils.setTaskSubgraphsFilename(taskGraphsDirectory + workflow + "-dag" + "-taskgen" + "-tasksubgraphs" + Constants.FILE_EXTENSION_TXT);
-				dagMetricsCsvRows.addAll(scheduleWorkflow(workflow, workflowType, schedulingMode, "dynamic-taskgen", executionCount));
+				scheduleWorkflow(workflow, workflowType, schedulingMode, "dynamic-taskgen", executionCount, dagMetricsSink, rawDagMetricsWriter);
 
 				DagUtils.setTaskSubgraphsFilename(taskGraphsDirectory + workflow + "-dag" + "-tasksubgraphgen" + "-tasksubgraphs" + Constants.FILE_EXTENSION_TXT);
-				dagMetricsCsvRows.addAll(scheduleWorkflow(workflow, workflowType, schedulingMode, "dynamic-tasksubgraphgen", executionCount));
+				scheduleWorkflow(workflow, workflowType, schedulingMode, "dynamic-tasksubgraphgen", executionCount, dagMetricsSink, rawDagMetricsWriter);
 			}
 		}
-
-		return dagMetricsCsvRows;
 	}
 
-	private static List<String> scheduleWorkflow(String workflow, WorkflowType workflowType,
-													SchedulingMode schedulingMode, String schedulingModeDescription,
-													int executionCount) {
-		// Return the collected DAG metrics for each scheduling algorithm, formatted as CSV rows.
-		List<String> dagMetricsCsvRows = new LinkedList<String>();
-
+	private static void scheduleWorkflow(String workflow, WorkflowType workflowType,
+											SchedulingMode schedulingMode, String schedulingModeDescription,
+											int executionCount, DagMetricsSink dagMetricsSink, DagRawMetricsWriter rawDagMetricsWriter) {
+		// Write the collected DAG metrics for each scheduling algorithm, formatted as CSV rows.
 		DecimalFormat dft = new DecimalFormat("###.##");
 
-		String taskGraphsDirectory = getTaskGraphsDirectory(workflowType);
-		String taskGraphFilename = taskGraphsDirectory + workflow + "-dag" + Constants.FILE_EXTENSION_TXT;
-
+		// Scheduling algorithms without a row in the DAG metrics file (resume mode).
+		List<DagBrokerType> dagBrokerTypes = new LinkedList<DagBrokerType>();
 		for (DagBrokerType dagBrokerType : DagBrokerType.values()) {
 			if (dagBrokerType == DagBrokerType.EDGE_CLOUD_QL_HEFT_BROKER || dagBrokerType == DagBrokerType.EDGE_CLOUD_QL_2HD_BROKER) {
 				continue;
 			}
+			// The multilevel and component HEFT brokers only compute static schedules.
+			if ((dagBrokerType == DagBrokerType.EDGE_CLOUD_MULTILEVEL_HEFT_BROKER || dagBrokerType == DagBrokerType.EDGE_CLOUD_COMPONENT_HEFT_BROKER)
+				&& schedulingMode != SchedulingMode.STATIC) {
+				continue;
+			}
+			if (dagMetricsSink.contains(workflow, schedulingModeDescription, dagBrokerType.toString(), DagUtils.getTaskSubgraphCount())) {
+				Log.printLine(workflow + " > " + schedulingModeDescription + " > " + dagBrokerType + " -> Already completed");
+				continue;
+			}
+			dagBrokerTypes.add(dagBrokerType);
+		}
+		if (dagBrokerTypes.isEmpty()) {
+			return;
+		}
+		if (schedulingMode == SchedulingMode.DYNAMIC) {
+			DagUtils.getTaskSubgraphBundle();		// Preloaded before the scheduling time is measured.
+		}
+
+		String taskGraphsDirectory = getTaskGraphsDirectory(workflowType);
+		String taskGraphFilename = getTaskGraphFilename(taskGraphsDirectory, workflow);
+
+		// Load the task graph once (preprocessed, see TaskGraphCache), shared by all the executions of all the scheduling algorithms.
+		TaskGraph taskGraph = TaskGraphCache.loadFrozenTaskGraph(taskGraphFilename);
+		if (taskGraph == null) {
+			Log.printLine(workflow + " -> Cannot load task graph " + taskGraphFilename);
+		}
 
-			Map<DagMetricType, Double> dagMetrics = DagSimulation.executeSchedulingAlgorithm(dagBrokerType, schedulingMode, taskGraphFilename, executionCount, false);
+		Map<DagBrokerType, Map<DagMetricType, Double>> schedulingAlgorithmMetrics = new HashMap<DagBrokerType, Map<DagMetricType, Double>>();
+		for (DagBrokerType dagBrokerType : dagBrokerTypes) {
+			Map<DagMetricType, Double> dagMetrics = null;
+			if (taskGraph != null) {
+				String rawDagMetricsLabel = workflow + "," + schedulingModeDescription + "," + dagBrokerType + "," + DagUtils.getTaskSubgraphCount();
+				dagMetrics = DagSimulation.executeSchedulingAlgorithm(dagBrokerType, schedulingMode, taskGraph, executionCount, false,
+																		rawDagMetricsWriter, rawDagMetricsLabel);
+			}
 
 			Double makespan = Constants.INVALID_RESULT_DOUBLE;
 			Double utility = Constants.INVALID_RESULT_DOUBLE;
@@ -279,10 +337,34 @@ public class DagExperimentsExecutor {
 										+ dft.format(schedulingTime);
 			Log.printLine(dagMetricsCsvRow);
 
-			dagMetricsCsvRows.add(dagMetricsCsvRow);
+			dagMetricsSink.append(dagMetricsCsvRow);
+
+			if (dagMetrics != null) {
+				schedulingAlgorithmMetrics.put(dagBrokerType, dagMetrics);
+			}
+		}
+
+		// Multilevel HEFT (coarsened task graph) and component HEFT (concurrently scheduled components) compared to HEFT.
+		printHeftComparison(workflow, DagBrokerType.EDGE_CLOUD_MULTILEVEL_HEFT_BROKER, schedulingAlgorithmMetrics);
+		printHeftComparison(workflow, DagBrokerType.EDGE_CLOUD_COMPONENT_HEFT_BROKER, schedulingAlgorithmMetrics);
+	}
+
+	private static void printHeftComparison(String workflow, DagBrokerType dagBrokerType, Map<DagBrokerType, Map<DagMetricType, Double>> schedulingAlgorithmMetrics) {
+		Map<DagMetricType, Double> heftMetrics = schedulingAlgorithmMetrics.get(DagBrokerType.EDGE_CLOUD_HEFT_BROKER);
+		Map<DagMetricType, Double> dagMetrics = schedulingAlgorithmMetrics.get(dagBrokerType);
+		if (heftMetrics == null || dagMetrics == null) {
+			return;
 		}
 
-		return dagMetricsCsvRows;
+		DecimalFormat dft = new DecimalFormat("###.##");
+		Double heftMakespan = heftMetrics.get(DagMetricType.MAKESPAN);
+		Double heftSchedulingTime = heftMetrics.get(DagMetricType.SCHEDULING_TIME);
+		Double makespan = dagMetrics.get(DagMetricType.MAKESPAN);
+		Double schedulingTime = dagMetrics.get(DagMetricType.SCHEDULING_TIME);
+		Log.printLine(workflow + " > " + dagBrokerType + " vs HEFT -> Makespan: " + dft.format(makespan) + " vs " + dft.format(heftMakespan)
+					+ " (" + dft.format(100.0 * (makespan - heftMakespan) / heftMakespan) + "%)"
+					+ " -> Scheduling time: " + dft.format(schedulingTime) + " vs " + dft.format(heftSchedulingTime)
+					+ " (saved " + dft.format(heftSchedulingTime - schedulingTime) + ")");
 	}
 
 	public static void main(String[] args) {
@@ -290,10 +372,12 @@ public class DagExperimentsExecutor {
 		// Default parameters.
 		boolean generateResourcesConfig = false;
 		boolean generateTaskGraphsConfig = false;
+		boolean convertTaskGraphsConfig = false;
 		boolean printTaskGraphsConfig = false;
 		boolean generateTaskSubgraphArrivalTimesConfig = false;
 		boolean generateTaskSubgraphsConfig = false;
 		boolean executeSchedulingAlgorithmsConfig = false;
+		boolean resumeSchedulingAlgorithmsConfig = false;
 		WorkflowType workflowType = WorkflowType.EPIGENOMICS;
 		List<String> workflows = getWorkflows(workflowType);
 		String dagMetricsFilename = getDagMetricsFilename(workflowType);
@@ -301,7 +385,7 @@ public class DagExperimentsExecutor {
 		int taskSubgraphCountMin = 20;
 		int taskSubgraphCountMax = 20;
 		// Command-line parameters.
-		if (args.length == 6) {
+		if (args.length == 6 || args.length == 7) {
 			generateTaskGraphsConfig = Boolean.parseBoolean(args[0]);
 			generateTaskSubgraphsConfig = Boolean.parseBoolean(args[1]);
 			executeSchedulingAlgorithmsConfig = Boolean.parseBoolean(args[2]);
@@ -311,6 +395,10 @@ public class DagExperimentsExecutor {
 			dagMetricsFilename = args[4];
 			// Task scheduling execution count.
 			taskSchedulingExecutionCount = Integer.parseInt(args[5]);
+			// Resume mode: keep the rows of the existing DAG metrics file and skip their combinations.
+			if (args.length == 7) {
+				resumeSchedulingAlgorithmsConfig = Boolean.parseBoolean(args[6]);
+			}
 
 			System.out.println("DAG experiments parameters:"
 						+ " generate task graph=" + generateTaskGraphsConfig
@@ -318,7 +406,8 @@ public class DagExperimentsExecutor {
 						+ " execute task scheduling algorithms=" + executeSchedulingAlgorithmsConfig
 						+ " workflow=" + workflow
 						+ " DAG metrics filename=" + dagMetricsFilename
-						+ " task scheduling execution count=" + taskSchedulingExecutionCount);
+						+ " task scheduling execution count=" + taskSchedulingExecutionCount
+						+ " resume=" + resumeSchedulingAlgorithmsConfig);
 
 			if (workflow.startsWith("epigenomics")) {
 				workflowType = WorkflowType.EPIGENOMICS;
@@ -337,9 +426,17 @@ public class DagExperimentsExecutor {
 		}
 
 		/* Task graph generation. */
-		if (generateTaskGraphsConfig) {
+		// Pipelined generation: the task graphs and the task subgraphs are generated together, in parallel across workflows.
+		boolean pipelinedGeneration = Constants.PARALLEL_WORKFLOW_CONVERSION && (generateTaskGraphsConfig || generateTaskSubgraphsConfig);
+		if (pipelinedGeneration) {
+			WorkflowConversionPipeline.convertWorkflows(workflows, getWorkflowsDirectory(workflowType), getTaskGraphsDirectory(workflowType),
+					generateTaskGraphsConfig, generateTaskSubgraphsConfig ? taskSubgraphCountMax : 0);
+		} else if (generateTaskGraphsConfig) {
 			generateTaskGraphs(workflows, workflowType);
 		}
+		if (convertTaskGraphsConfig) {
+			convertTaskGraphs(workflows, workflowType);
+		}
 		if (printTaskGraphsConfig) {
 			printTaskGraphs(workflows, workflowType);
 		}
@@ -348,13 +445,14 @@ public class DagExperimentsExecutor {
 		if (generateTaskSubgraphArrivalTimesConfig) {
 			SimulationUtils.generateTaskSubgraphArrivalTimes(taskSubgraphCountMax);
 		}
-		if (generateTaskSubgraphsConfig) {
+		if (generateTaskSubgraphsConfig && !pipelinedGeneration) {
 			generateTaskSubgraphs(workflows, workflowType, taskSubgraphCountMax);
 		}
 
 		/* DAG task scheduling. */
 		if (executeSchedulingAlgorithmsConfig) {
-			scheduleWorkflows(workflows, workflowType, dagMetricsFilename, taskSubgraphCountMin, taskSubgraphCountMax, taskSchedulingExecutionCount);
+			scheduleWorkflows(workflows, workflowType, dagMetricsFilename, taskSubgraphCountMin, taskSubgraphCountMax, taskSchedulingExecutionCount,
+					resumeSchedulingAlgorithmsConfig);
 		}
 	}
 
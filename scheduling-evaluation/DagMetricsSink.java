@@ -0,0 +1,171 @@
+package scheduling_evaluation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * Crash-safe sink of the DAG metrics CSV rows: every row is appended to the DAG metrics file and forced to the storage device
+ * as soon as it is produced, so that an interrupted experiment keeps all its completed rows. In resume mode, the rows of an
+ * existing DAG metrics file (with the same header) are kept and the (workflow, scheduling mode, scheduling algorithm,
+ * task subgraph count) combinations of their valid rows are reported as completed (see {@link #contains(String, String, String, int)}),
+ * so that a restarted experiment only executes the missing and failed combinations. The failed rows are dropped when resuming,
+ * so that the DAG metrics file has at most one row per combination.
+ */
+public class DagMetricsSink implements Closeable {
+
+	// Columns of the combination of a row: workflow, scheduling_mode, scheduling_algorithm, task_subgraph_count.
+	private static final int[] COMBINATION_COLUMNS = { 0, 1, 2, 4 };
+	// Column of the makespan of a row: Constants.INVALID_RESULT_DOUBLE if the combination failed (e.g. task graph not loaded).
+	private static final int MAKESPAN_COLUMN = 6;
+
+	private final String filename;
+	private final FileChannel channel;
+	private final Set<String> completedCombinations = new HashSet<String>();
+
+	/**
+	 * Opens the DAG metrics file.
+	 * @param filename The DAG metrics file.
+	 * @param header The CSV header.
+	 * @param resume Whether to keep the rows of an existing DAG metrics file (otherwise it is overwritten).
+	 * @throws IOException If the DAG metrics file cannot be read or written, or cannot be resumed (different header).
+	 */
+	public DagMetricsSink(String filename, String header, boolean resume) throws IOException {
+		this.filename = filename;
+
+		Path path = Paths.get(filename);
+		byte[] validRows = (resume && Files.isRegularFile(path)) ? loadCompletedCombinations(path, header) : null;
+
+		if (validRows != null) {
+			// Drop the failed rows and the incomplete last row of an interrupted write, if any.
+			if (validRows.length != Files.size(path)) {
+				rewrite(path, validRows);
+			}
+			this.channel = FileChannel.open(path, StandardOpenOption.WRITE);
+			this.channel.position(validRows.length);
+			Log.printLine("Resuming " + filename + " -> " + this.completedCombinations.size() + " completed rows");
+		} else {
+			this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			write(header);
+		}
+	}
+
+	public String getFilename() {
+		return this.filename;
+	}
+
+	/**
+	 * @return Whether the DAG metrics file already has a valid row of the combination (resume mode).
+	 */
+	public synchronized boolean contains(String workflow, String schedulingMode, String schedulingAlgorithm, int taskSubgraphCount) {
+		return this.completedCombinations.contains(getCombination(workflow, schedulingMode, schedulingAlgorithm, Integer.toString(taskSubgraphCount)));
+	}
+
+	/**
+	 * Appends a row to the DAG metrics file and forces it to the storage device. The combination of the row is completed
+	 * only if the row is valid (a failed combination is executed again when the experiment is resumed).
+	 * @param row The CSV row.
+	 */
+	public synchronized void append(String row) {
+		try {
+			write(row);
+		} catch (IOException e) {
+			Log.printLine("Exception in append() - Cannot write file: " + this.filename);
+			return;
+		}
+
+		String combination = getCombination(row);
+		if (combination != null) {
+			this.completedCombinations.add(combination);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		this.channel.close();
+	}
+
+	private void write(String line) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap((line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+		while (buffer.hasRemaining()) {
+			this.channel.write(buffer);
+		}
+		this.channel.force(false);
+	}
+
+	// Loads the combinations of the valid rows, returns the header and the valid rows of the file (null if the file has no complete header).
+	private byte[] loadCompletedCombinations(Path path, String header) throws IOException {
+		byte[] bytes = Files.readAllBytes(path);
+		int completeRowsSize = bytes.length;
+		while (completeRowsSize > 0 && bytes[completeRowsSize - 1] != '\n') {
+			--completeRowsSize;
+		}
+
+		if (completeRowsSize == 0) {
+			// No complete header: nothing to resume.
+			return null;
+		}
+		String[] lines = new String(bytes, 0, completeRowsSize, StandardCharsets.UTF_8).split("\\R");
+		if (!lines[0].equals(header)) {
+			// Never overwrite the results of another experiment configuration.
+			throw new IOException("Cannot resume " + this.filename + " - Different CSV header");
+		}
+
+		StringBuilder validRows = new StringBuilder(completeRowsSize);
+		validRows.append(lines[0]).append(System.lineSeparator());
+		for (int lineIdx = 1; lineIdx < lines.length; ++lineIdx) {
+			String combination = getCombination(lines[lineIdx]);
+			if (combination != null && this.completedCombinations.add(combination)) {
+				validRows.append(lines[lineIdx]).append(System.lineSeparator());
+			}
+		}
+		return validRows.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	// Replaces the file with the given rows, written to a temporary file first so that the existing rows are never lost.
+	private static void rewrite(Path path, byte[] rows) throws IOException {
+		Path temporaryPath = Paths.get(path + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+													StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.wrap(rows);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		}
+		Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	// Combination of a valid row, null if the row is invalid (incomplete, or failed combination).
+	private static String getCombination(String row) {
+		String[] columns = row.split(",");
+		if (columns.length <= Math.max(COMBINATION_COLUMNS[COMBINATION_COLUMNS.length - 1], MAKESPAN_COLUMN)) {
+			return null;
+		}
+		try {
+			if (Double.parseDouble(columns[MAKESPAN_COLUMN]) == Constants.INVALID_RESULT_DOUBLE) {
+				return null;
+			}
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		return getCombination(columns[COMBINATION_COLUMNS[0]], columns[COMBINATION_COLUMNS[1]],
+								columns[COMBINATION_COLUMNS[2]], columns[COMBINATION_COLUMNS[3]]);
+	}
+
+	private static String getCombination(String workflow, String schedulingMode, String schedulingAlgorithm, String taskSubgraphCount) {
+		return workflow + "," + schedulingMode + "," + schedulingAlgorithm + "," + taskSubgraphCount;
+	}
+
+}
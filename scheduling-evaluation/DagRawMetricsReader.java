@@ -0,0 +1,261 @@
+package scheduling_evaluation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Log;
+
+import scheduling_evaluation.DagSchedulingMetrics.DagMetricType;
+
+/**
+ * Reader of the raw (per-execution) DAG metrics file written by {@link DagRawMetricsWriter}: the file is mapped and the columns
+ * of the blocks are read in place, the distributions of the DAG metrics (mean, standard deviation, percentiles) are computed on demand.
+ */
+public class DagRawMetricsReader {
+
+	/**
+	 * Distribution of a DAG metric over the executions of a scheduling configuration.
+	 */
+	public static class Distribution {
+
+		private final double[] sortedValues;
+		private final double mean;
+		private final double variance;
+
+		private Distribution(double[] values) {
+			this.sortedValues = values;
+			Arrays.sort(this.sortedValues);
+
+			// Welford's algorithm.
+			double mean = 0.0;
+			double squaredDeviationSum = 0.0;
+			for (int idx = 0; idx < values.length; ++idx) {
+				double delta = values[idx] - mean;
+				mean += delta / (idx + 1);
+				squaredDeviationSum += delta * (values[idx] - mean);
+			}
+			this.mean = values.length > 0 ? mean : Constants.INVALID_RESULT_DOUBLE;
+			this.variance = values.length > 1 ? squaredDeviationSum / (values.length - 1) : 0.0;
+		}
+
+		public int getCount() {
+			return this.sortedValues.length;
+		}
+
+		public double getMean() {
+			return this.mean;
+		}
+
+		/**
+		 * @return The sample variance.
+		 */
+		public double getVariance() {
+			return this.variance;
+		}
+
+		public double getStandardDeviation() {
+			return Math.sqrt(this.variance);
+		}
+
+		public double getMin() {
+			return getPercentile(0.0);
+		}
+
+		public double getMax() {
+			return getPercentile(100.0);
+		}
+
+		public double getMedian() {
+			return getPercentile(50.0);
+		}
+
+		/**
+		 * @param percentile The percentile, in [0, 100].
+		 * @return The percentile of the values (linear interpolation between the closest ranks).
+		 */
+		public double getPercentile(double percentile) {
+			if (this.sortedValues.length == 0) {
+				return Constants.INVALID_RESULT_DOUBLE;
+			}
+			double rank = Math.max(0.0, Math.min(100.0, percentile)) / 100.0 * (this.sortedValues.length - 1);
+			int lowerIdx = (int) Math.floor(rank);
+			int upperIdx = (int) Math.ceil(rank);
+			return this.sortedValues[lowerIdx] + (rank - lowerIdx) * (this.sortedValues[upperIdx] - this.sortedValues[lowerIdx]);
+		}
+
+	}
+
+	private final ByteBuffer buffer;
+	private final List<Integer> blockOffsets;
+	private final List<String> labels;
+
+	private DagRawMetricsReader(ByteBuffer buffer, List<Integer> blockOffsets, List<String> labels) {
+		this.buffer = buffer;
+		this.blockOffsets = blockOffsets;
+		this.labels = labels;
+	}
+
+	/**
+	 * Opens a raw DAG metrics file, ignoring the incomplete last block of an interrupted write.
+	 * @param filename The raw DAG metrics file.
+	 * @return The reader, null if the file cannot be read or is not a raw DAG metrics file.
+	 */
+	public static DagRawMetricsReader open(String filename) {
+		ByteBuffer buffer = map(filename);
+		if (buffer == null) {
+			return null;
+		}
+
+		int metricTypeCount = buffer.getInt(2 * Integer.BYTES);
+		List<Integer> blockOffsets = new ArrayList<Integer>();
+		List<String> labels = new ArrayList<String>();
+		int offset = DagRawMetricsWriter.RAW_DAG_METRICS_HEADER_SIZE;
+		while (isCompleteBlock(buffer, offset, metricTypeCount)) {
+			int labelSize = buffer.getInt(offset + Integer.BYTES);
+			byte[] labelBytes = new byte[labelSize];
+			buffer.get(offset + DagRawMetricsWriter.BLOCK_HEADER_SIZE, labelBytes);
+
+			blockOffsets.add(offset);
+			labels.add(new String(labelBytes, StandardCharsets.UTF_8));
+			offset += (int) DagRawMetricsWriter.getBlockSize(buffer.getInt(offset), labelSize, metricTypeCount);
+		}
+
+		return new DagRawMetricsReader(buffer, blockOffsets, labels);
+	}
+
+	public int getBlockCount() {
+		return this.blockOffsets.size();
+	}
+
+	/**
+	 * @return The scheduling configurations of the blocks, in the order they were written.
+	 */
+	public List<String> getLabels() {
+		return this.labels;
+	}
+
+	/**
+	 * @param label The scheduling configuration.
+	 * @return Index of the last block of the scheduling configuration, Constants.INVALID_RESULT_INT if there is none.
+	 */
+	public int getBlockIdx(String label) {
+		return this.labels.lastIndexOf(label);
+	}
+
+	public int getExecutionCount(int blockIdx) {
+		return this.buffer.getInt(this.blockOffsets.get(blockIdx));
+	}
+
+	/**
+	 * @return Read-only view of the execution ids of a block.
+	 */
+	public IntBuffer getExecutionIds(int blockIdx) {
+		int executionCount = getExecutionCount(blockIdx);
+		return getIntBuffer(getColumnsOffset(blockIdx), executionCount);
+	}
+
+	/**
+	 * @return Read-only view of the seeds of a block.
+	 */
+	public IntBuffer getSeeds(int blockIdx) {
+		int executionCount = getExecutionCount(blockIdx);
+		return getIntBuffer(getColumnsOffset(blockIdx) + executionCount * Integer.BYTES, executionCount);
+	}
+
+	/**
+	 * @return Read-only view of the values of a DAG metric for the executions of a block.
+	 */
+	public DoubleBuffer getMetricValues(int blockIdx, DagMetricType dagMetricType) {
+		int executionCount = getExecutionCount(blockIdx);
+		int offset = (int) DagRawMetricsWriter.alignOffset(getColumnsOffset(blockIdx) + 2L * executionCount * Integer.BYTES)
+						+ dagMetricType.ordinal() * executionCount * Double.BYTES;
+		return this.buffer.slice(offset, executionCount * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().asReadOnlyBuffer();
+	}
+
+	/**
+	 * @return The distribution of a DAG metric over the executions of a block.
+	 */
+	public Distribution getDistribution(int blockIdx, DagMetricType dagMetricType) {
+		DoubleBuffer metricValues = getMetricValues(blockIdx, dagMetricType);
+		double[] values = new double[metricValues.remaining()];
+		metricValues.get(values);
+		return new Distribution(values);
+	}
+
+	/**
+	 * @param filename The raw DAG metrics file.
+	 * @return Size of the file up to the end of its last complete block, Constants.INVALID_RESULT_INT if it is not a raw DAG metrics file.
+	 */
+	static long getCompleteBlocksSize(String filename) {
+		ByteBuffer buffer = map(filename);
+		if (buffer == null) {
+			return Constants.INVALID_RESULT_INT;
+		}
+
+		int metricTypeCount = buffer.getInt(2 * Integer.BYTES);
+		long offset = DagRawMetricsWriter.RAW_DAG_METRICS_HEADER_SIZE;
+		while (isCompleteBlock(buffer, (int) offset, metricTypeCount)) {
+			offset += DagRawMetricsWriter.getBlockSize(buffer.getInt((int) offset), buffer.getInt((int) offset + Integer.BYTES), metricTypeCount);
+		}
+		return offset;
+	}
+
+	private static ByteBuffer map(String filename) {
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				Log.printLine("Exception in map() - File too large: " + filename);
+				return null;
+			}
+			MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			ByteBuffer buffer = mappedBuffer.order(ByteOrder.LITTLE_ENDIAN);
+
+			if (buffer.capacity() < DagRawMetricsWriter.RAW_DAG_METRICS_HEADER_SIZE
+				|| buffer.getInt(0) != DagRawMetricsWriter.RAW_DAG_METRICS_MAGIC
+				|| buffer.getInt(Integer.BYTES) != DagRawMetricsWriter.RAW_DAG_METRICS_VERSION
+				|| buffer.getInt(2 * Integer.BYTES) != DagMetricType.values().length) {
+				Log.printLine("Exception in map() - Invalid raw DAG metrics file: " + filename);
+				return null;
+			}
+			return buffer;
+		} catch (NoSuchFileException e) {
+			Log.printLine("Exception in map() - File not found: " + filename);
+			return null;
+		} catch (IOException e) {
+			Log.printLine("Exception in map() - Cannot read file: " + filename);
+			return null;
+		}
+	}
+
+	private static boolean isCompleteBlock(ByteBuffer buffer, int offset, int metricTypeCount) {
+		if (buffer.capacity() < (long) offset + DagRawMetricsWriter.BLOCK_HEADER_SIZE) {
+			return false;
+		}
+		int executionCount = buffer.getInt(offset);
+		int labelSize = buffer.getInt(offset + Integer.BYTES);
+		return buffer.getInt(offset + 2 * Integer.BYTES) == DagRawMetricsWriter.BLOCK_MAGIC && executionCount >= 0 && labelSize >= 0
+				&& buffer.capacity() >= offset + DagRawMetricsWriter.getBlockSize(executionCount, labelSize, metricTypeCount);
+	}
+
+	private int getColumnsOffset(int blockIdx) {
+		int offset = this.blockOffsets.get(blockIdx);
+		int labelSize = this.buffer.getInt(offset + Integer.BYTES);
+		return (int) DagRawMetricsWriter.alignOffset(offset + DagRawMetricsWriter.BLOCK_HEADER_SIZE + (long) labelSize);
+	}
+
+	private IntBuffer getIntBuffer(int offset, int length) {
+		return this.buffer.slice(offset, length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().asReadOnlyBuffer();
+	}
+
+}
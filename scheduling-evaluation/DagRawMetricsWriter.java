@@ -0,0 +1,156 @@
+package scheduling_evaluation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.cloudbus.cloudsim.Log;
+
+import scheduling_evaluation.DagSchedulingMetrics.DagMetricType;
+
+/**
+ * Writer of the raw (per-execution) DAG metrics file: for each scheduling configuration (workflow, scheduling mode, scheduling
+ * algorithm, task subgraph count), a block with one primitive column per DAG metric type, the execution ids and the seeds.
+ * The blocks are appended as soon as the executions of a configuration are over, see {@link DagRawMetricsReader} to read them.
+ */
+public class DagRawMetricsWriter implements Closeable {
+
+	/*
+	 * Raw DAG metrics file format (little-endian):
+	 * - header: magic, version, DAG metric type count, padding (8 ints);
+	 * - for each block: execution count, label size <B>, block magic, padding (4 ints), label (UTF-8), padded to 8 bytes,
+	 *   execution ids, seeds (executionCount ints each), padded to 8 bytes,
+	 *   one column per DAG metric type (executionCount doubles each, ordered by DAG metric type ordinal).
+	 */
+	static final int RAW_DAG_METRICS_MAGIC = 0x4d524144;		// "DARM" in little-endian.
+	static final int RAW_DAG_METRICS_VERSION = 1;
+	static final int RAW_DAG_METRICS_HEADER_SIZE = 8 * Integer.BYTES;
+	static final int BLOCK_MAGIC = 0x4b4c4244;		// "DBLK" in little-endian.
+	static final int BLOCK_HEADER_SIZE = 4 * Integer.BYTES;
+
+	private final String filename;
+	private final FileChannel channel;
+	private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * Opens the raw DAG metrics file.
+	 * @param filename The raw DAG metrics file.
+	 * @param append Whether to keep the complete blocks of an existing raw DAG metrics file (otherwise it is overwritten).
+	 * @throws IOException If the raw DAG metrics file cannot be read or written, or cannot be appended (different version or
+	 * DAG metric type count).
+	 */
+	public DagRawMetricsWriter(String filename, boolean append) throws IOException {
+		this.filename = filename;
+
+		Path path = Paths.get(filename);
+		long completeBlocksSize = Constants.INVALID_RESULT_INT;
+		// No complete header: nothing to append to.
+		if (append && Files.isRegularFile(path) && Files.size(path) >= RAW_DAG_METRICS_HEADER_SIZE) {
+			completeBlocksSize = DagRawMetricsReader.getCompleteBlocksSize(filename);
+			if (completeBlocksSize == Constants.INVALID_RESULT_INT) {
+				// Never overwrite the raw DAG metrics of another experiment configuration.
+				throw new IOException("Cannot resume " + filename + " - Invalid raw DAG metrics file");
+			}
+		}
+
+		if (completeBlocksSize > 0) {
+			this.channel = FileChannel.open(path, StandardOpenOption.WRITE);
+			// Drop the incomplete last block of an interrupted write, if any.
+			this.channel.truncate(completeBlocksSize);
+			this.channel.position(completeBlocksSize);
+		} else {
+			this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			this.buffer.clear();
+			this.buffer.putInt(RAW_DAG_METRICS_MAGIC);
+			this.buffer.putInt(RAW_DAG_METRICS_VERSION);
+			this.buffer.putInt(DagMetricType.values().length);
+			while (this.buffer.position() < RAW_DAG_METRICS_HEADER_SIZE) {
+				this.buffer.putInt(0);
+			}
+			write();
+		}
+	}
+
+	public String getFilename() {
+		return this.filename;
+	}
+
+	/**
+	 * Appends the block of a scheduling configuration.
+	 * @param label The scheduling configuration (e.g. workflow,scheduling_mode,scheduling_algorithm,task_subgraph_count).
+	 * @param executionIds The execution ids.
+	 * @param seeds The seed of each execution.
+	 * @param metricValues The value of each DAG metric type (by ordinal) for each execution.
+	 */
+	public synchronized void writeBlock(String label, int[] executionIds, int[] seeds, double[][] metricValues) {
+		int executionCount = executionIds.length;
+		byte[] labelBytes = label.getBytes(StandardCharsets.UTF_8);
+		long blockSize = getBlockSize(executionCount, labelBytes.length, metricValues.length);
+		if (blockSize > Integer.MAX_VALUE) {
+			Log.printLine("Exception in writeBlock() - Block too large: " + executionCount + " executions");
+			return;
+		}
+		if (this.buffer.capacity() < blockSize) {
+			this.buffer = ByteBuffer.allocate((int) blockSize).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		this.buffer.clear();
+		this.buffer.putInt(executionCount);
+		this.buffer.putInt(labelBytes.length);
+		this.buffer.putInt(BLOCK_MAGIC);
+		this.buffer.putInt(0);
+		this.buffer.put(labelBytes);
+		pad();
+		this.buffer.asIntBuffer().put(executionIds);
+		this.buffer.position(this.buffer.position() + executionCount * Integer.BYTES);
+		this.buffer.asIntBuffer().put(seeds);
+		this.buffer.position(this.buffer.position() + executionCount * Integer.BYTES);
+		pad();
+		for (double[] values : metricValues) {
+			this.buffer.asDoubleBuffer().put(values, 0, executionCount);
+			this.buffer.position(this.buffer.position() + executionCount * Double.BYTES);
+		}
+
+		try {
+			write();
+		} catch (IOException e) {
+			Log.printLine("Exception in writeBlock() - Cannot write file: " + this.filename);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		this.channel.close();
+	}
+
+	static long getBlockSize(int executionCount, int labelSize, int metricTypeCount) {
+		long size = alignOffset(BLOCK_HEADER_SIZE + (long) labelSize);
+		size = alignOffset(size + 2L * executionCount * Integer.BYTES);
+		return size + (long) metricTypeCount * executionCount * Double.BYTES;
+	}
+
+	static long alignOffset(long offset) {
+		return (offset + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+	}
+
+	private void pad() {
+		while (this.buffer.position() % Double.BYTES != 0) {
+			this.buffer.put((byte) 0);
+		}
+	}
+
+	private void write() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining()) {
+			this.channel.write(this.buffer);
+		}
+	}
+
+}
@@ -6,6 +6,7 @@ import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -17,6 +18,7 @@ import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.edge.core.edge.MicroELement;
 
+import dag_scheduling_algorithms.DefaultDagEdgeCloudDatacenterBroker;
 import scheduling_evaluation.DagSchedulingMetrics.DagMetricType;
 import scheduling_evaluation.Types.DagBrokerType;
 import scheduling_evaluation.Types.DatacenterType;
@@ -79,6 +81,40 @@ public class DagSimulation {
 	}
 
 	public static Map<DagMetricType, Double> executeSchedulingAlgorithm(DagBrokerType dagBrokerType, SchedulingMode schedulingMode, String taskGraphFilename, int executionCount, boolean verboseMode) {
+		// Load the task graph once (preprocessed, see TaskGraphCache), shared by all the executions.
+		TaskGraph taskGraph = TaskGraphCache.loadFrozenTaskGraph(taskGraphFilename);
+		if (taskGraph == null) {
+			Log.printLine("Broker " + dagBrokerType + " - Cannot load task graph " + taskGraphFilename + ". Aborting...");
+			return null;
+		}
+
+		return executeSchedulingAlgorithm(dagBrokerType, schedulingMode, taskGraph, executionCount, verboseMode);
+	}
+
+	/**
+	 * Executes a scheduling algorithm several times on a task graph.
+	 * Each execution works on its own overlay of the task graph (see {@link TaskGraph#TaskGraph(TaskGraph)}),
+	 * so the task graph is neither modified nor loaded again by the executions.
+	 * @param dagBrokerType Scheduling algorithm.
+	 * @param schedulingMode Scheduling mode.
+	 * @param baseTaskGraph Task graph, frozen beforehand if needed.
+	 * @param executionCount Number of executions.
+	 * @param verboseMode Whether the simulation logs are enabled.
+	 * @return The DAG metrics averaged over the executions, or null if an execution failed.
+	 */
+	public static Map<DagMetricType, Double> executeSchedulingAlgorithm(DagBrokerType dagBrokerType, SchedulingMode schedulingMode, TaskGraph baseTaskGraph, int executionCount, boolean verboseMode) {
+		return executeSchedulingAlgorithm(dagBrokerType, schedulingMode, baseTaskGraph, executionCount, verboseMode, null, null);
+	}
+
+	/**
+	 * Executes a scheduling algorithm several times on a task graph, see {@link #executeSchedulingAlgorithm(DagBrokerType, SchedulingMode, TaskGraph, int, boolean)},
+	 * and writes the DAG metrics of every execution to a raw DAG metrics file.
+	 * @param rawDagMetricsWriter Writer of the raw DAG metrics file, null to keep only the averages.
+	 * @param rawDagMetricsLabel Scheduling configuration of the block written to the raw DAG metrics file.
+	 * @return The DAG metrics averaged over the executions, or null if an execution failed.
+	 */
+	public static Map<DagMetricType, Double> executeSchedulingAlgorithm(DagBrokerType dagBrokerType, SchedulingMode schedulingMode, TaskGraph baseTaskGraph, int executionCount, boolean verboseMode,
+																		DagRawMetricsWriter rawDagMetricsWriter, String rawDagMetricsLabel) {
 		Double makespanSum = 0.0;
 		Double utilitySum = 0.0;
 		Double utilityTime10Sum = 0.0;
@@ -95,8 +131,23 @@ public class DagSimulation {
 		Double utilityTime95Sum = 0.0;
 		Duration totalSchedulingTimeDuration = Duration.ZERO;
 
+		// Raw DAG metrics: one column per DAG metric type.
+		DagMetricType[] dagMetricTypes = DagMetricType.values();
+		int[] executionIds = null;
+		int[] seeds = null;
+		double[][] rawDagMetrics = null;
+		if (rawDagMetricsWriter != null) {
+			executionIds = new int[executionCount];
+			seeds = new int[executionCount];
+			rawDagMetrics = new double[dagMetricTypes.length][executionCount];
+		}
+
+		// One seed per execution (random decisions of the brokers), recorded with the raw DAG metrics.
+		Random seedRandom = new Random();
 		for (int execution = 1; execution <= executionCount; ++execution) {
-			Map<DagMetricType, Double> executionDagMetrics = createEdgeCloudDagSimulation(dagBrokerType, schedulingMode, taskGraphFilename, verboseMode);
+			int seed = seedRandom.nextInt();
+			Map<DagMetricType, Double> executionDagMetrics = createEdgeCloudDagSimulation(dagBrokerType, schedulingMode, baseTaskGraph, seed,
+																							verboseMode);
 			if (executionDagMetrics == null) {
 				Log.printLine("Broker " + dagBrokerType + " - Error in execution " + execution + " / " + executionCount + ". Aborting...");
 				return null;
@@ -116,6 +167,18 @@ public class DagSimulation {
 			utilityTime90Sum += executionDagMetrics.get(DagMetricType.UTILITY_TIME_90);
 			utilityTime95Sum += executionDagMetrics.get(DagMetricType.UTILITY_TIME_95);
 			totalSchedulingTimeDuration = totalSchedulingTimeDuration.plus(DagSchedulingMetrics.getSchedulingTimeDuration());
+
+			if (rawDagMetrics != null) {
+				executionIds[execution - 1] = execution;
+				seeds[execution - 1] = seed;
+				for (DagMetricType dagMetricType : dagMetricTypes) {
+					rawDagMetrics[dagMetricType.ordinal()][execution - 1] = executionDagMetrics.get(dagMetricType);
+				}
+			}
+		}
+
+		if (rawDagMetricsWriter != null) {
+			rawDagMetricsWriter.writeBlock(rawDagMetricsLabel, executionIds, seeds, rawDagMetrics);
 		}
 
 		Map<DagMetricType, Double> dagMetrics = new HashMap<DagMetricType, Double>();
@@ -138,7 +201,8 @@ public class DagSimulation {
 		return dagMetrics;
 	}
 
-	private static Map<DagMetricType, Double> createEdgeCloudDagSimulation(DagBrokerType dagBrokerType, SchedulingMode schedulingMode, String taskGraphFilename, boolean verboseMode) {
+	private static Map<DagMetricType, Double> createEdgeCloudDagSimulation(DagBrokerType dagBrokerType, SchedulingMode schedulingMode, TaskGraph baseTaskGraph,
+																			int seed, boolean verboseMode) {
 		// Enable or disable the simulation logs based on the verbose mode parameter.
 		Log.setDisabled(!verboseMode);
 
@@ -159,11 +223,8 @@ public class DagSimulation {
 		String cloudDatacenterName = EntityCreator.getDatacenterName("" + datacenterIdx++, DatacenterType.CLOUD_DATACENTER);
 		Datacenter cloudDatacenter = EntityCreator.createCloudDatacenter(cloudDatacenterName, Constants.CLOUD_RESOURCE_COUNT);
 
-		// Create DAG.
-		TaskGraph taskGraph = DagUtils.loadTaskGraph(taskGraphFilename);
-		if (taskGraph == null) {
-			return null;
-		}
+		// Create DAG (overlay of the shared task graph, modified by the broker only).
+		TaskGraph taskGraph = new TaskGraph(baseTaskGraph);
 
 		// TODO: Load predetermined schedules (QL-HEFT, QL-2HD).
 		taskGraph.setQlHeftSchedule(null);
@@ -172,6 +233,8 @@ public class DagSimulation {
 		// Create broker.
 		int brokerIdx = 1;
 		DatacenterBroker broker = DagEntityCreator.createDagBroker("" + brokerIdx, dagBrokerType, taskGraph, schedulingMode);
+		// Seed of the random decisions of the broker, recorded with the raw DAG metrics of the execution.
+		((DefaultDagEdgeCloudDatacenterBroker) broker).setSeed(seed);
 		int brokerId = broker.getId();
 
 		// Create edge and cloud resources and submit them to broker.
@@ -1,12 +1,23 @@
 package scheduling_evaluation;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 
 import org.cloudbus.cloudsim.Log;
 
@@ -14,10 +25,23 @@ import scheduling_evaluation.Types.ResourceType;
 
 public class DagUtils {
 
+	/*
+	 * Binary task graph file format (little-endian):
+	 * - header: magic, version, task count, dependency count, resource type count, entry task, exit task (INVALID_RESULT_INT if none),
+	 *   padding (8 ints);
+	 * - task table: task ids (taskCount ints), padded to 8 bytes;
+	 * - computation costs: one column per resource type (taskCount doubles each, ordered by resource type ordinal) <s>;
+	 * - dependencies: source tasks, target tasks (dependencyCount ints each), padded to 8 bytes, data dependencies (dependencyCount doubles) <MB>.
+	 */
+	private static final int BINARY_TASK_GRAPH_MAGIC = 0x47415444;		// "DTAG" in little-endian.
+	private static final int BINARY_TASK_GRAPH_VERSION = 1;
+	private static final int BINARY_TASK_GRAPH_HEADER_SIZE = 8 * Integer.BYTES;
+
 	// Globally modifiable variables.
 	private static int taskCount = Constants.INVALID_RESULT_INT;
 	private static int taskSubgraphCount = Constants.INVALID_RESULT_INT;
 	private static String taskSubgraphsFilename = null;
+	private static TaskSubgraphBundle taskSubgraphBundle = null;
 
 	public static int getTaskCount() {
 		return taskCount;
@@ -43,105 +67,477 @@ public class DagUtils {
 		taskSubgraphsFilename = filename;
 	}
 
+	/**
+	 * Gets the task subgraphs of the current workflow (getTaskSubgraphsFilename(), getTaskSubgraphCount()), loaded once per workflow
+	 * and shared by all the brokers and executions: call it before the scheduling starts so that the loading is not measured.
+	 * @return The task subgraph bundle, null if the task subgraphs cannot be loaded.
+	 */
+	public static synchronized TaskSubgraphBundle getTaskSubgraphBundle() {
+		if (taskSubgraphsFilename == null) {
+			return null;
+		}
+		if (taskSubgraphBundle == null || !taskSubgraphBundle.getTaskSubgraphsFilename().equals(taskSubgraphsFilename)
+			|| taskSubgraphBundle.getTaskSubgraphCount() < taskSubgraphCount) {
+			taskSubgraphBundle = TaskSubgraphBundle.load(taskSubgraphsFilename, taskSubgraphCount);
+		}
+		return taskSubgraphBundle;
+	}
+
 	public static TaskGraph loadTaskGraph(String filename) {
+		return loadTaskGraph(filename, Constants.OFF_HEAP_TASK_GRAPH);
+	}
+
+	/**
+	 * @param filename The task graph file, text or binary (Constants.FILE_EXTENSION_BIN, see {@link #loadBinaryTaskGraph(String, boolean)}).
+	 * An invalid binary task graph file is replaced by the text task graph file it was converted from, if any.
+	 * @param offHeap Whether to store the adjacency and the computation costs off-heap (see {@link TaskGraph#setOffHeap(boolean)}):
+	 * the tasks and dependencies are then appended at once, as from a binary task graph file, without dependency maps.
+	 * @return The loaded task graph, null if the file is not found.
+	 */
+	public static TaskGraph loadTaskGraph(String filename, boolean offHeap) {
+		if (filename.endsWith(Constants.FILE_EXTENSION_BIN)) {
+			TaskGraph taskGraph = loadBinaryTaskGraph(filename, offHeap);
+			String textFilename = filename.substring(0, filename.length() - Constants.FILE_EXTENSION_BIN.length()) + Constants.FILE_EXTENSION_TXT;
+			if (taskGraph == null && new File(textFilename).isFile()) {
+				Log.printLine("Loading the text task graph file instead: " + textFilename);
+				return loadTaskGraph(textFilename, offHeap);
+			}
+			return taskGraph;
+		}
+
 		TaskGraph taskGraph = new TaskGraph();
+		taskGraph.setOffHeap(offHeap);
 
 		// Load the task graph data from the file.
-		try {
-			Scanner scanner = new Scanner(new File(filename));
-
+		try (TextTokenizer tokenizer = new TextTokenizer(filename)) {
 			Pair<Map<Integer, ResourceType>, Map<Integer, Double>> resourcesWithAvailabilityInfo = DagEntityCreator.createResourcesWithAvailabilityInfo();
 			Map<Integer, ResourceType> resources = resourcesWithAvailabilityInfo.getKey();
 			Map<Integer, Double> resourcesAvailability = resourcesWithAvailabilityInfo.getValue();
 			taskGraph.initializeResources(resources, resourcesAvailability);
 
-			int taskCount = Integer.parseInt(scanner.nextLine());
+			if (offHeap) {
+				return loadTaskGraph(tokenizer, taskGraph);
+			}
+
+			int taskCount = tokenizer.nextInt();
+			double[] resourceComputationCosts = new double[Constants.RESOURCE_TYPE_COUNT];
 			for (int taskIdx = 1; taskIdx <= taskCount; ++taskIdx) {
-				String[] taskStrings = scanner.nextLine().split(" ");
-				int taskStringIdx = 0;
-				Integer task = Integer.parseInt(taskStrings[taskStringIdx++]);
-				Map<ResourceType, Double> resourceComputationCosts = new HashMap<ResourceType, Double>(Constants.RESOURCE_TYPE_COUNT);
+				Integer task = tokenizer.nextInt();
 				for (ResourceType resourceType : ResourceType.values()) {
-					Double resourceComputationCost = Double.parseDouble(taskStrings[taskStringIdx++]);
-					resourceComputationCosts.put(resourceType, resourceComputationCost);
+					resourceComputationCosts[resourceType.ordinal()] = tokenizer.nextDouble();
 				}
 
 				taskGraph.addTask(task);
 				taskGraph.addTaskComputationCosts(task, resourceComputationCosts);
 			}
 
-			Integer entryTask = Integer.parseInt(scanner.nextLine());
+			Integer entryTask = tokenizer.nextInt();
 			taskGraph.addEntryTask(entryTask);
 
-			Integer exitTask = Integer.parseInt(scanner.nextLine());
+			Integer exitTask = tokenizer.nextInt();
 			taskGraph.addExitTask(exitTask);
 
-			int dependencyCount = Integer.parseInt(scanner.nextLine());
+			int dependencyCount = tokenizer.nextInt();
 			for (int dependencyIdx = 1; dependencyIdx <= dependencyCount; ++dependencyIdx) {
-				String[] dependencyStrings = scanner.nextLine().split(" ");
-				int dependencyStringIdx = 0;
-				Integer fromTask = Integer.parseInt(dependencyStrings[dependencyStringIdx++]);
-				Integer toTask = Integer.parseInt(dependencyStrings[dependencyStringIdx++]);
-				Double dataDependency = Double.parseDouble(dependencyStrings[dependencyStringIdx++]);
+				Integer fromTask = tokenizer.nextInt();
+				Integer toTask = tokenizer.nextInt();
+				Double dataDependency = tokenizer.nextDouble();
 
 				taskGraph.addDependency(fromTask, toTask, dataDependency);
 			}
-
-			scanner.close();
-		} catch (FileNotFoundException e) {
+		} catch (NoSuchFileException e) {
 			Log.printLine("Exception in loadTaskGraph() - File not found: " + filename);
 			return null;
+		} catch (IOException e) {
+			Log.printLine("Exception in loadTaskGraph() - Cannot read file: " + filename);
+			return null;
 		}
 
 		return taskGraph;
 	}
 
-	public static List<Integer> loadTaskSubgraph(String filename, TaskGraph taskGraph) {
-		List<Integer> tasks = new LinkedList<Integer>();
+	// Reads the tasks and dependencies into arrays, then appends them at once (see TaskGraph.appendSubgraph()).
+	private static TaskGraph loadTaskGraph(TextTokenizer tokenizer, TaskGraph taskGraph) throws IOException {
+		int taskCount = tokenizer.nextInt();
+		int[] tasks = new int[taskCount];
+		double[] computationCosts = new double[taskCount * Constants.RESOURCE_TYPE_COUNT];
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			tasks[taskIdx] = tokenizer.nextInt();
+			for (ResourceType resourceType : ResourceType.values()) {
+				computationCosts[taskIdx * Constants.RESOURCE_TYPE_COUNT + resourceType.ordinal()] = tokenizer.nextDouble();
+			}
+		}
 
-		// Load the task subgraph data from the file and add it to the task graph.
-		try {
-			Scanner scanner = new Scanner(new File(filename));
+		int entryTask = tokenizer.nextInt();
+		int exitTask = tokenizer.nextInt();
+
+		int dependencyCount = tokenizer.nextInt();
+		int[] fromTasks = new int[dependencyCount];
+		int[] toTasks = new int[dependencyCount];
+		double[] dataDependencies = new double[dependencyCount];
+		for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+			fromTasks[dependencyIdx] = tokenizer.nextInt();
+			toTasks[dependencyIdx] = tokenizer.nextInt();
+			dataDependencies[dependencyIdx] = tokenizer.nextDouble();
+		}
 
-			int taskCount = Integer.parseInt(scanner.nextLine());
-			for (int taskIdx = 1; taskIdx <= taskCount; ++taskIdx) {
-				String[] taskStrings = scanner.nextLine().split(" ");
-				int taskStringIdx = 0;
-				Integer task = Integer.parseInt(taskStrings[taskStringIdx++]);
-				Map<ResourceType, Double> resourceComputationCosts = new HashMap<ResourceType, Double>(Constants.RESOURCE_TYPE_COUNT);
-				for (ResourceType resourceType : ResourceType.values()) {
-					Double resourceComputationCost = Double.parseDouble(taskStrings[taskStringIdx++]);
-					resourceComputationCosts.put(resourceType, resourceComputationCost);
+		taskGraph.appendSubgraph(tasks, computationCosts, new int[0], new int[0], new double[0]);
+
+		// Dependencies grouped by source task index, in file order.
+		int indexedTaskCount = taskGraph.getTaskCount();
+		int[] dependencyOffsets = new int[indexedTaskCount + 1];
+		int[] fromTaskIndices = new int[dependencyCount];
+		for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+			fromTaskIndices[dependencyIdx] = taskGraph.getTaskIndex(fromTasks[dependencyIdx]);
+			++dependencyOffsets[fromTaskIndices[dependencyIdx] + 1];
+		}
+		for (int taskIdx = 0; taskIdx < indexedTaskCount; ++taskIdx) {
+			dependencyOffsets[taskIdx + 1] += dependencyOffsets[taskIdx];
+		}
+		int[] groupedDependencies = new int[dependencyCount];
+		int[] groupedPositions = Arrays.copyOf(dependencyOffsets, indexedTaskCount);
+		for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+			groupedDependencies[groupedPositions[fromTaskIndices[dependencyIdx]]++] = dependencyIdx;
+		}
+
+		// Successors of each task in the order of its dependency map when loaded on the heap (see TaskGraph.addDependency()),
+		// a duplicated dependency replacing the previous one: the same adjacency, and so the same results, off-heap or not.
+		// One transient map at a time.
+		int[] orderedFromTasks = new int[dependencyCount];
+		int[] orderedToTasks = new int[dependencyCount];
+		double[] orderedDataDependencies = new double[dependencyCount];
+		int orderedDependencyCount = 0;
+		for (int taskIdx = 0; taskIdx < indexedTaskCount; ++taskIdx) {
+			if (dependencyOffsets[taskIdx] == dependencyOffsets[taskIdx + 1]) {
+				continue;
+			}
+			Map<Integer, Double> succTasksInfo = new HashMap<Integer, Double>();
+			for (int groupedIdx = dependencyOffsets[taskIdx]; groupedIdx < dependencyOffsets[taskIdx + 1]; ++groupedIdx) {
+				int dependencyIdx = groupedDependencies[groupedIdx];
+				succTasksInfo.put(toTasks[dependencyIdx], dataDependencies[dependencyIdx]);
+			}
+			for (Map.Entry<Integer, Double> succTaskInfo : succTasksInfo.entrySet()) {
+				orderedFromTasks[orderedDependencyCount] = taskGraph.getTask(taskIdx);
+				orderedToTasks[orderedDependencyCount] = succTaskInfo.getKey();
+				orderedDataDependencies[orderedDependencyCount] = succTaskInfo.getValue();
+				++orderedDependencyCount;
+			}
+		}
+
+		taskGraph.appendSubgraph(new int[0], new double[0], Arrays.copyOf(orderedFromTasks, orderedDependencyCount),
+								Arrays.copyOf(orderedToTasks, orderedDependencyCount), Arrays.copyOf(orderedDataDependencies, orderedDependencyCount));
+		taskGraph.addEntryTask(entryTask);
+		taskGraph.addExitTask(exitTask);
+
+		return taskGraph;
+	}
+
+	/**
+	 * Writes a task graph (with a single entry / exit task) as a text task graph file, see {@link #loadTaskGraph(String, boolean)}:
+	 * the tasks in task index order, the dependencies grouped by source task. The binary task graph file converted from a previous
+	 * text task graph file, if any, is deleted (see {@link #getTaskGraphFilename(String)}).
+	 * @param taskGraph The task graph.
+	 * @param filename The text task graph file.
+	 * @return Whether the task graph was written.
+	 */
+	public static boolean writeTaskGraph(TaskGraph taskGraph, String filename) {
+		TaskGraphAdjacency adjacency = taskGraph.getAdjacency();
+		int taskCount = adjacency.getTaskCount();
+		int dependencyCount = adjacency.getDependencyCount();
+
+		try {
+			File fout = new File(filename);
+			FileOutputStream fos = new FileOutputStream(fout);
+			BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos));
+
+			// Tasks information.
+			bw.write("" + taskCount);
+			bw.newLine();
+			for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+				bw.write("" + taskGraph.getTask(taskIdx));
+				for (int resourceTypeOrdinal = 0; resourceTypeOrdinal < Constants.RESOURCE_TYPE_COUNT; ++resourceTypeOrdinal) {
+					bw.write(" " + taskGraph.getComputationCostByTypeIndex(taskIdx, resourceTypeOrdinal));
 				}
+				bw.newLine();
+			}
 
-				taskGraph.addTask(task);
-				taskGraph.addTaskComputationCosts(task, resourceComputationCosts);
+			// Entry and exit tasks information.
+			bw.write("" + taskGraph.getEntryTasks().get(0));
+			bw.newLine();
+			bw.write("" + taskGraph.getExitTasks().get(0));
+			bw.newLine();
+
+			// Dependencies information.
+			bw.write("" + dependencyCount);
+			bw.newLine();
+			for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+				bw.write(taskGraph.getTask(adjacency.getDependencySourceTask(dependencyIdx)) + " "
+						+ taskGraph.getTask(adjacency.getDependencyTargetTask(dependencyIdx)) + " "
+						+ adjacency.getDataDependency(dependencyIdx));
+				bw.newLine();
+			}
+
+			bw.close();
+		} catch (IOException e) {
+			Log.printLine("Exception in writeTaskGraph() - Cannot write file: " + filename);
+			return false;
+		}
+
+		File binaryTaskGraphFile = new File(getBinaryTaskGraphFilename(filename));
+		if (binaryTaskGraphFile.isFile() && !binaryTaskGraphFile.delete()) {
+			Log.printLine("Exception in writeTaskGraph() - Cannot delete file: " + binaryTaskGraphFile.getPath());
+		}
 
-				tasks.add(task);
+		return true;
+	}
+
+	/**
+	 * Loads a binary task graph file (see {@link #convertTaskGraph(String, String)}), memory-mapped: the tasks, computation costs
+	 * and dependencies are read in bulk, then appended at once (see {@link TaskGraph#appendSubgraph(int[], double[], int[], int[], double[])}):
+	 * the dependencies go to the adjacency only, without a dependency map (one task index lookup per dependency endpoint).
+	 * @param filename The binary task graph file.
+	 * @param offHeap Whether to store the adjacency and the computation costs off-heap (see {@link TaskGraph#setOffHeap(boolean)}).
+	 * @return The loaded task graph, null if the file cannot be read or is invalid.
+	 */
+	public static TaskGraph loadBinaryTaskGraph(String filename, boolean offHeap) {
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+			MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			TaskGraph taskGraph = decodeBinaryTaskGraph(mappedBuffer.order(ByteOrder.LITTLE_ENDIAN), offHeap);
+			if (taskGraph == null) {
+				Log.printLine("Exception in loadBinaryTaskGraph() - Invalid binary task graph file: " + filename);
 			}
+			return taskGraph;
+		} catch (IOException e) {
+			Log.printLine("Exception in loadBinaryTaskGraph() - Cannot read file: " + filename);
+			return null;
+		}
+	}
 
-			int dependencyCount = Integer.parseInt(scanner.nextLine());
-			for (int dependencyIdx = 1; dependencyIdx <= dependencyCount; ++dependencyIdx) {
-				String[] dependencyStrings = scanner.nextLine().split(" ");
-				int dependencyStringIdx = 0;
-				Integer fromTask = Integer.parseInt(dependencyStrings[dependencyStringIdx++]);
-				Integer toTask = Integer.parseInt(dependencyStrings[dependencyStringIdx++]);
-				Double dataDependency = Double.parseDouble(dependencyStrings[dependencyStringIdx++]);
+	/**
+	 * Decodes a task graph from the binary task graph file format, see {@link #loadBinaryTaskGraph(String, boolean)}.
+	 * @param buffer The binary task graph (little-endian), starting at index 0.
+	 * @param offHeap Whether to store the adjacency and the computation costs off-heap (see {@link TaskGraph#setOffHeap(boolean)}).
+	 * @return The decoded task graph, null if the binary task graph is invalid.
+	 */
+	public static TaskGraph decodeBinaryTaskGraph(ByteBuffer buffer, boolean offHeap) {
+		if (buffer.capacity() < BINARY_TASK_GRAPH_HEADER_SIZE
+			|| buffer.getInt(0) != BINARY_TASK_GRAPH_MAGIC || buffer.getInt(Integer.BYTES) != BINARY_TASK_GRAPH_VERSION) {
+			return null;
+		}
+		int taskCount = buffer.getInt(2 * Integer.BYTES);
+		int dependencyCount = buffer.getInt(3 * Integer.BYTES);
+		int resourceTypeCount = buffer.getInt(4 * Integer.BYTES);
+		int entryTask = buffer.getInt(5 * Integer.BYTES);
+		int exitTask = buffer.getInt(6 * Integer.BYTES);
+		// Counts checked before sizing anything: the size (computed in long) then bounds every offset below by the buffer capacity.
+		if (taskCount < 0 || dependencyCount < 0 || resourceTypeCount != Constants.RESOURCE_TYPE_COUNT
+			|| buffer.capacity() < getBinaryTaskGraphSize(taskCount, dependencyCount)) {
+			return null;
+		}
 
-				taskGraph.addDependency(fromTask, toTask, dataDependency);
+		TaskGraph taskGraph = new TaskGraph();
+		taskGraph.setOffHeap(offHeap);
+		Pair<Map<Integer, ResourceType>, Map<Integer, Double>> resourcesWithAvailabilityInfo = DagEntityCreator.createResourcesWithAvailabilityInfo();
+		taskGraph.initializeResources(resourcesWithAvailabilityInfo.getKey(), resourcesWithAvailabilityInfo.getValue());
+
+		// Task table.
+		int offset = BINARY_TASK_GRAPH_HEADER_SIZE;
+		int[] tasks = new int[taskCount];
+		getIntBuffer(buffer, offset, taskCount).get(tasks);
+		offset = alignOffset(offset + taskCount * Integer.BYTES);
+
+		// Computation cost columns, interleaved into rows.
+		double[] computationCosts = new double[taskCount * Constants.RESOURCE_TYPE_COUNT];
+		for (int resourceTypeOrdinal = 0; resourceTypeOrdinal < Constants.RESOURCE_TYPE_COUNT; ++resourceTypeOrdinal) {
+			DoubleBuffer computationCostsColumn = getDoubleBuffer(buffer, offset, taskCount);
+			for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+				computationCosts[taskIdx * Constants.RESOURCE_TYPE_COUNT + resourceTypeOrdinal] = computationCostsColumn.get(taskIdx);
+			}
+			offset += taskCount * Double.BYTES;
+		}
+
+		// Dependencies.
+		int[] fromTasks = new int[dependencyCount];
+		int[] toTasks = new int[dependencyCount];
+		double[] dataDependencies = new double[dependencyCount];
+		getIntBuffer(buffer, offset, dependencyCount).get(fromTasks);
+		offset += dependencyCount * Integer.BYTES;
+		getIntBuffer(buffer, offset, dependencyCount).get(toTasks);
+		offset = alignOffset(offset + dependencyCount * Integer.BYTES);
+		getDoubleBuffer(buffer, offset, dependencyCount).get(dataDependencies);
+
+		taskGraph.appendSubgraph(tasks, computationCosts, fromTasks, toTasks, dataDependencies);
+		if (entryTask != Constants.INVALID_RESULT_INT) {
+			taskGraph.addEntryTask(entryTask);
+		}
+		if (exitTask != Constants.INVALID_RESULT_INT) {
+			taskGraph.addExitTask(exitTask);
+		}
+
+		return taskGraph;
+	}
+
+	/**
+	 * @param filename The text task graph file.
+	 * @return The binary task graph file of the text task graph file (Constants.FILE_EXTENSION_BIN instead of Constants.FILE_EXTENSION_TXT).
+	 */
+	public static String getBinaryTaskGraphFilename(String filename) {
+		String filenamePrefix = filename.endsWith(Constants.FILE_EXTENSION_TXT)
+								? filename.substring(0, filename.length() - Constants.FILE_EXTENSION_TXT.length())
+								: filename;
+		return filenamePrefix + Constants.FILE_EXTENSION_BIN;
+	}
+
+	/**
+	 * @param filename The text task graph file.
+	 * @return The binary task graph file (see {@link #convertTaskGraph(String, String)}) if it is up to date (not older than the
+	 * text task graph file), the text task graph file otherwise.
+	 */
+	public static String getTaskGraphFilename(String filename) {
+		File taskGraphFile = new File(filename);
+		File binaryTaskGraphFile = new File(getBinaryTaskGraphFilename(filename));
+		if (binaryTaskGraphFile.isFile() && binaryTaskGraphFile.lastModified() >= taskGraphFile.lastModified()) {
+			return binaryTaskGraphFile.getPath();
+		}
+		return filename;
+	}
+
+	/**
+	 * Converts a text task graph file into a binary task graph file, loaded without parsing (see {@link #loadBinaryTaskGraph(String, boolean)}).
+	 * @param filename The text task graph file.
+	 * @param binaryFilename The binary task graph file.
+	 * @return Whether the task graph was converted.
+	 */
+	public static boolean convertTaskGraph(String filename, String binaryFilename) {
+		TaskGraph taskGraph = loadTaskGraph(filename, false);
+		if (taskGraph == null) {
+			return false;
+		}
+		return writeBinaryTaskGraph(taskGraph, binaryFilename);
+	}
+
+	/**
+	 * Writes a task graph (with a single entry / exit task, as the text task graph files) as a binary task graph file.
+	 * @param taskGraph The task graph.
+	 * @param binaryFilename The binary task graph file.
+	 * @return Whether the task graph was written.
+	 */
+	public static boolean writeBinaryTaskGraph(TaskGraph taskGraph, String binaryFilename) {
+		TaskGraphAdjacency adjacency = taskGraph.getAdjacency();
+		int taskCount = adjacency.getTaskCount();
+		int dependencyCount = adjacency.getDependencyCount();
+		long size = getBinaryTaskGraphSize(taskCount, dependencyCount);
+		if (size > Integer.MAX_VALUE) {
+			Log.printLine("Exception in writeBinaryTaskGraph() - Task graph too large: " + taskCount + " tasks, " + dependencyCount + " dependencies");
+			return false;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+		encodeBinaryTaskGraph(taskGraph, buffer);
+
+		try (FileChannel channel = FileChannel.open(Paths.get(binaryFilename), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+													StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} catch (IOException e) {
+			Log.printLine("Exception in writeBinaryTaskGraph() - Cannot write file: " + binaryFilename);
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * @param taskGraph The task graph.
+	 * @return Size of the task graph in the binary task graph file format <B>.
+	 */
+	public static long getBinaryTaskGraphSize(TaskGraph taskGraph) {
+		TaskGraphAdjacency adjacency = taskGraph.getAdjacency();
+		return getBinaryTaskGraphSize(adjacency.getTaskCount(), adjacency.getDependencyCount());
+	}
+
+	/**
+	 * Encodes a task graph (with a single entry / exit task) in the binary task graph file format, in the task index order
+	 * and the dependency order of its adjacency.
+	 * @param taskGraph The task graph.
+	 * @param buffer The binary task graph (little-endian), starting at index 0, of at least {@link #getBinaryTaskGraphSize(TaskGraph)} bytes.
+	 */
+	public static void encodeBinaryTaskGraph(TaskGraph taskGraph, ByteBuffer buffer) {
+		TaskGraphAdjacency adjacency = taskGraph.getAdjacency();
+		int taskCount = adjacency.getTaskCount();
+		int dependencyCount = adjacency.getDependencyCount();
+
+		List<Integer> entryTasks = taskGraph.getEntryTasks();
+		List<Integer> exitTasks = taskGraph.getExitTasks();
+		buffer.putInt(0, BINARY_TASK_GRAPH_MAGIC);
+		buffer.putInt(Integer.BYTES, BINARY_TASK_GRAPH_VERSION);
+		buffer.putInt(2 * Integer.BYTES, taskCount);
+		buffer.putInt(3 * Integer.BYTES, dependencyCount);
+		buffer.putInt(4 * Integer.BYTES, Constants.RESOURCE_TYPE_COUNT);
+		buffer.putInt(5 * Integer.BYTES, (entryTasks != null && !entryTasks.isEmpty()) ? entryTasks.get(0) : Constants.INVALID_RESULT_INT);
+		buffer.putInt(6 * Integer.BYTES, (exitTasks != null && !exitTasks.isEmpty()) ? exitTasks.get(0) : Constants.INVALID_RESULT_INT);
+
+		// Task table.
+		int offset = BINARY_TASK_GRAPH_HEADER_SIZE;
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			buffer.putInt(offset + taskIdx * Integer.BYTES, taskGraph.getTask(taskIdx));
+		}
+		offset = alignOffset(offset + taskCount * Integer.BYTES);
+
+		// Computation cost columns.
+		for (int resourceTypeOrdinal = 0; resourceTypeOrdinal < Constants.RESOURCE_TYPE_COUNT; ++resourceTypeOrdinal) {
+			for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+				buffer.putDouble(offset + taskIdx * Double.BYTES, taskGraph.getComputationCostByTypeIndex(taskIdx, resourceTypeOrdinal));
 			}
+			offset += taskCount * Double.BYTES;
+		}
 
-			Integer taskSubgraphExitTask = Integer.parseInt(scanner.nextLine());
-			Integer taskGraphExitTask = taskGraph.getExitTasks().get(0);
-			taskGraph.addDependency(taskSubgraphExitTask, taskGraphExitTask, 0.0);
+		// Dependencies.
+		int toTasksOffset = offset + dependencyCount * Integer.BYTES;
+		int dataDependenciesOffset = alignOffset(toTasksOffset + dependencyCount * Integer.BYTES);
+		for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+			buffer.putInt(offset + dependencyIdx * Integer.BYTES, taskGraph.getTask(adjacency.getDependencySourceTask(dependencyIdx)));
+			buffer.putInt(toTasksOffset + dependencyIdx * Integer.BYTES, taskGraph.getTask(adjacency.getDependencyTargetTask(dependencyIdx)));
+			buffer.putDouble(dataDependenciesOffset + dependencyIdx * Double.BYTES, adjacency.getDataDependency(dependencyIdx));
+		}
+	}
 
-			scanner.close();
-		} catch (FileNotFoundException e) {
+	// Computed in long: no overflow for any (non-negative) task and dependency count.
+	private static long getBinaryTaskGraphSize(int taskCount, int dependencyCount) {
+		long size = alignOffset(BINARY_TASK_GRAPH_HEADER_SIZE + (long) taskCount * Integer.BYTES);
+		size += (long) taskCount * Constants.RESOURCE_TYPE_COUNT * Double.BYTES;
+		size = alignOffset(size + 2L * dependencyCount * Integer.BYTES);
+		return size + (long) dependencyCount * Double.BYTES;
+	}
+
+	private static int alignOffset(int offset) {
+		return (offset + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+	}
+
+	private static long alignOffset(long offset) {
+		return (offset + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+	}
+
+	private static IntBuffer getIntBuffer(ByteBuffer buffer, int offset, int length) {
+		return buffer.slice(offset, length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+	}
+
+	private static DoubleBuffer getDoubleBuffer(ByteBuffer buffer, int offset, int length) {
+		return buffer.slice(offset, length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+	}
+
+	public static List<Integer> loadTaskSubgraph(String filename, TaskGraph taskGraph) {
+		// Load the task subgraph data from the file and append it to the task graph.
+		try {
+			return TaskSubgraphBundle.readTaskSubgraph(filename).appendTo(taskGraph);
+		} catch (NoSuchFileException e) {
 			Log.printLine("Exception in loadTaskSubgraph() - File not found: " + filename);
 			return null;
+		} catch (IOException e) {
+			Log.printLine("Exception in loadTaskSubgraph() - Cannot read file: " + filename);
+			return null;
 		}
-
-		return tasks;
 	}
 
 }
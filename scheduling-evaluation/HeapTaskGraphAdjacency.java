@@ -0,0 +1,342 @@
+package scheduling_evaluation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CSR representation of the task graph dependencies, stored in Java arrays (see {@link TaskGraphAdjacency}).
+ */
+public class HeapTaskGraphAdjacency implements TaskGraphAdjacency {
+
+	private final int taskCount;
+	private final int dependencyCount;
+
+	// Outgoing dependencies: successors of task i are stored in [successorOffsets[i], successorOffsets[i+1]).
+	private final int[] successorOffsets;
+	private final int[] successorTasks;
+	private final double[] dataDependencies;
+	private final int[] dependencySourceTasks;
+
+	// Incoming dependencies: predecessors of task i are stored in [predecessorOffsets[i], predecessorOffsets[i+1]).
+	private final int[] predecessorOffsets;
+	private final int[] predecessorTasks;
+	private final int[] predecessorDependencies;
+
+	// Adjacencies with the same version have the same dependency indices for their common dependencies (shared by the implementations).
+	private static final AtomicLong dependencyIndicesVersions = new AtomicLong();
+	private final long dependencyIndicesVersion;
+	// Whether the successor arrays were reused by an appended adjacency: their tail beyond this adjacency is then in use.
+	private final AtomicBoolean appended = new AtomicBoolean(false);
+
+	/**
+	 * Builds the CSR representation from a list of dependencies.
+	 * The relative order of the dependencies of the same source task is preserved.
+	 * @param taskCount Number of tasks (task indices are in [0, taskCount)).
+	 * @param fromTasks Source task index of each dependency.
+	 * @param toTasks Target task index of each dependency.
+	 * @param dataDependencies Communication data of each dependency <MB>.
+	 * @param dependencyCount Number of dependencies.
+	 */
+	public HeapTaskGraphAdjacency(int taskCount, int[] fromTasks, int[] toTasks, double[] dataDependencies, int dependencyCount) {
+		this(taskCount, dependencyCount, new int[taskCount + 1], new int[dependencyCount], new double[dependencyCount], new int[dependencyCount],
+				nextDependencyIndicesVersion());
+
+		// Count the outgoing dependencies of each task.
+		for (int idx = 0; idx < dependencyCount; ++idx) {
+			++this.successorOffsets[fromTasks[idx] + 1];
+		}
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			this.successorOffsets[taskIdx + 1] += this.successorOffsets[taskIdx];
+		}
+
+		// Place the dependencies (stable counting sort by source task).
+		int[] successorPositions = new int[taskCount];
+		System.arraycopy(this.successorOffsets, 0, successorPositions, 0, taskCount);
+		for (int idx = 0; idx < dependencyCount; ++idx) {
+			int dependencyIdx = successorPositions[fromTasks[idx]]++;
+			this.successorTasks[dependencyIdx] = toTasks[idx];
+			this.dataDependencies[dependencyIdx] = dataDependencies[idx];
+			this.dependencySourceTasks[dependencyIdx] = fromTasks[idx];
+		}
+
+		buildPredecessors();
+	}
+
+	private HeapTaskGraphAdjacency(int taskCount, int dependencyCount, int[] successorOffsets, int[] successorTasks, double[] dataDependencies,
+								int[] dependencySourceTasks, long dependencyIndicesVersion) {
+		this.taskCount = taskCount;
+		this.dependencyCount = dependencyCount;
+		this.successorOffsets = successorOffsets;
+		this.successorTasks = successorTasks;
+		this.dataDependencies = dataDependencies;
+		this.dependencySourceTasks = dependencySourceTasks;
+		this.dependencyIndicesVersion = dependencyIndicesVersion;
+
+		this.predecessorOffsets = new int[taskCount + 1];
+		this.predecessorTasks = new int[dependencyCount];
+		this.predecessorDependencies = new int[dependencyCount];
+	}
+
+	static long nextDependencyIndicesVersion() {
+		return dependencyIndicesVersions.incrementAndGet();
+	}
+
+	private void buildPredecessors() {
+		// Count the incoming dependencies of each task.
+		for (int dependencyIdx = 0; dependencyIdx < this.dependencyCount; ++dependencyIdx) {
+			++this.predecessorOffsets[this.successorTasks[dependencyIdx] + 1];
+		}
+		for (int taskIdx = 0; taskIdx < this.taskCount; ++taskIdx) {
+			this.predecessorOffsets[taskIdx + 1] += this.predecessorOffsets[taskIdx];
+		}
+
+		// Place the reverse dependencies, pointing back to the dependency index.
+		int[] predecessorPositions = new int[this.taskCount];
+		System.arraycopy(this.predecessorOffsets, 0, predecessorPositions, 0, this.taskCount);
+		for (int dependencyIdx = 0; dependencyIdx < this.dependencyCount; ++dependencyIdx) {
+			int toTask = this.successorTasks[dependencyIdx];
+			int predecessorIdx = predecessorPositions[toTask]++;
+			this.predecessorTasks[predecessorIdx] = this.dependencySourceTasks[dependencyIdx];
+			this.predecessorDependencies[predecessorIdx] = dependencyIdx;
+		}
+	}
+
+	/**
+	 * See {@link TaskGraphAdjacency#append(int, int[], int[], double[], int)}. If the existing dependency indices are unchanged,
+	 * the successor arrays are shared with this adjacency and grown by doubling, so the successor side costs O(appended tasks + appended
+	 * dependencies) amortized, and the existing predecessors are copied in blocks, only the appended ones being placed one by one.
+	 * Otherwise, the successor arrays are merged and the predecessor arrays rebuilt.
+	 * The predecessor side still costs O(tasks + dependencies) per append: the predecessors of a task stay contiguous, and the ones of
+	 * the existing tasks (e.g. the exit task of the appended task subgraphs) cannot grow in place, since this adjacency remains valid
+	 * and may be read concurrently (e.g. the adjacency of a frozen task graph shared by several overlays).
+	 */
+	@Override
+	public TaskGraphAdjacency append(int taskCount, int[] fromTasks, int[] toTasks, double[] dataDependencies, int dependencyCount) {
+		int previousTaskCount = this.taskCount;
+		int previousDependencyCount = this.dependencyCount;
+		int newDependencyCount = previousDependencyCount + dependencyCount;
+
+		boolean appendedTaskDependencies = true;
+		for (int idx = 0; idx < dependencyCount; ++idx) {
+			if (fromTasks[idx] < previousTaskCount) {
+				appendedTaskDependencies = false;
+				break;
+			}
+		}
+
+		HeapTaskGraphAdjacency adjacency = null;
+		if (appendedTaskDependencies) {
+			// The first append reuses the successor arrays (only their unused tail is written), the next ones copy them.
+			boolean reuse = this.appended.compareAndSet(false, true);
+			adjacency = new HeapTaskGraphAdjacency(taskCount, newDependencyCount,
+												growArray(this.successorOffsets, previousTaskCount + 1, taskCount + 1, reuse),
+												growArray(this.successorTasks, previousDependencyCount, newDependencyCount, reuse),
+												growArray(this.dataDependencies, previousDependencyCount, newDependencyCount, reuse),
+												growArray(this.dependencySourceTasks, previousDependencyCount, newDependencyCount, reuse),
+												this.dependencyIndicesVersion);
+			Arrays.fill(adjacency.successorOffsets, previousTaskCount + 1, taskCount + 1, 0);
+		} else {
+			adjacency = new HeapTaskGraphAdjacency(taskCount, newDependencyCount, new int[taskCount + 1], new int[newDependencyCount],
+													new double[newDependencyCount], new int[newDependencyCount], nextDependencyIndicesVersion());
+			for (int taskIdx = 0; taskIdx < previousTaskCount; ++taskIdx) {
+				adjacency.successorOffsets[taskIdx + 1] = getSuccessorCount(taskIdx);
+			}
+		}
+
+		// Count the appended outgoing dependencies of each task.
+		int firstTaskIdx = appendedTaskDependencies ? previousTaskCount : 0;
+		for (int idx = 0; idx < dependencyCount; ++idx) {
+			++adjacency.successorOffsets[fromTasks[idx] + 1];
+		}
+		for (int taskIdx = firstTaskIdx; taskIdx < taskCount; ++taskIdx) {
+			adjacency.successorOffsets[taskIdx + 1] += adjacency.successorOffsets[taskIdx];
+		}
+
+		// Existing dependencies first (moved only if merged), then the appended ones.
+		int[] successorPositions = Arrays.copyOfRange(adjacency.successorOffsets, firstTaskIdx, taskCount);
+		if (!appendedTaskDependencies) {
+			for (int taskIdx = 0; taskIdx < previousTaskCount; ++taskIdx) {
+				int successorsStart = this.successorOffsets[taskIdx];
+				int successorCount = getSuccessorCount(taskIdx);
+				System.arraycopy(this.successorTasks, successorsStart, adjacency.successorTasks, successorPositions[taskIdx], successorCount);
+				System.arraycopy(this.dataDependencies, successorsStart, adjacency.dataDependencies, successorPositions[taskIdx], successorCount);
+				Arrays.fill(adjacency.dependencySourceTasks, successorPositions[taskIdx], successorPositions[taskIdx] + successorCount, taskIdx);
+				successorPositions[taskIdx] += successorCount;
+			}
+		}
+		for (int idx = 0; idx < dependencyCount; ++idx) {
+			int dependencyIdx = successorPositions[fromTasks[idx] - firstTaskIdx]++;
+			adjacency.successorTasks[dependencyIdx] = toTasks[idx];
+			adjacency.dataDependencies[dependencyIdx] = dataDependencies[idx];
+			adjacency.dependencySourceTasks[dependencyIdx] = fromTasks[idx];
+		}
+
+		if (appendedTaskDependencies) {
+			adjacency.appendPredecessors(this);
+		} else {
+			adjacency.buildPredecessors();
+		}
+		return adjacency;
+	}
+
+	/**
+	 * Builds the predecessor arrays from the ones of a previous adjacency with the same dependency indices (same result as
+	 * buildPredecessors()): the previous predecessors are copied in blocks of tasks without appended predecessors.
+	 * @param previousAdjacency The adjacency this adjacency was appended from.
+	 */
+	private void appendPredecessors(HeapTaskGraphAdjacency previousAdjacency) {
+		int previousTaskCount = previousAdjacency.taskCount;
+		int previousDependencyCount = previousAdjacency.dependencyCount;
+
+		// Count the incoming dependencies of each task: the previous ones, then the appended ones.
+		for (int taskIdx = 0; taskIdx < previousTaskCount; ++taskIdx) {
+			this.predecessorOffsets[taskIdx + 1] = previousAdjacency.getPredecessorCount(taskIdx);
+		}
+		for (int dependencyIdx = previousDependencyCount; dependencyIdx < this.dependencyCount; ++dependencyIdx) {
+			++this.predecessorOffsets[this.successorTasks[dependencyIdx] + 1];
+		}
+		for (int taskIdx = 0; taskIdx < this.taskCount; ++taskIdx) {
+			this.predecessorOffsets[taskIdx + 1] += this.predecessorOffsets[taskIdx];
+		}
+
+		// Previous reverse dependencies: a block ends with a task with appended predecessors (placed after the block) or the last previous task.
+		int blockStartTaskIdx = 0;
+		for (int taskIdx = 0; taskIdx < previousTaskCount; ++taskIdx) {
+			if (taskIdx < previousTaskCount - 1 && getPredecessorCount(taskIdx) == previousAdjacency.getPredecessorCount(taskIdx)) {
+				continue;
+			}
+			int previousPredecessorsStart = previousAdjacency.predecessorOffsets[blockStartTaskIdx];
+			int blockLength = previousAdjacency.predecessorOffsets[taskIdx + 1] - previousPredecessorsStart;
+			int predecessorsStart = this.predecessorOffsets[blockStartTaskIdx];
+			System.arraycopy(previousAdjacency.predecessorTasks, previousPredecessorsStart, this.predecessorTasks, predecessorsStart, blockLength);
+			System.arraycopy(previousAdjacency.predecessorDependencies, previousPredecessorsStart, this.predecessorDependencies, predecessorsStart, blockLength);
+			blockStartTaskIdx = taskIdx + 1;
+		}
+
+		// Appended reverse dependencies, after the previous ones of their task (placed from the end, in dependency order).
+		int[] predecessorPositions = Arrays.copyOfRange(this.predecessorOffsets, 1, this.taskCount + 1);
+		for (int dependencyIdx = this.dependencyCount - 1; dependencyIdx >= previousDependencyCount; --dependencyIdx) {
+			int predecessorIdx = --predecessorPositions[this.successorTasks[dependencyIdx]];
+			this.predecessorTasks[predecessorIdx] = this.dependencySourceTasks[dependencyIdx];
+			this.predecessorDependencies[predecessorIdx] = dependencyIdx;
+		}
+	}
+
+	private static int[] growArray(int[] values, int length, int newLength, boolean reuse) {
+		if (reuse && newLength <= values.length) {
+			return values;
+		}
+		return Arrays.copyOf(values, Math.max(newLength, 2 * length));
+	}
+
+	private static double[] growArray(double[] values, int length, int newLength, boolean reuse) {
+		if (reuse && newLength <= values.length) {
+			return values;
+		}
+		return Arrays.copyOf(values, Math.max(newLength, 2 * length));
+	}
+
+	@Override
+	public long getDependencyIndicesVersion() {
+		return this.dependencyIndicesVersion;
+	}
+
+	@Override
+	public int getTaskCount() {
+		return this.taskCount;
+	}
+
+	@Override
+	public int getDependencyCount() {
+		return this.dependencyCount;
+	}
+
+	/* Successors: iterate dependencyIdx over [getSuccessorsStart(taskIdx), getSuccessorsEnd(taskIdx)). */
+
+	@Override
+	public int getSuccessorsStart(int taskIdx) {
+		return this.successorOffsets[taskIdx];
+	}
+
+	@Override
+	public int getSuccessorsEnd(int taskIdx) {
+		return this.successorOffsets[taskIdx + 1];
+	}
+
+	@Override
+	public int getSuccessorCount(int taskIdx) {
+		return this.successorOffsets[taskIdx + 1] - this.successorOffsets[taskIdx];
+	}
+
+	@Override
+	public int getSuccessorTask(int dependencyIdx) {
+		return this.successorTasks[dependencyIdx];
+	}
+
+	/* Predecessors: iterate predecessorIdx over [getPredecessorsStart(taskIdx), getPredecessorsEnd(taskIdx)). */
+
+	@Override
+	public int getPredecessorsStart(int taskIdx) {
+		return this.predecessorOffsets[taskIdx];
+	}
+
+	@Override
+	public int getPredecessorsEnd(int taskIdx) {
+		return this.predecessorOffsets[taskIdx + 1];
+	}
+
+	@Override
+	public int getPredecessorCount(int taskIdx) {
+		return this.predecessorOffsets[taskIdx + 1] - this.predecessorOffsets[taskIdx];
+	}
+
+	@Override
+	public int getPredecessorTask(int predecessorIdx) {
+		return this.predecessorTasks[predecessorIdx];
+	}
+
+	@Override
+	public int getPredecessorDependency(int predecessorIdx) {
+		return this.predecessorDependencies[predecessorIdx];
+	}
+
+	/* Dependencies. */
+
+	@Override
+	public int getDependencySourceTask(int dependencyIdx) {
+		return this.dependencySourceTasks[dependencyIdx];
+	}
+
+	@Override
+	public int getDependencyTargetTask(int dependencyIdx) {
+		return this.successorTasks[dependencyIdx];
+	}
+
+	@Override
+	public double getDataDependency(int dependencyIdx) {
+		return this.dataDependencies[dependencyIdx];
+	}
+
+	@Override
+	public int findDependency(int fromTaskIdx, int toTaskIdx) {
+		// Scan the shorter of the two adjacency lists (the pseudo entry / exit tasks have very long ones).
+		if (getSuccessorCount(fromTaskIdx) <= getPredecessorCount(toTaskIdx)) {
+			int successorsEnd = getSuccessorsEnd(fromTaskIdx);
+			for (int dependencyIdx = getSuccessorsStart(fromTaskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+				if (this.successorTasks[dependencyIdx] == toTaskIdx) {
+					return dependencyIdx;
+				}
+			}
+		} else {
+			int predecessorsEnd = getPredecessorsEnd(toTaskIdx);
+			for (int predecessorIdx = getPredecessorsStart(toTaskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+				if (this.predecessorTasks[predecessorIdx] == fromTaskIdx) {
+					return this.predecessorDependencies[predecessorIdx];
+				}
+			}
+		}
+		return Constants.INVALID_RESULT_INT;
+	}
+
+}
@@ -0,0 +1,257 @@
+package scheduling_evaluation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * CSR representation of the task graph dependencies, stored outside the Java heap in a single (direct or memory-mapped) buffer
+ * (see {@link TaskGraphAdjacency}), for very large task graphs: the garbage collector neither copies nor scans it.
+ * Buffer layout (little-endian): task count and dependency count (int), successor offsets (taskCount + 1 ints), successor tasks,
+ * dependency source tasks (dependencyCount ints each), predecessor offsets (taskCount + 1 ints), predecessor tasks,
+ * predecessor dependencies (dependencyCount ints each), padding to 8 bytes, data dependencies (dependencyCount doubles).
+ */
+public class OffHeapTaskGraphAdjacency implements TaskGraphAdjacency {
+
+	private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+	private final ByteBuffer buffer;
+	private final int taskCount;
+	private final int dependencyCount;
+
+	private final IntBuffer successorOffsets;
+	private final IntBuffer successorTasks;
+	private final IntBuffer dependencySourceTasks;
+	private final IntBuffer predecessorOffsets;
+	private final IntBuffer predecessorTasks;
+	private final IntBuffer predecessorDependencies;
+	private final DoubleBuffer dataDependencies;
+
+	private final long dependencyIndicesVersion;
+
+	/**
+	 * Builds the CSR representation from a list of dependencies, in a direct buffer.
+	 * The relative order of the dependencies of the same source task is preserved.
+	 * @param taskCount Number of tasks (task indices are in [0, taskCount)).
+	 * @param fromTasks Source task index of each dependency.
+	 * @param toTasks Target task index of each dependency.
+	 * @param dataDependencies Communication data of each dependency <MB>.
+	 * @param dependencyCount Number of dependencies.
+	 */
+	public OffHeapTaskGraphAdjacency(int taskCount, int[] fromTasks, int[] toTasks, double[] dataDependencies, int dependencyCount) {
+		this(null, taskCount, fromTasks, toTasks, dataDependencies, dependencyCount, HeapTaskGraphAdjacency.nextDependencyIndicesVersion());
+	}
+
+	/**
+	 * Wraps a buffer holding an adjacency in the layout of this class (e.g. a memory-mapped task graph file), without copying it.
+	 * @param buffer The buffer, from its position to its limit.
+	 */
+	public OffHeapTaskGraphAdjacency(ByteBuffer buffer) {
+		this(buffer.slice().order(ByteOrder.LITTLE_ENDIAN), HeapTaskGraphAdjacency.nextDependencyIndicesVersion());
+	}
+
+	private OffHeapTaskGraphAdjacency(ByteBuffer buffer, long dependencyIndicesVersion) {
+		this.buffer = buffer;
+		this.taskCount = buffer.getInt(0);
+		this.dependencyCount = buffer.getInt(Integer.BYTES);
+		this.dependencyIndicesVersion = dependencyIndicesVersion;
+
+		int offset = HEADER_SIZE;
+		this.successorOffsets = getIntBuffer(buffer, offset, this.taskCount + 1);
+		offset += (this.taskCount + 1) * Integer.BYTES;
+		this.successorTasks = getIntBuffer(buffer, offset, this.dependencyCount);
+		offset += this.dependencyCount * Integer.BYTES;
+		this.dependencySourceTasks = getIntBuffer(buffer, offset, this.dependencyCount);
+		offset += this.dependencyCount * Integer.BYTES;
+		this.predecessorOffsets = getIntBuffer(buffer, offset, this.taskCount + 1);
+		offset += (this.taskCount + 1) * Integer.BYTES;
+		this.predecessorTasks = getIntBuffer(buffer, offset, this.dependencyCount);
+		offset += this.dependencyCount * Integer.BYTES;
+		this.predecessorDependencies = getIntBuffer(buffer, offset, this.dependencyCount);
+		offset += this.dependencyCount * Integer.BYTES;
+		offset = (offset + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+		this.dataDependencies = buffer.slice(offset, this.dependencyCount * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+	}
+
+	/**
+	 * Builds the CSR representation from the dependencies of a previous adjacency (first, in their order) and a list of dependencies.
+	 */
+	private OffHeapTaskGraphAdjacency(TaskGraphAdjacency adjacency, int taskCount, int[] fromTasks, int[] toTasks, double[] dataDependencies,
+										int dependencyCount, long dependencyIndicesVersion) {
+		this(allocateBuffer(taskCount, (adjacency != null ? adjacency.getDependencyCount() : 0) + dependencyCount), dependencyIndicesVersion);
+
+		// Count the outgoing dependencies of each task.
+		int previousTaskCount = (adjacency != null) ? adjacency.getTaskCount() : 0;
+		int[] successorPositions = new int[taskCount + 1];
+		for (int taskIdx = 0; taskIdx < previousTaskCount; ++taskIdx) {
+			successorPositions[taskIdx + 1] = adjacency.getSuccessorCount(taskIdx);
+		}
+		for (int idx = 0; idx < dependencyCount; ++idx) {
+			++successorPositions[fromTasks[idx] + 1];
+		}
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			successorPositions[taskIdx + 1] += successorPositions[taskIdx];
+		}
+		this.successorOffsets.put(0, successorPositions);
+
+		// Place the dependencies (stable counting sort by source task): the previous ones first.
+		for (int taskIdx = 0; taskIdx < previousTaskCount; ++taskIdx) {
+			int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+			for (int previousDependencyIdx = adjacency.getSuccessorsStart(taskIdx); previousDependencyIdx < successorsEnd; ++previousDependencyIdx) {
+				int dependencyIdx = successorPositions[taskIdx]++;
+				this.successorTasks.put(dependencyIdx, adjacency.getSuccessorTask(previousDependencyIdx));
+				this.dataDependencies.put(dependencyIdx, adjacency.getDataDependency(previousDependencyIdx));
+				this.dependencySourceTasks.put(dependencyIdx, taskIdx);
+			}
+		}
+		for (int idx = 0; idx < dependencyCount; ++idx) {
+			int dependencyIdx = successorPositions[fromTasks[idx]]++;
+			this.successorTasks.put(dependencyIdx, toTasks[idx]);
+			this.dataDependencies.put(dependencyIdx, dataDependencies[idx]);
+			this.dependencySourceTasks.put(dependencyIdx, fromTasks[idx]);
+		}
+
+		buildPredecessors(successorPositions);
+	}
+
+	private static ByteBuffer allocateBuffer(int taskCount, int dependencyCount) {
+		long size = getByteSize(taskCount, dependencyCount);
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Task graph adjacency too large: " + taskCount + " tasks, " + dependencyCount + " dependencies");
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect((int) size).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(0, taskCount);
+		buffer.putInt(Integer.BYTES, dependencyCount);
+		return buffer;
+	}
+
+	/**
+	 * @param taskCount Number of tasks.
+	 * @param dependencyCount Number of dependencies.
+	 * @return Size of the buffer of an adjacency <B>.
+	 */
+	public static long getByteSize(int taskCount, int dependencyCount) {
+		long intsSize = HEADER_SIZE + (2L * (taskCount + 1) + 4L * dependencyCount) * Integer.BYTES;
+		return (intsSize + Double.BYTES - 1) / Double.BYTES * Double.BYTES + (long) dependencyCount * Double.BYTES;
+	}
+
+	private static IntBuffer getIntBuffer(ByteBuffer buffer, int offset, int length) {
+		return buffer.slice(offset, length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+	}
+
+	/**
+	 * @param predecessorPositions Scratch array of taskCount + 1 ints.
+	 */
+	private void buildPredecessors(int[] predecessorPositions) {
+		// Count the incoming dependencies of each task.
+		Arrays.fill(predecessorPositions, 0);
+		for (int dependencyIdx = 0; dependencyIdx < this.dependencyCount; ++dependencyIdx) {
+			++predecessorPositions[this.successorTasks.get(dependencyIdx) + 1];
+		}
+		for (int taskIdx = 0; taskIdx < this.taskCount; ++taskIdx) {
+			predecessorPositions[taskIdx + 1] += predecessorPositions[taskIdx];
+		}
+		this.predecessorOffsets.put(0, predecessorPositions);
+
+		// Place the reverse dependencies, pointing back to the dependency index.
+		for (int dependencyIdx = 0; dependencyIdx < this.dependencyCount; ++dependencyIdx) {
+			int predecessorIdx = predecessorPositions[this.successorTasks.get(dependencyIdx)]++;
+			this.predecessorTasks.put(predecessorIdx, this.dependencySourceTasks.get(dependencyIdx));
+			this.predecessorDependencies.put(predecessorIdx, dependencyIdx);
+		}
+	}
+
+	/**
+	 * See {@link TaskGraphAdjacency#append(int, int[], int[], double[], int)}. The appended adjacency is copied to a new direct buffer
+	 * in O(tasks + dependencies).
+	 */
+	@Override
+	public TaskGraphAdjacency append(int taskCount, int[] fromTasks, int[] toTasks, double[] dataDependencies, int dependencyCount) {
+		boolean appendedTaskDependencies = true;
+		for (int idx = 0; idx < dependencyCount; ++idx) {
+			if (fromTasks[idx] < this.taskCount) {
+				appendedTaskDependencies = false;
+				break;
+			}
+		}
+
+		long dependencyIndicesVersion = appendedTaskDependencies ? this.dependencyIndicesVersion : HeapTaskGraphAdjacency.nextDependencyIndicesVersion();
+		return new OffHeapTaskGraphAdjacency(this, taskCount, fromTasks, toTasks, dataDependencies, dependencyCount, dependencyIndicesVersion);
+	}
+
+	/**
+	 * @return A read-only view of the buffer holding the adjacency (e.g. to write it to a file).
+	 */
+	public ByteBuffer getBuffer() {
+		return this.buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Override
+	public long getDependencyIndicesVersion() {
+		return this.dependencyIndicesVersion;
+	}
+
+	@Override
+	public int getTaskCount() {
+		return this.taskCount;
+	}
+
+	@Override
+	public int getDependencyCount() {
+		return this.dependencyCount;
+	}
+
+	@Override
+	public int getSuccessorsStart(int taskIdx) {
+		return this.successorOffsets.get(taskIdx);
+	}
+
+	@Override
+	public int getSuccessorsEnd(int taskIdx) {
+		return this.successorOffsets.get(taskIdx + 1);
+	}
+
+	@Override
+	public int getSuccessorTask(int dependencyIdx) {
+		return this.successorTasks.get(dependencyIdx);
+	}
+
+	@Override
+	public int getPredecessorsStart(int taskIdx) {
+		return this.predecessorOffsets.get(taskIdx);
+	}
+
+	@Override
+	public int getPredecessorsEnd(int taskIdx) {
+		return this.predecessorOffsets.get(taskIdx + 1);
+	}
+
+	@Override
+	public int getPredecessorTask(int predecessorIdx) {
+		return this.predecessorTasks.get(predecessorIdx);
+	}
+
+	@Override
+	public int getPredecessorDependency(int predecessorIdx) {
+		return this.predecessorDependencies.get(predecessorIdx);
+	}
+
+	@Override
+	public int getDependencySourceTask(int dependencyIdx) {
+		return this.dependencySourceTasks.get(dependencyIdx);
+	}
+
+	@Override
+	public int getDependencyTargetTask(int dependencyIdx) {
+		return this.successorTasks.get(dependencyIdx);
+	}
+
+	@Override
+	public double getDataDependency(int dependencyIdx) {
+		return this.dataDependencies.get(dependencyIdx);
+	}
+
+}
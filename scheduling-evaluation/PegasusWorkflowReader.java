@@ -0,0 +1,621 @@
+package scheduling_evaluation;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Log;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * Streaming reader of the Pegasus workflow instances (WfCommons JSON format: WfFormat, https://github.com/wfcommons/wfformat),
+ * see {@link DagEntityCreator#createPegasusTaskGraph(String, String, boolean, boolean)}.
+ * The files and tasks of the instance are read in a single pass of the JSON parser (SAX-like content handler), without building
+ * the JSON tree: the task and file IDs are interned to ints on first sight, and the task / file relations and the dependencies
+ * are accumulated in primitive arrays and long-keyed maps. The specification and execution sections can appear in any order.
+ * The created task graph is the same as the one created from the JSON tree (same tasks, dependencies and data): a single dependency
+ * between two tasks, whose data is the total size of the files produced by the source task and consumed by the target task.
+ */
+public class PegasusWorkflowReader implements ContentHandler {
+
+	private static final String PSEUDO_ENTRY_TASK_ID = "pseudo_entry_task";
+	private static final String PSEUDO_EXIT_TASK_ID = "pseudo_exit_task";
+	// Interned indices of the pseudo entry and exit tasks.
+	private static final int PSEUDO_ENTRY_TASK_IDX = 0;
+	private static final int PSEUDO_EXIT_TASK_IDX = 1;
+	private static final long UNSPECIFIED_FILE_SIZE = -1;
+
+	// Path of the current JSON value: object entry keys, null for array elements.
+	private static final String[] SPECIFICATION_FILES_PATH = {"workflow", "specification", "files", null};
+	private static final String[] SPECIFICATION_TASKS_PATH = {"workflow", "specification", "tasks", null};
+	private static final String[] EXECUTION_TASKS_PATH = {"workflow", "execution", "tasks", null};
+
+	private enum ElementType {
+		NONE, SPECIFICATION_FILE, SPECIFICATION_TASK, EXECUTION_TASK
+	}
+
+	private final String workflowInstanceFilename;
+	private final boolean verboseMode;
+
+	private String[] path = new String[16];
+	private int pathLength = 0;
+	private ElementType elementType = ElementType.NONE;
+
+	// Interned task IDs: task index by task ID, and task ID, runtime <s> of each task index.
+	private final HashMap<String, Integer> taskIdxs = new HashMap<String, Integer>();
+	private final List<String> taskIds = new ArrayList<String>();
+	private double[] taskRuntimes = new double[1024];
+	// Task indices, in the order of the specification and execution tasks.
+	private int[] specificationTaskIdxs = new int[1024];
+	private int specificationTaskCount = 0;
+	private int[] executionTaskIdxs = new int[1024];
+	private int executionTaskCount = 0;
+
+	// Interned file IDs: file index by file ID, and file ID, size <B> (UNSPECIFIED_FILE_SIZE if not in the files) of each file index.
+	private final HashMap<String, Integer> fileIdxs = new HashMap<String, Integer>();
+	private final List<String> fileIds = new ArrayList<String>();
+	private long[] fileSizes = new long[1024];
+
+	// (file index << 32 | task index) of the input / output files of the tasks.
+	private long[] inputFileTasks = new long[1024];
+	private int inputFileTaskCount = 0;
+	private long[] outputFileTasks = new long[1024];
+	private int outputFileTaskCount = 0;
+
+	// Data dependencies <B>, keyed by (source task index << 32 | target task index).
+	private final LongLongHashMap dependencies = new LongLongHashMap();
+
+	// Fields of the current element.
+	private String elementId;
+	private long elementSize;
+	private double elementRuntime;
+	private boolean elementHasParents;
+	private boolean elementHasChildren;
+	private int[] elementChildTaskIdxs = new int[64];
+	private int elementChildTaskCount;
+	private int[] elementInputFileIdxs = new int[64];
+	private int elementInputFileCount;
+	private int[] elementOutputFileIdxs = new int[64];
+	private int elementOutputFileCount;
+
+	// Created task graph data.
+	private int[] tasks;
+	private double[] taskComputationTimes;
+	private int pseudoEntryTask;
+	private int pseudoExitTask;
+	private int[] fromTasks;
+	private int[] toTasks;
+	private long[] dataDependencies;
+
+	private PegasusWorkflowReader(String workflowInstanceFilename, boolean verboseMode) {
+		this.workflowInstanceFilename = workflowInstanceFilename;
+		this.verboseMode = verboseMode;
+
+		internTask(PSEUDO_ENTRY_TASK_ID);
+		internTask(PSEUDO_EXIT_TASK_ID);
+	}
+
+	/**
+	 * Reads a workflow instance and computes its tasks and dependencies.
+	 * @param workflowInstanceFilename Workflow instance file (WfFormat).
+	 * @param verboseMode Whether the file dependencies are logged.
+	 * @return The read workflow instance, null if the workflow data is invalid.
+	 * @throws IOException If the file cannot be read.
+	 * @throws ParseException If the file is not valid JSON.
+	 */
+	public static PegasusWorkflowReader read(String workflowInstanceFilename, boolean verboseMode) throws IOException, ParseException {
+		PegasusWorkflowReader reader = new PegasusWorkflowReader(workflowInstanceFilename, verboseMode);
+		try (BufferedReader jsonReader = new BufferedReader(new FileReader(workflowInstanceFilename))) {
+			new JSONParser().parse(jsonReader, reader);
+		}
+		if (!reader.createTasks()) {
+			return null;
+		}
+		reader.createDependencies();
+		return reader;
+	}
+
+	/**
+	 * @return Task of each task (pseudo entry and exit tasks included).
+	 */
+	public int[] getTasks() {
+		return this.tasks;
+	}
+
+	/**
+	 * @return Computation time <s> of each task, in the order of {@link #getTasks()}.
+	 */
+	public double[] getTaskComputationTimes() {
+		return this.taskComputationTimes;
+	}
+
+	public int getPseudoEntryTask() {
+		return this.pseudoEntryTask;
+	}
+
+	public int getPseudoExitTask() {
+		return this.pseudoExitTask;
+	}
+
+	/**
+	 * @return Source task of each dependency.
+	 */
+	public int[] getFromTasks() {
+		return this.fromTasks;
+	}
+
+	/**
+	 * @return Target task of each dependency.
+	 */
+	public int[] getToTasks() {
+		return this.toTasks;
+	}
+
+	/**
+	 * @return Communication data <B> of each dependency.
+	 */
+	public long[] getDataDependencies() {
+		return this.dataDependencies;
+	}
+
+	private int internTask(String taskId) {
+		Integer taskIdx = this.taskIdxs.get(taskId);
+		if (taskIdx == null) {
+			taskIdx = this.taskIds.size();
+			this.taskIdxs.put(taskId, taskIdx);
+			this.taskIds.add(taskId);
+			if (taskIdx == this.taskRuntimes.length) {
+				this.taskRuntimes = Arrays.copyOf(this.taskRuntimes, 2 * taskIdx);
+			}
+		}
+		return taskIdx;
+	}
+
+	private int internFile(String fileId) {
+		Integer fileIdx = this.fileIdxs.get(fileId);
+		if (fileIdx == null) {
+			fileIdx = this.fileIds.size();
+			this.fileIdxs.put(fileId, fileIdx);
+			this.fileIds.add(fileId);
+			if (fileIdx == this.fileSizes.length) {
+				this.fileSizes = Arrays.copyOf(this.fileSizes, 2 * fileIdx);
+			}
+			this.fileSizes[fileIdx] = UNSPECIFIED_FILE_SIZE;
+		}
+		return fileIdx;
+	}
+
+	private static long getKey(int first, int second) {
+		return ((long) first << 32) | second;
+	}
+
+	private static int[] add(int[] values, int valueCount, int value) {
+		if (valueCount == values.length) {
+			values = Arrays.copyOf(values, 2 * valueCount);
+		}
+		values[valueCount] = value;
+		return values;
+	}
+
+	private static long[] add(long[] values, int valueCount, long value) {
+		if (valueCount == values.length) {
+			values = Arrays.copyOf(values, 2 * valueCount);
+		}
+		values[valueCount] = value;
+		return values;
+	}
+
+	/* Content handler: the files and tasks are processed at the end of their JSON object. */
+
+	@Override
+	public void startJSON() {
+	}
+
+	@Override
+	public void endJSON() {
+	}
+
+	@Override
+	public boolean startObject() {
+		if (this.elementType != ElementType.NONE) {
+			return true;
+		}
+
+		if (isPath(SPECIFICATION_FILES_PATH)) {
+			this.elementType = ElementType.SPECIFICATION_FILE;
+		} else if (isPath(SPECIFICATION_TASKS_PATH)) {
+			this.elementType = ElementType.SPECIFICATION_TASK;
+		} else if (isPath(EXECUTION_TASKS_PATH)) {
+			this.elementType = ElementType.EXECUTION_TASK;
+		} else {
+			return true;
+		}
+
+		this.elementId = null;
+		this.elementSize = 0;
+		this.elementRuntime = 0.0;
+		this.elementHasParents = false;
+		this.elementHasChildren = false;
+		this.elementChildTaskCount = 0;
+		this.elementInputFileCount = 0;
+		this.elementOutputFileCount = 0;
+		return true;
+	}
+
+	@Override
+	public boolean endObject() {
+		// Element object: its path is the element path (the nested objects are deeper).
+		if (this.elementType == ElementType.NONE || this.pathLength != SPECIFICATION_FILES_PATH.length) {
+			return true;
+		}
+
+		switch (this.elementType) {
+		case SPECIFICATION_FILE: {
+			// Interned first: interning may grow the file sizes.
+			int fileIdx = internFile(this.elementId);
+			this.fileSizes[fileIdx] = this.elementSize;
+			break;
+		}
+		case SPECIFICATION_TASK: {
+			endSpecificationTask();
+			break;
+		}
+		case EXECUTION_TASK: {
+			int taskIdx = internTask(this.elementId);
+			this.taskRuntimes[taskIdx] = this.elementRuntime;
+			this.executionTaskIdxs = add(this.executionTaskIdxs, this.executionTaskCount++, taskIdx);
+			break;
+		}
+		default:
+			break;
+		}
+		this.elementType = ElementType.NONE;
+		return true;
+	}
+
+	private void endSpecificationTask() {
+		int taskIdx = internTask(this.elementId);
+		this.specificationTaskIdxs = add(this.specificationTaskIdxs, this.specificationTaskCount++, taskIdx);
+
+		if (!this.elementHasParents) {
+			// Entry task.
+			this.dependencies.add(getKey(PSEUDO_ENTRY_TASK_IDX, taskIdx), 0);
+		}
+		if (!this.elementHasChildren) {
+			// Exit task.
+			this.dependencies.add(getKey(taskIdx, PSEUDO_EXIT_TASK_IDX), 0);
+		}
+		for (int idx = 0; idx < this.elementChildTaskCount; ++idx) {
+			this.dependencies.add(getKey(taskIdx, this.elementChildTaskIdxs[idx]), 0);
+		}
+
+		for (int idx = 0; idx < this.elementInputFileCount; ++idx) {
+			this.inputFileTasks = add(this.inputFileTasks, this.inputFileTaskCount++, getKey(this.elementInputFileIdxs[idx], taskIdx));
+		}
+		for (int idx = 0; idx < this.elementOutputFileCount; ++idx) {
+			this.outputFileTasks = add(this.outputFileTasks, this.outputFileTaskCount++, getKey(this.elementOutputFileIdxs[idx], taskIdx));
+		}
+	}
+
+	@Override
+	public boolean startObjectEntry(String key) {
+		if (this.pathLength == this.path.length) {
+			this.path = Arrays.copyOf(this.path, 2 * this.pathLength);
+		}
+		this.path[this.pathLength++] = key;
+		return true;
+	}
+
+	@Override
+	public boolean endObjectEntry() {
+		--this.pathLength;
+		return true;
+	}
+
+	@Override
+	public boolean startArray() {
+		startObjectEntry(null);
+		return true;
+	}
+
+	@Override
+	public boolean endArray() {
+		--this.pathLength;
+		return true;
+	}
+
+	@Override
+	public boolean primitive(Object value) {
+		if (this.elementType == ElementType.NONE) {
+			return true;
+		}
+
+		// Element field: a value, or an element of an array value.
+		int fieldDepth = SPECIFICATION_FILES_PATH.length;
+		boolean arrayElement;
+		if (this.pathLength == fieldDepth + 1) {
+			arrayElement = false;
+		} else if (this.pathLength == fieldDepth + 2 && this.path[fieldDepth + 1] == null) {
+			arrayElement = true;
+		} else {
+			return true;
+		}
+		String field = this.path[fieldDepth];
+
+		if (!arrayElement) {
+			if (field.equals("id")) {
+				this.elementId = (String) value;
+			} else if (field.equals("sizeInBytes") && this.elementType == ElementType.SPECIFICATION_FILE) {
+				this.elementSize = ((Number) value).longValue();
+			} else if (field.equals("runtimeInSeconds") && this.elementType == ElementType.EXECUTION_TASK) {
+				this.elementRuntime = ((Number) value).doubleValue();
+			}
+			return true;
+		}
+
+		if (this.elementType != ElementType.SPECIFICATION_TASK) {
+			return true;
+		}
+		switch (field) {
+		case "parents": {
+			this.elementHasParents = true;
+			break;
+		}
+		case "children": {
+			this.elementHasChildren = true;
+			this.elementChildTaskIdxs = add(this.elementChildTaskIdxs, this.elementChildTaskCount++, internTask((String) value));
+			break;
+		}
+		case "inputFiles": {
+			this.elementInputFileIdxs = add(this.elementInputFileIdxs, this.elementInputFileCount++, internFile((String) value));
+			break;
+		}
+		case "outputFiles": {
+			this.elementOutputFileIdxs = add(this.elementOutputFileIdxs, this.elementOutputFileCount++, internFile((String) value));
+			break;
+		}
+		default:
+			break;
+		}
+		return true;
+	}
+
+	private boolean isPath(String[] elementPath) {
+		if (this.pathLength != elementPath.length) {
+			return false;
+		}
+		for (int idx = 0; idx < elementPath.length; ++idx) {
+			if (elementPath[idx] == null ? this.path[idx] != null : !elementPath[idx].equals(this.path[idx])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/* Task graph data. */
+
+	/**
+	 * Checks the specification and execution tasks, and computes the task of each task ID (its "_ID" suffix).
+	 * @return Whether the workflow data is valid.
+	 */
+	private boolean createTasks() {
+		if (this.specificationTaskCount != this.executionTaskCount) {
+			Log.printLine("Error in read() - Workflow data (task count) is invalid: "
+					+ this.specificationTaskCount + " - " + this.executionTaskCount + " | " + this.workflowInstanceFilename);
+			return false;
+		}
+
+		int taskIdxCount = this.taskIds.size();
+		int[] taskIdxTasks = new int[taskIdxCount];
+		boolean[] specifiedTaskIdxs = new boolean[taskIdxCount];
+		int minTask = Integer.MAX_VALUE;
+		int maxTask = Integer.MIN_VALUE;
+		for (int idx = 0; idx < this.specificationTaskCount; ++idx) {
+			int taskIdx = this.specificationTaskIdxs[idx];
+			if (taskIdx != this.executionTaskIdxs[idx]) {
+				Log.printLine("Error in read() - Workflow data (task ID) is invalid: " + this.taskIds.get(taskIdx)
+						+ " - " + this.taskIds.get(this.executionTaskIdxs[idx]) + " | " + this.workflowInstanceFilename);
+				return false;
+			}
+
+			String taskId = this.taskIds.get(taskIdx);
+			String[] taskIdSplitParts = taskId.split("_ID");
+			if (taskIdSplitParts.length != 2) {
+				Log.printLine("Error in read() - Workflow data (task ID) is invalid: " + taskId + " | " + this.workflowInstanceFilename);
+				return false;
+			}
+			int task = Integer.parseInt(taskIdSplitParts[1]);
+
+			taskIdxTasks[taskIdx] = task;
+			specifiedTaskIdxs[taskIdx] = true;
+			minTask = Math.min(minTask, task);
+			maxTask = Math.max(maxTask, task);
+		}
+		// Child tasks without specification.
+		for (int taskIdx = PSEUDO_EXIT_TASK_IDX + 1; taskIdx < taskIdxCount; ++taskIdx) {
+			if (!specifiedTaskIdxs[taskIdx]) {
+				Log.printLine("Error in read() - Workflow data (task ID) is invalid: " + this.taskIds.get(taskIdx)
+						+ " | " + this.workflowInstanceFilename);
+				return false;
+			}
+		}
+
+		this.pseudoEntryTask = minTask - 1;
+		this.pseudoExitTask = maxTask + 1;
+		taskIdxTasks[PSEUDO_ENTRY_TASK_IDX] = this.pseudoEntryTask;
+		taskIdxTasks[PSEUDO_EXIT_TASK_IDX] = this.pseudoExitTask;
+		this.taskRuntimes[PSEUDO_ENTRY_TASK_IDX] = 0.0;
+		this.taskRuntimes[PSEUDO_EXIT_TASK_IDX] = 0.0;
+
+		this.tasks = taskIdxTasks;
+		this.taskComputationTimes = Arrays.copyOf(this.taskRuntimes, taskIdxCount);
+		return true;
+	}
+
+	/**
+	 * Adds the file dependencies (the size of a file to each of its producer -> consumer dependencies, to producer -> pseudo exit task
+	 * if it has no consumer, to pseudo entry task -> consumer if it has no producer), and maps the task indices to tasks.
+	 */
+	private void createDependencies() {
+		// Group the (deduplicated) tasks by file.
+		Arrays.sort(this.inputFileTasks, 0, this.inputFileTaskCount);
+		Arrays.sort(this.outputFileTasks, 0, this.outputFileTaskCount);
+
+		int inputIdx = 0;
+		int outputIdx = 0;
+		for (int fileIdx = 0; fileIdx < this.fileIds.size(); ++fileIdx) {
+			int inputStart = inputIdx;
+			while (inputIdx < this.inputFileTaskCount && (int) (this.inputFileTasks[inputIdx] >>> 32) == fileIdx) {
+				++inputIdx;
+			}
+			int outputStart = outputIdx;
+			while (outputIdx < this.outputFileTaskCount && (int) (this.outputFileTasks[outputIdx] >>> 32) == fileIdx) {
+				++outputIdx;
+			}
+
+			long fileSize = this.fileSizes[fileIdx];
+			if (fileSize == UNSPECIFIED_FILE_SIZE) {
+				// File not specified.
+				continue;
+			}
+			String fileId = this.fileIds.get(fileIdx);
+			if (inputStart == inputIdx && outputStart == outputIdx) {
+				Log.printLine("File not used by tasks: " + fileId);
+				continue;
+			}
+
+			if (inputStart == inputIdx) {
+				for (int idx = outputStart; idx < outputIdx; ++idx) {
+					if (idx == outputStart || this.outputFileTasks[idx] != this.outputFileTasks[idx - 1]) {
+						addFileDependency(fileId, "output-only", (int) this.outputFileTasks[idx], PSEUDO_EXIT_TASK_IDX, fileSize);
+					}
+				}
+				continue;
+			}
+
+			if (outputStart == outputIdx) {
+				for (int idx = inputStart; idx < inputIdx; ++idx) {
+					if (idx == inputStart || this.inputFileTasks[idx] != this.inputFileTasks[idx - 1]) {
+						addFileDependency(fileId, "input-only", PSEUDO_ENTRY_TASK_IDX, (int) this.inputFileTasks[idx], fileSize);
+					}
+				}
+				continue;
+			}
+
+			for (int fromIdx = outputStart; fromIdx < outputIdx; ++fromIdx) {
+				if (fromIdx != outputStart && this.outputFileTasks[fromIdx] == this.outputFileTasks[fromIdx - 1]) {
+					continue;
+				}
+				for (int toIdx = inputStart; toIdx < inputIdx; ++toIdx) {
+					if (toIdx == inputStart || this.inputFileTasks[toIdx] != this.inputFileTasks[toIdx - 1]) {
+						addFileDependency(fileId, "input-output", (int) this.outputFileTasks[fromIdx], (int) this.inputFileTasks[toIdx], fileSize);
+					}
+				}
+			}
+		}
+
+		int dependencyCount = this.dependencies.size();
+		this.fromTasks = new int[dependencyCount];
+		this.toTasks = new int[dependencyCount];
+		this.dataDependencies = new long[dependencyCount];
+		for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+			long key = this.dependencies.getKey(dependencyIdx);
+			this.fromTasks[dependencyIdx] = this.tasks[(int) (key >>> 32)];
+			this.toTasks[dependencyIdx] = this.tasks[(int) key];
+			this.dataDependencies[dependencyIdx] = this.dependencies.getValue(dependencyIdx);
+		}
+	}
+
+	private void addFileDependency(String fileId, String fileType, int fromTaskIdx, int toTaskIdx, long fileSize) {
+		this.dependencies.add(getKey(fromTaskIdx, toTaskIdx), fileSize);
+		if (this.verboseMode) {
+			Log.printLine("File (" + fileType + "): " + fileId + " | Data dependency: "
+					+ this.taskIds.get(fromTaskIdx) + " -> " + this.taskIds.get(toTaskIdx));
+		}
+	}
+
+	/**
+	 * Open-addressing (linear probing) map of non-negative long keys to long values, keeping the entries in insertion order.
+	 */
+	private static class LongLongHashMap {
+
+		private static final int EMPTY_SLOT = -1;
+
+		// Entry index of each slot, EMPTY_SLOT if none.
+		private int[] slots = new int[1024];
+		private long[] keys = new long[512];
+		private long[] values = new long[512];
+		private int size = 0;
+
+		LongLongHashMap() {
+			Arrays.fill(this.slots, EMPTY_SLOT);
+		}
+
+		int size() {
+			return this.size;
+		}
+
+		long getKey(int entryIdx) {
+			return this.keys[entryIdx];
+		}
+
+		long getValue(int entryIdx) {
+			return this.values[entryIdx];
+		}
+
+		/**
+		 * Adds a value to the value of a key (0 if the key is absent).
+		 */
+		void add(long key, long value) {
+			int mask = this.slots.length - 1;
+			int slot = hash(key) & mask;
+			while (this.slots[slot] != EMPTY_SLOT) {
+				int entryIdx = this.slots[slot];
+				if (this.keys[entryIdx] == key) {
+					this.values[entryIdx] += value;
+					return;
+				}
+				slot = (slot + 1) & mask;
+			}
+
+			if (this.size == this.keys.length) {
+				this.keys = Arrays.copyOf(this.keys, 2 * this.size);
+				this.values = Arrays.copyOf(this.values, 2 * this.size);
+			}
+			this.keys[this.size] = key;
+			this.values[this.size] = value;
+			this.slots[slot] = this.size++;
+
+			// Load factor at most 1/2.
+			if (2 * this.size > this.slots.length) {
+				rehash();
+			}
+		}
+
+		private void rehash() {
+			this.slots = new int[2 * this.slots.length];
+			Arrays.fill(this.slots, EMPTY_SLOT);
+			int mask = this.slots.length - 1;
+			for (int entryIdx = 0; entryIdx < this.size; ++entryIdx) {
+				int slot = hash(this.keys[entryIdx]) & mask;
+				while (this.slots[slot] != EMPTY_SLOT) {
+					slot = (slot + 1) & mask;
+				}
+				this.slots[slot] = entryIdx;
+			}
+		}
+
+		private static int hash(long key) {
+			long hash = key * 0x9E3779B97F4A7C15L;
+			return (int) (hash ^ (hash >>> 32));
+		}
+
+	}
+
+}
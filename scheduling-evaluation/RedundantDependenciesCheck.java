@@ -0,0 +1,114 @@
+package scheduling_evaluation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Check of {@link TaskGraph#removeRedundantDependencies()} on diamond-heavy task graphs (tasks reachable from the same task
+ * through many paths, direct successors also reachable through other successors), against a brute-force search
+ * of the precedence-only dependencies implied by a path of at least 2 dependencies.
+ */
+public class RedundantDependenciesCheck {
+
+	private static final int RANDOM_TASK_GRAPH_COUNT = 200;
+	private static final int LAYER_COUNT = 6;
+	private static final int LAYER_WIDTH_MAX = 8;
+	private static final int LAYER_SPAN_MAX = 3;
+
+	private static TaskGraph createTaskGraph(int taskCount, List<double[]> dependencies) {
+		TaskGraph taskGraph = new TaskGraph();
+		for (int task = 1; task <= taskCount; ++task) {
+			taskGraph.addTask(task);
+			taskGraph.addTaskComputationCosts(task, new double[] { 1.0, 1.0, 1.0 });
+		}
+		for (double[] dependency : dependencies) {
+			taskGraph.addDependency((int) dependency[0], (int) dependency[1], dependency[2]);
+		}
+		return taskGraph;
+	}
+
+	private static Set<String> findRedundantDependencies(int taskCount, List<double[]> dependencies) {
+		List<List<Integer>> successorTasks = new ArrayList<List<Integer>>(taskCount + 1);
+		for (int task = 0; task <= taskCount; ++task) {
+			successorTasks.add(new ArrayList<Integer>());
+		}
+		for (double[] dependency : dependencies) {
+			successorTasks.get((int) dependency[0]).add((int) dependency[1]);
+		}
+
+		Set<String> redundantDependencies = new TreeSet<String>();
+		for (double[] dependency : dependencies) {
+			if (dependency[2] != 0.0) {
+				continue;
+			}
+			// Tasks reachable from the successors of the source task.
+			boolean[] reachedTasks = new boolean[taskCount + 1];
+			List<Integer> taskStack = new ArrayList<Integer>(successorTasks.get((int) dependency[0]));
+			while (!taskStack.isEmpty()) {
+				int task = taskStack.remove(taskStack.size() - 1);
+				for (int succTask : successorTasks.get(task)) {
+					if (!reachedTasks[succTask]) {
+						reachedTasks[succTask] = true;
+						taskStack.add(succTask);
+					}
+				}
+			}
+			if (reachedTasks[(int) dependency[1]]) {
+				redundantDependencies.add((int) dependency[0] + "->" + (int) dependency[1]);
+			}
+		}
+		return redundantDependencies;
+	}
+
+	private static boolean check(String description, int taskCount, List<double[]> dependencies) {
+		Set<String> expectedDependencies = findRedundantDependencies(taskCount, dependencies);
+		Set<String> removedDependencies = new TreeSet<String>();
+		for (Pair<Integer, Integer> dependency : createTaskGraph(taskCount, dependencies).removeRedundantDependencies()) {
+			removedDependencies.add(dependency.getKey() + "->" + dependency.getValue());
+		}
+
+		if (!expectedDependencies.equals(removedDependencies)) {
+			System.out.println(description + ": MISMATCH (expected " + expectedDependencies + ", removed " + removedDependencies + ")");
+			return false;
+		}
+		return true;
+	}
+
+	public static void main(String[] args) {
+		boolean passed = true;
+
+		// u -> {a1..a4, b, z}, b -> a1..a4, ai -> z: every direct successor of u is also reachable through another one.
+		List<double[]> dependencies = new ArrayList<double[]>();
+		for (int task = 2; task <= 7; ++task) {
+			dependencies.add(new double[] { 1, task, 0.0 });
+		}
+		for (int task = 2; task <= 5; ++task) {
+			dependencies.add(new double[] { 6, task, 0.0 });
+			dependencies.add(new double[] { task, 7, 0.0 });
+		}
+		passed &= check("Diamonds through a shared successor", 7, dependencies);
+
+		// Layered task graphs, each task depending on most tasks of the previous layers (precedence-only dependencies mostly).
+		Random random = new Random(0);
+		for (int taskGraphIdx = 0; taskGraphIdx < RANDOM_TASK_GRAPH_COUNT; ++taskGraphIdx) {
+			int layerWidth = 2 + random.nextInt(LAYER_WIDTH_MAX - 1);
+			int taskCount = LAYER_COUNT * layerWidth;
+			dependencies = new ArrayList<double[]>();
+			for (int fromTaskIdx = 0; fromTaskIdx < taskCount; ++fromTaskIdx) {
+				for (int toTaskIdx = fromTaskIdx + 1; toTaskIdx < taskCount; ++toTaskIdx) {
+					int layerSpan = toTaskIdx / layerWidth - fromTaskIdx / layerWidth;
+					if (layerSpan > 0 && layerSpan <= LAYER_SPAN_MAX && random.nextInt(3) > 0) {
+						dependencies.add(new double[] { fromTaskIdx + 1, toTaskIdx + 1, random.nextInt(4) == 0 ? 5.0 : 0.0 });
+					}
+				}
+			}
+			passed &= check("Layered task graph " + taskGraphIdx, taskCount, dependencies);
+		}
+
+		System.out.println("Redundant dependencies check: " + (passed ? "OK" : "FAILED"));
+	}
+
+}
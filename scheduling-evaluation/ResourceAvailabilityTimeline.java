@@ -0,0 +1,265 @@
+package scheduling_evaluation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.Log;
+
+import scheduling_evaluation.Types.ResourceType;
+
+/**
+ * Availability of the resources over time: each resource is available during a set of time intervals [join, leave),
+ * so resources may join and leave at arbitrary times.
+ * The queries are answered from sorted arrays, (re)built on demand after the intervals are modified:
+ * number of available resources of each resource type at a given time and next availability change in O(log E)
+ * (E = number of join / leave times), availability of a resource at a given time in O(log I) (I = number of intervals of the resource).
+ */
+public class ResourceAvailabilityTimeline {
+
+	private final Map<Integer, ResourceType> resources;
+	private final Map<Integer, List<Pair<Double, Double>>> resourceAvailabilityIntervals;
+
+	// Merged availability intervals of each resource, sorted by join time and indexed by resource id.
+	private double[][] joinTimes = null;
+	private double[][] leaveTimes = null;
+	// Sorted distinct join / leave times, and number of available resources of each resource type from each of them, stored as
+	// availableResourceTypeCounts[changeIdx * RESOURCE_TYPE_COUNT + resourceTypeOrdinal].
+	private volatile double[] changeTimes = null;
+	private int[] availableResourceTypeCounts = null;
+
+	public ResourceAvailabilityTimeline(Map<Integer, ResourceType> resources) {
+		this.resources = resources;
+		this.resourceAvailabilityIntervals = new HashMap<Integer, List<Pair<Double, Double>>>(resources.size());
+	}
+
+	/**
+	 * Creates the timeline of resources which join at their availability time and never leave.
+	 * @param resources Resource type of each resource.
+	 * @param resourcesAvailability Availability time of each resource <s>.
+	 */
+	public ResourceAvailabilityTimeline(Map<Integer, ResourceType> resources, Map<Integer, Double> resourcesAvailability) {
+		this(resources);
+
+		for (Map.Entry<Integer, Double> resourceAvailabilityEntry : resourcesAvailability.entrySet()) {
+			addAvailabilityInterval(resourceAvailabilityEntry.getKey(), resourceAvailabilityEntry.getValue(), Double.POSITIVE_INFINITY);
+		}
+	}
+
+	/**
+	 * Makes a resource available during [joinTime, leaveTime). Overlapping intervals of the same resource are merged.
+	 * @param resource The resource.
+	 * @param joinTime Time when the resource joins <s>.
+	 * @param leaveTime Time when the resource leaves <s> (Double.POSITIVE_INFINITY if it never leaves).
+	 */
+	public void addAvailabilityInterval(Integer resource, double joinTime, double leaveTime) {
+		if (!this.resources.containsKey(resource)) {
+			Log.printLine("Unknown resource " + resource);
+			return;
+		}
+		if (!(joinTime < leaveTime)) {
+			Log.printLine("Resource " + resource + " > Invalid availability interval [" + joinTime + ", " + leaveTime + ")");
+			return;
+		}
+
+		if (!this.resourceAvailabilityIntervals.containsKey(resource)) {
+			this.resourceAvailabilityIntervals.put(resource, new LinkedList<Pair<Double, Double>>());
+		}
+		this.resourceAvailabilityIntervals.get(resource).add(new Pair<Double, Double>(joinTime, leaveTime));
+
+		this.changeTimes = null;
+	}
+
+	public Map<Integer, ResourceType> getResources() {
+		return this.resources;
+	}
+
+	/**
+	 * @param resource The resource.
+	 * @return Whether the resource is available at some time.
+	 */
+	public boolean hasAvailability(int resource) {
+		build();
+
+		return resource >= 0 && resource < this.joinTimes.length && this.joinTimes[resource] != null && this.joinTimes[resource].length > 0;
+	}
+
+	public boolean isResourceAvailable(int resource, double time) {
+		build();
+
+		int intervalIdx = findInterval(resource, time);
+		return intervalIdx != Constants.INVALID_RESULT_INT && time < this.leaveTimes[resource][intervalIdx];
+	}
+
+	/**
+	 * Earliest time, not before the given time, from which a resource stays available for the given duration.
+	 * @param resource The resource.
+	 * @param time Lower bound of the returned time <s>.
+	 * @param duration Duration <s>.
+	 * @return The time <s>, or Double.POSITIVE_INFINITY if the resource never stays available that long.
+	 */
+	public double getAvailabilityStartTime(int resource, double time, double duration) {
+		build();
+
+		if (resource < 0 || resource >= this.joinTimes.length || this.joinTimes[resource] == null) {
+			return Double.POSITIVE_INFINITY;
+		}
+		double[] resourceJoinTimes = this.joinTimes[resource];
+		double[] resourceLeaveTimes = this.leaveTimes[resource];
+
+		int intervalIdx = findInterval(resource, time);
+		if (intervalIdx == Constants.INVALID_RESULT_INT) {
+			intervalIdx = 0;
+		}
+		for (; intervalIdx < resourceJoinTimes.length; ++intervalIdx) {
+			double startTime = Math.max(time, resourceJoinTimes[intervalIdx]);
+			if (startTime + duration <= resourceLeaveTimes[intervalIdx]) {
+				return startTime;
+			}
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Number of resources of each resource type available at the given time.
+	 * @param time The time <s>.
+	 * @return The resource counts, indexed by resource type ordinal.
+	 */
+	public int[] getAvailableResourceTypeCounts(double time) {
+		build();
+
+		int[] resourceTypeCounts = new int[Constants.RESOURCE_TYPE_COUNT];
+		int changeIdx = upperBound(this.changeTimes, this.changeTimes.length, time) - 1;
+		if (changeIdx >= 0) {
+			System.arraycopy(this.availableResourceTypeCounts, changeIdx * Constants.RESOURCE_TYPE_COUNT, resourceTypeCounts, 0, Constants.RESOURCE_TYPE_COUNT);
+		}
+		return resourceTypeCounts;
+	}
+
+	public int getAvailableResourceCount(double time) {
+		int resourceCount = 0;
+		for (int resourceTypeCount : getAvailableResourceTypeCounts(time)) {
+			resourceCount += resourceTypeCount;
+		}
+		return resourceCount;
+	}
+
+	public List<Integer> getAvailableResources(double time) {
+		List<Integer> availableResources = new LinkedList<Integer>();
+		for (Integer resource : this.resources.keySet()) {
+			if (isResourceAvailable(resource, time)) {
+				availableResources.add(resource);
+			}
+		}
+		return availableResources;
+	}
+
+	/**
+	 * @param time The time <s>.
+	 * @return The first time after the given time when a resource joins or leaves <s>, or Double.POSITIVE_INFINITY if none.
+	 */
+	public double getNextAvailabilityChangeTime(double time) {
+		build();
+
+		int changeIdx = upperBound(this.changeTimes, this.changeTimes.length, time);
+		return changeIdx < this.changeTimes.length ? this.changeTimes[changeIdx] : Double.POSITIVE_INFINITY;
+	}
+
+	// Index of the last interval of the resource joining at or before the given time, INVALID_RESULT_INT if none.
+	private int findInterval(int resource, double time) {
+		if (resource < 0 || resource >= this.joinTimes.length || this.joinTimes[resource] == null) {
+			return Constants.INVALID_RESULT_INT;
+		}
+
+		int intervalIdx = upperBound(this.joinTimes[resource], this.joinTimes[resource].length, time) - 1;
+		return intervalIdx >= 0 ? intervalIdx : Constants.INVALID_RESULT_INT;
+	}
+
+	// Index of the first value greater than the given value.
+	private static int upperBound(double[] values, int length, double value) {
+		int low = 0;
+		int high = length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (values[middle] <= value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private void build() {
+		if (this.changeTimes == null) {
+			buildChangeTimes();
+		}
+	}
+
+	private synchronized void buildChangeTimes() {
+		if (this.changeTimes != null) {
+			return;
+		}
+
+		int maxResource = Constants.INVALID_RESULT_INT;
+		for (Integer resource : this.resources.keySet()) {
+			maxResource = Math.max(maxResource, resource);
+		}
+		double[][] joinTimes = new double[maxResource + 1][];
+		double[][] leaveTimes = new double[maxResource + 1][];
+
+		// Merge the intervals of each resource, and collect the join (+1) / leave (-1) changes.
+		List<double[]> changes = new LinkedList<double[]>();
+		for (Map.Entry<Integer, List<Pair<Double, Double>>> resourceIntervalsEntry : this.resourceAvailabilityIntervals.entrySet()) {
+			Integer resource = resourceIntervalsEntry.getKey();
+			int resourceTypeOrdinal = this.resources.get(resource).ordinal();
+
+			List<Pair<Double, Double>> intervals = new LinkedList<Pair<Double, Double>>(resourceIntervalsEntry.getValue());
+			intervals.sort((interval1, interval2) -> Double.compare(interval1.getKey(), interval2.getKey()));
+
+			double[] resourceJoinTimes = new double[intervals.size()];
+			double[] resourceLeaveTimes = new double[intervals.size()];
+			int intervalCount = 0;
+			for (Pair<Double, Double> interval : intervals) {
+				if (intervalCount > 0 && interval.getKey() <= resourceLeaveTimes[intervalCount - 1]) {
+					resourceLeaveTimes[intervalCount - 1] = Math.max(resourceLeaveTimes[intervalCount - 1], interval.getValue());
+					continue;
+				}
+				resourceJoinTimes[intervalCount] = interval.getKey();
+				resourceLeaveTimes[intervalCount] = interval.getValue();
+				++intervalCount;
+			}
+			joinTimes[resource] = Arrays.copyOf(resourceJoinTimes, intervalCount);
+			leaveTimes[resource] = Arrays.copyOf(resourceLeaveTimes, intervalCount);
+
+			for (int intervalIdx = 0; intervalIdx < intervalCount; ++intervalIdx) {
+				changes.add(new double[] { resourceJoinTimes[intervalIdx], resourceTypeOrdinal, 1 });
+				if (resourceLeaveTimes[intervalIdx] != Double.POSITIVE_INFINITY) {
+					changes.add(new double[] { resourceLeaveTimes[intervalIdx], resourceTypeOrdinal, -1 });
+				}
+			}
+		}
+		changes.sort((change1, change2) -> Double.compare(change1[0], change2[0]));
+
+		// Resource type counts after all the changes at each distinct time.
+		double[] changeTimes = new double[changes.size()];
+		int[] availableResourceTypeCounts = new int[changes.size() * Constants.RESOURCE_TYPE_COUNT];
+		int[] resourceTypeCounts = new int[Constants.RESOURCE_TYPE_COUNT];
+		int changeCount = 0;
+		for (double[] change : changes) {
+			if (changeCount == 0 || changeTimes[changeCount - 1] != change[0]) {
+				changeTimes[changeCount++] = change[0];
+			}
+			resourceTypeCounts[(int) change[1]] += (int) change[2];
+			System.arraycopy(resourceTypeCounts, 0, availableResourceTypeCounts, (changeCount - 1) * Constants.RESOURCE_TYPE_COUNT, Constants.RESOURCE_TYPE_COUNT);
+		}
+
+		this.joinTimes = joinTimes;
+		this.leaveTimes = leaveTimes;
+		this.availableResourceTypeCounts = Arrays.copyOf(availableResourceTypeCounts, changeCount * Constants.RESOURCE_TYPE_COUNT);
+		this.changeTimes = Arrays.copyOf(changeTimes, changeCount);
+	}
+
+}
@@ -23,6 +23,28 @@ public class ResourceUtils {
 		return resourceType == ResourceType.CLOUD_RESOURCE;
 	}
 
+	public static double getTransferRate(ResourceType fromResourceType, ResourceType toResourceType) {
+		boolean fromEdgeResource = isEdgeResource(fromResourceType);
+		boolean fromCloudResource = isCloudResource(fromResourceType);
+		boolean toEdgeResource = isEdgeResource(toResourceType);
+		boolean toCloudResource = isCloudResource(toResourceType);
+
+		if (fromEdgeResource && toEdgeResource) {
+			// Edge -> edge transfer.
+			return Constants.EDGE_TO_EDGE_TRANSFER_RATE;
+		} else if (fromEdgeResource && toCloudResource) {
+			// Edge -> cloud transfer.
+			return Constants.EDGE_TO_CLOUD_TRANSFER_RATE;
+		} else if (fromCloudResource && toEdgeResource) {
+			// Cloud -> edge transfer.
+			return Constants.CLOUD_TO_EDGE_TRANSFER_RATE;
+		} else if (fromCloudResource && toCloudResource) {
+			// Cloud -> cloud transfer.
+			return Constants.CLOUD_TO_CLOUD_TRANSFER_RATE;
+		}
+		return Constants.INVALID_RESULT_DOUBLE;
+	}
+
 	/* Virtual machine resource parameters. */
 
 	public static double getVmMips(ResourceType type) {
@@ -2,15 +2,14 @@ package scheduling_evaluation;
 
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.nio.DoubleBuffer;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.Scanner;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Datacenter;
@@ -147,29 +146,16 @@ public class SimulationUtils {
 			}
 
 			bw.close();
+
+			TimeSeriesRegistry.invalidate(filename);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
 	public static double[] loadTaskArrivalTimes(int taskCount) {
-		double[] arrivalTimes = new double[taskCount];
-
-		try {
-			String filename = getTaskArrivalTimesFile(taskCount);
-			Scanner scanner = new Scanner(new File(filename));
-
-			for (int idx = 0; idx < taskCount; ++idx) {
-				double arrivalTime = Double.parseDouble(scanner.nextLine());
-				arrivalTimes[idx] = arrivalTime;
-			}
-
-			scanner.close();
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		}
-
-		return arrivalTimes;
+		// Parsed once per process, see TimeSeriesRegistry.
+		return TimeSeriesRegistry.copyOf(TimeSeriesRegistry.getTaskArrivalTimes(taskCount), taskCount);
 	}
 
 	public static String getTaskArrivalTimesFile(int taskCount) {
@@ -224,26 +210,21 @@ public class SimulationUtils {
 			}
 
 			bw.close();
+
+			TimeSeriesRegistry.invalidate(filename);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
 	public static List<Double> loadTaskSubgraphArrivalTimes(int taskSubgraphCount) {
-		List<Double> arrivalTimes = new ArrayList<Double>(taskSubgraphCount);
-
-		try {
-			String filename = Constants.TASK_SUBGRAPH_ARRIVAL_TIMES_FILENAME;
-			Scanner scanner = new Scanner(new File(filename));
+		// Parsed once per process, see TimeSeriesRegistry.
+		DoubleBuffer taskSubgraphArrivalTimes = TimeSeriesRegistry.getTaskSubgraphArrivalTimes();
+		int arrivalTimeCount = Math.min(taskSubgraphCount, taskSubgraphArrivalTimes.limit());
 
-			for (int idx = 0; idx < taskSubgraphCount; ++idx) {
-				double arrivalTime = Double.parseDouble(scanner.nextLine());
-				arrivalTimes.add(arrivalTime);
-			}
-
-			scanner.close();
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
+		List<Double> arrivalTimes = new ArrayList<Double>(arrivalTimeCount);
+		for (int idx = 0; idx < arrivalTimeCount; ++idx) {
+			arrivalTimes.add(taskSubgraphArrivalTimes.get(idx));
 		}
 
 		return arrivalTimes;
@@ -287,29 +268,16 @@ public class SimulationUtils {
 			}
 
 			bw.close();
+
+			TimeSeriesRegistry.invalidate(filename);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
 	public static double[] loadResourceAvailabilityTimes(int resourceCount) {
-		double[] availabilityTimes = new double[resourceCount];
-
-		try {
-			String filename = Constants.RESOURCE_AVAILABILITY_TIMES_FILENAME;
-			Scanner scanner = new Scanner(new File(filename));
-
-			for (int idx = 0; idx < resourceCount; ++idx) {
-				double availabilityTime = Double.parseDouble(scanner.nextLine());
-				availabilityTimes[idx] = availabilityTime;
-			}
-
-			scanner.close();
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		}
-
-		return availabilityTimes;
+		// Parsed once per process, see TimeSeriesRegistry.
+		return TimeSeriesRegistry.copyOf(TimeSeriesRegistry.getResourceAvailabilityTimes(), resourceCount);
 	}
 
 	private static double getExponentialRandom(double rate) {
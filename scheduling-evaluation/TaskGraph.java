@@ -1,67 +1,591 @@
 package scheduling_evaluation;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
 import java.text.DecimalFormat;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
 
 import org.cloudbus.cloudsim.Log;
 
 import scheduling_evaluation.Types.ResourceType;
 
+/**
+ * Task graph with its precomputed costs.
+ * A task graph can be frozen once loaded (see {@link #freeze()}) and shared, read-only, by several executions:
+ * each execution then works on a lightweight overlay of it (see {@link #TaskGraph(TaskGraph)}), which holds its own
+ * appended tasks / dependencies, entry / exit tasks and costs, and falls back to the frozen base task graph for the rest.
+ */
 public class TaskGraph {
 
+	// Epsilon added to the upward / downward ranks, see computeUpwardRank() and computeDownwardRank().
+	private static final double RANK_EPS = 1.0 / Math.pow(10, 6);
+
+	// Frozen base task graph of an overlay (null otherwise), see TaskGraph(TaskGraph).
+	private TaskGraph baseTaskGraph = null;
+	private int baseTaskCount = 0;
+	// Whether the tasks, dependencies or entry / exit tasks were modified since the task graph was created:
+	// an unmodified overlay shares the adjacency and the communication costs of its base task graph.
+	private boolean modified = false;
+	private boolean frozen = false;
+
 	private List<Integer> entryTasks = null;
 	private List<Integer> exitTasks = null;
+	// Entry / exit task flags, indexed by task index.
+	private BitSet entryTaskFlags = null;
+	private BitSet exitTaskFlags = null;
 
+	// Dependency maps of the tasks added or modified since the task graph was frozen or created (overlay: only the tasks modified
+	// by the overlay). The dependencies of the other tasks are read through the adjacency they were last built in (compactAdjacency),
+	// without boxing, see getSuccessorTasksInfo(): a frozen task graph has no dependency map.
 	private Map<Integer, Map<Integer, Double>> graph = null;
 	private Map<Integer, Map<Integer, Double>> reverseGraph = null;
+	private TaskGraphAdjacency compactAdjacency = null;
+	// Tasks in task index order (built on demand), see getTasks().
+	private Set<Integer> tasks = null;
+
+	// Dense task indices, assigned in the order in which the tasks are added (overlay: only the added tasks).
+	private Map<Integer, Integer> taskIndices = null;
+	private int[] indexedTasks = null;
+	// CSR dependencies, (re)built on demand after the task graph is modified.
+	private TaskGraphAdjacency adjacency = null;
+	// Topological order and levels of the tasks, built from the adjacency (see getAnalytics()).
+	private TaskGraphAnalytics analytics = null;
+	// Ancestor / descendant queries, built on demand and extended with the appended tasks (see getReachability()).
+	private TaskGraphReachability reachability = null;
+	// Adjacency before tasks / dependencies were appended (dependencies from appended tasks only, e.g. a task subgraph),
+	// extended with the appended dependencies instead of being rebuilt, see getAdjacency().
+	private TaskGraphAdjacency appendableAdjacency = null;
+	private int[] appendedFromTasks = null;
+	private int[] appendedToTasks = null;
+	private double[] appendedDataDependencies = null;
+	private int appendedDependencyCount = 0;
 
 	private Map<Integer, ResourceType> resources = null;
 	private Map<Integer, Double> resourcesAvailability = null;
-
-	private Map<Integer, Map<ResourceType, Double>> computationCosts = null;
-
-	private Map<Integer, Double> taskInputData = null;
-	private Map<Integer, Double> taskOutputData = null;
-	private Map<Integer, Double> averageComputationCosts = null;
+	private ResourceAvailabilityTimeline resourceAvailabilityTimeline = null;
+	// Resource type ordinal of each resource, indexed by resource id.
+	private int[] resourceTypeOrdinals = null;
+	// Number of available resources of each resource type, indexed by resource type ordinal.
+	private int[] availableResourceTypeCounts = null;
+	// Resources of each set of resource types (indexed by resource type mask, see TaskUtils.getEligibleResourceTypeMask()):
+	// available at Constants.DEFAULT_RESOURCE_AVAILABILITY_TIME (average costs), and available at some time (scheduling).
+	private BitSet[] eligibleResources = null;
+	private BitSet[] schedulableResources = null;
+	// Compute the average costs from the available resource type counts (see Constants.AGGREGATED_AVERAGE_COSTS).
+	private boolean aggregatedAverageCosts = Constants.AGGREGATED_AVERAGE_COSTS;
+
+	// Computation costs, stored as computationCosts[(taskIdx - baseTaskCount) * RESOURCE_TYPE_COUNT + resourceTypeOrdinal] <s>
+	// (overlay: only the costs of the tasks added to the overlay, the others are read from the base task graph).
+	// Stored off-heap (offHeapComputationCosts instead of computationCosts) with the adjacency for very large task graphs
+	// (see Constants.OFF_HEAP_TASK_GRAPH); the few costs of the tasks added to an overlay are always stored on the heap.
+	private double[] computationCosts = null;
+	private DoubleBuffer offHeapComputationCosts = null;
+	// Communication costs of each dependency, stored as
+	// communicationCosts[(dependencyIdx * RESOURCE_TYPE_COUNT + fromResourceTypeOrdinal) * RESOURCE_TYPE_COUNT + toResourceTypeOrdinal] <s>.
+	// (Re)built on demand after the dependencies or the entry / exit tasks are modified.
+	private double[] communicationCosts = null;
+	// Dependencies from the entry task or to the exit task, indexed by dependency index.
+	private BitSet pseudoDependencies = null;
+	// Whether the communication costs were built by this task graph (not shared with the base task graph), and can be extended in place.
+	private boolean ownCommunicationCosts = false;
+	// Communication costs of the first dependencies before dependencies were appended, extended instead of being rebuilt.
+	private double[] appendableCommunicationCosts = null;
+	private BitSet appendablePseudoDependencies = null;
+	private boolean ownAppendableCommunicationCosts = false;
+	private TaskGraphAdjacency appendableCommunicationCostsAdjacency = null;
+
+	// Input / output data <MB> and average computation cost <s> of each task, indexed by task index (NaN if not computed yet).
+	private double[] taskInputData = null;
+	private double[] taskOutputData = null;
+	private double[] averageComputationCosts = null;
+	// Average communication costs <s> by source task, then target task (overlay: only the ones (re)computed by the overlay).
+	// Frozen task graph: by dependency index instead (dependencyAverageCommunicationCosts), no map per task.
 	private Map<Integer, Map<Integer, Double>> averageCommunicationCosts = null;
+	private double[] dependencyAverageCommunicationCosts = null;
+	// Precompute the costs in parallel (see Constants.PARALLEL_COSTS_PRECOMPUTATION).
+	private boolean parallelCostsPrecomputation = Constants.PARALLEL_COSTS_PRECOMPUTATION;
+	// Store the adjacency and the computation costs off-heap (see Constants.OFF_HEAP_TASK_GRAPH).
+	private boolean offHeap = Constants.OFF_HEAP_TASK_GRAPH;
+
+	// Changes since the costs were precomputed, see updatePrecomputedCosts().
+	private boolean precomputedCosts = false;
+	// Upward / downward ranks of the tasks (by task index), precomputed with the costs (see TaskGraphCache).
+	private double[] precomputedUpwardRanks = null;
+	private double[] precomputedDownwardRanks = null;
+	private Set<Integer> addedTasks = null;
+	private List<Pair<Integer, Integer>> addedDependencies = null;
+	// Costs updated by the last updatePrecomputedCosts() (null: all the costs were precomputed again).
+	private Set<Integer> updatedComputationCostTasks = null;
+	private List<Pair<Integer, Integer>> updatedCommunicationCostDependencies = null;
 
 	private LinkedList<Integer> qlHeftSchedule = null;
 	private LinkedList<Integer> ql2hdSchedule = null;
 
 	public TaskGraph() {
-		this.taskInputData = new HashMap<Integer, Double>();
-		this.taskOutputData = new HashMap<Integer, Double>();
-		this.averageComputationCosts = new HashMap<Integer, Double>();
+		this.entryTaskFlags = new BitSet();
+		this.exitTaskFlags = new BitSet();
 		this.averageCommunicationCosts = new HashMap<Integer, Map<Integer, Double>>();
+		this.addedTasks = new HashSet<Integer>();
+		this.addedDependencies = new LinkedList<Pair<Integer, Integer>>();
+	}
+
+	/**
+	 * Creates a per-execution overlay of a task graph. The overlay starts with the tasks, dependencies, entry / exit tasks
+	 * and precomputed costs of the base task graph, which is frozen beforehand if needed. The modifications of the overlay
+	 * (appended task subgraphs, entry / exit tasks, (re)computed costs) are local to it: the base task graph remains unchanged
+	 * and can be shared by any number of overlays. Creating an overlay costs O(tasks), instead of loading the task graph again.
+	 * @param baseTaskGraph The base task graph.
+	 */
+	public TaskGraph(TaskGraph baseTaskGraph) {
+		this();
+
+		baseTaskGraph.freeze();
+
+		this.baseTaskGraph = baseTaskGraph;
+		this.baseTaskCount = baseTaskGraph.getTaskCount();
+
+		if (baseTaskGraph.entryTasks != null) {
+			this.entryTasks = new LinkedList<Integer>(baseTaskGraph.entryTasks);
+		}
+		if (baseTaskGraph.exitTasks != null) {
+			this.exitTasks = new LinkedList<Integer>(baseTaskGraph.exitTasks);
+		}
+		this.entryTaskFlags = (BitSet) baseTaskGraph.entryTaskFlags.clone();
+		this.exitTaskFlags = (BitSet) baseTaskGraph.exitTaskFlags.clone();
+
+		this.graph = new HashMap<Integer, Map<Integer, Double>>();
+		this.reverseGraph = new HashMap<Integer, Map<Integer, Double>>();
+		this.compactAdjacency = baseTaskGraph.getAdjacency();
+		this.taskIndices = new HashMap<Integer, Integer>();
+		this.indexedTasks = baseTaskGraph.indexedTasks.clone();
+
+		// Resources are shared (read-only).
+		this.resources = baseTaskGraph.resources;
+		this.resourcesAvailability = baseTaskGraph.resourcesAvailability;
+		this.resourceAvailabilityTimeline = baseTaskGraph.resourceAvailabilityTimeline;
+		this.resourceTypeOrdinals = baseTaskGraph.resourceTypeOrdinals;
+		this.availableResourceTypeCounts = baseTaskGraph.availableResourceTypeCounts;
+		this.eligibleResources = baseTaskGraph.eligibleResources;
+		this.schedulableResources = baseTaskGraph.schedulableResources;
+		this.aggregatedAverageCosts = baseTaskGraph.aggregatedAverageCosts;
+		this.parallelCostsPrecomputation = baseTaskGraph.parallelCostsPrecomputation;
+		this.offHeap = baseTaskGraph.offHeap;
+
+		// The computation costs of the base task graph tasks are shared: no copy, and no direct buffer per overlay.
+		growComputationCosts(this.indexedTasks.length);
+		this.taskInputData = baseTaskGraph.taskInputData.clone();
+		this.taskOutputData = baseTaskGraph.taskOutputData.clone();
+		this.averageComputationCosts = baseTaskGraph.averageComputationCosts.clone();
+		this.precomputedCosts = true;
+
+		this.qlHeftSchedule = baseTaskGraph.qlHeftSchedule;
+		this.ql2hdSchedule = baseTaskGraph.ql2hdSchedule;
+	}
+
+	/**
+	 * Precomputes all the costs and lookup structures of the task graph and makes it read-only, so that it can be shared
+	 * by several overlays (see {@link #TaskGraph(TaskGraph)}). The modifications of a frozen task graph are rejected.
+	 */
+	public void freeze() {
+		if (this.frozen) {
+			return;
+		}
+
+		clearAndPrecomputeCosts(true);
+		getAdjacency();
+		getAnalytics();
+		getCommunicationCosts();
+		setReadOnly();
+	}
+
+	/**
+	 * Freezes the task graph (see {@link #freeze()}) with costs and analytics computed beforehand, e.g. loaded from the task graph
+	 * cache (see {@link TaskGraphCache}), instead of computing them again.
+	 * @param taskInputData Input data of each task (by task index) <MB>.
+	 * @param taskOutputData Output data of each task (by task index) <MB>.
+	 * @param averageComputationCosts Average computation cost of each task (by task index) <s>.
+	 * @param averageCommunicationCosts Average communication cost of each dependency (by dependency index, see {@link #getAdjacency()}) <s>.
+	 * @param analytics Analytics of the task graph adjacency (see {@link #getAdjacency()}).
+	 */
+	public void freeze(double[] taskInputData, double[] taskOutputData, double[] averageComputationCosts,
+						double[] averageCommunicationCosts, TaskGraphAnalytics analytics) {
+		if (this.frozen) {
+			return;
+		}
+		if (this.baseTaskGraph != null || analytics.getAdjacency() != getAdjacency()) {
+			Log.printLine("Cannot restore the precomputed costs of the task graph: computing them again");
+			freeze();
+			return;
+		}
+
+		int taskCount = getTaskCount();
+		System.arraycopy(taskInputData, 0, this.taskInputData, 0, taskCount);
+		System.arraycopy(taskOutputData, 0, this.taskOutputData, 0, taskCount);
+		System.arraycopy(averageComputationCosts, 0, this.averageComputationCosts, 0, taskCount);
+		this.averageCommunicationCosts.clear();
+		this.dependencyAverageCommunicationCosts = Arrays.copyOf(averageCommunicationCosts, getAdjacency().getDependencyCount());
+		this.updatedComputationCostTasks = null;
+		this.updatedCommunicationCostDependencies = null;
+		this.precomputedCosts = true;
+		this.addedTasks.clear();
+		this.addedDependencies.clear();
+
+		this.analytics = analytics;
+		getCommunicationCosts();
+		setReadOnly();
+	}
+
+	private void setReadOnly() {
+		// Dependencies read through the adjacency only: the dependency maps are dropped (every dependency was stored 3 times).
+		this.compactAdjacency = getAdjacency();
+		this.graph = new HashMap<Integer, Map<Integer, Double>>();
+		this.reverseGraph = new HashMap<Integer, Map<Integer, Double>>();
+
+		// Average communication costs read by dependency index only (the overlays copy them on write).
+		this.averageCommunicationCosts.clear();
+
+		this.frozen = true;
+	}
+
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	/**
+	 * Sets the upward / downward ranks of the tasks computed from the precomputed costs, before any task is scheduled
+	 * (see {@link TaskGraphCache}).
+	 * @param upwardRanks Upward rank of each task (by task index).
+	 * @param downwardRanks Downward rank of each task (by task index).
+	 */
+	public void setPrecomputedRanks(double[] upwardRanks, double[] downwardRanks) {
+		this.precomputedUpwardRanks = upwardRanks;
+		this.precomputedDownwardRanks = downwardRanks;
+	}
+
+	/**
+	 * @return Upward rank of each task (by task index), null if not precomputed or if the tasks / dependencies changed since then
+	 * (modified overlay).
+	 */
+	public double[] getPrecomputedUpwardRanks() {
+		if (this.baseTaskGraph != null) {
+			return this.modified ? null : this.baseTaskGraph.getPrecomputedUpwardRanks();
+		}
+		return this.precomputedUpwardRanks;
+	}
+
+	/**
+	 * @return Downward rank of each task (by task index), null if not precomputed or if the tasks / dependencies changed since then
+	 * (modified overlay).
+	 */
+	public double[] getPrecomputedDownwardRanks() {
+		if (this.baseTaskGraph != null) {
+			return this.modified ? null : this.baseTaskGraph.getPrecomputedDownwardRanks();
+		}
+		return this.precomputedDownwardRanks;
+	}
+
+	/**
+	 * Upward rank of a task: its average computation cost, plus the maximum over its successor tasks of the average communication
+	 * cost and the upward rank of the successor task, plus an epsilon (a task always ranks above its successor tasks).
+	 * @param taskIdx Index of the task.
+	 * @param upwardRanks Upward rank of a task (by task index), NaN if not yet computed.
+	 * @return The upward rank of the task, NaN if the upward rank of one of its successor tasks is not yet computed.
+	 */
+	public double computeUpwardRank(int taskIdx, IntToDoubleFunction upwardRanks) {
+		Integer task = getTask(taskIdx);
+		TaskGraphAdjacency adjacency = getAdjacency();
+		double maxSuccTaskUpwardRank = 0.0;
+		int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+		for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+			int succTaskIdx = adjacency.getSuccessorTask(dependencyIdx);
+			double succTaskUpwardRank = upwardRanks.applyAsDouble(succTaskIdx);
+			if (Double.isNaN(succTaskUpwardRank)) {
+				return Double.NaN;
+			}
+
+			succTaskUpwardRank = getAverageCommunicationCost(task, getTask(succTaskIdx)) + succTaskUpwardRank;
+			if (succTaskUpwardRank > maxSuccTaskUpwardRank) {
+				maxSuccTaskUpwardRank = succTaskUpwardRank;
+			}
+		}
+
+		return getAverageComputationCost(task) + maxSuccTaskUpwardRank + RANK_EPS;
+	}
+
+	/**
+	 * Downward rank of a task: the maximum over its predecessor tasks of the downward rank, the average computation cost of
+	 * the predecessor task and the average communication cost, plus an epsilon (a task always ranks above its predecessor tasks).
+	 * @param taskIdx Index of the task.
+	 * @param downwardRanks Downward rank of a task (by task index), NaN if not yet computed.
+	 * @return The downward rank of the task, NaN if the downward rank of one of its predecessor tasks is not yet computed.
+	 */
+	public double computeDownwardRank(int taskIdx, IntToDoubleFunction downwardRanks) {
+		Integer task = getTask(taskIdx);
+		TaskGraphAdjacency adjacency = getAdjacency();
+		double maxPredTaskDownwardRank = 0.0;
+		int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+		for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+			int predTaskIdx = adjacency.getPredecessorTask(predecessorIdx);
+			double predTaskDownwardRank = downwardRanks.applyAsDouble(predTaskIdx);
+			if (Double.isNaN(predTaskDownwardRank)) {
+				return Double.NaN;
+			}
+
+			Integer predTask = getTask(predTaskIdx);
+			predTaskDownwardRank = predTaskDownwardRank + getAverageComputationCost(predTask) + getAverageCommunicationCost(predTask, task);
+			if (predTaskDownwardRank > maxPredTaskDownwardRank) {
+				maxPredTaskDownwardRank = predTaskDownwardRank;
+			}
+		}
+
+		return maxPredTaskDownwardRank + RANK_EPS;
+	}
+
+	public TaskGraph getBaseTaskGraph() {
+		return this.baseTaskGraph;
 	}
 
 	public void clearAndPrecomputeCosts() {
+		clearAndPrecomputeCosts(false);
+	}
+
+	// dependencyCosts: precompute the average communication costs by dependency index (task graph being frozen).
+	private void clearAndPrecomputeCosts(boolean dependencyCosts) {
+		this.updatedComputationCostTasks = null;
+		this.updatedCommunicationCostDependencies = null;
+		if (this.frozen) {
+			// Costs precomputed when the task graph was frozen.
+			return;
+		}
+		if (this.baseTaskGraph != null && !this.modified) {
+			// Unmodified overlay: restore the costs of the base task graph.
+			System.arraycopy(this.baseTaskGraph.taskInputData, 0, this.taskInputData, 0, this.baseTaskCount);
+			System.arraycopy(this.baseTaskGraph.taskOutputData, 0, this.taskOutputData, 0, this.baseTaskCount);
+			System.arraycopy(this.baseTaskGraph.averageComputationCosts, 0, this.averageComputationCosts, 0, this.baseTaskCount);
+			this.averageCommunicationCosts.clear();
+
+			this.precomputedCosts = true;
+			this.addedTasks.clear();
+			this.addedDependencies.clear();
+			return;
+		}
+
 		// Clear costs.
-		this.taskInputData.clear();
-		this.taskOutputData.clear();
-		this.averageComputationCosts.clear();
+		Arrays.fill(this.taskInputData, Double.NaN);
+		Arrays.fill(this.taskOutputData, Double.NaN);
+		Arrays.fill(this.averageComputationCosts, Double.NaN);
 		this.averageCommunicationCosts.clear();
+		this.dependencyAverageCommunicationCosts = null;
 
 		// Precompute costs.
-		for (Integer task : this.graph.keySet()) {
-			// Input and output data.
-			this.taskInputData.put(task, computeTaskInputData(task));
-			this.taskOutputData.put(task, computeTaskOutputData(task));
-		}
-		for (Integer task : this.graph.keySet()) {
-			// Computation and communication costs.
-			this.averageComputationCosts.put(task, computeAverageComputationCost(task));
+		int taskCount = getTaskCount();
+		if (this.parallelCostsPrecomputation && taskCount >= Constants.PARALLEL_COSTS_PRECOMPUTATION_MIN_TASK_COUNT) {
+			precomputeCostsInParallel(taskCount, dependencyCosts);
+		} else {
+			for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+				// Input and output data.
+				Integer task = this.indexedTasks[taskIdx];
+				this.taskInputData[taskIdx] = computeTaskInputData(task);
+				this.taskOutputData[taskIdx] = computeTaskOutputData(task);
+			}
+			TaskGraphAdjacency adjacency = getAdjacency();
+			double[] dependencyAverageCommunicationCosts = dependencyCosts ? new double[adjacency.getDependencyCount()] : null;
+			for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+				// Computation and communication costs.
+				Integer task = this.indexedTasks[taskIdx];
+				this.averageComputationCosts[taskIdx] = computeAverageComputationCost(task);
+				if (dependencyCosts) {
+					computeTaskAverageCommunicationCosts(adjacency, taskIdx, dependencyAverageCommunicationCosts);
+				} else {
+					this.averageCommunicationCosts.put(task, computeTaskAverageCommunicationCosts(task));
+				}
+			}
+			this.dependencyAverageCommunicationCosts = dependencyAverageCommunicationCosts;
+		}
+
+		this.precomputedCosts = true;
+		this.addedTasks.clear();
+		this.addedDependencies.clear();
+	}
+
+	private void precomputeCostsInParallel(int taskCount, boolean dependencyCosts) {
+		// Build the shared lookup structures beforehand: the tasks only read them below.
+		TaskGraphAdjacency adjacency = getAdjacency();
+		getCommunicationCosts();
+
+		// Input and output data (needed by all the average costs).
+		IntStream.range(0, taskCount).parallel().forEach(taskIdx -> {
+			Integer task = this.indexedTasks[taskIdx];
+			this.taskInputData[taskIdx] = computeTaskInputData(task);
+			this.taskOutputData[taskIdx] = computeTaskOutputData(task);
+		});
+
+		// Computation and communication costs, each task writing only its own slots.
+		if (dependencyCosts) {
+			double[] dependencyAverageCommunicationCosts = new double[adjacency.getDependencyCount()];
+			IntStream.range(0, taskCount).parallel().forEach(taskIdx -> {
+				this.averageComputationCosts[taskIdx] = computeAverageComputationCost(this.indexedTasks[taskIdx]);
+				computeTaskAverageCommunicationCosts(adjacency, taskIdx, dependencyAverageCommunicationCosts);
+			});
+			this.dependencyAverageCommunicationCosts = dependencyAverageCommunicationCosts;
+			return;
+		}
+		AtomicReferenceArray<Map<Integer, Double>> tasksAverageCommunicationCosts = new AtomicReferenceArray<Map<Integer, Double>>(taskCount);
+		IntStream.range(0, taskCount).parallel().forEach(taskIdx -> {
+			Integer task = this.indexedTasks[taskIdx];
+			this.averageComputationCosts[taskIdx] = computeAverageComputationCost(task);
+			tasksAverageCommunicationCosts.set(taskIdx, computeTaskAverageCommunicationCosts(task));
+		});
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			this.averageCommunicationCosts.put(this.indexedTasks[taskIdx], tasksAverageCommunicationCosts.get(taskIdx));
+		}
+	}
+
+	// Average communication costs of the successor dependencies of a task, by dependency index.
+	private void computeTaskAverageCommunicationCosts(TaskGraphAdjacency adjacency, int taskIdx, double[] dependencyAverageCommunicationCosts) {
+		Integer task = this.indexedTasks[taskIdx];
+		int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+		for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+			dependencyAverageCommunicationCosts[dependencyIdx] = computeAverageCommunicationCost(task, this.indexedTasks[adjacency.getSuccessorTask(dependencyIdx)]);
+		}
+	}
+
+	private Map<Integer, Double> computeTaskAverageCommunicationCosts(Integer task) {
+		Map<Integer, Double> succTasksInfo = getSuccessorTasksInfo(task);
+		Map<Integer, Double> taskAverageCommunicationCosts = new HashMap<Integer, Double>(succTasksInfo.size());
+		for (Integer succTask : succTasksInfo.keySet()) {
+			taskAverageCommunicationCosts.put(succTask, computeAverageCommunicationCost(task, succTask));
+		}
+		return taskAverageCommunicationCosts;
+	}
+
+	public boolean isParallelCostsPrecomputation() {
+		return this.parallelCostsPrecomputation;
+	}
+
+	public void setParallelCostsPrecomputation(boolean parallelCostsPrecomputation) {
+		this.parallelCostsPrecomputation = parallelCostsPrecomputation;
+	}
+
+	public boolean isOffHeap() {
+		return this.offHeap;
+	}
+
+	/**
+	 * Stores the adjacency (see {@link OffHeapTaskGraphAdjacency}) and the computation costs off-heap, or on the Java heap.
+	 * The already added computation costs are moved; the adjacency is built again on demand. The task indices are always stored
+	 * on the heap. The dependency maps are not filled when the adjacency is appended directly (see
+	 * {@link #appendSubgraph(int[], double[], int[], int[], double[])}): the dependencies are then read through the adjacency,
+	 * as for a frozen task graph, which also stores its average communication costs by dependency index (see {@link #freeze()}).
+	 * @param offHeap Whether to store them off-heap.
+	 */
+	public void setOffHeap(boolean offHeap) {
+		if (this.offHeap == offHeap) {
+			return;
+		}
+		this.offHeap = offHeap;
+		if (this.computationCosts != null || this.offHeapComputationCosts != null) {
+			growComputationCosts(this.indexedTasks.length);
+		}
+		this.adjacency = null;
+		this.appendableAdjacency = null;
+		this.communicationCosts = null;
+		this.appendableCommunicationCosts = null;
+	}
+
+	/**
+	 * Incrementally updates the precomputed costs after tasks and dependencies were added (e.g. a task subgraph),
+	 * instead of recomputing them for the whole task graph. Only the following costs are (re)computed:
+	 * input / output data of the added tasks and of the endpoints of the added dependencies,
+	 * average computation cost of the tasks whose input data changed (memory eligibility of the resources),
+	 * average communication cost of the added dependencies and of the dependencies of the tasks whose input data changed.
+	 * Falls back to {@link #clearAndPrecomputeCosts()} if the costs were never precomputed.
+	 */
+	public void updatePrecomputedCosts() {
+		if (!this.precomputedCosts) {
+			clearAndPrecomputeCosts();
+			return;
+		}
+
+		// Input and output data.
+		Set<Integer> modifiedTasks = new HashSet<Integer>(this.addedTasks);
+		for (Pair<Integer, Integer> addedDependency : this.addedDependencies) {
+			modifiedTasks.add(addedDependency.getKey());
+			modifiedTasks.add(addedDependency.getValue());
+		}
+		List<Integer> modifiedInputDataTasks = new LinkedList<Integer>();
+		for (Integer task : modifiedTasks) {
+			int taskIdx = getTaskIndex(task);
+			double previousInputData = this.taskInputData[taskIdx];
+			double inputData = computeTaskInputData(task);
+			this.taskInputData[taskIdx] = inputData;
+			this.taskOutputData[taskIdx] = computeTaskOutputData(task);
+
+			// NaN (not computed yet) never compares equal.
+			if (previousInputData != inputData) {
+				modifiedInputDataTasks.add(task);
+			}
+		}
+
+		// Computation and communication costs.
+		Set<Integer> updatedComputationCostTasks = new HashSet<Integer>(this.addedTasks);
+		List<Pair<Integer, Integer>> updatedCommunicationCostDependencies = new LinkedList<Pair<Integer, Integer>>(this.addedDependencies);
+		for (Integer task : this.addedTasks) {
 			this.averageCommunicationCosts.put(task, new HashMap<Integer, Double>());
-			Map<Integer, Double> succTasksInfo = getSuccessorTasksInfo(task);
-			for (Integer succTask : succTasksInfo.keySet()) {
-				this.averageCommunicationCosts.get(task).put(succTask, computeAverageCommunicationCost(task, succTask));
+		}
+		for (Integer task : modifiedInputDataTasks) {
+			this.averageComputationCosts[getTaskIndex(task)] = computeAverageComputationCost(task);
+			updatedComputationCostTasks.add(task);
+			for (Integer predTask : getPredecessorTasksInfo(task).keySet()) {
+				getModifiableAverageCommunicationCosts(predTask).put(task, computeAverageCommunicationCost(predTask, task));
+				updatedCommunicationCostDependencies.add(new Pair<Integer, Integer>(predTask, task));
+			}
+			for (Integer succTask : getSuccessorTasksInfo(task).keySet()) {
+				getModifiableAverageCommunicationCosts(task).put(succTask, computeAverageCommunicationCost(task, succTask));
+				updatedCommunicationCostDependencies.add(new Pair<Integer, Integer>(task, succTask));
 			}
 		}
+		for (Pair<Integer, Integer> addedDependency : this.addedDependencies) {
+			Integer fromTask = addedDependency.getKey();
+			Integer toTask = addedDependency.getValue();
+			getModifiableAverageCommunicationCosts(fromTask).put(toTask, computeAverageCommunicationCost(fromTask, toTask));
+		}
+		this.updatedComputationCostTasks = updatedComputationCostTasks;
+		this.updatedCommunicationCostDependencies = updatedCommunicationCostDependencies;
+
+		this.addedTasks.clear();
+		this.addedDependencies.clear();
+	}
+
+	/**
+	 * @return Tasks whose average computation cost was updated by the last {@link #updatePrecomputedCosts()} (added tasks included),
+	 * null if all the costs were precomputed again.
+	 */
+	public Set<Integer> getUpdatedComputationCostTasks() {
+		return this.updatedComputationCostTasks;
+	}
+
+	/**
+	 * @return Dependencies whose average communication cost was updated by the last {@link #updatePrecomputedCosts()}
+	 * (added dependencies included), null if all the costs were precomputed again.
+	 */
+	public List<Pair<Integer, Integer>> getUpdatedCommunicationCostDependencies() {
+		return this.updatedCommunicationCostDependencies;
 	}
 
 	public List<Integer> getEntryTasks() {
@@ -72,8 +596,14 @@ public class TaskGraph {
 		return this.exitTasks;
 	}
 
+	/**
+	 * @return The tasks in task index order (overlay: the base task graph tasks first), a read-only view reflecting the added tasks.
+	 */
 	public Set<Integer> getTasks() {
-		return this.graph.keySet();
+		if (this.tasks == null) {
+			this.tasks = new IndexedTasks();
+		}
+		return this.tasks;
 	}
 
 	private boolean notInitializedResources() {
@@ -87,8 +617,108 @@ public class TaskGraph {
 	}
 
 	public void initializeResources(Map<Integer, ResourceType> resources, Map<Integer, Double> resourcesAvailability) {
+		if (this.frozen) {
+			Log.printLine("Cannot initialize the resources of a frozen task graph");
+			return;
+		}
+
 		setResources(resources);
 		setResourcesAvailability(resourcesAvailability);
+		setResourceAvailabilityTimeline(new ResourceAvailabilityTimeline(resources, resourcesAvailability));
+	}
+
+	public ResourceAvailabilityTimeline getResourceAvailabilityTimeline() {
+		return this.resourceAvailabilityTimeline;
+	}
+
+	/**
+	 * Replaces the availability of the resources (e.g. resources joining and leaving over time).
+	 * The average costs only consider the resources available at Constants.DEFAULT_RESOURCE_AVAILABILITY_TIME,
+	 * and the precomputed costs are not cleared, see {@link #clearAndPrecomputeCosts()}.
+	 * @param resourceAvailabilityTimeline Availability of the task graph resources over time.
+	 */
+	public void setResourceAvailabilityTimeline(ResourceAvailabilityTimeline resourceAvailabilityTimeline) {
+		if (this.frozen) {
+			Log.printLine("Cannot set the resource availability timeline of a frozen task graph");
+			return;
+		}
+
+		this.resourceAvailabilityTimeline = resourceAvailabilityTimeline;
+		this.availableResourceTypeCounts = resourceAvailabilityTimeline.getAvailableResourceTypeCounts(Constants.DEFAULT_RESOURCE_AVAILABILITY_TIME);
+
+		int resourceTypeMaskCount = 1 << Constants.RESOURCE_TYPE_COUNT;
+		BitSet[] eligibleResources = new BitSet[resourceTypeMaskCount];
+		BitSet[] schedulableResources = new BitSet[resourceTypeMaskCount];
+		for (int resourceTypeMask = 0; resourceTypeMask < resourceTypeMaskCount; ++resourceTypeMask) {
+			eligibleResources[resourceTypeMask] = new BitSet(this.resourceTypeOrdinals.length);
+			schedulableResources[resourceTypeMask] = new BitSet(this.resourceTypeOrdinals.length);
+		}
+		for (Map.Entry<Integer, ResourceType> resourceEntry : this.resources.entrySet()) {
+			int resource = resourceEntry.getKey();
+			int resourceTypeBit = 1 << resourceEntry.getValue().ordinal();
+			boolean available = resourceAvailabilityTimeline.isResourceAvailable(resource, Constants.DEFAULT_RESOURCE_AVAILABILITY_TIME);
+			boolean schedulable = resourceAvailabilityTimeline.hasAvailability(resource);
+			for (int resourceTypeMask = 0; resourceTypeMask < resourceTypeMaskCount; ++resourceTypeMask) {
+				if ((resourceTypeMask & resourceTypeBit) == 0) {
+					continue;
+				}
+				if (available) {
+					eligibleResources[resourceTypeMask].set(resource);
+				}
+				if (schedulable) {
+					schedulableResources[resourceTypeMask].set(resource);
+				}
+			}
+		}
+		this.eligibleResources = eligibleResources;
+		this.schedulableResources = schedulableResources;
+	}
+
+	public boolean isResourceAvailable(int resource) {
+		return this.resourceAvailabilityTimeline.isResourceAvailable(resource, Constants.DEFAULT_RESOURCE_AVAILABILITY_TIME);
+	}
+
+	/**
+	 * Resources available at Constants.DEFAULT_RESOURCE_AVAILABILITY_TIME with enough memory for the task input data,
+	 * i.e. the resources considered by the average costs.
+	 * @param taskIdx The task index.
+	 * @return The resource ids, shared by all the tasks with the same eligible resource types (must not be modified).
+	 */
+	public BitSet getEligibleResourcesByIndex(int taskIdx) {
+		return this.eligibleResources[getEligibleResourceTypeMask(taskIdx)];
+	}
+
+	/**
+	 * Resources available at some time with enough memory for the task input data, i.e. the resources a task can be scheduled on
+	 * (regardless of their battery capacity).
+	 * @param taskIdx The task index.
+	 * @return The resource ids, shared by all the tasks with the same eligible resource types (must not be modified).
+	 */
+	public BitSet getSchedulableResourcesByIndex(int taskIdx) {
+		return this.schedulableResources[getEligibleResourceTypeMask(taskIdx)];
+	}
+
+	private int getEligibleResourceTypeMask(int taskIdx) {
+		double taskInputData = this.taskInputData[taskIdx];
+		if (Double.isNaN(taskInputData)) {
+			taskInputData = getTaskInputData(this.indexedTasks[taskIdx]);
+		}
+		return TaskUtils.getEligibleResourceTypeMask(taskInputData);
+	}
+
+	public boolean isAggregatedAverageCosts() {
+		return this.aggregatedAverageCosts;
+	}
+
+	/**
+	 * Selects how the average computation and communication costs are computed: from the per resource type counts
+	 * of the available resources (O(T) / O(T^2) per task / dependency, T = number of resource types), or by iterating
+	 * over every available resource (pair) (O(R) / O(R^2)). Both yield the same averages.
+	 * The precomputed costs are not cleared, see {@link #clearAndPrecomputeCosts()}.
+	 * @param aggregatedAverageCosts Whether the aggregated mode is used.
+	 */
+	public void setAggregatedAverageCosts(boolean aggregatedAverageCosts) {
+		this.aggregatedAverageCosts = aggregatedAverageCosts;
 	}
 
 	public Map<Integer, ResourceType> getResources() {
@@ -97,6 +727,16 @@ public class TaskGraph {
 
 	private void setResources(Map<Integer, ResourceType> resources) {
 		this.resources = resources;
+
+		int maxResource = Constants.INVALID_RESULT_INT;
+		for (Integer resource : resources.keySet()) {
+			maxResource = Math.max(maxResource, resource);
+		}
+		this.resourceTypeOrdinals = new int[maxResource + 1];
+		Arrays.fill(this.resourceTypeOrdinals, Constants.INVALID_RESULT_INT);
+		for (Map.Entry<Integer, ResourceType> resourceEntry : resources.entrySet()) {
+			this.resourceTypeOrdinals[resourceEntry.getKey()] = resourceEntry.getValue().ordinal();
+		}
 	}
 
 	public Map<Integer, Double> getResourcesAvailability() {
@@ -107,8 +747,14 @@ public class TaskGraph {
 		this.resourcesAvailability = resourcesAvailability;
 	}
 
-	public Map<Integer, Map<ResourceType, Double>> getComputationCosts() {
-		return this.computationCosts;
+	public Map<ResourceType, Double> getTaskComputationCosts(Integer task) {
+		int taskIdx = getTaskIndex(task);
+
+		Map<ResourceType, Double> resourceComputationCosts = new EnumMap<ResourceType, Double>(ResourceType.class);
+		for (ResourceType resourceType : ResourceType.values()) {
+			resourceComputationCosts.put(resourceType, getComputationCostByTypeIndex(taskIdx, resourceType.ordinal()));
+		}
+		return resourceComputationCosts;
 	}
 
 	public void addEntryTasks(List<Integer> entryTasks) {
@@ -122,11 +768,23 @@ public class TaskGraph {
 	}
 
 	public void addEntryTask(Integer entryTask) {
+		if (this.frozen) {
+			Log.printLine("Cannot add entry task " + entryTask + " to a frozen task graph");
+			return;
+		}
 		if (this.entryTasks == null) {
 			this.entryTasks = new LinkedList<Integer>();
 		}
 
 		this.entryTasks.add(entryTask);
+		Integer entryTaskIdx = findTaskIndex(entryTask);
+		if (entryTaskIdx != null) {
+			this.entryTaskFlags.set(entryTaskIdx);
+		}
+
+		this.modified = true;
+		this.communicationCosts = null;
+		this.appendableCommunicationCosts = null;
 	}
 
 	public void addExitTasks(List<Integer> exitTasks) {
@@ -140,18 +798,28 @@ public class TaskGraph {
 	}
 
 	public void addExitTask(Integer exitTask) {
+		if (this.frozen) {
+			Log.printLine("Cannot add exit task " + exitTask + " to a frozen task graph");
+			return;
+		}
 		if (this.exitTasks == null) {
 			this.exitTasks = new LinkedList<Integer>();
 		}
 
 		this.exitTasks.add(exitTask);
+		Integer exitTaskIdx = findTaskIndex(exitTask);
+		if (exitTaskIdx != null) {
+			this.exitTaskFlags.set(exitTaskIdx);
+		}
+
+		this.modified = true;
+		this.communicationCosts = null;
+		this.appendableCommunicationCosts = null;
 	}
 
 	public void addTasks(List<Integer> tasks) {
 		if (this.graph == null) {
-			int taskCount = tasks.size();
-			this.graph = new HashMap<Integer, Map<Integer, Double>>(taskCount);
-			this.reverseGraph = new HashMap<Integer, Map<Integer, Double>>(taskCount);
+			initializeTasks(tasks.size());
 		}
 
 		for (Integer task : tasks) {
@@ -159,19 +827,67 @@ public class TaskGraph {
 		}
 	}
 
+	private void initializeTasks(int taskCapacity) {
+		this.graph = new HashMap<Integer, Map<Integer, Double>>(getMapCapacity(taskCapacity));
+		this.reverseGraph = new HashMap<Integer, Map<Integer, Double>>(getMapCapacity(taskCapacity));
+		this.taskIndices = new HashMap<Integer, Integer>(getMapCapacity(taskCapacity));
+		this.indexedTasks = new int[Math.max(16, taskCapacity)];
+		growComputationCosts(this.indexedTasks.length);
+		this.taskInputData = growTaskValues(null, this.indexedTasks.length);
+		this.taskOutputData = growTaskValues(null, this.indexedTasks.length);
+		this.averageComputationCosts = growTaskValues(null, this.indexedTasks.length);
+	}
+
 	public void addTask(Integer task) {
+		addTask(task, true);
+	}
+
+	/**
+	 * @param task The task.
+	 * @param dependencyMaps Whether the dependencies of the task are stored in dependency maps, or only appended to the adjacency
+	 * (see {@link #appendSubgraph(int[], double[], int[], int[], double[])}).
+	 */
+	private void addTask(Integer task, boolean dependencyMaps) {
 		if (this.graph == null) {
-			this.graph = new HashMap<Integer, Map<Integer, Double>>();
-			this.reverseGraph = new HashMap<Integer, Map<Integer, Double>>();
+			initializeTasks(0);
 		}
 
-		if (this.graph.containsKey(task)) {
+		if (this.frozen) {
+			Log.printLine("Cannot add task " + task + " to a frozen task graph");
+			return;
+		}
+		if (findTaskIndex(task) != null) {
 			Log.printLine("Graph already contains task " + task);
 			return;
 		}
 
-		this.graph.put(task, new HashMap<Integer, Double>());
-		this.reverseGraph.put(task, new HashMap<Integer, Double>());
+		prepareDependenciesAppend();
+
+		if (dependencyMaps) {
+			this.graph.put(task, new HashMap<Integer, Double>());
+			this.reverseGraph.put(task, new HashMap<Integer, Double>());
+		}
+
+		int taskIdx = getTaskCount();
+		ensureTaskCapacity(taskIdx + 1);
+		this.indexedTasks[taskIdx] = task;
+		this.taskIndices.put(task, taskIdx);
+
+		// Entry / exit tasks may be set before the task itself is added.
+		if (this.entryTasks != null && this.entryTasks.contains(task)) {
+			this.entryTaskFlags.set(taskIdx);
+		}
+		if (this.exitTasks != null && this.exitTasks.contains(task)) {
+			this.exitTaskFlags.set(taskIdx);
+		}
+
+		if (this.precomputedCosts) {
+			this.addedTasks.add(task);
+		}
+
+		this.modified = true;
+		this.adjacency = null;
+		this.communicationCosts = null;
 	}
 
 	public void addDependencies(Map<Pair<Integer, Integer>, Double> dependencies) {
@@ -187,15 +903,344 @@ public class TaskGraph {
 	}
 
 	public void addDependency(Integer fromTask, Integer toTask, Double dataDependency) {
-		this.graph.get(fromTask).put(toTask, dataDependency);
-		this.reverseGraph.get(toTask).put(fromTask, dataDependency);
+		if (this.frozen) {
+			Log.printLine("Cannot add dependency " + fromTask + " -> " + toTask + " to a frozen task graph");
+			return;
+		}
+
+		prepareDependenciesAppend();
+
+		Double previousDataDependency = getModifiableTasksInfo(this.graph, fromTask, true).put(toTask, dataDependency);
+		getModifiableTasksInfo(this.reverseGraph, toTask, false).put(fromTask, dataDependency);
+
+		if (this.appendableAdjacency != null) {
+			if (previousDataDependency == null) {
+				appendDependency(getTaskIndex(fromTask), getTaskIndex(toTask), dataDependency);
+			} else {
+				// Replaced dependency: rebuild.
+				this.appendableAdjacency = null;
+				this.appendedDependencyCount = 0;
+				this.appendableCommunicationCosts = null;
+			}
+		}
+
+		if (this.precomputedCosts) {
+			this.addedDependencies.add(new Pair<Integer, Integer>(fromTask, toTask));
+		}
+
+		this.modified = true;
+		this.adjacency = null;
+		this.communicationCosts = null;
 	}
 
-	public void addComputationCosts(Map<Integer, Map<ResourceType, Double>> computationCosts) {
-		if (this.computationCosts == null) {
-			this.computationCosts = new HashMap<Integer, Map<ResourceType, Double>>(computationCosts.size());
+	public void removeDependency(Integer fromTask, Integer toTask) {
+		if (this.frozen) {
+			Log.printLine("Cannot remove dependency " + fromTask + " -> " + toTask + " from a frozen task graph");
+			return;
+		}
+		if (!getSuccessorTasksInfo(fromTask).containsKey(toTask)) {
+			Log.printLine("No dependency between task " + fromTask + " and task " + toTask);
+			return;
+		}
+
+		getModifiableTasksInfo(this.graph, fromTask, true).remove(toTask);
+		getModifiableTasksInfo(this.reverseGraph, toTask, false).remove(fromTask);
+
+		// Removed dependency: rebuild the adjacency, and recompute the costs from scratch.
+		this.appendableAdjacency = null;
+		this.appendedDependencyCount = 0;
+		this.appendableCommunicationCosts = null;
+		this.precomputedCosts = false;
+
+		this.modified = true;
+		this.adjacency = null;
+		this.communicationCosts = null;
+	}
+
+	/**
+	 * Removes the precedence-only (zero data) dependencies implied by another path between the same tasks (transitive reduction
+	 * restricted to these dependencies): the task order constraints are unchanged, and so are the data transfers.
+	 * Runs one traversal per task with such dependencies, limited to the tasks before its last such successor in topological order.
+	 * @return The removed dependencies (from task, to task).
+	 */
+	public List<Pair<Integer, Integer>> removeRedundantDependencies() {
+		List<Pair<Integer, Integer>> redundantDependencies = new LinkedList<Pair<Integer, Integer>>();
+		if (this.frozen) {
+			Log.printLine("Cannot remove dependencies from a frozen task graph");
+			return redundantDependencies;
+		}
+
+		TaskGraphAdjacency adjacency = getAdjacency();
+		TaskGraphAnalytics analytics = getAnalytics();
+		if (!analytics.isAcyclic()) {
+			Log.printLine("Cannot remove redundant dependencies from a task graph with a cycle");
+			return redundantDependencies;
+		}
+
+		int taskCount = adjacency.getTaskCount();
+		// Tasks reached from the successors of the current task, tasks pushed on the stack (visit stamp = current task index + 1):
+		// every task is pushed at most once per traversal, a direct successor also reached through another successor included.
+		int[] reachedStamps = new int[taskCount];
+		int[] pushedStamps = new int[taskCount];
+		int[] taskStack = new int[taskCount];
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			int successorsStart = adjacency.getSuccessorsStart(taskIdx);
+			int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+
+			// Last precedence-only successor in topological order: no need to go further.
+			int maxPosition = Constants.INVALID_RESULT_INT;
+			for (int dependencyIdx = successorsStart; dependencyIdx < successorsEnd; ++dependencyIdx) {
+				if (adjacency.getDataDependency(dependencyIdx) == 0.0) {
+					maxPosition = Math.max(maxPosition, analytics.getTopologicalPosition(adjacency.getSuccessorTask(dependencyIdx)));
+				}
+			}
+			if (maxPosition == Constants.INVALID_RESULT_INT || successorsEnd - successorsStart < 2) {
+				continue;
+			}
+
+			// Tasks reachable through paths of at least 2 dependencies.
+			int stamp = taskIdx + 1;
+			int taskStackSize = 0;
+			for (int dependencyIdx = successorsStart; dependencyIdx < successorsEnd; ++dependencyIdx) {
+				int succTaskIdx = adjacency.getSuccessorTask(dependencyIdx);
+				if (analytics.getTopologicalPosition(succTaskIdx) < maxPosition && pushedStamps[succTaskIdx] != stamp) {
+					pushedStamps[succTaskIdx] = stamp;
+					taskStack[taskStackSize++] = succTaskIdx;
+				}
+			}
+			while (taskStackSize > 0) {
+				int reachingTaskIdx = taskStack[--taskStackSize];
+				int reachingSuccessorsEnd = adjacency.getSuccessorsEnd(reachingTaskIdx);
+				for (int dependencyIdx = adjacency.getSuccessorsStart(reachingTaskIdx); dependencyIdx < reachingSuccessorsEnd; ++dependencyIdx) {
+					int reachedTaskIdx = adjacency.getSuccessorTask(dependencyIdx);
+					if (reachedStamps[reachedTaskIdx] == stamp || analytics.getTopologicalPosition(reachedTaskIdx) > maxPosition) {
+						continue;
+					}
+					reachedStamps[reachedTaskIdx] = stamp;
+					if (analytics.getTopologicalPosition(reachedTaskIdx) < maxPosition && pushedStamps[reachedTaskIdx] != stamp) {
+						pushedStamps[reachedTaskIdx] = stamp;
+						taskStack[taskStackSize++] = reachedTaskIdx;
+					}
+				}
+			}
+
+			for (int dependencyIdx = successorsStart; dependencyIdx < successorsEnd; ++dependencyIdx) {
+				int succTaskIdx = adjacency.getSuccessorTask(dependencyIdx);
+				if (adjacency.getDataDependency(dependencyIdx) == 0.0 && reachedStamps[succTaskIdx] == stamp) {
+					redundantDependencies.add(new Pair<Integer, Integer>(this.indexedTasks[taskIdx], this.indexedTasks[succTaskIdx]));
+				}
+			}
+		}
+
+		for (Pair<Integer, Integer> redundantDependency : redundantDependencies) {
+			removeDependency(redundantDependency.getKey(), redundantDependency.getValue());
+		}
+		return redundantDependencies;
+	}
+
+	private Map<Integer, Double> getModifiableTasksInfo(Map<Integer, Map<Integer, Double>> graph, Integer task, boolean successorTasks) {
+		Map<Integer, Double> tasksInfo = graph.get(task);
+		if (tasksInfo == null && findTaskIndex(task) != null) {
+			// Dependencies read through the adjacency (e.g. a base task graph task of an overlay): copied on first write.
+			tasksInfo = new HashMap<Integer, Double>(successorTasks ? getSuccessorTasksInfo(task) : getPredecessorTasksInfo(task));
+			graph.put(task, tasksInfo);
+		}
+		return tasksInfo;
+	}
+
+	/**
+	 * Appends a task subgraph in bulk (tasks, computation costs and dependencies). The dependencies are appended to the adjacency only
+	 * (see {@link TaskGraphAdjacency#append(int, int[], int[], double[], int)}): the subgraph tasks, and the task graph tasks they depend on
+	 * (e.g. the exit task), get no dependency map entry unless they already have a dependency map (see {@link #getSuccessorTasksInfo(Integer)}).
+	 * The adjacency is then extended at once, and the communication costs on demand: only the ones of the appended dependencies are computed.
+	 * The dependencies must not be in the task graph yet, and the resources must be initialized beforehand.
+	 * @param tasks The subgraph tasks.
+	 * @param computationCosts Computation costs of the subgraph tasks, stored as
+	 * computationCosts[subgraphTaskIdx * RESOURCE_TYPE_COUNT + resourceTypeOrdinal] <s>.
+	 * @param fromTasks Source task of each dependency.
+	 * @param toTasks Target task of each dependency.
+	 * @param dataDependencies Communication data of each dependency <MB>.
+	 */
+	public void appendSubgraph(int[] tasks, double[] computationCosts, int[] fromTasks, int[] toTasks, double[] dataDependencies) {
+		if (this.frozen) {
+			Log.printLine("Cannot append a task subgraph to a frozen task graph");
+			return;
+		}
+		if (notInitializedResources()) {
+			System.out.println("Resources must be initialized beforehand");
+			return;
 		}
 
+		int taskCount = tasks.length;
+		int dependencyCount = fromTasks.length;
+
+		// Current adjacency, extended with the subgraph.
+		if (this.graph == null) {
+			initializeTasks(taskCount);
+		} else {
+			ensureTaskCapacity(getTaskCount() + taskCount);
+		}
+		getAdjacency();
+		prepareDependenciesAppend();
+
+		for (int subgraphTaskIdx = 0; subgraphTaskIdx < taskCount; ++subgraphTaskIdx) {
+			Integer task = tasks[subgraphTaskIdx];
+			if (findTaskIndex(task) != null) {
+				Log.printLine("Graph already contains task " + task);
+				continue;
+			}
+			addTask(task, false);
+			putComputationCosts(getTaskIndex(task), computationCosts, subgraphTaskIdx * Constants.RESOURCE_TYPE_COUNT);
+		}
+
+		ensureAppendedDependencyCapacity(this.appendedDependencyCount + dependencyCount);
+		for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+			Integer fromTask = fromTasks[dependencyIdx];
+			Integer toTask = toTasks[dependencyIdx];
+			double dataDependency = dataDependencies[dependencyIdx];
+
+			// A dependency map holds all the dependencies of its task.
+			Map<Integer, Double> succTasksInfo = this.graph.get(fromTask);
+			if (succTasksInfo != null) {
+				succTasksInfo.put(toTask, dataDependency);
+			}
+			Map<Integer, Double> predTasksInfo = this.reverseGraph.get(toTask);
+			if (predTasksInfo != null) {
+				predTasksInfo.put(fromTask, dataDependency);
+			}
+			appendDependency(getTaskIndex(fromTask), getTaskIndex(toTask), dataDependency);
+
+			if (this.precomputedCosts) {
+				this.addedDependencies.add(new Pair<Integer, Integer>(fromTask, toTask));
+			}
+		}
+
+		this.modified = true;
+		this.adjacency = null;
+		this.communicationCosts = null;
+		// The tasks without a dependency map are read through the appended adjacency.
+		getAdjacency();
+	}
+
+	private void prepareDependenciesAppend() {
+		if (this.appendableAdjacency != null) {
+			return;
+		}
+
+		// Current adjacency and communication costs (the ones of the base task graph for an unmodified overlay).
+		boolean unmodifiedOverlay = this.baseTaskGraph != null && !this.modified;
+		this.appendableAdjacency = unmodifiedOverlay ? this.baseTaskGraph.getAdjacency() : this.adjacency;
+		this.appendedDependencyCount = 0;
+		if (this.appendableAdjacency == null) {
+			return;
+		}
+
+		if (this.communicationCosts != null) {
+			this.appendableCommunicationCosts = this.communicationCosts;
+			this.appendablePseudoDependencies = this.pseudoDependencies;
+			this.ownAppendableCommunicationCosts = this.ownCommunicationCosts;
+			this.appendableCommunicationCostsAdjacency = this.appendableAdjacency;
+		} else if (unmodifiedOverlay) {
+			this.appendableCommunicationCosts = this.baseTaskGraph.getCommunicationCosts();
+			this.appendablePseudoDependencies = this.baseTaskGraph.pseudoDependencies;
+			this.ownAppendableCommunicationCosts = false;
+			this.appendableCommunicationCostsAdjacency = this.appendableAdjacency;
+		}
+	}
+
+	private void appendDependency(int fromTaskIdx, int toTaskIdx, double dataDependency) {
+		ensureAppendedDependencyCapacity(this.appendedDependencyCount + 1);
+		this.appendedFromTasks[this.appendedDependencyCount] = fromTaskIdx;
+		this.appendedToTasks[this.appendedDependencyCount] = toTaskIdx;
+		this.appendedDataDependencies[this.appendedDependencyCount] = dataDependency;
+		++this.appendedDependencyCount;
+	}
+
+	private void ensureAppendedDependencyCapacity(int dependencyCapacity) {
+		if (this.appendedFromTasks != null && dependencyCapacity <= this.appendedFromTasks.length) {
+			return;
+		}
+
+		int length = Math.max(dependencyCapacity, this.appendedFromTasks != null ? 2 * this.appendedFromTasks.length : 16);
+		this.appendedFromTasks = this.appendedFromTasks != null ? Arrays.copyOf(this.appendedFromTasks, length) : new int[length];
+		this.appendedToTasks = this.appendedToTasks != null ? Arrays.copyOf(this.appendedToTasks, length) : new int[length];
+		this.appendedDataDependencies = this.appendedDataDependencies != null ? Arrays.copyOf(this.appendedDataDependencies, length) : new double[length];
+	}
+
+	private void ensureTaskCapacity(int taskCapacity) {
+		if (taskCapacity <= this.indexedTasks.length) {
+			return;
+		}
+
+		int length = Math.max(taskCapacity, 2 * this.indexedTasks.length);
+		this.indexedTasks = Arrays.copyOf(this.indexedTasks, length);
+		growComputationCosts(length);
+		this.taskInputData = growTaskValues(this.taskInputData, length);
+		this.taskOutputData = growTaskValues(this.taskOutputData, length);
+		this.averageComputationCosts = growTaskValues(this.averageComputationCosts, length);
+	}
+
+	// Initial capacity of a HashMap holding the given number of entries without being resized.
+	private static int getMapCapacity(int size) {
+		return (int) (size / 0.75f) + 1;
+	}
+
+	private static double[] growTaskValues(double[] values, int length) {
+		double[] newValues = new double[length];
+		// Unset values are marked as NaN.
+		Arrays.fill(newValues, Double.NaN);
+		if (values != null) {
+			System.arraycopy(values, 0, newValues, 0, values.length);
+		}
+		return newValues;
+	}
+
+	// Grows (or moves, see setOffHeap()) the computation costs to the given task capacity.
+	private void growComputationCosts(int taskCapacity) {
+		int length = (taskCapacity - this.baseTaskCount) * Constants.RESOURCE_TYPE_COUNT;
+		int position = 0;
+		if (this.offHeap && this.baseTaskGraph == null) {
+			DoubleBuffer newComputationCosts = ByteBuffer.allocateDirect(length * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+			if (this.offHeapComputationCosts != null) {
+				position = this.offHeapComputationCosts.capacity();
+				newComputationCosts.put(0, this.offHeapComputationCosts, 0, position);
+			} else if (this.computationCosts != null) {
+				position = this.computationCosts.length;
+				newComputationCosts.put(0, this.computationCosts, 0, position);
+			}
+			// Unset values are marked as NaN.
+			for (; position < length; ++position) {
+				newComputationCosts.put(position, Double.NaN);
+			}
+			this.offHeapComputationCosts = newComputationCosts;
+			this.computationCosts = null;
+		} else {
+			double[] newComputationCosts = new double[length];
+			if (this.computationCosts != null) {
+				position = this.computationCosts.length;
+				System.arraycopy(this.computationCosts, 0, newComputationCosts, 0, position);
+			} else if (this.offHeapComputationCosts != null) {
+				position = this.offHeapComputationCosts.capacity();
+				this.offHeapComputationCosts.get(0, newComputationCosts, 0, position);
+			}
+			// Unset values are marked as NaN.
+			Arrays.fill(newComputationCosts, position, length, Double.NaN);
+			this.computationCosts = newComputationCosts;
+			this.offHeapComputationCosts = null;
+		}
+	}
+
+	// Sets the computation costs of a task (not a task of the base task graph), on each resource type.
+	private void putComputationCosts(int taskIdx, double[] computationCosts, int offset) {
+		int costsOffset = (taskIdx - this.baseTaskCount) * Constants.RESOURCE_TYPE_COUNT;
+		if (this.computationCosts != null) {
+			System.arraycopy(computationCosts, offset, this.computationCosts, costsOffset, Constants.RESOURCE_TYPE_COUNT);
+		} else {
+			this.offHeapComputationCosts.put(costsOffset, computationCosts, offset, Constants.RESOURCE_TYPE_COUNT);
+		}
+	}
+
+	public void addComputationCosts(Map<Integer, Map<ResourceType, Double>> computationCosts) {
 		for (Map.Entry<Integer, Map<ResourceType, Double>> taskComputationCostsEntry : computationCosts.entrySet()) {
 			Integer task = taskComputationCostsEntry.getKey();
 			Map<ResourceType, Double> resourceComputationCosts = taskComputationCostsEntry.getValue();
@@ -205,38 +1250,188 @@ public class TaskGraph {
 	}
 
 	public void addTaskComputationCosts(Integer task, Map<ResourceType, Double> resourceComputationCosts) {
+		double[] taskComputationCosts = new double[Constants.RESOURCE_TYPE_COUNT];
+		for (ResourceType resourceType : ResourceType.values()) {
+			taskComputationCosts[resourceType.ordinal()] = resourceComputationCosts.get(resourceType);
+		}
+
+		addTaskComputationCosts(task, taskComputationCosts);
+	}
+
+	/**
+	 * Sets the computation costs of an already added task.
+	 * @param task The task.
+	 * @param resourceComputationCosts Computation cost on each resource type, indexed by the resource type ordinal <s>.
+	 */
+	public void addTaskComputationCosts(Integer task, double[] resourceComputationCosts) {
+		if (this.frozen) {
+			Log.printLine("Cannot add computation costs for task " + task + " to a frozen task graph");
+			return;
+		}
 		if (notInitializedResources()) {
 			System.out.println("Resources must be initialized beforehand");
 			return;
 		}
 
-		if (this.computationCosts == null) {
-			this.computationCosts = new HashMap<Integer, Map<ResourceType, Double>>();
+		if (findTaskIndex(task) == null) {
+			Log.printLine("Task " + task + " must be added before its computation costs");
+			return;
 		}
 
-		if (this.computationCosts.containsKey(task)) {
+		int taskIdx = getTaskIndex(task);
+		if (!Double.isNaN(getComputationCostByTypeIndex(taskIdx, 0))) {
 			Log.printLine("Computation costs for task " + task + " already set");
 			return;
 		}
 
 		// Add the task computation costs.
-		this.computationCosts.put(task, resourceComputationCosts);
+		putComputationCosts(taskIdx, resourceComputationCosts, 0);
 	}
 
 	public int getTaskCount() {
-		return this.graph.size();
+		return this.baseTaskCount + this.taskIndices.size();
 	}
 
 	public int getResourceCount() {
 		return this.resources.size();
 	}
 
+	public int getTaskIndex(Integer task) {
+		return findTaskIndex(task);
+	}
+
+	private Integer findTaskIndex(Integer task) {
+		if (this.baseTaskGraph != null) {
+			Integer taskIdx = this.baseTaskGraph.findTaskIndex(task);
+			if (taskIdx != null) {
+				return taskIdx;
+			}
+		}
+		return this.taskIndices != null ? this.taskIndices.get(task) : null;
+	}
+
+	public int getTask(int taskIdx) {
+		return this.indexedTasks[taskIdx];
+	}
+
+	public TaskGraphAdjacency getAdjacency() {
+		if (this.adjacency == null) {
+			if (this.appendableAdjacency != null) {
+				// Only appended dependencies since the adjacency was built.
+				this.adjacency = this.appendableAdjacency.append(getTaskCount(), this.appendedFromTasks, this.appendedToTasks,
+																this.appendedDataDependencies, this.appendedDependencyCount);
+			} else if (this.baseTaskGraph != null && !this.modified) {
+				// An unmodified overlay has the same dependencies as its base task graph.
+				this.adjacency = this.baseTaskGraph.getAdjacency();
+			} else {
+				this.adjacency = buildAdjacency();
+				this.appendableCommunicationCosts = null;
+			}
+			this.appendableAdjacency = null;
+			this.appendedDependencyCount = 0;
+			// Up to date for all the tasks, those without a dependency map included.
+			this.compactAdjacency = this.adjacency;
+		}
+		return this.adjacency;
+	}
+
+	/**
+	 * Topological order, levels and data dependency limits of the tasks, computed once and shared until the dependencies change
+	 * (an unmodified overlay shares the ones of its base task graph).
+	 * @return The task graph analytics.
+	 */
+	public TaskGraphAnalytics getAnalytics() {
+		TaskGraphAdjacency adjacency = getAdjacency();
+		TaskGraphAnalytics analytics = this.analytics;
+		if (analytics == null || analytics.getAdjacency() != adjacency) {
+			if (this.baseTaskGraph != null && this.baseTaskGraph.getAdjacency() == adjacency) {
+				analytics = this.baseTaskGraph.getAnalytics();
+			} else {
+				analytics = new TaskGraphAnalytics(adjacency);
+			}
+			this.analytics = analytics;
+		}
+		return analytics;
+	}
+
+	/**
+	 * Reachability index of the tasks, built on first use and shared until the dependencies change; when task subgraphs are appended,
+	 * only the appended tasks are indexed (see {@link TaskGraphReachability#append(TaskGraphAdjacency, TaskGraphAnalytics)}).
+	 * @return The task graph reachability index.
+	 */
+	public TaskGraphReachability getReachability() {
+		TaskGraphAdjacency adjacency = getAdjacency();
+		TaskGraphReachability reachability = this.reachability;
+		if (reachability == null && this.baseTaskGraph != null) {
+			reachability = this.baseTaskGraph.getReachability();
+		}
+		if (reachability == null) {
+			reachability = new TaskGraphReachability(adjacency, getAnalytics());
+		} else if (reachability.getAdjacency() != adjacency) {
+			reachability = reachability.append(adjacency, getAnalytics());
+		}
+		this.reachability = reachability;
+		return reachability;
+	}
+
+	private TaskGraphAdjacency buildAdjacency() {
+		int taskCount = getTaskCount();
+		int dependencyCount = 0;
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			dependencyCount += getSuccessorTasksInfo(this.indexedTasks[taskIdx]).size();
+		}
+
+		int[] fromTasks = new int[dependencyCount];
+		int[] toTasks = new int[dependencyCount];
+		double[] dataDependencies = new double[dependencyCount];
+
+		int dependencyIdx = 0;
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			Map<Integer, Double> succTasksInfo = getSuccessorTasksInfo(this.indexedTasks[taskIdx]);
+			for (Map.Entry<Integer, Double> succTaskInfo : succTasksInfo.entrySet()) {
+				fromTasks[dependencyIdx] = taskIdx;
+				toTasks[dependencyIdx] = getTaskIndex(succTaskInfo.getKey());
+				dataDependencies[dependencyIdx] = succTaskInfo.getValue();
+				++dependencyIdx;
+			}
+		}
+
+		if (this.offHeap) {
+			return new OffHeapTaskGraphAdjacency(taskCount, fromTasks, toTasks, dataDependencies, dependencyCount);
+		}
+		return new HeapTaskGraphAdjacency(taskCount, fromTasks, toTasks, dataDependencies, dependencyCount);
+	}
+
+	/**
+	 * @param task The task.
+	 * @return Data dependency <MB> of each successor task (must not be modified), null if the task is unknown. The dependencies of the tasks
+	 * without a dependency map (e.g. all the tasks of a frozen task graph) are a read-only view of the adjacency.
+	 */
 	public Map<Integer, Double> getSuccessorTasksInfo(Integer task) {
-		return this.graph.get(task);
+		Map<Integer, Double> succTasksInfo = this.graph.get(task);
+		if (succTasksInfo == null) {
+			Integer taskIdx = findTaskIndex(task);
+			if (taskIdx != null) {
+				return new AdjacencyTasksInfo(this.compactAdjacency, taskIdx, true);
+			}
+		}
+		return succTasksInfo;
 	}
 
+	/**
+	 * @param task The task.
+	 * @return Data dependency <MB> of each predecessor task (must not be modified), null if the task is unknown
+	 * (see {@link #getSuccessorTasksInfo(Integer)}).
+	 */
 	public Map<Integer, Double> getPredecessorTasksInfo(Integer task) {
-		return this.reverseGraph.get(task);
+		Map<Integer, Double> predTasksInfo = this.reverseGraph.get(task);
+		if (predTasksInfo == null) {
+			Integer taskIdx = findTaskIndex(task);
+			if (taskIdx != null) {
+				return new AdjacencyTasksInfo(this.compactAdjacency, taskIdx, false);
+			}
+		}
+		return predTasksInfo;
 	}
 
 	public double getDataDependency(Integer fromTask, Integer toTask) {
@@ -256,7 +1451,7 @@ public class TaskGraph {
 				taskInfo += " (exit)";
 			}
 
-			Map<ResourceType, Double> resourceComputationCosts = this.computationCosts.get(task);
+			Map<ResourceType, Double> resourceComputationCosts = getTaskComputationCosts(task);
 			Log.printLine("Task " + task + taskInfo
 							+ " --- " + dft.format(getAverageComputationCost(task)) + " s (avg computation) " + resourceComputationCosts.toString());
 
@@ -283,93 +1478,183 @@ public class TaskGraph {
 	}
 
 	public boolean isEntryTask(Integer task) {
-		return this.entryTasks.contains(task);
+		Integer taskIdx = findTaskIndex(task);
+		return taskIdx != null && this.entryTaskFlags.get(taskIdx);
 	}
 
 	public boolean isExitTask(Integer task) {
-		return this.exitTasks.contains(task);
+		Integer taskIdx = findTaskIndex(task);
+		return taskIdx != null && this.exitTaskFlags.get(taskIdx);
+	}
+
+	public boolean isEntryTask(int taskIdx) {
+		return this.entryTaskFlags.get(taskIdx);
+	}
+
+	public boolean isExitTask(int taskIdx) {
+		return this.exitTaskFlags.get(taskIdx);
 	}
 
 	public void removeExitTask(Integer task) {
+		if (this.frozen) {
+			Log.printLine("Cannot remove exit task " + task + " from a frozen task graph");
+			return;
+		}
+
 		this.exitTasks.remove(task);
+		Integer taskIdx = findTaskIndex(task);
+		if (taskIdx != null) {
+			this.exitTaskFlags.clear(taskIdx);
+		}
+
+		this.modified = true;
+		this.communicationCosts = null;
+		this.appendableCommunicationCosts = null;
 	}
 
 	public Pair<Double, Double> computeDataDependencyLimits() {
-		Double minDataDependency = Double.MAX_VALUE;
-		Double maxDataDependency = Double.MIN_VALUE;
+		TaskGraphAnalytics analytics = getAnalytics();
+		return new Pair<Double, Double>(analytics.getMinDataDependency(), analytics.getMaxDataDependency());
+	}
 
-		for (Map<Integer, Double> dependentTasksInfo : this.graph.values()) {
-			for (Double dataDependency : dependentTasksInfo.values()) {
-				minDataDependency = Math.min(minDataDependency, dataDependency);
-				maxDataDependency = Math.max(maxDataDependency, dataDependency);
+	/**
+	 * Independent lanes of the task graph: weakly connected components once the pseudo entry / exit tasks are removed.
+	 * The tasks whose predecessors belong to several components (e.g. the final merge of the Epigenomics sequence pipelines),
+	 * and their successors, do not belong to any component: they join the lanes.
+	 * @return Component in [0, component count) of each task, indexed by task index; INVALID_RESULT_INT for the pseudo entry / exit
+	 * tasks and the tasks joining several components.
+	 */
+	public int[] computeTaskComponents() {
+		TaskGraphAdjacency adjacency = getAdjacency();
+		TaskGraphAnalytics analytics = getAnalytics();
+		int[] taskComponents = new int[adjacency.getTaskCount()];
+		Arrays.fill(taskComponents, Constants.INVALID_RESULT_INT);
+
+		// Topological order: a task belongs to the component of its predecessor tasks, or starts a new one.
+		int componentCount = 0;
+		for (int position = 0; position < analytics.getOrderedTaskCount(); ++position) {
+			int taskIdx = analytics.getTopologicalTask(position);
+			if (isEntryTask(taskIdx) || isExitTask(taskIdx)) {
+				continue;
 			}
-		}
 
-		return new Pair<Double, Double>(minDataDependency, maxDataDependency);
+			int component = Constants.INVALID_RESULT_INT;
+			boolean joinTask = false;
+			int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+			for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+				int predTaskIdx = adjacency.getPredecessorTask(predecessorIdx);
+				if (isEntryTask(predTaskIdx)) {
+					continue;
+				}
+				int predComponent = taskComponents[predTaskIdx];
+				if (predComponent == Constants.INVALID_RESULT_INT || (component != Constants.INVALID_RESULT_INT && predComponent != component)) {
+					joinTask = true;
+					break;
+				}
+				component = predComponent;
+			}
+			if (!joinTask) {
+				taskComponents[taskIdx] = (component != Constants.INVALID_RESULT_INT) ? component : componentCount++;
+			}
+		}
+		return taskComponents;
 	}
 
 	public Double getTaskInputData(Integer task) {
-		if (!this.taskInputData.containsKey(task)) {
-			this.taskInputData.put(task, computeTaskInputData(task));
+		int taskIdx = getTaskIndex(task);
+		if (Double.isNaN(this.taskInputData[taskIdx])) {
+			this.taskInputData[taskIdx] = computeTaskInputData(task);
 		}
-		return this.taskInputData.get(task);
+		return this.taskInputData[taskIdx];
 	}
 
 	private Double computeTaskInputData(Integer task) {
-		Double inputData = 0.0;
+		double inputData = 0.0;
 
-		Map<Integer, Double> predTasksInfo = getPredecessorTasksInfo(task);
-		for (Double dataDependency : predTasksInfo.values()) {
-			inputData += dataDependency;
+		TaskGraphAdjacency adjacency = getAdjacency();
+		int taskIdx = getTaskIndex(task);
+		int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+		for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+			inputData += adjacency.getDataDependency(adjacency.getPredecessorDependency(predecessorIdx));
 		}
 
 		return inputData;
 	}
 
 	public Double getTaskOutputData(Integer task) {
-		if (!this.taskOutputData.containsKey(task)) {
-			this.taskOutputData.put(task, computeTaskOutputData(task));
+		int taskIdx = getTaskIndex(task);
+		if (Double.isNaN(this.taskOutputData[taskIdx])) {
+			this.taskOutputData[taskIdx] = computeTaskOutputData(task);
 		}
-		return this.taskOutputData.get(task);
+		return this.taskOutputData[taskIdx];
 	}
 
 	private Double computeTaskOutputData(Integer task) {
-		Double outputData = 0.0;
+		double outputData = 0.0;
 
-		Map<Integer, Double> succTasksInfo = getSuccessorTasksInfo(task);
-		for (Double dataDependency : succTasksInfo.values()) {
-			outputData += dataDependency;
+		TaskGraphAdjacency adjacency = getAdjacency();
+		int taskIdx = getTaskIndex(task);
+		int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+		for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+			outputData += adjacency.getDataDependency(dependencyIdx);
 		}
 
 		return outputData;
 	}
 
 	public Double getAverageComputationCost(Integer task) {
-		if (!this.averageComputationCosts.containsKey(task)) {
-			this.averageComputationCosts.put(task, computeAverageComputationCost(task));
+		int taskIdx = getTaskIndex(task);
+		if (Double.isNaN(this.averageComputationCosts[taskIdx])) {
+			this.averageComputationCosts[taskIdx] = computeAverageComputationCost(task);
 		}
-		return this.averageComputationCosts.get(task);
+		return this.averageComputationCosts[taskIdx];
 	}
 
-	private Double computeAverageComputationCost(Integer task) {
-		Double computationCostsSum = 0.0;
-		int costCount = 0;
-
-		for (Map.Entry<Integer, ResourceType> resourceEntry : this.resources.entrySet()) {
-			Integer resource = resourceEntry.getKey();
-			ResourceType resourceType = resourceEntry.getValue();
-			Double resourceAvailabilityTime = this.resourcesAvailability.get(resource);
+	private int[] getEligibleResourceTypeCounts(Integer task) {
+		int eligibleResourceTypeMask = getEligibleResourceTypeMask(getTaskIndex(task));
 
-			if (resourceAvailabilityTime > Constants.DEFAULT_RESOURCE_AVAILABILITY_TIME) {
-				// Resource not available yet.
+		int[] eligibleResourceTypeCounts = new int[Constants.RESOURCE_TYPE_COUNT];
+		for (int resourceTypeOrdinal = 0; resourceTypeOrdinal < Constants.RESOURCE_TYPE_COUNT; ++resourceTypeOrdinal) {
+			if ((eligibleResourceTypeMask & (1 << resourceTypeOrdinal)) == 0) {
+				// Resources with limited memory capacity.
 				continue;
 			}
-			if (!TaskUtils.canExecuteTaskOnResourceWithLimitedMemoryCapacity(getTaskInputData(task), resourceType)) {
-				// Resource with limited memory capacity.
+			eligibleResourceTypeCounts[resourceTypeOrdinal] = this.availableResourceTypeCounts[resourceTypeOrdinal];
+		}
+		return eligibleResourceTypeCounts;
+	}
+
+	private Double computeAggregatedAverageComputationCost(Integer task) {
+		double computationCostsSum = 0.0;
+		int costCount = 0;
+		int taskIdx = getTaskIndex(task);
+
+		int[] eligibleResourceTypeCounts = getEligibleResourceTypeCounts(task);
+		for (int resourceTypeOrdinal = 0; resourceTypeOrdinal < Constants.RESOURCE_TYPE_COUNT; ++resourceTypeOrdinal) {
+			int resourceTypeCount = eligibleResourceTypeCounts[resourceTypeOrdinal];
+			if (resourceTypeCount == 0) {
 				continue;
 			}
+			computationCostsSum += resourceTypeCount * getComputationCostByTypeIndex(taskIdx, resourceTypeOrdinal);
+			costCount += resourceTypeCount;
+		}
 
-			computationCostsSum += getComputationCost(task, resource);
+		return computationCostsSum / costCount;
+	}
+
+	private Double computeAverageComputationCost(Integer task) {
+		if (this.aggregatedAverageCosts) {
+			return computeAggregatedAverageComputationCost(task);
+		}
+
+		double computationCostsSum = 0.0;
+		int costCount = 0;
+		int taskIdx = getTaskIndex(task);
+
+		// Available resources with enough memory.
+		BitSet eligibleResources = getEligibleResourcesByIndex(taskIdx);
+		for (int resource = eligibleResources.nextSetBit(0); resource >= 0; resource = eligibleResources.nextSetBit(resource + 1)) {
+			computationCostsSum += getComputationCostByIndex(taskIdx, resource);
 			++costCount;
 		}
 
@@ -377,54 +1662,141 @@ public class TaskGraph {
 	}
 
 	public Double getComputationCost(Integer task, Integer resource) {
-		ResourceType resourceType = this.resources.get(resource);
+		return getComputationCostByIndex(getTaskIndex(task), resource);
+	}
 
-		return this.computationCosts.get(task).get(resourceType);
+	public double getComputationCostByIndex(int taskIdx, int resource) {
+		return getComputationCostByTypeIndex(taskIdx, this.resourceTypeOrdinals[resource]);
 	}
 
-	public Double getAverageCommunicationCost(Integer fromTask, Integer toTask) {
-		if (!this.averageCommunicationCosts.containsKey(fromTask)) {
-			this.averageCommunicationCosts.put(fromTask, new HashMap<Integer, Double>());
+	public double getComputationCostByTypeIndex(int taskIdx, int resourceTypeOrdinal) {
+		if (taskIdx < this.baseTaskCount) {
+			return this.baseTaskGraph.getComputationCostByTypeIndex(taskIdx, resourceTypeOrdinal);
 		}
-		if (!this.averageCommunicationCosts.get(fromTask).containsKey(toTask)) {
-			this.averageCommunicationCosts.get(fromTask).put(toTask, computeAverageCommunicationCost(fromTask, toTask));
+		int costsOffset = (taskIdx - this.baseTaskCount) * Constants.RESOURCE_TYPE_COUNT + resourceTypeOrdinal;
+		return this.computationCosts != null ? this.computationCosts[costsOffset] : this.offHeapComputationCosts.get(costsOffset);
+	}
+
+	public int getResourceTypeOrdinal(int resource) {
+		return this.resourceTypeOrdinals[resource];
+	}
+
+	public Double getAverageCommunicationCost(Integer fromTask, Integer toTask) {
+		Double averageCommunicationCost = findAverageCommunicationCost(fromTask, toTask);
+		if (averageCommunicationCost == null) {
+			averageCommunicationCost = computeAverageCommunicationCost(fromTask, toTask);
+			if (!this.frozen) {
+				getModifiableAverageCommunicationCosts(fromTask).put(toTask, averageCommunicationCost);
+			}
 		}
-		return this.averageCommunicationCosts.get(fromTask).get(toTask);
+		return averageCommunicationCost;
 	}
 
-	private Double computeAverageCommunicationCost(Integer fromTask, Integer toTask) {
-		Double communicationCostsSum = 0.0;
-		int costCount = 0;
+	private Double findAverageCommunicationCost(Integer fromTask, Integer toTask) {
+		Map<Integer, Double> taskAverageCommunicationCosts = this.averageCommunicationCosts.get(fromTask);
+		if (taskAverageCommunicationCosts != null) {
+			return taskAverageCommunicationCosts.get(toTask);
+		}
+		if (this.dependencyAverageCommunicationCosts != null) {
+			Integer fromTaskIdx = findTaskIndex(fromTask);
+			Integer toTaskIdx = findTaskIndex(toTask);
+			int dependencyIdx = fromTaskIdx != null && toTaskIdx != null
+								? getAdjacency().findDependency(fromTaskIdx, toTaskIdx) : Constants.INVALID_RESULT_INT;
+			return dependencyIdx != Constants.INVALID_RESULT_INT ? this.dependencyAverageCommunicationCosts[dependencyIdx] : null;
+		}
+		if (this.baseTaskGraph != null) {
+			// Costs not (re)computed by the overlay.
+			return this.baseTaskGraph.findAverageCommunicationCost(fromTask, toTask);
+		}
+		return null;
+	}
 
-		for (Map.Entry<Integer, ResourceType> resourceEntry1 : this.resources.entrySet()) {
-			Integer resource1 = resourceEntry1.getKey();
-			ResourceType resourceType1 = resourceEntry1.getValue();
-			Double resourceAvailabilityTime1 = this.resourcesAvailability.get(resource1);
+	private Map<Integer, Double> getModifiableAverageCommunicationCosts(Integer fromTask) {
+		Map<Integer, Double> taskAverageCommunicationCosts = this.averageCommunicationCosts.get(fromTask);
+		if (taskAverageCommunicationCosts == null) {
+			// Overlay: copy the costs of the base task graph on first write.
+			taskAverageCommunicationCosts = new HashMap<Integer, Double>();
+			if (this.baseTaskGraph != null) {
+				this.baseTaskGraph.copyAverageCommunicationCosts(fromTask, taskAverageCommunicationCosts);
+			}
+			this.averageCommunicationCosts.put(fromTask, taskAverageCommunicationCosts);
+		}
+		return taskAverageCommunicationCosts;
+	}
 
-			if (resourceAvailabilityTime1 > Constants.DEFAULT_RESOURCE_AVAILABILITY_TIME) {
-				// Resource not available yet.
-				continue;
+	private void copyAverageCommunicationCosts(Integer fromTask, Map<Integer, Double> taskAverageCommunicationCosts) {
+		Map<Integer, Double> ownTaskAverageCommunicationCosts = this.averageCommunicationCosts.get(fromTask);
+		if (ownTaskAverageCommunicationCosts != null) {
+			taskAverageCommunicationCosts.putAll(ownTaskAverageCommunicationCosts);
+		} else if (this.dependencyAverageCommunicationCosts != null) {
+			Integer fromTaskIdx = findTaskIndex(fromTask);
+			if (fromTaskIdx != null) {
+				TaskGraphAdjacency adjacency = getAdjacency();
+				int successorsEnd = adjacency.getSuccessorsEnd(fromTaskIdx);
+				for (int dependencyIdx = adjacency.getSuccessorsStart(fromTaskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+					taskAverageCommunicationCosts.put(this.indexedTasks[adjacency.getSuccessorTask(dependencyIdx)], this.dependencyAverageCommunicationCosts[dependencyIdx]);
+				}
 			}
-			if (!TaskUtils.canExecuteTaskOnResourceWithLimitedMemoryCapacity(getTaskInputData(fromTask), resourceType1)) {
-				// Resource with limited memory capacity.
+		} else if (this.baseTaskGraph != null) {
+			this.baseTaskGraph.copyAverageCommunicationCosts(fromTask, taskAverageCommunicationCosts);
+		}
+	}
+
+	private Double computeAggregatedAverageCommunicationCost(Integer fromTask, Integer toTask) {
+		double communicationCostsSum = 0.0;
+		long costCount = 0;
+		int dependencyIdx = getAdjacency().findDependency(getTaskIndex(fromTask), getTaskIndex(toTask));
+		double[] communicationCosts = getCommunicationCosts();
+		int costsOffset = dependencyIdx * Constants.RESOURCE_TYPE_COUNT * Constants.RESOURCE_TYPE_COUNT;
+		boolean pseudoDependency = this.pseudoDependencies.get(dependencyIdx);
+
+		int[] fromResourceTypeCounts = getEligibleResourceTypeCounts(fromTask);
+		int[] toResourceTypeCounts = getEligibleResourceTypeCounts(toTask);
+		for (int fromResourceTypeOrdinal = 0; fromResourceTypeOrdinal < Constants.RESOURCE_TYPE_COUNT; ++fromResourceTypeOrdinal) {
+			int fromResourceTypeCount = fromResourceTypeCounts[fromResourceTypeOrdinal];
+			if (fromResourceTypeCount == 0) {
 				continue;
 			}
 
-			for (Map.Entry<Integer, ResourceType> resourceEntry2 : this.resources.entrySet()) {
-				Integer resource2 = resourceEntry2.getKey();
-				ResourceType resourceType2 = resourceEntry2.getValue();
-				Double resourceAvailabilityTime2 = this.resourcesAvailability.get(resource2);
-
-				if (resourceAvailabilityTime2 > Constants.DEFAULT_RESOURCE_AVAILABILITY_TIME) {
-					// Resource not available yet.
+			for (int toResourceTypeOrdinal = 0; toResourceTypeOrdinal < Constants.RESOURCE_TYPE_COUNT; ++toResourceTypeOrdinal) {
+				int toResourceTypeCount = toResourceTypeCounts[toResourceTypeOrdinal];
+				if (toResourceTypeCount == 0) {
 					continue;
 				}
-				if (!TaskUtils.canExecuteTaskOnResourceWithLimitedMemoryCapacity(getTaskInputData(toTask), resourceType2)) {
-					// Resource with limited memory capacity.
-					continue;
+
+				long resourcePairCount = (long) fromResourceTypeCount * toResourceTypeCount;
+				double communicationCost = communicationCosts[costsOffset + fromResourceTypeOrdinal * Constants.RESOURCE_TYPE_COUNT + toResourceTypeOrdinal];
+				if (fromResourceTypeOrdinal == toResourceTypeOrdinal && !pseudoDependency) {
+					// Intraprocessor communication cost is negligible: exclude the pairs of the same resource,
+					// i.e. every available resource of this type (eligible for both tasks).
+					communicationCostsSum += (resourcePairCount - this.availableResourceTypeCounts[fromResourceTypeOrdinal]) * communicationCost;
+				} else {
+					communicationCostsSum += resourcePairCount * communicationCost;
 				}
+				costCount += resourcePairCount;
+			}
+		}
+
+		return communicationCostsSum / costCount;
+	}
+
+	private Double computeAverageCommunicationCost(Integer fromTask, Integer toTask) {
+		if (this.aggregatedAverageCosts) {
+			return computeAggregatedAverageCommunicationCost(fromTask, toTask);
+		}
 
-				communicationCostsSum += getCommunicationCost(fromTask, toTask, resource1, resource2);
+		double communicationCostsSum = 0.0;
+		int costCount = 0;
+		int fromTaskIdx = getTaskIndex(fromTask);
+		int toTaskIdx = getTaskIndex(toTask);
+		int dependencyIdx = getAdjacency().findDependency(fromTaskIdx, toTaskIdx);
+
+		// Available resources with enough memory.
+		BitSet fromEligibleResources = getEligibleResourcesByIndex(fromTaskIdx);
+		BitSet toEligibleResources = getEligibleResourcesByIndex(toTaskIdx);
+		for (int resource1 = fromEligibleResources.nextSetBit(0); resource1 >= 0; resource1 = fromEligibleResources.nextSetBit(resource1 + 1)) {
+			for (int resource2 = toEligibleResources.nextSetBit(0); resource2 >= 0; resource2 = toEligibleResources.nextSetBit(resource2 + 1)) {
+				communicationCostsSum += getCommunicationCostByIndex(dependencyIdx, resource1, resource2);
 				++costCount;
 			}
 		}
@@ -433,48 +1805,148 @@ public class TaskGraph {
 	}
 
 	public Double getCommunicationCost(Integer fromTask, Integer toTask, Integer fromResource, Integer toResource) {
-		ResourceType fromResourceType = this.resources.get(fromResource);
-		ResourceType toResourceType = this.resources.get(toResource);
-		boolean fromEdgeResource = ResourceUtils.isEdgeResource(fromResourceType);
-		boolean fromCloudResource = ResourceUtils.isCloudResource(fromResourceType);
-		boolean toEdgeResource = ResourceUtils.isEdgeResource(toResourceType);
-		boolean toCloudResource = ResourceUtils.isCloudResource(toResourceType);
+		int dependencyIdx = getAdjacency().findDependency(getTaskIndex(fromTask), getTaskIndex(toTask));
+		if (dependencyIdx == Constants.INVALID_RESULT_INT) {
+			Log.printLine("No dependency between task " + fromTask + " and task " + toTask);
+			return Constants.INVALID_RESULT_DOUBLE;
+		}
 
-		Double dataDependency = getDataDependency(fromTask, toTask);
+		return getCommunicationCostByIndex(dependencyIdx, fromResource, toResource);
+	}
 
-		// Pseudo entry / exit tasks.
-		if (isEntryTask(fromTask)) {
-			// Cloud -> edge / cloud transfer.
-			Double transferRate = toEdgeResource ? Constants.CLOUD_TO_EDGE_TRANSFER_RATE : Constants.CLOUD_TO_CLOUD_TRANSFER_RATE;
-			return dataDependency / transferRate;
+	/**
+	 * Communication cost of a dependency between two resources.
+	 * @param dependencyIdx Dependency index (see {@link TaskGraphAdjacency}).
+	 * @param fromResource Resource of the source task.
+	 * @param toResource Resource of the target task.
+	 * @return The communication cost <s>.
+	 */
+	public double getCommunicationCostByIndex(int dependencyIdx, int fromResource, int toResource) {
+		double[] communicationCosts = getCommunicationCosts();
+
+		// Intraprocessor communication cost is negligible, except for the pseudo entry / exit tasks.
+		if (fromResource == toResource && !this.pseudoDependencies.get(dependencyIdx)) {
+			return 0.0;
 		}
-		if (isExitTask(toTask)) {
-			// Edge / cloud -> cloud transfer.
-			Double transferRate = fromEdgeResource ? Constants.EDGE_TO_CLOUD_TRANSFER_RATE : Constants.CLOUD_TO_CLOUD_TRANSFER_RATE;
-			return dataDependency / transferRate;
+
+		return communicationCosts[(dependencyIdx * Constants.RESOURCE_TYPE_COUNT + this.resourceTypeOrdinals[fromResource]) * Constants.RESOURCE_TYPE_COUNT
+									+ this.resourceTypeOrdinals[toResource]];
+	}
+
+	private double[] getCommunicationCosts() {
+		double[] communicationCosts = this.communicationCosts;
+		if (communicationCosts == null) {
+			if (this.baseTaskGraph != null && !this.modified) {
+				// An unmodified overlay has the same dependencies and entry / exit tasks as its base task graph.
+				communicationCosts = this.baseTaskGraph.getCommunicationCosts();
+				this.pseudoDependencies = this.baseTaskGraph.pseudoDependencies;
+				this.ownCommunicationCosts = false;
+				this.communicationCosts = communicationCosts;
+			} else {
+				communicationCosts = buildCommunicationCosts();
+			}
 		}
+		return communicationCosts;
+	}
 
-		// Intraprocessor communication cost is negligible.
-		if (Objects.equals(fromResource, toResource)) {
-			return 0.0;
+	/**
+	 * Builds the communication cost table of the dependencies again, from scratch (see {@link CommunicationCostBenchmark}).
+	 * @return The communication cost table.
+	 */
+	double[] rebuildCommunicationCosts() {
+		this.communicationCosts = null;
+		this.appendableCommunicationCosts = null;
+		this.appendablePseudoDependencies = null;
+		this.appendableCommunicationCostsAdjacency = null;
+		return buildCommunicationCosts();
+	}
+
+	private double[] buildCommunicationCosts() {
+		TaskGraphAdjacency adjacency = getAdjacency();
+		int dependencyCount = adjacency.getDependencyCount();
+		int dependencyCostCount = Constants.RESOURCE_TYPE_COUNT * Constants.RESOURCE_TYPE_COUNT;
+
+		double[] communicationCosts = null;
+		BitSet pseudoDependencies = null;
+		TaskGraphAdjacency previousAdjacency = this.appendableCommunicationCostsAdjacency;
+		if (this.appendableCommunicationCosts != null && adjacency.hasSameDependencyIndices(previousAdjacency)) {
+			// Dependencies appended after the existing ones: compute the appended ones only (in place if owned and large enough).
+			int previousDependencyCount = previousAdjacency.getDependencyCount();
+			if (this.ownAppendableCommunicationCosts && dependencyCount * dependencyCostCount <= this.appendableCommunicationCosts.length) {
+				communicationCosts = this.appendableCommunicationCosts;
+				pseudoDependencies = this.appendablePseudoDependencies;
+			} else {
+				communicationCosts = Arrays.copyOf(this.appendableCommunicationCosts, Math.max(dependencyCount, 2 * previousDependencyCount) * dependencyCostCount);
+				pseudoDependencies = (BitSet) this.appendablePseudoDependencies.clone();
+			}
+			for (int dependencyIdx = previousDependencyCount; dependencyIdx < dependencyCount; ++dependencyIdx) {
+				computeCommunicationCosts(adjacency, dependencyIdx, communicationCosts, pseudoDependencies);
+			}
+		} else if (this.appendableCommunicationCosts != null) {
+			// Dependencies appended after the existing ones of each task: move the existing costs, compute the appended ones only.
+			communicationCosts = new double[dependencyCount * dependencyCostCount];
+			pseudoDependencies = new BitSet(dependencyCount);
+			int previousTaskCount = previousAdjacency.getTaskCount();
+			for (int taskIdx = 0; taskIdx < adjacency.getTaskCount(); ++taskIdx) {
+				int successorsStart = adjacency.getSuccessorsStart(taskIdx);
+				int previousSuccessorCount = taskIdx < previousTaskCount ? previousAdjacency.getSuccessorCount(taskIdx) : 0;
+				if (previousSuccessorCount > 0) {
+					int previousSuccessorsStart = previousAdjacency.getSuccessorsStart(taskIdx);
+					System.arraycopy(this.appendableCommunicationCosts, previousSuccessorsStart * dependencyCostCount,
+									communicationCosts, successorsStart * dependencyCostCount, previousSuccessorCount * dependencyCostCount);
+					for (int successorIdx = 0; successorIdx < previousSuccessorCount; ++successorIdx) {
+						if (this.appendablePseudoDependencies.get(previousSuccessorsStart + successorIdx)) {
+							pseudoDependencies.set(successorsStart + successorIdx);
+						}
+					}
+				}
+				int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+				for (int dependencyIdx = successorsStart + previousSuccessorCount; dependencyIdx < successorsEnd; ++dependencyIdx) {
+					computeCommunicationCosts(adjacency, dependencyIdx, communicationCosts, pseudoDependencies);
+				}
+			}
+		} else {
+			communicationCosts = new double[dependencyCount * dependencyCostCount];
+			pseudoDependencies = new BitSet(dependencyCount);
+			for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+				computeCommunicationCosts(adjacency, dependencyIdx, communicationCosts, pseudoDependencies);
+			}
 		}
+		this.appendableCommunicationCosts = null;
+		this.appendablePseudoDependencies = null;
+		this.appendableCommunicationCostsAdjacency = null;
+
+		this.pseudoDependencies = pseudoDependencies;
+		this.ownCommunicationCosts = true;
+		this.communicationCosts = communicationCosts;
+		return communicationCosts;
+	}
 
-		// Interprocessor communication cost.
-		Double resourcesTransferRate = Constants.INVALID_RESULT_DOUBLE;
-		if (fromEdgeResource && toEdgeResource) {
-			// Edge -> edge transfer.
-			resourcesTransferRate = Constants.EDGE_TO_EDGE_TRANSFER_RATE;
-		} else if (fromEdgeResource && toCloudResource) {
-			// Edge -> cloud transfer.
-			resourcesTransferRate = Constants.EDGE_TO_CLOUD_TRANSFER_RATE;
-		} else if (fromCloudResource && toEdgeResource) {
-			// Cloud -> edge transfer.
-			resourcesTransferRate = Constants.CLOUD_TO_EDGE_TRANSFER_RATE;
-		} else if (fromCloudResource && toCloudResource) {
-			// Cloud -> cloud transfer.
-			resourcesTransferRate = Constants.CLOUD_TO_CLOUD_TRANSFER_RATE;
+	private void computeCommunicationCosts(TaskGraphAdjacency adjacency, int dependencyIdx, double[] communicationCosts, BitSet pseudoDependencies) {
+		double dataDependency = adjacency.getDataDependency(dependencyIdx);
+		boolean fromEntryTask = this.entryTaskFlags.get(adjacency.getDependencySourceTask(dependencyIdx));
+		boolean toExitTask = this.exitTaskFlags.get(adjacency.getDependencyTargetTask(dependencyIdx));
+		if (fromEntryTask || toExitTask) {
+			pseudoDependencies.set(dependencyIdx);
+		}
+
+		int costIdx = dependencyIdx * Constants.RESOURCE_TYPE_COUNT * Constants.RESOURCE_TYPE_COUNT;
+		for (ResourceType fromResourceType : ResourceType.values()) {
+			for (ResourceType toResourceType : ResourceType.values()) {
+				double transferRate = Constants.INVALID_RESULT_DOUBLE;
+				if (fromEntryTask) {
+					// Pseudo entry task: cloud -> edge / cloud transfer.
+					transferRate = ResourceUtils.getTransferRate(ResourceType.CLOUD_RESOURCE, toResourceType);
+				} else if (toExitTask) {
+					// Pseudo exit task: edge / cloud -> cloud transfer.
+					transferRate = ResourceUtils.getTransferRate(fromResourceType, ResourceType.CLOUD_RESOURCE);
+				} else {
+					// Interprocessor communication cost.
+					transferRate = ResourceUtils.getTransferRate(fromResourceType, toResourceType);
+				}
+				communicationCosts[costIdx++] = dataDependency / transferRate;
+			}
 		}
-		return dataDependency / resourcesTransferRate;
 	}
 
 	public LinkedList<Integer> getQlHeftSchedule() {
@@ -493,4 +1965,97 @@ public class TaskGraph {
 		this.ql2hdSchedule = schedule;
 	}
 
+	/**
+	 * Read-only view of the tasks, in task index order.
+	 */
+	private final class IndexedTasks extends AbstractSet<Integer> {
+
+		@Override
+		public Iterator<Integer> iterator() {
+			return IntStream.range(0, getTaskCount()).mapToObj(taskIdx -> TaskGraph.this.indexedTasks[taskIdx]).iterator();
+		}
+
+		@Override
+		public int size() {
+			return getTaskCount();
+		}
+
+		@Override
+		public boolean contains(Object task) {
+			return task instanceof Integer && findTaskIndex((Integer) task) != null;
+		}
+
+	}
+
+	/**
+	 * Read-only view of the successor / predecessor tasks of a task with their data dependency <MB>, read through an adjacency
+	 * (see {@link #getSuccessorTasksInfo(Integer)}): a lookup scans the shorter adjacency list (see {@link TaskGraphAdjacency#findDependency(int, int)}).
+	 */
+	private final class AdjacencyTasksInfo extends AbstractMap<Integer, Double> {
+
+		private final TaskGraphAdjacency adjacency;
+		private final int taskIdx;
+		private final boolean successorTasks;
+
+		private AdjacencyTasksInfo(TaskGraphAdjacency adjacency, int taskIdx, boolean successorTasks) {
+			this.adjacency = adjacency;
+			this.taskIdx = taskIdx;
+			this.successorTasks = successorTasks;
+		}
+
+		private int findDependency(Object task) {
+			Integer otherTaskIdx = (task instanceof Integer) ? findTaskIndex((Integer) task) : null;
+			if (otherTaskIdx == null || otherTaskIdx >= this.adjacency.getTaskCount()) {
+				return Constants.INVALID_RESULT_INT;
+			}
+			return this.successorTasks ? this.adjacency.findDependency(this.taskIdx, otherTaskIdx) : this.adjacency.findDependency(otherTaskIdx, this.taskIdx);
+		}
+
+		@Override
+		public boolean containsKey(Object task) {
+			return findDependency(task) != Constants.INVALID_RESULT_INT;
+		}
+
+		@Override
+		public Double get(Object task) {
+			int dependencyIdx = findDependency(task);
+			return (dependencyIdx != Constants.INVALID_RESULT_INT) ? this.adjacency.getDataDependency(dependencyIdx) : null;
+		}
+
+		@Override
+		public int size() {
+			return this.successorTasks ? this.adjacency.getSuccessorCount(this.taskIdx) : this.adjacency.getPredecessorCount(this.taskIdx);
+		}
+
+		@Override
+		public Set<Map.Entry<Integer, Double>> entrySet() {
+			return new AbstractSet<Map.Entry<Integer, Double>>() {
+
+				@Override
+				public Iterator<Map.Entry<Integer, Double>> iterator() {
+					TaskGraphAdjacency adjacency = AdjacencyTasksInfo.this.adjacency;
+					int taskIdx = AdjacencyTasksInfo.this.taskIdx;
+					if (AdjacencyTasksInfo.this.successorTasks) {
+						return IntStream.range(adjacency.getSuccessorsStart(taskIdx), adjacency.getSuccessorsEnd(taskIdx))
+										.mapToObj(dependencyIdx -> (Map.Entry<Integer, Double>) new AbstractMap.SimpleImmutableEntry<Integer, Double>(
+											TaskGraph.this.indexedTasks[adjacency.getSuccessorTask(dependencyIdx)], adjacency.getDataDependency(dependencyIdx)))
+										.iterator();
+					}
+					return IntStream.range(adjacency.getPredecessorsStart(taskIdx), adjacency.getPredecessorsEnd(taskIdx))
+									.mapToObj(predecessorIdx -> (Map.Entry<Integer, Double>) new AbstractMap.SimpleImmutableEntry<Integer, Double>(
+										TaskGraph.this.indexedTasks[adjacency.getPredecessorTask(predecessorIdx)],
+										adjacency.getDataDependency(adjacency.getPredecessorDependency(predecessorIdx))))
+									.iterator();
+				}
+
+				@Override
+				public int size() {
+					return AdjacencyTasksInfo.this.size();
+				}
+
+			};
+		}
+
+	}
+
 }
@@ -0,0 +1,104 @@
+package scheduling_evaluation;
+
+/**
+ * Compressed sparse row (CSR) representation of the task graph dependencies.
+ * Tasks are identified by their dense task index (see {@link TaskGraph#getTaskIndex(Integer)}),
+ * dependencies by their position in the successor arrays (dependency index).
+ * Dependencies of appended tasks (e.g. a task subgraph) can be appended without changing the existing dependency indices,
+ * see {@link #append(int, int[], int[], double[], int)}.
+ * The arrays are stored on the Java heap ({@link HeapTaskGraphAdjacency}) or off-heap ({@link OffHeapTaskGraphAdjacency}).
+ */
+public interface TaskGraphAdjacency {
+
+	/**
+	 * Appends tasks and dependencies (e.g. a task subgraph), without hashing. This adjacency remains valid.
+	 * The dependencies of each existing task keep their relative order and come first, followed by its appended dependencies.
+	 * If all the appended dependencies start from appended tasks, the existing dependency indices are unchanged
+	 * (see {@link #hasSameDependencyIndices(TaskGraphAdjacency)}).
+	 * @param taskCount New number of tasks (at least the current one).
+	 * @param fromTasks Source task index of each appended dependency.
+	 * @param toTasks Target task index of each appended dependency.
+	 * @param dataDependencies Communication data of each appended dependency <MB>.
+	 * @param dependencyCount Number of appended dependencies.
+	 * @return The appended adjacency.
+	 */
+	TaskGraphAdjacency append(int taskCount, int[] fromTasks, int[] toTasks, double[] dataDependencies, int dependencyCount);
+
+	/**
+	 * Adjacencies with the same version have the same dependency indices for their common dependencies.
+	 * @return The dependency indices version.
+	 */
+	long getDependencyIndicesVersion();
+
+	/**
+	 * @param adjacency An adjacency this adjacency was appended from (directly or not).
+	 * @return Whether the dependencies of the given adjacency have the same indices in this adjacency.
+	 */
+	default boolean hasSameDependencyIndices(TaskGraphAdjacency adjacency) {
+		return getDependencyIndicesVersion() == adjacency.getDependencyIndicesVersion();
+	}
+
+	int getTaskCount();
+
+	int getDependencyCount();
+
+	/* Successors: iterate dependencyIdx over [getSuccessorsStart(taskIdx), getSuccessorsEnd(taskIdx)). */
+
+	int getSuccessorsStart(int taskIdx);
+
+	int getSuccessorsEnd(int taskIdx);
+
+	default int getSuccessorCount(int taskIdx) {
+		return getSuccessorsEnd(taskIdx) - getSuccessorsStart(taskIdx);
+	}
+
+	int getSuccessorTask(int dependencyIdx);
+
+	/* Predecessors: iterate predecessorIdx over [getPredecessorsStart(taskIdx), getPredecessorsEnd(taskIdx)). */
+
+	int getPredecessorsStart(int taskIdx);
+
+	int getPredecessorsEnd(int taskIdx);
+
+	default int getPredecessorCount(int taskIdx) {
+		return getPredecessorsEnd(taskIdx) - getPredecessorsStart(taskIdx);
+	}
+
+	int getPredecessorTask(int predecessorIdx);
+
+	int getPredecessorDependency(int predecessorIdx);
+
+	/* Dependencies. */
+
+	int getDependencySourceTask(int dependencyIdx);
+
+	int getDependencyTargetTask(int dependencyIdx);
+
+	double getDataDependency(int dependencyIdx);
+
+	/**
+	 * @param fromTaskIdx Source task index.
+	 * @param toTaskIdx Target task index.
+	 * @return Index of the dependency, INVALID_RESULT_INT if none.
+	 */
+	default int findDependency(int fromTaskIdx, int toTaskIdx) {
+		// Scan the shorter of the two adjacency lists (the pseudo entry / exit tasks have very long ones).
+		if (getSuccessorCount(fromTaskIdx) <= getPredecessorCount(toTaskIdx)) {
+			int successorsEnd = getSuccessorsEnd(fromTaskIdx);
+			for (int dependencyIdx = getSuccessorsStart(fromTaskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+				if (getSuccessorTask(dependencyIdx) == toTaskIdx) {
+					return dependencyIdx;
+				}
+			}
+		} else {
+			int predecessorsEnd = getPredecessorsEnd(toTaskIdx);
+			for (int predecessorIdx = getPredecessorsStart(toTaskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+				if (getPredecessorTask(predecessorIdx) == fromTaskIdx) {
+					return getPredecessorDependency(predecessorIdx);
+				}
+			}
+		}
+		return Constants.INVALID_RESULT_INT;
+	}
+
+}
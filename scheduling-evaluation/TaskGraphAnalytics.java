@@ -0,0 +1,198 @@
+package scheduling_evaluation;
+
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * Structure of the task graph computed once from its adjacency in O(V+E): topological order, level decomposition
+ * (level of a task = length of the longest path from an entry task) with the width of each level, and data dependency limits.
+ * Tasks are identified by their dense task index. Built again when the dependencies change, see {@link TaskGraph#getAnalytics()}.
+ */
+public class TaskGraphAnalytics {
+
+	private final TaskGraphAdjacency adjacency;
+
+	// Tasks in topological order (Kahn's algorithm, FIFO: the tasks of each level are contiguous and the levels are increasing),
+	// and position of each task in this order.
+	private final int[] topologicalOrder;
+	private final int[] topologicalPositions;
+	private final int orderedTaskCount;
+
+	// Level of each task, and tasks of level l stored in topologicalOrder[levelOffsets[l], levelOffsets[l+1]).
+	private final int[] taskLevels;
+	private final int[] levelOffsets;
+	private final int maxLevelWidth;
+
+	private final double minDataDependency;
+	private final double maxDataDependency;
+
+	public TaskGraphAnalytics(TaskGraphAdjacency adjacency) {
+		this(adjacency, new int[adjacency.getTaskCount()], new int[adjacency.getTaskCount()], Constants.INVALID_RESULT_INT);
+	}
+
+	/**
+	 * Restores the analytics of a task graph from its topological order and task levels computed beforehand
+	 * (see {@link TaskGraphCache}), without sorting the tasks again.
+	 * @param adjacency The task graph adjacency.
+	 * @param topologicalOrder The ordered tasks, in topological order (see {@link #getTopologicalTask(int)}).
+	 * @param taskLevels Level of each task (see {@link #getTaskLevel(int)}).
+	 */
+	public TaskGraphAnalytics(TaskGraphAdjacency adjacency, int[] topologicalOrder, int[] taskLevels) {
+		this(adjacency, topologicalOrder, taskLevels, topologicalOrder.length);
+	}
+
+	private TaskGraphAnalytics(TaskGraphAdjacency adjacency, int[] topologicalOrder, int[] taskLevels, int orderedTaskCount) {
+		this.adjacency = adjacency;
+		int taskCount = adjacency.getTaskCount();
+		if (orderedTaskCount == Constants.INVALID_RESULT_INT) {
+			orderedTaskCount = sortTasks(adjacency, topologicalOrder, taskLevels);
+		}
+		int levelCount = orderedTaskCount > 0 ? taskLevels[topologicalOrder[orderedTaskCount - 1]] + 1 : 0;
+
+		// Levels (contiguous in the topological order).
+		int[] topologicalPositions = new int[taskCount];
+		int[] levelOffsets = new int[levelCount + 1];
+		for (int position = 0; position < orderedTaskCount; ++position) {
+			int taskIdx = topologicalOrder[position];
+			topologicalPositions[taskIdx] = position;
+			++levelOffsets[taskLevels[taskIdx] + 1];
+		}
+		int maxLevelWidth = 0;
+		for (int level = 0; level < levelCount; ++level) {
+			maxLevelWidth = Math.max(maxLevelWidth, levelOffsets[level + 1]);
+			levelOffsets[level + 1] += levelOffsets[level];
+		}
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			if (taskLevels[taskIdx] == Constants.INVALID_RESULT_INT) {
+				topologicalPositions[taskIdx] = Constants.INVALID_RESULT_INT;
+			}
+		}
+
+		// Data dependency limits.
+		double minDataDependency = Double.MAX_VALUE;
+		double maxDataDependency = Double.MIN_VALUE;
+		int dependencyCount = adjacency.getDependencyCount();
+		for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+			double dataDependency = adjacency.getDataDependency(dependencyIdx);
+			minDataDependency = Math.min(minDataDependency, dataDependency);
+			maxDataDependency = Math.max(maxDataDependency, dataDependency);
+		}
+
+		this.topologicalOrder = topologicalOrder;
+		this.topologicalPositions = topologicalPositions;
+		this.orderedTaskCount = orderedTaskCount;
+		this.taskLevels = taskLevels;
+		this.levelOffsets = levelOffsets;
+		this.maxLevelWidth = maxLevelWidth;
+		this.minDataDependency = minDataDependency;
+		this.maxDataDependency = maxDataDependency;
+	}
+
+	// Level sorting: fills the topological order and the task levels, returns the number of ordered tasks.
+	private static int sortTasks(TaskGraphAdjacency adjacency, int[] topologicalOrder, int[] taskLevels) {
+		int taskCount = adjacency.getTaskCount();
+		int[] taskIndegree = new int[taskCount];
+		int taskQueueHead = 0;
+		int taskQueueTail = 0;
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			taskLevels[taskIdx] = Constants.INVALID_RESULT_INT;
+			taskIndegree[taskIdx] = adjacency.getPredecessorCount(taskIdx);
+			if (taskIndegree[taskIdx] == 0) {
+				taskLevels[taskIdx] = 0;
+				topologicalOrder[taskQueueTail++] = taskIdx;
+			}
+		}
+
+		while (taskQueueHead < taskQueueTail) {
+			int taskIdx = topologicalOrder[taskQueueHead++];
+			int level = taskLevels[taskIdx];
+			int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+			for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+				int succTaskIdx = adjacency.getSuccessorTask(dependencyIdx);
+				if (--taskIndegree[succTaskIdx] == 0) {
+					taskLevels[succTaskIdx] = level + 1;
+					topologicalOrder[taskQueueTail++] = succTaskIdx;
+				}
+			}
+		}
+		if (taskQueueTail < taskCount) {
+			Log.printLine("Task graph with a cycle: " + (taskCount - taskQueueTail) + " tasks without topological order");
+		}
+		return taskQueueTail;
+	}
+
+	public TaskGraphAdjacency getAdjacency() {
+		return this.adjacency;
+	}
+
+	public boolean isAcyclic() {
+		return this.orderedTaskCount == this.adjacency.getTaskCount();
+	}
+
+	/* Topological order. */
+
+	/**
+	 * @return Number of tasks in the topological order (all the tasks, unless the task graph has a cycle).
+	 */
+	public int getOrderedTaskCount() {
+		return this.orderedTaskCount;
+	}
+
+	/**
+	 * @param position Position in [0, getOrderedTaskCount()).
+	 * @return Index of the task at the given position of the topological order.
+	 */
+	public int getTopologicalTask(int position) {
+		return this.topologicalOrder[position];
+	}
+
+	/**
+	 * A task can only reach (have as descendant) the tasks with a greater position.
+	 * @param taskIdx The task index.
+	 * @return Position of the task in the topological order, INVALID_RESULT_INT if not ordered (cycle).
+	 */
+	public int getTopologicalPosition(int taskIdx) {
+		return this.topologicalPositions[taskIdx];
+	}
+
+	/* Levels. */
+
+	public int getLevelCount() {
+		return this.levelOffsets.length - 1;
+	}
+
+	/**
+	 * @param taskIdx The task index.
+	 * @return Length of the longest path from an entry task to the task, INVALID_RESULT_INT if not ordered (cycle).
+	 */
+	public int getTaskLevel(int taskIdx) {
+		return this.taskLevels[taskIdx];
+	}
+
+	// Tasks of the level: topological order positions in [getLevelStart(level), getLevelEnd(level)).
+	public int getLevelStart(int level) {
+		return this.levelOffsets[level];
+	}
+
+	public int getLevelEnd(int level) {
+		return this.levelOffsets[level + 1];
+	}
+
+	public int getLevelWidth(int level) {
+		return this.levelOffsets[level + 1] - this.levelOffsets[level];
+	}
+
+	public int getMaxLevelWidth() {
+		return this.maxLevelWidth;
+	}
+
+	/* Data dependencies. */
+
+	public double getMinDataDependency() {
+		return this.minDataDependency;
+	}
+
+	public double getMaxDataDependency() {
+		return this.maxDataDependency;
+	}
+
+}
@@ -0,0 +1,395 @@
+package scheduling_evaluation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.cloudbus.cloudsim.Log;
+
+import scheduling_evaluation.Types.ResourceType;
+
+/**
+ * On-disk cache of the preprocessed (frozen) task graphs, see {@link TaskGraph#freeze()}: the task graph with its precomputed costs
+ * (input / output data, average computation and communication costs), its topological order and task levels, and the upward / downward
+ * ranks of its tasks before any task is scheduled. The cache entries are keyed by a hash (SHA-256) of the task graph file,
+ * the resource configuration and the resource availability times file: an entry is never used again once any of them changed.
+ * Loading an entry maps it and restores the precomputed data, instead of parsing the task graph and computing it again.
+ */
+public class TaskGraphCache {
+
+	/*
+	 * Cache entry file format (little-endian):
+	 * - header: magic, version, task count, dependency count, ordered task count, binary task graph size, padding (8 ints);
+	 * - task graph, in the binary task graph file format (see DagUtils.loadBinaryTaskGraph()), 8-byte aligned size;
+	 * - task input data <MB>, task output data <MB>, average computation costs <s>, upward ranks, downward ranks (taskCount doubles each);
+	 * - average communication costs of the dependencies <s> (dependencyCount doubles), in the dependency order of the adjacency;
+	 * - source task indices, target task indices of the dependencies (dependencyCount ints each);
+	 * - task levels (taskCount ints), topological order (orderedTaskCount task indices), padded to 8 bytes.
+	 */
+	private static final int CACHE_ENTRY_MAGIC = 0x43544144;		// "DATC" in little-endian.
+	private static final int CACHE_ENTRY_VERSION = 1;
+	private static final int CACHE_ENTRY_HEADER_SIZE = 8 * Integer.BYTES;
+
+	private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Loads a task graph frozen with its precomputed costs, from the task graph cache if it has an entry for the task graph file
+	 * and the current resource configuration, otherwise from the task graph file (and adds an entry to the task graph cache).
+	 * @param filename The task graph file, text or binary (see {@link DagUtils#loadTaskGraph(String)}).
+	 * @return The frozen task graph, null if the task graph file cannot be loaded.
+	 */
+	public static TaskGraph loadFrozenTaskGraph(String filename) {
+		if (!Constants.TASK_GRAPH_CACHE) {
+			return loadAndFreezeTaskGraph(filename);
+		}
+
+		String cacheKey = getCacheKey(filename);
+		if (cacheKey == null) {
+			return loadAndFreezeTaskGraph(filename);
+		}
+		String cacheEntryFilename = Constants.TASK_GRAPH_CACHE_DIRECTORY + cacheKey + Constants.FILE_EXTENSION_BIN;
+
+		TaskGraph taskGraph = loadCacheEntry(cacheEntryFilename);
+		if (taskGraph != null) {
+			return taskGraph;
+		}
+
+		taskGraph = loadAndFreezeTaskGraph(filename);
+		if (taskGraph != null) {
+			writeCacheEntry(taskGraph, cacheEntryFilename);
+		}
+		return taskGraph;
+	}
+
+	private static TaskGraph loadAndFreezeTaskGraph(String filename) {
+		TaskGraph taskGraph = DagUtils.loadTaskGraph(filename);
+		if (taskGraph != null) {
+			taskGraph.freeze();
+		}
+		return taskGraph;
+	}
+
+	/* Cache key. */
+
+	/**
+	 * @param filename The task graph file.
+	 * @return Hash of the task graph file, the resource configuration and the resource availability times file (hexadecimal),
+	 * null if the task graph file cannot be read.
+	 */
+	public static String getCacheKey(String filename) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			Log.printLine("Exception in getCacheKey() - SHA-256 not available");
+			return null;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(CACHE_ENTRY_VERSION);
+
+		// Task graph file.
+		try {
+			updateDigest(digest, buffer, filename);
+		} catch (IOException e) {
+			return null;
+		}
+
+		// Resource availability times file (the missing file is part of the configuration).
+		try {
+			updateDigest(digest, buffer, Constants.RESOURCE_AVAILABILITY_TIMES_FILENAME);
+		} catch (IOException e) {
+			buffer.putLong(Constants.INVALID_RESULT_INT);
+		}
+
+		// Resource configuration: resources (by id) with their type and availability, memory capacities and transfer rates
+		// of the resource types, average costs mode.
+		Pair<Map<Integer, ResourceType>, Map<Integer, Double>> resourcesWithAvailabilityInfo = DagEntityCreator.createResourcesWithAvailabilityInfo();
+		Map<Integer, Double> resourcesAvailability = resourcesWithAvailabilityInfo.getValue();
+		for (Map.Entry<Integer, ResourceType> resource : new TreeMap<Integer, ResourceType>(resourcesWithAvailabilityInfo.getKey()).entrySet()) {
+			ensureRemaining(digest, buffer, Integer.BYTES + Integer.BYTES + Double.BYTES);
+			buffer.putInt(resource.getKey());
+			buffer.putInt(resource.getValue().ordinal());
+			Double availabilityTime = resourcesAvailability.get(resource.getKey());
+			buffer.putDouble(availabilityTime != null ? availabilityTime : Constants.INVALID_RESULT_DOUBLE);
+		}
+		for (ResourceType fromResourceType : ResourceType.values()) {
+			ensureRemaining(digest, buffer, Integer.BYTES + Integer.BYTES + Constants.RESOURCE_TYPE_COUNT * Double.BYTES);
+			buffer.putInt(fromResourceType.ordinal());
+			buffer.putInt(ResourceUtils.getVmRam(fromResourceType));
+			for (ResourceType toResourceType : ResourceType.values()) {
+				buffer.putDouble(ResourceUtils.getTransferRate(fromResourceType, toResourceType));
+			}
+		}
+		ensureRemaining(digest, buffer, 2 * Integer.BYTES + Double.BYTES);
+		buffer.putInt(Constants.RESOURCE_TYPE_COUNT);
+		buffer.putInt(Constants.AGGREGATED_AVERAGE_COSTS ? 1 : 0);
+		buffer.putDouble(Constants.DEFAULT_RESOURCE_AVAILABILITY_TIME);
+		buffer.flip();
+		digest.update(buffer);
+
+		StringBuilder cacheKey = new StringBuilder();
+		for (byte hashByte : digest.digest()) {
+			cacheKey.append(String.format("%02x", hashByte));
+		}
+		return cacheKey.toString();
+	}
+
+	// Hashes the length and the content of a file.
+	private static void updateDigest(MessageDigest digest, ByteBuffer buffer, String filename) throws IOException {
+		Path path = Paths.get(filename);
+		long size = Files.size(path);
+		ensureRemaining(digest, buffer, Long.BYTES);
+		buffer.putLong(size);
+		buffer.flip();
+		digest.update(buffer);
+		buffer.clear();
+
+		byte[] bytes = new byte[HASH_BUFFER_SIZE];
+		try (InputStream inputStream = Files.newInputStream(path)) {
+			int byteCount;
+			while ((byteCount = inputStream.read(bytes)) > 0) {
+				digest.update(bytes, 0, byteCount);
+			}
+		}
+	}
+
+	private static void ensureRemaining(MessageDigest digest, ByteBuffer buffer, int byteCount) {
+		if (buffer.remaining() < byteCount) {
+			buffer.flip();
+			digest.update(buffer);
+			buffer.clear();
+		}
+	}
+
+	/* Cache entries. */
+
+	private static TaskGraph loadCacheEntry(String cacheEntryFilename) {
+		try (FileChannel channel = FileChannel.open(Paths.get(cacheEntryFilename), StandardOpenOption.READ)) {
+			MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			ByteBuffer buffer = mappedBuffer.order(ByteOrder.LITTLE_ENDIAN);
+
+			if (buffer.capacity() < CACHE_ENTRY_HEADER_SIZE
+				|| buffer.getInt(0) != CACHE_ENTRY_MAGIC || buffer.getInt(Integer.BYTES) != CACHE_ENTRY_VERSION) {
+				Log.printLine("Exception in loadCacheEntry() - Invalid task graph cache entry: " + cacheEntryFilename);
+				return null;
+			}
+			int taskCount = buffer.getInt(2 * Integer.BYTES);
+			int dependencyCount = buffer.getInt(3 * Integer.BYTES);
+			int orderedTaskCount = buffer.getInt(4 * Integer.BYTES);
+			int binaryTaskGraphSize = buffer.getInt(5 * Integer.BYTES);
+			if (buffer.capacity() < getCacheEntrySize(binaryTaskGraphSize, taskCount, dependencyCount, orderedTaskCount)) {
+				Log.printLine("Exception in loadCacheEntry() - Invalid task graph cache entry: " + cacheEntryFilename);
+				return null;
+			}
+
+			// Task graph.
+			int offset = CACHE_ENTRY_HEADER_SIZE;
+			TaskGraph taskGraph = DagUtils.decodeBinaryTaskGraph(slice(buffer, offset, binaryTaskGraphSize), Constants.OFF_HEAP_TASK_GRAPH);
+			if (taskGraph == null || taskGraph.getTaskCount() != taskCount || taskGraph.getAdjacency().getDependencyCount() != dependencyCount) {
+				Log.printLine("Exception in loadCacheEntry() - Invalid task graph cache entry: " + cacheEntryFilename);
+				return null;
+			}
+			offset += binaryTaskGraphSize;
+
+			// Precomputed costs and ranks of the tasks.
+			double[] taskInputData = new double[taskCount];
+			double[] taskOutputData = new double[taskCount];
+			double[] averageComputationCosts = new double[taskCount];
+			double[] upwardRanks = new double[taskCount];
+			double[] downwardRanks = new double[taskCount];
+			for (double[] taskValues : new double[][] { taskInputData, taskOutputData, averageComputationCosts, upwardRanks, downwardRanks }) {
+				slice(buffer, offset, taskCount * Double.BYTES).asDoubleBuffer().get(taskValues);
+				offset += taskCount * Double.BYTES;
+			}
+
+			// Precomputed costs of the dependencies.
+			double[] dependencyAverageCommunicationCosts = new double[dependencyCount];
+			int[] dependencySourceTasks = new int[dependencyCount];
+			int[] dependencyTargetTasks = new int[dependencyCount];
+			slice(buffer, offset, dependencyCount * Double.BYTES).asDoubleBuffer().get(dependencyAverageCommunicationCosts);
+			offset += dependencyCount * Double.BYTES;
+			slice(buffer, offset, dependencyCount * Integer.BYTES).asIntBuffer().get(dependencySourceTasks);
+			offset += dependencyCount * Integer.BYTES;
+			slice(buffer, offset, dependencyCount * Integer.BYTES).asIntBuffer().get(dependencyTargetTasks);
+			offset += dependencyCount * Integer.BYTES;
+
+			// Same dependency order as the decoded adjacency, unless the adjacency order changed since the entry was written.
+			TaskGraphAdjacency adjacency = taskGraph.getAdjacency();
+			double[] averageCommunicationCosts = new double[dependencyCount];
+			for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+				int sourceTaskIdx = dependencySourceTasks[dependencyIdx];
+				int targetTaskIdx = dependencyTargetTasks[dependencyIdx];
+				int adjacencyDependencyIdx = dependencyIdx;
+				if (adjacency.getDependencySourceTask(dependencyIdx) != sourceTaskIdx || adjacency.getSuccessorTask(dependencyIdx) != targetTaskIdx) {
+					adjacencyDependencyIdx = sourceTaskIdx >= 0 && sourceTaskIdx < taskCount && targetTaskIdx >= 0 && targetTaskIdx < taskCount
+											? adjacency.findDependency(sourceTaskIdx, targetTaskIdx) : Constants.INVALID_RESULT_INT;
+				}
+				if (adjacencyDependencyIdx == Constants.INVALID_RESULT_INT) {
+					Log.printLine("Exception in loadCacheEntry() - Invalid task graph cache entry: " + cacheEntryFilename);
+					return null;
+				}
+				averageCommunicationCosts[adjacencyDependencyIdx] = dependencyAverageCommunicationCosts[dependencyIdx];
+			}
+
+			// Topological order and task levels.
+			int[] taskLevels = new int[taskCount];
+			int[] topologicalOrder = new int[orderedTaskCount];
+			slice(buffer, offset, taskCount * Integer.BYTES).asIntBuffer().get(taskLevels);
+			offset += taskCount * Integer.BYTES;
+			slice(buffer, offset, orderedTaskCount * Integer.BYTES).asIntBuffer().get(topologicalOrder);
+
+			TaskGraphAnalytics analytics = new TaskGraphAnalytics(adjacency, topologicalOrder, taskLevels);
+			taskGraph.freeze(taskInputData, taskOutputData, averageComputationCosts, averageCommunicationCosts, analytics);
+			if (analytics.isAcyclic()) {
+				// Otherwise, the ranks of the tasks without topological order are not computed.
+				taskGraph.setPrecomputedRanks(upwardRanks, downwardRanks);
+			}
+			return taskGraph;
+		} catch (NoSuchFileException e) {
+			// No cache entry yet.
+			return null;
+		} catch (IOException e) {
+			Log.printLine("Exception in loadCacheEntry() - Cannot read file: " + cacheEntryFilename);
+			return null;
+		}
+	}
+
+	private static boolean writeCacheEntry(TaskGraph taskGraph, String cacheEntryFilename) {
+		TaskGraphAdjacency adjacency = taskGraph.getAdjacency();
+		TaskGraphAnalytics analytics = taskGraph.getAnalytics();
+		int taskCount = adjacency.getTaskCount();
+		int dependencyCount = adjacency.getDependencyCount();
+		int orderedTaskCount = analytics.getOrderedTaskCount();
+		long binaryTaskGraphSize = DagUtils.getBinaryTaskGraphSize(taskGraph);
+		long size = getCacheEntrySize(binaryTaskGraphSize, taskCount, dependencyCount, orderedTaskCount);
+		if (size > Integer.MAX_VALUE) {
+			Log.printLine("Exception in writeCacheEntry() - Task graph too large: " + taskCount + " tasks, " + dependencyCount + " dependencies");
+			return false;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(0, CACHE_ENTRY_MAGIC);
+		buffer.putInt(Integer.BYTES, CACHE_ENTRY_VERSION);
+		buffer.putInt(2 * Integer.BYTES, taskCount);
+		buffer.putInt(3 * Integer.BYTES, dependencyCount);
+		buffer.putInt(4 * Integer.BYTES, orderedTaskCount);
+		buffer.putInt(5 * Integer.BYTES, (int) binaryTaskGraphSize);
+
+		// Task graph.
+		int offset = CACHE_ENTRY_HEADER_SIZE;
+		DagUtils.encodeBinaryTaskGraph(taskGraph, slice(buffer, offset, (int) binaryTaskGraphSize));
+		offset += (int) binaryTaskGraphSize;
+
+		// Precomputed costs and ranks of the tasks.
+		double[] upwardRanks = computeUpwardRanks(taskGraph);
+		double[] downwardRanks = computeDownwardRanks(taskGraph);
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			Integer task = taskGraph.getTask(taskIdx);
+			buffer.putDouble(offset + taskIdx * Double.BYTES, taskGraph.getTaskInputData(task));
+			buffer.putDouble(offset + (taskCount + taskIdx) * Double.BYTES, taskGraph.getTaskOutputData(task));
+			buffer.putDouble(offset + (2 * taskCount + taskIdx) * Double.BYTES, taskGraph.getAverageComputationCost(task));
+			buffer.putDouble(offset + (3 * taskCount + taskIdx) * Double.BYTES, upwardRanks[taskIdx]);
+			buffer.putDouble(offset + (4 * taskCount + taskIdx) * Double.BYTES, downwardRanks[taskIdx]);
+		}
+		offset += 5 * taskCount * Double.BYTES;
+
+		// Precomputed costs of the dependencies.
+		int sourceTasksOffset = offset + dependencyCount * Double.BYTES;
+		int targetTasksOffset = sourceTasksOffset + dependencyCount * Integer.BYTES;
+		for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+			int sourceTaskIdx = adjacency.getDependencySourceTask(dependencyIdx);
+			int targetTaskIdx = adjacency.getDependencyTargetTask(dependencyIdx);
+			buffer.putDouble(offset + dependencyIdx * Double.BYTES,
+							taskGraph.getAverageCommunicationCost(taskGraph.getTask(sourceTaskIdx), taskGraph.getTask(targetTaskIdx)));
+			buffer.putInt(sourceTasksOffset + dependencyIdx * Integer.BYTES, sourceTaskIdx);
+			buffer.putInt(targetTasksOffset + dependencyIdx * Integer.BYTES, targetTaskIdx);
+		}
+		offset = targetTasksOffset + dependencyCount * Integer.BYTES;
+
+		// Topological order and task levels.
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			buffer.putInt(offset + taskIdx * Integer.BYTES, analytics.getTaskLevel(taskIdx));
+		}
+		offset += taskCount * Integer.BYTES;
+		for (int position = 0; position < orderedTaskCount; ++position) {
+			buffer.putInt(offset + position * Integer.BYTES, analytics.getTopologicalTask(position));
+		}
+
+		// Written to a temporary file first, so that a cache entry is always complete (concurrent experiments).
+		Path cacheEntryPath = Paths.get(cacheEntryFilename);
+		Path temporaryPath = Paths.get(cacheEntryFilename + "." + ProcessHandle.current().pid() + "-" + Thread.currentThread().getId() + ".tmp");
+		try {
+			Files.createDirectories(cacheEntryPath.toAbsolutePath().getParent());
+			try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+														StandardOpenOption.TRUNCATE_EXISTING)) {
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+			Files.move(temporaryPath, cacheEntryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Log.printLine("Exception in writeCacheEntry() - Cannot write file: " + cacheEntryFilename);
+			try {
+				Files.deleteIfExists(temporaryPath);
+			} catch (IOException deleteException) {
+				Log.printLine("Exception in writeCacheEntry() - Cannot delete file: " + temporaryPath);
+			}
+			return false;
+		}
+
+		return true;
+	}
+
+	private static long getCacheEntrySize(long binaryTaskGraphSize, int taskCount, int dependencyCount, int orderedTaskCount) {
+		long size = CACHE_ENTRY_HEADER_SIZE + binaryTaskGraphSize;
+		size += 5L * taskCount * Double.BYTES;
+		size += (long) dependencyCount * (Double.BYTES + 2 * Integer.BYTES);
+		size += (long) (taskCount + orderedTaskCount) * Integer.BYTES;
+		return (size + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+		return buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/* Ranks (see TaskGraph.computeUpwardRank() / computeDownwardRank(), as DefaultDagEdgeCloudDatacenterBroker), before any task is scheduled. */
+
+	private static double[] computeUpwardRanks(TaskGraph taskGraph) {
+		TaskGraphAnalytics analytics = taskGraph.getAnalytics();
+		double[] upwardRanks = new double[taskGraph.getTaskCount()];
+
+		// Reverse topological order: the successor tasks first.
+		for (int position = analytics.getOrderedTaskCount() - 1; position >= 0; --position) {
+			int taskIdx = analytics.getTopologicalTask(position);
+			upwardRanks[taskIdx] = taskGraph.computeUpwardRank(taskIdx, succTaskIdx -> upwardRanks[succTaskIdx]);
+		}
+		return upwardRanks;
+	}
+
+	private static double[] computeDownwardRanks(TaskGraph taskGraph) {
+		TaskGraphAnalytics analytics = taskGraph.getAnalytics();
+		double[] downwardRanks = new double[taskGraph.getTaskCount()];
+
+		// Topological order: the predecessor tasks first.
+		for (int position = 0; position < analytics.getOrderedTaskCount(); ++position) {
+			int taskIdx = analytics.getTopologicalTask(position);
+			downwardRanks[taskIdx] = taskGraph.computeDownwardRank(taskIdx, predTaskIdx -> downwardRanks[predTaskIdx]);
+		}
+		return downwardRanks;
+	}
+
+}
@@ -0,0 +1,207 @@
+package scheduling_evaluation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * Multilevel coarsening of a task graph, used to schedule very large task graphs: each level merges pairs of tasks
+ * (chains and heavy dependencies) into super-tasks, until the coarsest task graph is small enough.
+ * A dependency u -> v is merged only if it is the single outgoing dependency of u or the single incoming dependency of v,
+ * so the coarse task graphs stay acyclic. Among the candidate successors, the one with the largest data dependency is selected.
+ * A super-task has the sum of the computation costs of its tasks, and the dependencies between super-tasks the sum of the data
+ * dependencies between their tasks. A super-task is identified by its first task (in topological order), so it can be matched
+ * with the cloudlet of that task. The pseudo entry / exit tasks are never merged.
+ */
+public class TaskGraphCoarsener {
+
+	// Stop coarsening when a level merges less than this fraction of the tasks.
+	private static final double MIN_COARSENING_RATIO = 0.05;
+
+	private final TaskGraph taskGraph;
+	// Task graphs from the finest (the given one) to the coarsest.
+	private final List<TaskGraph> taskGraphs = new ArrayList<TaskGraph>();
+	// Index of the coarsest task graph task containing each task of the given task graph, indexed by task index.
+	private int[] coarsestTaskIndices = null;
+
+	/**
+	 * @param taskGraph The task graph to coarsen.
+	 * @param coarseTaskCount Number of tasks below which the task graph is not coarsened further.
+	 * @param maxLevelCount Maximum number of coarsening levels.
+	 */
+	public TaskGraphCoarsener(TaskGraph taskGraph, int coarseTaskCount, int maxLevelCount) {
+		this.taskGraph = taskGraph;
+		this.taskGraphs.add(taskGraph);
+
+		int taskCount = taskGraph.getTaskCount();
+		this.coarsestTaskIndices = new int[taskCount];
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			this.coarsestTaskIndices[taskIdx] = taskIdx;
+		}
+
+		TaskGraph fineTaskGraph = taskGraph;
+		while (this.taskGraphs.size() <= maxLevelCount && fineTaskGraph.getTaskCount() > coarseTaskCount) {
+			int[] coarseTaskIndices = new int[fineTaskGraph.getTaskCount()];
+			TaskGraph coarseTaskGraph = coarsen(fineTaskGraph, coarseTaskIndices);
+			if (coarseTaskGraph == null
+				|| coarseTaskGraph.getTaskCount() > (1.0 - MIN_COARSENING_RATIO) * fineTaskGraph.getTaskCount()) {
+				break;
+			}
+
+			for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+				this.coarsestTaskIndices[taskIdx] = coarseTaskIndices[this.coarsestTaskIndices[taskIdx]];
+			}
+			this.taskGraphs.add(coarseTaskGraph);
+			Log.printLine("Coarsening level " + (this.taskGraphs.size() - 1) + " > " + fineTaskGraph.getTaskCount() + " -> "
+						+ coarseTaskGraph.getTaskCount() + " tasks");
+			fineTaskGraph = coarseTaskGraph;
+		}
+	}
+
+	public TaskGraph getTaskGraph() {
+		return this.taskGraph;
+	}
+
+	/**
+	 * @return Number of coarsening levels (0 if the task graph was not coarsened).
+	 */
+	public int getLevelCount() {
+		return this.taskGraphs.size() - 1;
+	}
+
+	/**
+	 * @param level Coarsening level in [0, getLevelCount()], 0 being the given task graph.
+	 * @return The task graph of the given level.
+	 */
+	public TaskGraph getTaskGraph(int level) {
+		return this.taskGraphs.get(level);
+	}
+
+	public TaskGraph getCoarsestTaskGraph() {
+		return this.taskGraphs.get(this.taskGraphs.size() - 1);
+	}
+
+	/**
+	 * @param task A task of the given task graph.
+	 * @return The super-task of the coarsest task graph containing the task.
+	 */
+	public Integer getCoarsestTask(Integer task) {
+		return getCoarsestTaskGraph().getTask(this.coarsestTaskIndices[this.taskGraph.getTaskIndex(task)]);
+	}
+
+	private static TaskGraph coarsen(TaskGraph fineTaskGraph, int[] coarseTaskIndices) {
+		TaskGraphAdjacency adjacency = fineTaskGraph.getAdjacency();
+		TaskGraphAnalytics analytics = fineTaskGraph.getAnalytics();
+		if (!analytics.isAcyclic()) {
+			Log.printLine("Cannot coarsen a task graph with a cycle");
+			return null;
+		}
+
+		// Match the tasks in topological order: a super-task is identified by its first task (its index is the super-task index).
+		int taskCount = adjacency.getTaskCount();
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			coarseTaskIndices[taskIdx] = Constants.INVALID_RESULT_INT;
+		}
+		int[] coarseTaskFirstTasks = new int[taskCount];
+		int coarseTaskCount = 0;
+		for (int position = 0; position < taskCount; ++position) {
+			int taskIdx = analytics.getTopologicalTask(position);
+			if (coarseTaskIndices[taskIdx] != Constants.INVALID_RESULT_INT) {
+				// Already merged with a predecessor task.
+				continue;
+			}
+			coarseTaskFirstTasks[coarseTaskCount] = taskIdx;
+			coarseTaskIndices[taskIdx] = coarseTaskCount++;
+			if (isPseudoTask(fineTaskGraph, taskIdx)) {
+				continue;
+			}
+
+			boolean singleSuccessor = adjacency.getSuccessorCount(taskIdx) == 1;
+			int mergedTaskIdx = Constants.INVALID_RESULT_INT;
+			double maxDataDependency = Double.NEGATIVE_INFINITY;
+			int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+			for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+				int succTaskIdx = adjacency.getSuccessorTask(dependencyIdx);
+				if (coarseTaskIndices[succTaskIdx] != Constants.INVALID_RESULT_INT || isPseudoTask(fineTaskGraph, succTaskIdx)) {
+					continue;
+				}
+				if (!singleSuccessor && adjacency.getPredecessorCount(succTaskIdx) != 1) {
+					continue;
+				}
+				if (adjacency.getDataDependency(dependencyIdx) > maxDataDependency) {
+					maxDataDependency = adjacency.getDataDependency(dependencyIdx);
+					mergedTaskIdx = succTaskIdx;
+				}
+			}
+			if (mergedTaskIdx != Constants.INVALID_RESULT_INT) {
+				coarseTaskIndices[mergedTaskIdx] = coarseTaskIndices[taskIdx];
+			}
+		}
+
+		// Super-tasks, their computation costs and their dependencies.
+		double[] computationCosts = new double[coarseTaskCount * Constants.RESOURCE_TYPE_COUNT];
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			int costsOffset = coarseTaskIndices[taskIdx] * Constants.RESOURCE_TYPE_COUNT;
+			for (int resourceTypeOrdinal = 0; resourceTypeOrdinal < Constants.RESOURCE_TYPE_COUNT; ++resourceTypeOrdinal) {
+				computationCosts[costsOffset + resourceTypeOrdinal] += fineTaskGraph.getComputationCostByTypeIndex(taskIdx, resourceTypeOrdinal);
+			}
+		}
+		int[] coarseTasks = new int[coarseTaskCount];
+		for (int coarseTaskIdx = 0; coarseTaskIdx < coarseTaskCount; ++coarseTaskIdx) {
+			coarseTasks[coarseTaskIdx] = fineTaskGraph.getTask(coarseTaskFirstTasks[coarseTaskIdx]);
+		}
+
+		// Dependencies between super-tasks (the dependencies inside a super-task are dropped).
+		Map<Long, Double> coarseDependencies = new LinkedHashMap<Long, Double>();
+		int dependencyCount = adjacency.getDependencyCount();
+		for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+			int fromCoarseTaskIdx = coarseTaskIndices[adjacency.getDependencySourceTask(dependencyIdx)];
+			int toCoarseTaskIdx = coarseTaskIndices[adjacency.getDependencyTargetTask(dependencyIdx)];
+			if (fromCoarseTaskIdx == toCoarseTaskIdx) {
+				continue;
+			}
+			coarseDependencies.merge((long) fromCoarseTaskIdx * coarseTaskCount + toCoarseTaskIdx, adjacency.getDataDependency(dependencyIdx), Double::sum);
+		}
+		int[] fromCoarseTasks = new int[coarseDependencies.size()];
+		int[] toCoarseTasks = new int[coarseDependencies.size()];
+		double[] coarseDataDependencies = new double[coarseDependencies.size()];
+		int coarseDependencyIdx = 0;
+		for (Map.Entry<Long, Double> coarseDependencyEntry : coarseDependencies.entrySet()) {
+			long coarseDependency = coarseDependencyEntry.getKey();
+			fromCoarseTasks[coarseDependencyIdx] = coarseTasks[(int) (coarseDependency / coarseTaskCount)];
+			toCoarseTasks[coarseDependencyIdx] = coarseTasks[(int) (coarseDependency % coarseTaskCount)];
+			coarseDataDependencies[coarseDependencyIdx++] = coarseDependencyEntry.getValue();
+		}
+
+		TaskGraph coarseTaskGraph = new TaskGraph();
+		coarseTaskGraph.initializeResources(fineTaskGraph.getResources(), fineTaskGraph.getResourcesAvailability());
+		coarseTaskGraph.setResourceAvailabilityTimeline(fineTaskGraph.getResourceAvailabilityTimeline());
+		coarseTaskGraph.setAggregatedAverageCosts(fineTaskGraph.isAggregatedAverageCosts());
+		coarseTaskGraph.appendSubgraph(coarseTasks, computationCosts, fromCoarseTasks, toCoarseTasks, coarseDataDependencies);
+		if (fineTaskGraph.getEntryTasks() != null) {
+			coarseTaskGraph.addEntryTasks(fineTaskGraph.getEntryTasks());
+		}
+		if (fineTaskGraph.getExitTasks() != null) {
+			coarseTaskGraph.addExitTasks(fineTaskGraph.getExitTasks());
+		}
+
+		// Super-task indices in the coarse task graph.
+		int[] coarseTaskGraphIndices = new int[coarseTaskCount];
+		for (int coarseTaskIdx = 0; coarseTaskIdx < coarseTaskCount; ++coarseTaskIdx) {
+			coarseTaskGraphIndices[coarseTaskIdx] = coarseTaskGraph.getTaskIndex(coarseTasks[coarseTaskIdx]);
+		}
+		for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+			coarseTaskIndices[taskIdx] = coarseTaskGraphIndices[coarseTaskIndices[taskIdx]];
+		}
+
+		return coarseTaskGraph;
+	}
+
+	private static boolean isPseudoTask(TaskGraph taskGraph, int taskIdx) {
+		return taskGraph.isEntryTask(taskIdx) || taskGraph.isExitTask(taskIdx);
+	}
+
+}
@@ -0,0 +1,317 @@
+package scheduling_evaluation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Reachability index of the task graph, answering descendant / ancestor queries in O(log chains).
+ * The tasks are covered by chains (paths of the task graph, built greedily in topological order): for each task, the index stores
+ * the smallest position, in each chain reached by the task, of a descendant task (all the following tasks of the chain being also
+ * descendant tasks). Each task stores only its reached chains, or all the chains if it reaches most of them, so the index size is
+ * O(number of (task, reached chain) pairs), at most tasks * chains if all the tasks reach all the chains.
+ * Tasks are identified by their dense task index. The index can be extended when task subgraphs are appended, see
+ * {@link #append(TaskGraphAdjacency, TaskGraphAnalytics)}, and is built on demand, see {@link TaskGraph#getReachability()}.
+ */
+public class TaskGraphReachability {
+
+	private static final int[] NO_DESCENDANT_CHAINS = new int[0];
+	// First value of the descendant chains of a task stored for all the chains.
+	private static final int ALL_CHAINS = -1;
+
+	private final TaskGraphAdjacency adjacency;
+	private final int taskCount;
+
+	// Chain of each task, position of the task in its chain, and last task of each chain.
+	private final int[] taskChains;
+	private final int[] taskChainPositions;
+	private final int[] chainTails;
+	private final int chainCount;
+
+	// Descendant chains of each task, indexed by task index, either:
+	// - (chain, smallest position of a descendant task in the chain) pairs, sorted by chain, for the chains with a descendant task;
+	// - ALL_CHAINS then the smallest position of a descendant task in each chain (Integer.MAX_VALUE if none), if more compact.
+	// The chains of the tasks appended after the descendant chains of a task was built are not reached by the task.
+	private final int[][] descendantChains;
+
+	public TaskGraphReachability(TaskGraphAdjacency adjacency, TaskGraphAnalytics analytics) {
+		this(null, adjacency, analytics);
+	}
+
+	/**
+	 * @param reachability Reachability index of the first tasks, whose descendant tasks are unchanged (null to index all the tasks).
+	 */
+	private TaskGraphReachability(TaskGraphReachability reachability, TaskGraphAdjacency adjacency, TaskGraphAnalytics analytics) {
+		this.adjacency = adjacency;
+		this.taskCount = adjacency.getTaskCount();
+		int firstTaskIdx = (reachability != null) ? reachability.taskCount : 0;
+		int firstChainCount = (reachability != null) ? reachability.chainCount : 0;
+
+		this.taskChains = new int[this.taskCount];
+		this.taskChainPositions = new int[this.taskCount];
+		this.descendantChains = new int[this.taskCount][];
+		int[] chainTails = new int[Math.max(16, firstChainCount * 2)];
+		if (reachability != null) {
+			System.arraycopy(reachability.taskChains, 0, this.taskChains, 0, firstTaskIdx);
+			System.arraycopy(reachability.taskChainPositions, 0, this.taskChainPositions, 0, firstTaskIdx);
+			System.arraycopy(reachability.descendantChains, 0, this.descendantChains, 0, firstTaskIdx);
+			System.arraycopy(reachability.chainTails, 0, chainTails, 0, firstChainCount);
+		}
+
+		// Chains: each task extends the chain of one of its predecessor tasks ending with it, or starts a new chain.
+		int chainCount = firstChainCount;
+		int orderedTaskCount = analytics.getOrderedTaskCount();
+		for (int position = 0; position < orderedTaskCount; ++position) {
+			int taskIdx = analytics.getTopologicalTask(position);
+			if (taskIdx < firstTaskIdx) {
+				continue;
+			}
+
+			int chain = Constants.INVALID_RESULT_INT;
+			int predecessorsEnd = adjacency.getPredecessorsEnd(taskIdx);
+			for (int predecessorIdx = adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+				int predTaskIdx = adjacency.getPredecessorTask(predecessorIdx);
+				if (predTaskIdx >= firstTaskIdx && chainTails[this.taskChains[predTaskIdx]] == predTaskIdx) {
+					chain = this.taskChains[predTaskIdx];
+					break;
+				}
+			}
+			if (chain == Constants.INVALID_RESULT_INT) {
+				if (chainCount == chainTails.length) {
+					chainTails = Arrays.copyOf(chainTails, chainCount * 2);
+				}
+				chain = chainCount++;
+				this.taskChainPositions[taskIdx] = 0;
+			} else {
+				this.taskChainPositions[taskIdx] = this.taskChainPositions[chainTails[chain]] + 1;
+			}
+			this.taskChains[taskIdx] = chain;
+			chainTails[chain] = taskIdx;
+		}
+		this.chainTails = Arrays.copyOf(chainTails, chainCount);
+		this.chainCount = chainCount;
+
+		// Descendant chains, in reverse topological order: the successor tasks first. The chain positions of a task are merged in
+		// a dense array, only the chains reached by the task being collected and reset.
+		int[] chainPositions = new int[chainCount];
+		Arrays.fill(chainPositions, Integer.MAX_VALUE);
+		int[] reachedChains = new int[chainCount];
+		for (int position = orderedTaskCount - 1; position >= 0; --position) {
+			int taskIdx = analytics.getTopologicalTask(position);
+			if (taskIdx < firstTaskIdx) {
+				continue;
+			}
+
+			int reachedChainCount = 0;
+			int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+			for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+				int succTaskIdx = adjacency.getSuccessorTask(dependencyIdx);
+				int succChain = this.taskChains[succTaskIdx];
+				if (chainPositions[succChain] == Integer.MAX_VALUE) {
+					reachedChains[reachedChainCount++] = succChain;
+				}
+				chainPositions[succChain] = Math.min(chainPositions[succChain], this.taskChainPositions[succTaskIdx]);
+				// A successor task without topological order (cycle) has no descendant chains yet.
+				if (this.descendantChains[succTaskIdx] != null) {
+					reachedChainCount = mergeDescendantChains(this.descendantChains[succTaskIdx], chainPositions, reachedChains, reachedChainCount);
+				}
+			}
+
+			int[] descendantChains;
+			if (reachedChainCount == 0) {
+				descendantChains = NO_DESCENDANT_CHAINS;
+			} else if (2 * reachedChainCount > chainCount) {
+				descendantChains = new int[1 + chainCount];
+				descendantChains[0] = ALL_CHAINS;
+				System.arraycopy(chainPositions, 0, descendantChains, 1, chainCount);
+			} else {
+				Arrays.sort(reachedChains, 0, reachedChainCount);
+				descendantChains = new int[2 * reachedChainCount];
+				for (int idx = 0; idx < reachedChainCount; ++idx) {
+					descendantChains[2 * idx] = reachedChains[idx];
+					descendantChains[2 * idx + 1] = chainPositions[reachedChains[idx]];
+				}
+			}
+			for (int idx = 0; idx < reachedChainCount; ++idx) {
+				chainPositions[reachedChains[idx]] = Integer.MAX_VALUE;
+			}
+			this.descendantChains[taskIdx] = descendantChains;
+		}
+		// Tasks without topological order (cycle).
+		for (int taskIdx = firstTaskIdx; taskIdx < this.taskCount; ++taskIdx) {
+			if (this.descendantChains[taskIdx] == null) {
+				this.descendantChains[taskIdx] = NO_DESCENDANT_CHAINS;
+			}
+		}
+	}
+
+	/**
+	 * Extends the reachability index to an appended adjacency (see {@link TaskGraphAdjacency#append(int, int[], int[], double[], int)}).
+	 * Only the appended tasks are indexed if the descendant tasks of the other tasks are unchanged, i.e. if the appended dependencies
+	 * all start from appended tasks; otherwise the index is built again.
+	 * @param adjacency The appended adjacency.
+	 * @param analytics Its analytics.
+	 * @return The reachability index of the appended adjacency.
+	 */
+	public TaskGraphReachability append(TaskGraphAdjacency adjacency, TaskGraphAnalytics analytics) {
+		if (adjacency == this.adjacency) {
+			return this;
+		}
+		if (!hasSameSuccessorTasks(adjacency)) {
+			return new TaskGraphReachability(adjacency, analytics);
+		}
+		return new TaskGraphReachability(this, adjacency, analytics);
+	}
+
+	private boolean hasSameSuccessorTasks(TaskGraphAdjacency adjacency) {
+		if (adjacency.getTaskCount() < this.taskCount) {
+			return false;
+		}
+		for (int taskIdx = 0; taskIdx < this.taskCount; ++taskIdx) {
+			if (adjacency.getSuccessorCount(taskIdx) != this.adjacency.getSuccessorCount(taskIdx)) {
+				return false;
+			}
+			int successorsEnd = adjacency.getSuccessorsEnd(taskIdx);
+			for (int dependencyIdx = adjacency.getSuccessorsStart(taskIdx); dependencyIdx < successorsEnd; ++dependencyIdx) {
+				int succTaskIdx = adjacency.getSuccessorTask(dependencyIdx);
+				if (succTaskIdx >= this.taskCount || this.adjacency.findDependency(taskIdx, succTaskIdx) == Constants.INVALID_RESULT_INT) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	public TaskGraphAdjacency getAdjacency() {
+		return this.adjacency;
+	}
+
+	public int getChainCount() {
+		return this.chainCount;
+	}
+
+	/**
+	 * @param taskIdx The task index.
+	 * @param descendantTaskIdx Index of the possible descendant task.
+	 * @return true if there is a path from the task to the descendant task (a task is not its own descendant).
+	 */
+	public boolean isDescendant(int taskIdx, int descendantTaskIdx) {
+		int[] descendantChains = this.descendantChains[taskIdx];
+		int chain = this.taskChains[descendantTaskIdx];
+		int chainPosition;
+		if (descendantChains.length > 0 && descendantChains[0] == ALL_CHAINS) {
+			chainPosition = (1 + chain < descendantChains.length) ? descendantChains[1 + chain] : Integer.MAX_VALUE;
+		} else {
+			chainPosition = getDescendantChainPosition(descendantChains, chain);
+		}
+		return chainPosition <= this.taskChainPositions[descendantTaskIdx];
+	}
+
+	/**
+	 * @param taskIdx The task index.
+	 * @param ancestorTaskIdx Index of the possible ancestor task.
+	 * @return true if there is a path from the ancestor task to the task (a task is not its own ancestor).
+	 */
+	public boolean isAncestor(int taskIdx, int ancestorTaskIdx) {
+		return isDescendant(ancestorTaskIdx, taskIdx);
+	}
+
+	/**
+	 * @param taskIdxs The task indices.
+	 * @return Indices of the ancestor tasks of at least one of the tasks, in O(tasks + dependencies) (predecessor tasks traversal).
+	 */
+	public BitSet getAncestors(BitSet taskIdxs) {
+		BitSet ancestorTaskIdxs = new BitSet(this.taskCount);
+		int[] taskStack = new int[this.taskCount];
+		int taskStackSize = 0;
+		for (int taskIdx = taskIdxs.nextSetBit(0); taskIdx >= 0; taskIdx = taskIdxs.nextSetBit(taskIdx + 1)) {
+			taskStack[taskStackSize++] = taskIdx;
+		}
+		// Each task is pushed at most once as an ancestor task, after the given tasks: the stack never holds more than twice the tasks.
+		if (taskStackSize > 0) {
+			taskStack = Arrays.copyOf(taskStack, taskStackSize + this.taskCount);
+		}
+
+		while (taskStackSize > 0) {
+			int taskIdx = taskStack[--taskStackSize];
+			int predecessorsEnd = this.adjacency.getPredecessorsEnd(taskIdx);
+			for (int predecessorIdx = this.adjacency.getPredecessorsStart(taskIdx); predecessorIdx < predecessorsEnd; ++predecessorIdx) {
+				int predTaskIdx = this.adjacency.getPredecessorTask(predecessorIdx);
+				if (!ancestorTaskIdxs.get(predTaskIdx)) {
+					ancestorTaskIdxs.set(predTaskIdx);
+					taskStack[taskStackSize++] = predTaskIdx;
+				}
+			}
+		}
+		return ancestorTaskIdxs;
+	}
+
+	/**
+	 * @param taskIdxs The task indices.
+	 * @return Indices of the descendant tasks of at least one of the tasks, in O(tasks + chains + descendant chains of the given tasks).
+	 */
+	public BitSet getDescendants(BitSet taskIdxs) {
+		// Smallest position of a descendant task of the given tasks in each chain.
+		int[] firstChainPositions = new int[this.chainCount];
+		Arrays.fill(firstChainPositions, Integer.MAX_VALUE);
+		int[] reachedChains = new int[this.chainCount];
+		int reachedChainCount = 0;
+		for (int taskIdx = taskIdxs.nextSetBit(0); taskIdx >= 0; taskIdx = taskIdxs.nextSetBit(taskIdx + 1)) {
+			reachedChainCount = mergeDescendantChains(this.descendantChains[taskIdx], firstChainPositions, reachedChains, reachedChainCount);
+		}
+
+		BitSet descendantTaskIdxs = new BitSet(this.taskCount);
+		for (int taskIdx = 0; taskIdx < this.taskCount; ++taskIdx) {
+			if (this.taskChainPositions[taskIdx] >= firstChainPositions[this.taskChains[taskIdx]]) {
+				descendantTaskIdxs.set(taskIdx);
+			}
+		}
+		return descendantTaskIdxs;
+	}
+
+	/*
+	 * Merges the descendant chains of a task into dense chain positions (smallest position of a descendant task in each chain),
+	 * adding the newly reached chains to the reached chains. Returns the number of reached chains.
+	 */
+	private static int mergeDescendantChains(int[] descendantChains, int[] chainPositions, int[] reachedChains, int reachedChainCount) {
+		if (descendantChains.length > 0 && descendantChains[0] == ALL_CHAINS) {
+			for (int chain = 0; chain < descendantChains.length - 1; ++chain) {
+				int chainPosition = descendantChains[1 + chain];
+				if (chainPosition < chainPositions[chain]) {
+					if (chainPositions[chain] == Integer.MAX_VALUE) {
+						reachedChains[reachedChainCount++] = chain;
+					}
+					chainPositions[chain] = chainPosition;
+				}
+			}
+			return reachedChainCount;
+		}
+
+		for (int idx = 0; idx < descendantChains.length; idx += 2) {
+			int chain = descendantChains[idx];
+			if (chainPositions[chain] == Integer.MAX_VALUE) {
+				reachedChains[reachedChainCount++] = chain;
+			}
+			chainPositions[chain] = Math.min(chainPositions[chain], descendantChains[idx + 1]);
+		}
+		return reachedChainCount;
+	}
+
+	// Smallest position of a descendant task in a chain (binary search of the descendant chains), Integer.MAX_VALUE if none.
+	private static int getDescendantChainPosition(int[] descendantChains, int chain) {
+		int low = 0;
+		int high = descendantChains.length / 2 - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int middleChain = descendantChains[2 * middle];
+			if (middleChain < chain) {
+				low = middle + 1;
+			} else if (middleChain > chain) {
+				high = middle - 1;
+			} else {
+				return descendantChains[2 * middle + 1];
+			}
+		}
+		return Integer.MAX_VALUE;
+	}
+
+}
@@ -0,0 +1,374 @@
+package scheduling_evaluation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Log;
+
+import scheduling_evaluation.Types.ResourceType;
+
+/**
+ * Task subgraphs of a workflow (see {@link TaskSubgraphGenerator}) with their arrival times, loaded in memory once per workflow
+ * before the dynamic scheduling (see {@link DagUtils#getTaskSubgraphBundle()}), so that adding a task subgraph during the scheduling
+ * does not read any file. The task subgraphs are loaded from the single-file bundle next to the task subgraphs file
+ * (Constants.FILE_EXTENSION_BIN instead of Constants.FILE_EXTENSION_TXT) if it is up to date, from the task subgraph files otherwise.
+ */
+public class TaskSubgraphBundle {
+
+	/*
+	 * Task subgraph bundle file format (little-endian):
+	 * - header: magic, version, task subgraph count, resource type count, padding (8 ints);
+	 * - for each task subgraph: task count, dependency count, exit task, padding (4 ints), task ids (taskCount ints), padded to 8 bytes,
+	 *   computation costs (taskCount rows of resource type count doubles, ordered by resource type ordinal) <s>,
+	 *   source tasks, target tasks (dependencyCount ints each), padded to 8 bytes, data dependencies (dependencyCount doubles) <MB>.
+	 */
+	private static final int TASK_SUBGRAPH_BUNDLE_MAGIC = 0x53425344;		// "DSBS" in little-endian.
+	private static final int TASK_SUBGRAPH_BUNDLE_VERSION = 1;
+	private static final int TASK_SUBGRAPH_BUNDLE_HEADER_SIZE = 8 * Integer.BYTES;
+	private static final int TASK_SUBGRAPH_HEADER_SIZE = 4 * Integer.BYTES;
+
+	/**
+	 * Task subgraph, appended to the task graph with a dependency from its exit task to the task graph exit task.
+	 */
+	public static class TaskSubgraph {
+
+		private final int[] tasks;
+		private final double[] computationCosts;
+		private final int[] fromTasks;
+		private final int[] toTasks;
+		private final double[] dataDependencies;
+		private final int exitTask;
+
+		private TaskSubgraph(int[] tasks, double[] computationCosts, int[] fromTasks, int[] toTasks, double[] dataDependencies, int exitTask) {
+			this.tasks = tasks;
+			this.computationCosts = computationCosts;
+			this.fromTasks = fromTasks;
+			this.toTasks = toTasks;
+			this.dataDependencies = dataDependencies;
+			this.exitTask = exitTask;
+		}
+
+		public int getTaskCount() {
+			return this.tasks.length;
+		}
+
+		/**
+		 * Appends the task subgraph to a task graph (see {@link TaskGraph#appendSubgraph(int[], double[], int[], int[], double[])}),
+		 * followed by the dependency from the task subgraph exit task to the task graph exit task. The task subgraph is not modified.
+		 * @param taskGraph The task graph.
+		 * @return The tasks of the task subgraph.
+		 */
+		public List<Integer> appendTo(TaskGraph taskGraph) {
+			int dependencyCount = this.fromTasks.length;
+			int[] fromTasks = Arrays.copyOf(this.fromTasks, dependencyCount + 1);
+			int[] toTasks = Arrays.copyOf(this.toTasks, dependencyCount + 1);
+			double[] dataDependencies = Arrays.copyOf(this.dataDependencies, dependencyCount + 1);
+			fromTasks[dependencyCount] = this.exitTask;
+			toTasks[dependencyCount] = taskGraph.getExitTasks().get(0);
+			dataDependencies[dependencyCount] = 0.0;
+
+			taskGraph.appendSubgraph(this.tasks, this.computationCosts, fromTasks, toTasks, dataDependencies);
+
+			List<Integer> tasks = new LinkedList<Integer>();
+			for (int task : this.tasks) {
+				tasks.add(task);
+			}
+			return tasks;
+		}
+
+	}
+
+	private final String taskSubgraphsFilename;
+	private final List<TaskSubgraph> taskSubgraphs;
+	private final List<Double> arrivalTimes;
+
+	private TaskSubgraphBundle(String taskSubgraphsFilename, List<TaskSubgraph> taskSubgraphs, List<Double> arrivalTimes) {
+		this.taskSubgraphsFilename = taskSubgraphsFilename;
+		this.taskSubgraphs = taskSubgraphs;
+		this.arrivalTimes = arrivalTimes;
+	}
+
+	public String getTaskSubgraphsFilename() {
+		return this.taskSubgraphsFilename;
+	}
+
+	public int getTaskSubgraphCount() {
+		return this.taskSubgraphs.size();
+	}
+
+	/**
+	 * @return Arrival time of each task subgraph (Constants.TASK_SUBGRAPH_ARRIVAL_TIMES_FILENAME).
+	 */
+	public List<Double> getArrivalTimes() {
+		return this.arrivalTimes;
+	}
+
+	public TaskSubgraph getTaskSubgraph(int taskSubgraphIdx) {
+		return this.taskSubgraphs.get(taskSubgraphIdx);
+	}
+
+	/**
+	 * Appends a task subgraph to a task graph, see {@link TaskSubgraph#appendTo(TaskGraph)}.
+	 * @param taskSubgraphIdx Index of the task subgraph, in [0, getTaskSubgraphCount()).
+	 * @param taskGraph The task graph.
+	 * @return The tasks of the task subgraph.
+	 */
+	public List<Integer> appendTaskSubgraph(int taskSubgraphIdx, TaskGraph taskGraph) {
+		return this.taskSubgraphs.get(taskSubgraphIdx).appendTo(taskGraph);
+	}
+
+	/**
+	 * @param taskSubgraphsFilename The task subgraphs file (one task subgraph file per line).
+	 * @return The task subgraph bundle file.
+	 */
+	public static String getBundleFilename(String taskSubgraphsFilename) {
+		String filenamePrefix = taskSubgraphsFilename.endsWith(Constants.FILE_EXTENSION_TXT)
+								? taskSubgraphsFilename.substring(0, taskSubgraphsFilename.length() - Constants.FILE_EXTENSION_TXT.length())
+								: taskSubgraphsFilename;
+		return filenamePrefix + Constants.FILE_EXTENSION_BIN;
+	}
+
+	/**
+	 * Loads the first task subgraphs of a workflow and their arrival times, from the task subgraph bundle if it is up to date
+	 * (not older than the task subgraphs file), from the task subgraph files otherwise.
+	 * @param taskSubgraphsFilename The task subgraphs file (one task subgraph file per line).
+	 * @param taskSubgraphCount Number of task subgraphs.
+	 * @return The task subgraph bundle, null if the task subgraphs cannot be loaded.
+	 */
+	public static TaskSubgraphBundle load(String taskSubgraphsFilename, int taskSubgraphCount) {
+		File taskSubgraphsFile = new File(taskSubgraphsFilename);
+		File bundleFile = new File(getBundleFilename(taskSubgraphsFilename));
+
+		List<TaskSubgraph> taskSubgraphs = null;
+		if (bundleFile.isFile() && bundleFile.lastModified() >= taskSubgraphsFile.lastModified()) {
+			taskSubgraphs = readBundle(bundleFile.getPath(), taskSubgraphCount);
+		}
+		if (taskSubgraphs == null) {
+			taskSubgraphs = readTaskSubgraphs(taskSubgraphsFilename, taskSubgraphCount);
+		}
+		if (taskSubgraphs == null) {
+			return null;
+		}
+
+		List<Double> arrivalTimes = SimulationUtils.loadTaskSubgraphArrivalTimes(taskSubgraphs.size());
+		return new TaskSubgraphBundle(taskSubgraphsFilename, taskSubgraphs, arrivalTimes);
+	}
+
+	/**
+	 * Converts the task subgraph files of a workflow into a task subgraph bundle file, see {@link #load(String, int)}.
+	 * @param taskSubgraphsFilename The task subgraphs file (one task subgraph file per line).
+	 * @return Whether the task subgraph bundle was written.
+	 */
+	public static boolean convertTaskSubgraphs(String taskSubgraphsFilename) {
+		List<TaskSubgraph> taskSubgraphs = readTaskSubgraphs(taskSubgraphsFilename, Integer.MAX_VALUE);
+		if (taskSubgraphs == null) {
+			return false;
+		}
+		return writeBundle(taskSubgraphs, getBundleFilename(taskSubgraphsFilename));
+	}
+
+	/* Task subgraph files. */
+
+	private static List<TaskSubgraph> readTaskSubgraphs(String taskSubgraphsFilename, int taskSubgraphCount) {
+		List<String> taskSubgraphFilenames = new ArrayList<String>();
+		try (TextTokenizer tokenizer = new TextTokenizer(taskSubgraphsFilename)) {
+			while (taskSubgraphFilenames.size() < taskSubgraphCount && tokenizer.hasNext()) {
+				taskSubgraphFilenames.add(tokenizer.nextLine());
+			}
+		} catch (IOException e) {
+			Log.printLine("Exception in readTaskSubgraphs() - Cannot read file: " + taskSubgraphsFilename);
+			return null;
+		}
+
+		List<TaskSubgraph> taskSubgraphs = new ArrayList<TaskSubgraph>(taskSubgraphFilenames.size());
+		for (String taskSubgraphFilename : taskSubgraphFilenames) {
+			try {
+				taskSubgraphs.add(readTaskSubgraph(taskSubgraphFilename));
+			} catch (IOException e) {
+				Log.printLine("Exception in readTaskSubgraphs() - Cannot read file: " + taskSubgraphFilename);
+				return null;
+			}
+		}
+		return taskSubgraphs;
+	}
+
+	/**
+	 * Reads a task subgraph file: tasks with their computation costs, dependencies, exit task.
+	 * @param filename The task subgraph file.
+	 * @return The task subgraph.
+	 * @throws IOException If the task subgraph file cannot be read.
+	 */
+	public static TaskSubgraph readTaskSubgraph(String filename) throws IOException {
+		try (TextTokenizer tokenizer = new TextTokenizer(filename)) {
+			int taskCount = tokenizer.nextInt();
+			int[] tasks = new int[taskCount];
+			double[] computationCosts = new double[taskCount * Constants.RESOURCE_TYPE_COUNT];
+			for (int taskIdx = 0; taskIdx < taskCount; ++taskIdx) {
+				tasks[taskIdx] = tokenizer.nextInt();
+				for (ResourceType resourceType : ResourceType.values()) {
+					computationCosts[taskIdx * Constants.RESOURCE_TYPE_COUNT + resourceType.ordinal()] = tokenizer.nextDouble();
+				}
+			}
+
+			int dependencyCount = tokenizer.nextInt();
+			int[] fromTasks = new int[dependencyCount];
+			int[] toTasks = new int[dependencyCount];
+			double[] dataDependencies = new double[dependencyCount];
+			for (int dependencyIdx = 0; dependencyIdx < dependencyCount; ++dependencyIdx) {
+				fromTasks[dependencyIdx] = tokenizer.nextInt();
+				toTasks[dependencyIdx] = tokenizer.nextInt();
+				dataDependencies[dependencyIdx] = tokenizer.nextDouble();
+			}
+
+			int exitTask = tokenizer.nextInt();
+			return new TaskSubgraph(tasks, computationCosts, fromTasks, toTasks, dataDependencies, exitTask);
+		}
+	}
+
+	/* Task subgraph bundle file. */
+
+	private static List<TaskSubgraph> readBundle(String bundleFilename, int taskSubgraphCount) {
+		try (FileChannel channel = FileChannel.open(Paths.get(bundleFilename), StandardOpenOption.READ)) {
+			MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			ByteBuffer buffer = mappedBuffer.order(ByteOrder.LITTLE_ENDIAN);
+
+			if (buffer.capacity() < TASK_SUBGRAPH_BUNDLE_HEADER_SIZE
+				|| buffer.getInt(0) != TASK_SUBGRAPH_BUNDLE_MAGIC || buffer.getInt(Integer.BYTES) != TASK_SUBGRAPH_BUNDLE_VERSION
+				|| buffer.getInt(3 * Integer.BYTES) != Constants.RESOURCE_TYPE_COUNT) {
+				Log.printLine("Exception in readBundle() - Invalid task subgraph bundle file: " + bundleFilename);
+				return null;
+			}
+			int bundleTaskSubgraphCount = buffer.getInt(2 * Integer.BYTES);
+			if (bundleTaskSubgraphCount < taskSubgraphCount && taskSubgraphCount != Integer.MAX_VALUE) {
+				// Fewer task subgraphs than needed: use the task subgraph files.
+				return null;
+			}
+
+			int offset = TASK_SUBGRAPH_BUNDLE_HEADER_SIZE;
+			int count = Math.min(taskSubgraphCount, bundleTaskSubgraphCount);
+			List<TaskSubgraph> taskSubgraphs = new ArrayList<TaskSubgraph>(count);
+			for (int taskSubgraphIdx = 0; taskSubgraphIdx < count; ++taskSubgraphIdx) {
+				if (buffer.capacity() < offset + TASK_SUBGRAPH_HEADER_SIZE) {
+					Log.printLine("Exception in readBundle() - Invalid task subgraph bundle file: " + bundleFilename);
+					return null;
+				}
+				int taskCount = buffer.getInt(offset);
+				int dependencyCount = buffer.getInt(offset + Integer.BYTES);
+				int exitTask = buffer.getInt(offset + 2 * Integer.BYTES);
+				if (buffer.capacity() < offset + getTaskSubgraphSize(taskCount, dependencyCount)) {
+					Log.printLine("Exception in readBundle() - Invalid task subgraph bundle file: " + bundleFilename);
+					return null;
+				}
+				offset += TASK_SUBGRAPH_HEADER_SIZE;
+
+				int[] tasks = new int[taskCount];
+				slice(buffer, offset, taskCount * Integer.BYTES).asIntBuffer().get(tasks);
+				offset = alignOffset(offset + taskCount * Integer.BYTES);
+
+				double[] computationCosts = new double[taskCount * Constants.RESOURCE_TYPE_COUNT];
+				slice(buffer, offset, computationCosts.length * Double.BYTES).asDoubleBuffer().get(computationCosts);
+				offset += computationCosts.length * Double.BYTES;
+
+				int[] fromTasks = new int[dependencyCount];
+				int[] toTasks = new int[dependencyCount];
+				double[] dataDependencies = new double[dependencyCount];
+				slice(buffer, offset, dependencyCount * Integer.BYTES).asIntBuffer().get(fromTasks);
+				offset += dependencyCount * Integer.BYTES;
+				slice(buffer, offset, dependencyCount * Integer.BYTES).asIntBuffer().get(toTasks);
+				offset = alignOffset(offset + dependencyCount * Integer.BYTES);
+				slice(buffer, offset, dependencyCount * Double.BYTES).asDoubleBuffer().get(dataDependencies);
+				offset += dependencyCount * Double.BYTES;
+
+				taskSubgraphs.add(new TaskSubgraph(tasks, computationCosts, fromTasks, toTasks, dataDependencies, exitTask));
+			}
+			return taskSubgraphs;
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			Log.printLine("Exception in readBundle() - Cannot read file: " + bundleFilename);
+			return null;
+		}
+	}
+
+	private static boolean writeBundle(List<TaskSubgraph> taskSubgraphs, String bundleFilename) {
+		long size = TASK_SUBGRAPH_BUNDLE_HEADER_SIZE;
+		for (TaskSubgraph taskSubgraph : taskSubgraphs) {
+			size += getTaskSubgraphSize(taskSubgraph.tasks.length, taskSubgraph.fromTasks.length);
+		}
+		if (size > Integer.MAX_VALUE) {
+			Log.printLine("Exception in writeBundle() - Task subgraphs too large: " + taskSubgraphs.size() + " task subgraphs");
+			return false;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(0, TASK_SUBGRAPH_BUNDLE_MAGIC);
+		buffer.putInt(Integer.BYTES, TASK_SUBGRAPH_BUNDLE_VERSION);
+		buffer.putInt(2 * Integer.BYTES, taskSubgraphs.size());
+		buffer.putInt(3 * Integer.BYTES, Constants.RESOURCE_TYPE_COUNT);
+
+		int offset = TASK_SUBGRAPH_BUNDLE_HEADER_SIZE;
+		for (TaskSubgraph taskSubgraph : taskSubgraphs) {
+			int taskCount = taskSubgraph.tasks.length;
+			int dependencyCount = taskSubgraph.fromTasks.length;
+			buffer.putInt(offset, taskCount);
+			buffer.putInt(offset + Integer.BYTES, dependencyCount);
+			buffer.putInt(offset + 2 * Integer.BYTES, taskSubgraph.exitTask);
+			offset += TASK_SUBGRAPH_HEADER_SIZE;
+
+			slice(buffer, offset, taskCount * Integer.BYTES).asIntBuffer().put(taskSubgraph.tasks);
+			offset = alignOffset(offset + taskCount * Integer.BYTES);
+			slice(buffer, offset, taskSubgraph.computationCosts.length * Double.BYTES).asDoubleBuffer().put(taskSubgraph.computationCosts);
+			offset += taskSubgraph.computationCosts.length * Double.BYTES;
+
+			slice(buffer, offset, dependencyCount * Integer.BYTES).asIntBuffer().put(taskSubgraph.fromTasks);
+			offset += dependencyCount * Integer.BYTES;
+			slice(buffer, offset, dependencyCount * Integer.BYTES).asIntBuffer().put(taskSubgraph.toTasks);
+			offset = alignOffset(offset + dependencyCount * Integer.BYTES);
+			slice(buffer, offset, dependencyCount * Double.BYTES).asDoubleBuffer().put(taskSubgraph.dataDependencies);
+			offset += dependencyCount * Double.BYTES;
+		}
+
+		try (FileChannel channel = FileChannel.open(Paths.get(bundleFilename), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+													StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} catch (IOException e) {
+			Log.printLine("Exception in writeBundle() - Cannot write file: " + bundleFilename);
+			return false;
+		}
+
+		return true;
+	}
+
+	private static long getTaskSubgraphSize(int taskCount, int dependencyCount) {
+		long size = alignOffset(TASK_SUBGRAPH_HEADER_SIZE + (long) taskCount * Integer.BYTES);
+		size += (long) taskCount * Constants.RESOURCE_TYPE_COUNT * Double.BYTES;
+		size = alignOffset(size + 2L * dependencyCount * Integer.BYTES);
+		return size + (long) dependencyCount * Double.BYTES;
+	}
+
+	private static int alignOffset(int offset) {
+		return (offset + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+	}
+
+	private static long alignOffset(long offset) {
+		return (offset + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+		return buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+}
@@ -23,10 +23,14 @@ public class TaskSubgraphGenerator {
 		TASK_SUBGRAPH_LEVEL_GENERATOR;
 	}
 
-	private static Map<Integer, Integer> newTaskToOriginalTaskMappings = new HashMap<Integer, Integer>();
+	// Generation state, one generator per task graph: task subgraphs of several task graphs can be generated concurrently.
+	private final Map<Integer, Integer> newTaskToOriginalTaskMappings = new HashMap<Integer, Integer>();
 
-	private static Integer taskOffset = Constants.INVALID_RESULT_INT;
-	private static Integer nextTask = Constants.INVALID_RESULT_INT;
+	private Integer taskOffset = Constants.INVALID_RESULT_INT;
+	private Integer nextTask = Constants.INVALID_RESULT_INT;
+
+	private TaskSubgraphGenerator() {
+	}
 
 	public static void generateTaskSubgraphs(TaskSubgraphGeneratorType generatorType, String taskGraphFilename,
 											int taskSubgraphCount, String taskGraphFilenamePrefix) {
@@ -35,6 +39,19 @@ public class TaskSubgraphGenerator {
 			Log.printLine("Cannot load task graph " + taskGraphFilename);
 			return;
 		}
+		generateTaskSubgraphs(generatorType, taskGraph, taskGraphFilename, taskSubgraphCount, taskGraphFilenamePrefix);
+	}
+
+	/**
+	 * Generates task subgraphs from a loaded task graph (only read, see {@link WorkflowConversionPipeline}).
+	 * @param generatorType The task subgraph generator.
+	 * @param taskGraph The task graph.
+	 * @param taskGraphFilename The task graph file (for the logs).
+	 * @param taskSubgraphCount Number of task subgraphs.
+	 * @param taskGraphFilenamePrefix Prefix of the task subgraph files.
+	 */
+	public static void generateTaskSubgraphs(TaskSubgraphGeneratorType generatorType, TaskGraph taskGraph, String taskGraphFilename,
+											int taskSubgraphCount, String taskGraphFilenamePrefix) {
 		if (taskGraph.getEntryTasks().size() != 1 || taskGraph.getExitTasks().size() != 1) {
 			Log.printLine("Task graph should have 1 pseudo-entry task and 1 pseudo-exit task " + taskGraphFilename);
 			return;
@@ -46,6 +63,7 @@ public class TaskSubgraphGenerator {
 			FileOutputStream fos = new FileOutputStream(fout);
 			BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos));
 
+			TaskSubgraphGenerator generator = new TaskSubgraphGenerator();
 			for (int taskSubgraphIdx = 1; taskSubgraphIdx <= taskSubgraphCount; ++taskSubgraphIdx) {
 				// Write the task subgraph related information to the output file.
 				String taskSubgraphFilename = taskGraphFilenamePrefix + "-tasksubgraph" + taskSubgraphIdx + Constants.FILE_EXTENSION_TXT;
@@ -54,18 +72,22 @@ public class TaskSubgraphGenerator {
 
 				// Generate the task subgraph and write the data to the corresponding task subgraph output file.
 				Log.printLine("====== Generate task subgraph " + taskSubgraphIdx + " ======");
-				taskOffset = 10000 * taskSubgraphIdx;
-				nextTask = taskOffset + 1;
-				generateTaskSubgraph(generatorType, taskSubgraphFilename, taskGraph, taskGraphFilename);
+				generator.taskOffset = 10000 * taskSubgraphIdx;
+				generator.nextTask = generator.taskOffset + 1;
+				generator.generateTaskSubgraph(generatorType, taskSubgraphFilename, taskGraph, taskGraphFilename);
 			}
 
 			bw.close();
 		} catch (IOException e) {
 			e.printStackTrace();
+			return;
 		}
+
+		// Bundle the task subgraphs into a single file, loaded before the dynamic scheduling (see TaskSubgraphBundle).
+		TaskSubgraphBundle.convertTaskSubgraphs(taskGraphFilenamePrefix + "-tasksubgraphs" + Constants.FILE_EXTENSION_TXT);
 	}
 
-	private static void generateTaskSubgraph(TaskSubgraphGeneratorType generatorType, String taskSubgraphFilename,
+	private void generateTaskSubgraph(TaskSubgraphGeneratorType generatorType, String taskSubgraphFilename,
 											TaskGraph taskGraph, String taskGraphFilename) {
 		/* Generate the task subgraph data. */
 		List<Integer> tasks = new LinkedList<Integer>();
@@ -99,7 +121,7 @@ public class TaskSubgraphGenerator {
 			for (Integer task : tasks) {
 				bw.write("" + task);
 				Integer originalTask = newTaskToOriginalTaskMappings.get(task);
-				Map<ResourceType, Double> resourceComputationCosts = taskGraph.getComputationCosts().get(originalTask);
+				Map<ResourceType, Double> resourceComputationCosts = taskGraph.getTaskComputationCosts(originalTask);
 				for (ResourceType resourceType : ResourceType.values()) {
 					Double resourceComputationCost = resourceComputationCosts.get(resourceType);
 					bw.write(" " + resourceComputationCost);
@@ -131,7 +153,7 @@ public class TaskSubgraphGenerator {
 		}
 	}
 
-	private static void generateTasksViaTaskSubgraphLevelGenerator(int subgraphWidth, int subgraphHeight, TaskGraph taskGraph,
+	private void generateTasksViaTaskSubgraphLevelGenerator(int subgraphWidth, int subgraphHeight, TaskGraph taskGraph,
 																List<Integer> tasks, Map<Pair<Integer, Integer>, Double> dependencies, List<Integer> exitTasks) {
 		// Randomly select a task from the original task graph.
 		Integer randomTask = getRandomTask(taskGraph);
@@ -192,7 +214,7 @@ public class TaskSubgraphGenerator {
 		exitTasks.add(exitTask);
 	}
 
-	private static void generateTasksViaTaskLevelGenerator(int subgraphWidth, int subgraphHeight, TaskGraph taskGraph,
+	private void generateTasksViaTaskLevelGenerator(int subgraphWidth, int subgraphHeight, TaskGraph taskGraph,
 														List<Integer> tasks, Map<Pair<Integer, Integer>, Double> dependencies, List<Integer> exitTasks) {
 		// Randomly select a task from the original task graph.
 		Integer randomTask = getRandomTask(taskGraph);
@@ -261,7 +283,7 @@ public class TaskSubgraphGenerator {
 		exitTasks.add(exitTask);
 	}
 
-	private static Integer generateExitTask(List<Integer> parentTasks, TaskGraph taskGraph,
+	private Integer generateExitTask(List<Integer> parentTasks, TaskGraph taskGraph,
 											List<Integer> tasks, Map<Pair<Integer, Integer>, Double> dependencies) {
 		Integer exitTask = nextTask;
 
@@ -271,7 +293,7 @@ public class TaskSubgraphGenerator {
 		return exitTask;
 	}
 
-	private static void generateNextTask(List<Integer> parentTasks, TaskGraph taskGraph,
+	private void generateNextTask(List<Integer> parentTasks, TaskGraph taskGraph,
 										List<Integer> tasks, Map<Pair<Integer, Integer>, Double> dependencies) {
 		Log.printLine("  -> task: " + nextTask);
 
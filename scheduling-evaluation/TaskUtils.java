@@ -14,6 +14,15 @@ public class TaskUtils {
 
 	private static final double DOUBLE_THRESHOLD = 0.0001;
 
+	// Memory capacity of each resource type <MB>, indexed by resource type ordinal (unlimited for the cloud resources).
+	private static final double[] RESOURCE_TYPE_MEMORY_CAPACITIES = new double[Constants.RESOURCE_TYPE_COUNT];
+	static {
+		for (ResourceType resourceType : ResourceType.values()) {
+			RESOURCE_TYPE_MEMORY_CAPACITIES[resourceType.ordinal()] = resourceType == ResourceType.CLOUD_RESOURCE
+																	? Double.POSITIVE_INFINITY : ResourceUtils.getVmRam(resourceType);
+		}
+	}
+
 	/* ========== Task's expected execution times on a VM resource ========== */
 
 	public static double getTotalExecutionTime(Cloudlet cloudlet, Vm vm) {
@@ -191,4 +200,19 @@ public class TaskUtils {
 		// Check if the edge resource has enough memory to execute the task.
 		return taskDataSize <= ResourceUtils.getVmRam(resourceType);
 	}
+
+	/**
+	 * Resource types with enough memory to execute the task, see {@link #canExecuteTaskOnResourceWithLimitedMemoryCapacity(double, ResourceType)}.
+	 * @param taskDataSize Task input data size.
+	 * @return Bit mask of the resource types (bit = resource type ordinal).
+	 */
+	public static int getEligibleResourceTypeMask(double taskDataSize) {
+		int resourceTypeMask = 0;
+		for (int resourceTypeOrdinal = 0; resourceTypeOrdinal < Constants.RESOURCE_TYPE_COUNT; ++resourceTypeOrdinal) {
+			if (taskDataSize <= RESOURCE_TYPE_MEMORY_CAPACITIES[resourceTypeOrdinal]) {
+				resourceTypeMask |= 1 << resourceTypeOrdinal;
+			}
+		}
+		return resourceTypeMask;
+	}
 }
@@ -0,0 +1,109 @@
+package scheduling_evaluation;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Microbenchmark of the text data file parsing: the byte-level tokenizer ({@link TextTokenizer}) against the former
+ * Scanner.nextLine() / String.split(" ") / Double.parseDouble() path. Every iteration parses all the numbers of the file,
+ * and both paths must return the same values, bit for bit.
+ */
+public class TextParsingBenchmark {
+
+	private static final List<String> DEFAULT_FILENAMES = Arrays.asList(
+			"data/dag/pegasus/epigenomics/epigenomics-chameleon-ilmn-6seq-50k-001-dag.txt",
+			"data/dag/pegasus/montage/montage-chameleon-2mass-20d-001-dag.txt",
+			Constants.RESOURCE_AVAILABILITY_TIMES_FILENAME,
+			Constants.TASK_SUBGRAPH_ARRIVAL_TIMES_FILENAME
+	);
+
+	private static final int WARMUP_ITERATION_COUNT = 10;
+	private static final int MEASUREMENT_ITERATION_COUNT = 20;
+
+	private static double[] parseLegacy(String filename, double[] values) throws FileNotFoundException {
+		int valueCount = 0;
+		Scanner scanner = new Scanner(new File(filename));
+		while (scanner.hasNextLine()) {
+			String line = scanner.nextLine();
+			if (line.isEmpty()) {
+				continue;
+			}
+			for (String valueString : line.split(" ")) {
+				if (valueCount == values.length) {
+					values = Arrays.copyOf(values, 2 * values.length);
+				}
+				values[valueCount++] = Double.parseDouble(valueString);
+			}
+		}
+		scanner.close();
+		return Arrays.copyOf(values, valueCount);
+	}
+
+	private static double[] parse(String filename, double[] values) throws IOException {
+		int valueCount = 0;
+		try (TextTokenizer tokenizer = new TextTokenizer(filename)) {
+			while (tokenizer.hasNext()) {
+				if (valueCount == values.length) {
+					values = Arrays.copyOf(values, 2 * values.length);
+				}
+				values[valueCount++] = tokenizer.nextDouble();
+			}
+		}
+		return Arrays.copyOf(values, valueCount);
+	}
+
+	private static void benchmark(String filename) throws IOException {
+		DecimalFormat dft = new DecimalFormat("###.###");
+
+		if (!new File(filename).isFile()) {
+			System.out.println(filename + " | not found");
+			return;
+		}
+
+		double[] values = new double[1024];
+		double[] legacyValues = null;
+		double[] parsedValues = null;
+		for (int iteration = 0; iteration < WARMUP_ITERATION_COUNT; ++iteration) {
+			legacyValues = parseLegacy(filename, values);
+			parsedValues = parse(filename, values);
+		}
+
+		long legacyTime = 0;
+		long time = 0;
+		for (int iteration = 0; iteration < MEASUREMENT_ITERATION_COUNT; ++iteration) {
+			long startTime = System.nanoTime();
+			legacyValues = parseLegacy(filename, values);
+			legacyTime += System.nanoTime() - startTime;
+
+			startTime = System.nanoTime();
+			parsedValues = parse(filename, values);
+			time += System.nanoTime() - startTime;
+		}
+
+		int mismatchCount = Math.abs(legacyValues.length - parsedValues.length);
+		for (int valueIdx = 0; valueIdx < Math.min(legacyValues.length, parsedValues.length); ++valueIdx) {
+			if (Double.doubleToLongBits(legacyValues[valueIdx]) != Double.doubleToLongBits(parsedValues[valueIdx])) {
+				++mismatchCount;
+			}
+		}
+
+		System.out.println(filename + " | values: " + parsedValues.length + " | size: " + new File(filename).length() + " B");
+		System.out.println("  legacy (Scanner): " + dft.format(legacyTime / 1e6 / MEASUREMENT_ITERATION_COUNT) + " ms");
+		System.out.println("  tokenizer: " + dft.format(time / 1e6 / MEASUREMENT_ITERATION_COUNT) + " ms");
+		System.out.println("  speedup: " + dft.format((double) legacyTime / time) + "x"
+				+ (mismatchCount == 0 ? "" : " (MISMATCH: " + mismatchCount + " values)"));
+	}
+
+	public static void main(String[] args) throws IOException {
+		List<String> filenames = args.length > 0 ? Arrays.asList(args) : DEFAULT_FILENAMES;
+		for (String filename : filenames) {
+			benchmark(filename);
+		}
+	}
+
+}
@@ -0,0 +1,243 @@
+package scheduling_evaluation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Byte-level tokenizer of the text data files (task graphs, task subgraphs, times), replacing Scanner / String.split():
+ * the file is read through a buffered FileChannel and the whitespace-separated ints and doubles are parsed in place,
+ * without creating Strings. The line structure is not checked, so any file read with Scanner.nextLine() and String.split(" ")
+ * is read the same way.
+ * Doubles are parsed exactly with Clinger's fast path (at most 2^53 for the significand, |exponent| <= 22), which covers
+ * the values written by the generators; the other ones (e.g. 17 significant digits, NaN) fall back to Double.parseDouble().
+ */
+public class TextTokenizer implements Closeable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+	private static final int MAX_SIGNIFICAND_DIGITS = 18;
+	private static final double[] EXACT_POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private final byte[] bytes;
+	private int position = 0;
+	private int limit = 0;
+
+	// Characters of the current token, for the fallback parsing.
+	private char[] token = new char[32];
+	private int tokenLength = 0;
+
+	public TextTokenizer(String filename) throws IOException {
+		this.channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+		this.bytes = new byte[BUFFER_SIZE];
+		this.buffer = ByteBuffer.wrap(this.bytes);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	/**
+	 * @return Whether there is another token before the end of the file.
+	 */
+	public boolean hasNext() throws IOException {
+		skipWhitespace();
+		return peek() >= 0;
+	}
+
+	/**
+	 * @return The next token parsed as an int.
+	 * @throws NumberFormatException If the next token is not an int (as Integer.parseInt()).
+	 */
+	public int nextInt() throws IOException {
+		skipWhitespace();
+		this.tokenLength = 0;
+
+		int c = peek();
+		boolean negative = (c == '-');
+		if (c == '-' || c == '+') {
+			consume(c);
+			c = peek();
+		}
+		long value = 0;
+		int digitCount = 0;
+		while (c >= '0' && c <= '9') {
+			consume(c);
+			value = value * 10 + (c - '0');
+			++digitCount;
+			c = peek();
+		}
+		if (isWhitespace(c) && digitCount > 0 && digitCount <= 10) {
+			value = negative ? -value : value;
+			if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+				return (int) value;
+			}
+		}
+
+		return Integer.parseInt(nextTokenString(c));
+	}
+
+	/**
+	 * @return The next token parsed as a double.
+	 * @throws NumberFormatException If the next token is not a double (as Double.parseDouble()).
+	 */
+	public double nextDouble() throws IOException {
+		skipWhitespace();
+		this.tokenLength = 0;
+
+		int c = peek();
+		boolean negative = (c == '-');
+		if (c == '-' || c == '+') {
+			consume(c);
+			c = peek();
+		}
+
+		// Significand (at most MAX_SIGNIFICAND_DIGITS significant digits) and decimal exponent.
+		long significand = 0;
+		int significandDigitCount = 0;
+		int digitCount = 0;
+		int exponent = 0;
+		boolean truncated = false;
+		while (c >= '0' && c <= '9') {
+			consume(c);
+			++digitCount;
+			if (significandDigitCount < MAX_SIGNIFICAND_DIGITS) {
+				significand = significand * 10 + (c - '0');
+				if (significand != 0) {
+					++significandDigitCount;
+				}
+			} else {
+				++exponent;
+				truncated |= (c != '0');
+			}
+			c = peek();
+		}
+		if (c == '.') {
+			consume(c);
+			c = peek();
+			while (c >= '0' && c <= '9') {
+				consume(c);
+				++digitCount;
+				if (significandDigitCount < MAX_SIGNIFICAND_DIGITS) {
+					significand = significand * 10 + (c - '0');
+					if (significand != 0) {
+						++significandDigitCount;
+					}
+					--exponent;
+				} else {
+					truncated |= (c != '0');
+				}
+				c = peek();
+			}
+		}
+		if (digitCount > 0 && (c == 'e' || c == 'E')) {
+			consume(c);
+			c = peek();
+			boolean negativeExponent = (c == '-');
+			if (c == '-' || c == '+') {
+				consume(c);
+				c = peek();
+			}
+			int exponentValue = 0;
+			int exponentDigitCount = 0;
+			while (c >= '0' && c <= '9') {
+				consume(c);
+				exponentValue = Math.min(exponentValue * 10 + (c - '0'), 100000);
+				++exponentDigitCount;
+				c = peek();
+			}
+			if (exponentDigitCount == 0) {
+				digitCount = 0;
+			}
+			exponent += negativeExponent ? -exponentValue : exponentValue;
+		}
+
+		if (isWhitespace(c) && digitCount > 0 && !truncated && significand <= MAX_EXACT_SIGNIFICAND
+			&& exponent >= -22 && exponent <= 22) {
+			double value = (exponent >= 0) ? significand * EXACT_POWERS_OF_TEN[exponent] : significand / EXACT_POWERS_OF_TEN[-exponent];
+			return negative ? -value : value;
+		}
+
+		return Double.parseDouble(nextTokenString(c));
+	}
+
+	/**
+	 * @return The rest of the current line (as Scanner.nextLine(), without the line separator).
+	 */
+	public String nextLine() throws IOException {
+		StringBuilder line = new StringBuilder();
+		int c = peek();
+		while (c >= 0 && c != '\n' && c != '\r') {
+			line.append((char) c);
+			++this.position;
+			c = peek();
+		}
+		if (c == '\r') {
+			++this.position;
+			c = peek();
+		}
+		if (c == '\n') {
+			++this.position;
+		}
+		return line.toString();
+	}
+
+	// Rest of the current token, appended to its consumed characters.
+	private String nextTokenString(int c) throws IOException {
+		while (!isWhitespace(c)) {
+			consume(c);
+			c = peek();
+		}
+		return new String(this.token, 0, this.tokenLength);
+	}
+
+	private void skipWhitespace() throws IOException {
+		int c = peek();
+		while (c >= 0 && isWhitespace(c)) {
+			++this.position;
+			c = peek();
+		}
+	}
+
+	private static boolean isWhitespace(int c) {
+		return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c < 0;
+	}
+
+	private void consume(int c) {
+		if (this.tokenLength == this.token.length) {
+			this.token = Arrays.copyOf(this.token, 2 * this.token.length);
+		}
+		this.token[this.tokenLength++] = (char) c;
+		++this.position;
+	}
+
+	// Next byte, -1 at the end of the file.
+	private int peek() throws IOException {
+		if (this.position == this.limit && !fill()) {
+			return -1;
+		}
+		return this.bytes[this.position] & 0xFF;
+	}
+
+	private boolean fill() throws IOException {
+		this.buffer.clear();
+		int readCount = 0;
+		while (readCount == 0) {
+			readCount = this.channel.read(this.buffer);
+		}
+		this.position = 0;
+		this.limit = Math.max(readCount, 0);
+		return readCount > 0;
+	}
+
+}
@@ -0,0 +1,112 @@
+package scheduling_evaluation;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.file.NoSuchFileException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * Process-wide registry of the simulation input time series (resource availability times, task arrival times, task subgraph
+ * arrival times): each time series file is parsed once and its values are shared, as read-only views, by all the task graph loads,
+ * brokers and executions. A time series is loaded again only after its file is generated again (see {@link #invalidate(String)}).
+ */
+public class TimeSeriesRegistry {
+
+	private static final double[] EMPTY_TIME_SERIES = new double[0];
+
+	private static final ConcurrentHashMap<String, double[]> timeSeries = new ConcurrentHashMap<String, double[]>();
+
+	/**
+	 * @return The resource availability times (Constants.RESOURCE_AVAILABILITY_TIMES_FILENAME).
+	 */
+	public static DoubleBuffer getResourceAvailabilityTimes() {
+		return getTimeSeries(Constants.RESOURCE_AVAILABILITY_TIMES_FILENAME);
+	}
+
+	/**
+	 * @param taskCount Number of tasks, see {@link SimulationUtils#getTaskArrivalTimesFile(int)}.
+	 * @return The task arrival times, empty if there is no task arrival times file for the number of tasks.
+	 */
+	public static DoubleBuffer getTaskArrivalTimes(int taskCount) {
+		String filename = SimulationUtils.getTaskArrivalTimesFile(taskCount);
+		if (filename == null) {
+			return DoubleBuffer.wrap(EMPTY_TIME_SERIES).asReadOnlyBuffer();
+		}
+		return getTimeSeries(filename);
+	}
+
+	/**
+	 * @return The task subgraph arrival times (Constants.TASK_SUBGRAPH_ARRIVAL_TIMES_FILENAME).
+	 */
+	public static DoubleBuffer getTaskSubgraphArrivalTimes() {
+		return getTimeSeries(Constants.TASK_SUBGRAPH_ARRIVAL_TIMES_FILENAME);
+	}
+
+	/**
+	 * Gets a time series, loaded from its file (one value per token) the first time.
+	 * @param filename The time series file.
+	 * @return Read-only view of the values of the time series, empty (and not registered) if the file cannot be read.
+	 */
+	public static DoubleBuffer getTimeSeries(String filename) {
+		double[] values = timeSeries.get(filename);
+		if (values == null) {
+			values = loadTimeSeries(filename);
+			if (values == null) {
+				return DoubleBuffer.wrap(EMPTY_TIME_SERIES).asReadOnlyBuffer();
+			}
+			double[] registeredValues = timeSeries.putIfAbsent(filename, values);
+			if (registeredValues != null) {
+				values = registeredValues;
+			}
+		}
+		return DoubleBuffer.wrap(values).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Copies the first values of a time series.
+	 * @param timeSeries Read-only view of the time series.
+	 * @param length Number of values.
+	 * @return The first length values of the time series, padded with 0.0 if the time series is shorter.
+	 */
+	public static double[] copyOf(DoubleBuffer timeSeries, int length) {
+		double[] values = new double[length];
+		timeSeries.get(0, values, 0, Math.min(length, timeSeries.limit()));
+		return values;
+	}
+
+	/**
+	 * Removes a time series from the registry, so that it is loaded again from its file: call it when the file is written.
+	 * @param filename The time series file.
+	 */
+	public static void invalidate(String filename) {
+		if (filename != null) {
+			timeSeries.remove(filename);
+		}
+	}
+
+	private static double[] loadTimeSeries(String filename) {
+		double[] values = new double[64];
+		int valueCount = 0;
+
+		try (TextTokenizer tokenizer = new TextTokenizer(filename)) {
+			while (tokenizer.hasNext()) {
+				if (valueCount == values.length) {
+					values = Arrays.copyOf(values, 2 * values.length);
+				}
+				values[valueCount++] = tokenizer.nextDouble();
+			}
+		} catch (NoSuchFileException e) {
+			Log.printLine("Exception in loadTimeSeries() - File not found: " + filename);
+			return null;
+		} catch (IOException | NumberFormatException e) {
+			Log.printLine("Exception in loadTimeSeries() - Cannot read file: " + filename);
+			return null;
+		}
+
+		return Arrays.copyOf(values, valueCount);
+	}
+
+}
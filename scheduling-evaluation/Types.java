@@ -59,7 +59,9 @@ public class Types {
 		EDGE_CLOUD_PETS_BROKER,
 		EDGE_CLOUD_2HD_BROKER,
 		EDGE_CLOUD_RAND_2HD_BROKER,
-		EDGE_CLOUD_QL_2HD_BROKER;
+		EDGE_CLOUD_QL_2HD_BROKER,
+		EDGE_CLOUD_MULTILEVEL_HEFT_BROKER,
+		EDGE_CLOUD_COMPONENT_HEFT_BROKER;
 	}
 
 	public enum WorkflowType {
@@ -131,6 +133,12 @@ public class Types {
 		case EDGE_CLOUD_QL_2HD_BROKER: {
 			return "QL-2HD-EdgeCloud-Broker-";
 		}
+		case EDGE_CLOUD_MULTILEVEL_HEFT_BROKER: {
+			return "Multilevel-HEFT-EdgeCloud-Broker-";
+		}
+		case EDGE_CLOUD_COMPONENT_HEFT_BROKER: {
+			return "Component-HEFT-EdgeCloud-Broker-";
+		}
 		}
 		return "";
 	}
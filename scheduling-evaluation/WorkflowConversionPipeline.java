@@ -0,0 +1,174 @@
+package scheduling_evaluation;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import org.cloudbus.cloudsim.Log;
+
+import scheduling_evaluation.TaskSubgraphGenerator.TaskSubgraphGeneratorType;
+
+/**
+ * Pipelined generation of the task graphs and task subgraphs of the Pegasus workflows (see {@link DagExperimentsExecutor}):
+ * - reader stage (1 thread): reads the workflow instances (streaming, see {@link PegasusWorkflowReader}), or loads the task graphs
+ *   when only the task subgraphs are generated;
+ * - conversion stage (1 thread per core): creates the task graphs and generates their task subgraphs from the task graph in memory,
+ *   in parallel across workflows (the workflow instances are parsed into a JSON tree by this stage instead of the reader stage
+ *   if not Constants.PEGASUS_STREAMING_INGESTION);
+ * - writer stage (calling thread): writes the task graphs, in the order of the workflows.
+ * Memory is bounded by a budget of input file size (Constants.WORKFLOW_CONVERSION_MEMORY_BUDGET_MB): a workflow is admitted by the
+ * reader stage once its input file size is available, and released by the writer stage; the instances larger than the budget are
+ * admitted one at a time.
+ */
+public class WorkflowConversionPipeline {
+
+	// Budget unit <B>.
+	private static final int BUDGET_UNIT = 1024;
+
+	// Workflow admitted by the reader stage: its budget and its task graph being created.
+	private static class PendingWorkflow {
+
+		private final String workflow;
+		private final int budget;
+		private final Future<TaskGraph> taskGraph;
+
+		private PendingWorkflow(String workflow, int budget, Future<TaskGraph> taskGraph) {
+			this.workflow = workflow;
+			this.budget = budget;
+			this.taskGraph = taskGraph;
+		}
+
+	}
+
+	/**
+	 * Generates the task graphs and / or the task subgraphs of workflows.
+	 * @param workflows The workflows.
+	 * @param workflowsDirectory Directory of the workflow instances (WfFormat).
+	 * @param taskGraphsDirectory Directory of the task graphs and task subgraphs.
+	 * @param generateTaskGraphs Whether the task graphs are generated from the workflow instances (otherwise, they are loaded).
+	 * @param taskSubgraphCount Number of task subgraphs of each task subgraph generator (0 not to generate task subgraphs).
+	 */
+	public static void convertWorkflows(List<String> workflows, String workflowsDirectory, String taskGraphsDirectory,
+										boolean generateTaskGraphs, int taskSubgraphCount) {
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		int maxBudget = Constants.WORKFLOW_CONVERSION_MEMORY_BUDGET_MB * (1024 * 1024 / BUDGET_UNIT);
+		Log.printLine("Workflow conversion: " + workflows.size() + " workflows, " + threadCount + " threads, "
+				+ Constants.WORKFLOW_CONVERSION_MEMORY_BUDGET_MB + " MB budget");
+
+		Semaphore budget = new Semaphore(maxBudget);
+		BlockingQueue<PendingWorkflow> pendingWorkflows = new LinkedBlockingQueue<PendingWorkflow>();
+		ExecutorService converter = Executors.newFixedThreadPool(threadCount);
+
+		// Reader stage: one pending workflow per workflow, in order (a failed one has a null task graph).
+		Thread reader = new Thread(() -> {
+			for (String workflow : workflows) {
+				String inputFilename = generateTaskGraphs ? workflowsDirectory + workflow + Constants.FILE_EXTENSION_JSON
+															: DagUtils.getTaskGraphFilename(taskGraphsDirectory + workflow + "-dag" + Constants.FILE_EXTENSION_TXT);
+				int workflowBudget = (int) Math.min(maxBudget, Math.max(1, (new File(inputFilename).length() + BUDGET_UNIT - 1) / BUDGET_UNIT));
+				try {
+					budget.acquire(workflowBudget);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					pendingWorkflows.add(new PendingWorkflow(workflow, 0, CompletableFuture.completedFuture(null)));
+					continue;
+				}
+
+				Future<TaskGraph> taskGraph = CompletableFuture.completedFuture(null);
+				try {
+					if (generateTaskGraphs && !Constants.PEGASUS_STREAMING_INGESTION) {
+						taskGraph = converter.submit(() -> {
+							TaskGraph createdTaskGraph = DagEntityCreator.createPegasusTaskGraph(inputFilename, false,
+									Constants.PEGASUS_TRANSITIVE_REDUCTION);
+							if (createdTaskGraph != null) {
+								generateTaskSubgraphs(createdTaskGraph, taskGraphsDirectory, workflow, taskSubgraphCount);
+							}
+							return createdTaskGraph;
+						});
+					} else if (generateTaskGraphs) {
+						PegasusWorkflowReader workflowInstance = DagEntityCreator.readPegasusWorkflow(inputFilename, false);
+						if (workflowInstance != null) {
+							taskGraph = converter.submit(() -> {
+								TaskGraph createdTaskGraph = DagEntityCreator.createPegasusTaskGraph(workflowInstance, inputFilename, false,
+										Constants.PEGASUS_TRANSITIVE_REDUCTION);
+								generateTaskSubgraphs(createdTaskGraph, taskGraphsDirectory, workflow, taskSubgraphCount);
+								return createdTaskGraph;
+							});
+						}
+					} else {
+						TaskGraph loadedTaskGraph = DagUtils.loadTaskGraph(inputFilename);
+						if (loadedTaskGraph != null) {
+							taskGraph = converter.submit(() -> {
+								generateTaskSubgraphs(loadedTaskGraph, taskGraphsDirectory, workflow, taskSubgraphCount);
+								return loadedTaskGraph;
+							});
+						}
+					}
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+				}
+				pendingWorkflows.add(new PendingWorkflow(workflow, workflowBudget, taskGraph));
+			}
+		}, "workflow-conversion-reader");
+		reader.start();
+
+		// Writer stage.
+		for (int workflowIdx = 0; workflowIdx < workflows.size(); ++workflowIdx) {
+			PendingWorkflow pendingWorkflow;
+			try {
+				pendingWorkflow = pendingWorkflows.take();
+			} catch (InterruptedException e) {
+				Log.printLine("Workflow conversion interrupted");
+				reader.interrupt();
+				break;
+			}
+
+			try {
+				TaskGraph taskGraph = pendingWorkflow.taskGraph.get();
+				if (taskGraph == null) {
+					Log.printLine(pendingWorkflow.workflow + " -> Cannot convert workflow");
+				} else if (!generateTaskGraphs) {
+					Log.printLine(pendingWorkflow.workflow + " -> " + taskSubgraphCount + " task subgraphs");
+				} else if (DagUtils.writeTaskGraph(taskGraph, taskGraphsDirectory + pendingWorkflow.workflow + "-dag" + Constants.FILE_EXTENSION_TXT)) {
+					Log.printLine(pendingWorkflow.workflow + " -> " + taskGraph.getTaskCount() + " tasks");
+				}
+			} catch (InterruptedException e) {
+				Log.printLine("Workflow conversion interrupted");
+				reader.interrupt();
+				break;
+			} catch (ExecutionException e) {
+				Log.printLine(pendingWorkflow.workflow + " -> Cannot convert workflow");
+				e.getCause().printStackTrace();
+			} finally {
+				budget.release(pendingWorkflow.budget);
+			}
+		}
+
+		try {
+			reader.join();
+		} catch (InterruptedException e) {
+			Log.printLine("Workflow conversion interrupted");
+		}
+		ConcurrentUtils.stop(converter);
+	}
+
+	private static void generateTaskSubgraphs(TaskGraph taskGraph, String taskGraphsDirectory, String workflow, int taskSubgraphCount) {
+		if (taskSubgraphCount <= 0) {
+			return;
+		}
+
+		String taskGraphFilenamePrefix = taskGraphsDirectory + workflow + "-dag";
+		String taskGraphFilename = taskGraphFilenamePrefix + Constants.FILE_EXTENSION_TXT;
+		TaskSubgraphGenerator.generateTaskSubgraphs(TaskSubgraphGeneratorType.TASK_LEVEL_GENERATOR, taskGraph, taskGraphFilename,
+				taskSubgraphCount, taskGraphFilenamePrefix + "-taskgen");
+		TaskSubgraphGenerator.generateTaskSubgraphs(TaskSubgraphGeneratorType.TASK_SUBGRAPH_LEVEL_GENERATOR, taskGraph, taskGraphFilename,
+				taskSubgraphCount, taskGraphFilenamePrefix + "-tasksubgraphgen");
+	}
+
+}